@@ -0,0 +1,226 @@
+package com.senzing.sdk.grpc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Provides lock-free accounting of in-flight operations that can be
+ * {@linkplain #close() closed} to reject new operations and then
+ * {@linkplain #awaitQuiescence() awaited} until all operations that were
+ * admitted before closing have {@linkplain #exit(int) exited}.
+ *
+ * <p>
+ * The count is striped across several padded slots (selected by thread) to
+ * avoid contending on a single memory location when many threads enter and
+ * exit concurrently.  Each slot holds its count in the low-order bits and a
+ * "closed" flag in a high-order bit so that admission is decided by a single
+ * compare-and-set on the slot: either the increment is applied before the
+ * slot is closed (and is therefore observed by {@link #awaitQuiescence()}) or
+ * the slot is observed as closed and the operation is rejected.
+ * </p>
+ *
+ * <p>
+ * No monitors are used so that virtual threads entering, exiting or awaiting
+ * are never pinned to their carrier thread.
+ * </p>
+ */
+final class InFlightCounter
+{
+    /**
+     * The bit in each slot that indicates the counter has been closed.
+     */
+    private static final long CLOSED_BIT = 1L << 62;
+
+    /**
+     * The mask for obtaining the count from a slot value.
+     */
+    private static final long COUNT_MASK = CLOSED_BIT - 1L;
+
+    /**
+     * The number of <code>long</code> elements each slot is padded to so that
+     * slots do not share a cache line.
+     */
+    private static final int SLOT_PADDING = 8;
+
+    /**
+     * The maximum number of slots.
+     */
+    private static final int MAX_SLOTS = 64;
+
+    /**
+     * The maximum number of nanoseconds to park while awaiting quiescence
+     * before re-checking the count.  This guards against a missed wake-up.
+     */
+    private static final long AWAIT_PARK_NANOS = 10_000_000L;
+
+    /**
+     * The padded slots.
+     */
+    private final AtomicLongArray slots;
+
+    /**
+     * The mask for selecting a slot from a hash.
+     */
+    private final int slotMask;
+
+    /**
+     * Flag indicating if this instance has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * The {@link Thread} awaiting quiescence, if any.
+     */
+    private volatile Thread waiter = null;
+
+    /**
+     * Constructs with a number of slots based on the number of available
+     * processors.
+     */
+    InFlightCounter()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs with a number of slots sufficient for the specified
+     * expected concurrency.
+     *
+     * @param concurrency The expected number of concurrently entering
+     *                    threads.
+     */
+    InFlightCounter(int concurrency)
+    {
+        int slotCount = 1;
+        while (slotCount < (concurrency * 2) && slotCount < MAX_SLOTS) {
+            slotCount <<= 1;
+        }
+        this.slots      = new AtomicLongArray(slotCount * SLOT_PADDING);
+        this.slotMask   = slotCount - 1;
+    }
+
+    /**
+     * Gets the index into {@link #slots} for the calling thread.
+     *
+     * @return The index into {@link #slots} for the calling thread.
+     */
+    private int slotIndex()
+    {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & this.slotMask) * SLOT_PADDING;
+    }
+
+    /**
+     * Attempts to admit a new in-flight operation.  If admitted, the returned
+     * token <b>must</b> be passed to {@link #exit(int)} when the operation
+     * completes.
+     *
+     * @return A non-negative token if admitted, or a negative number if this
+     *         instance has been {@linkplain #close() closed}.
+     */
+    int enter()
+    {
+        int index = this.slotIndex();
+        for (;;) {
+            long value = this.slots.get(index);
+            if ((value & CLOSED_BIT) != 0L) {
+                return -1;
+            }
+            if (this.slots.compareAndSet(index, value, value + 1L)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Records the completion of an in-flight operation that was admitted via
+     * {@link #enter()}.
+     *
+     * @param token The token that was returned from {@link #enter()}.
+     */
+    void exit(int token)
+    {
+        long value = this.slots.decrementAndGet(token);
+        if (value == CLOSED_BIT) {
+            Thread thread = this.waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Closes this instance so that all subsequent calls to {@link #enter()}
+     * are rejected.  Operations already admitted are unaffected.
+     *
+     * @return <code>true</code> if this call closed this instance, or
+     *         <code>false</code> if it was already closed.
+     */
+    boolean close()
+    {
+        if (this.closed) {
+            return false;
+        }
+        this.closed = true;
+        for (int index = 0; index < this.slots.length();
+             index += SLOT_PADDING)
+        {
+            this.slots.getAndUpdate(index, value -> value | CLOSED_BIT);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if this instance has been {@linkplain #close() closed}.
+     *
+     * @return <code>true</code> if closed, otherwise <code>false</code>.
+     */
+    boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Gets the number of operations currently in-flight.  This is an
+     * estimate if operations are concurrently entering or exiting.
+     *
+     * @return The number of operations currently in-flight.
+     */
+    long getCount()
+    {
+        long count = 0L;
+        for (int index = 0; index < this.slots.length();
+             index += SLOT_PADDING)
+        {
+            count += (this.slots.get(index) & COUNT_MASK);
+        }
+        return count;
+    }
+
+    /**
+     * Blocks until all in-flight operations have exited.  This should only be
+     * called after {@link #close()} since otherwise new operations may
+     * continue to be admitted.  If the calling thread is interrupted while
+     * waiting then it will continue waiting and its interrupted status will be
+     * restored before returning.
+     */
+    void awaitQuiescence()
+    {
+        boolean interrupted = false;
+        this.waiter = Thread.currentThread();
+        try {
+            while (this.getCount() > 0L) {
+                LockSupport.parkNanos(this, AWAIT_PARK_NANOS);
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            this.waiter = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,1387 @@
+package com.senzing.sdk.grpc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEntityIds;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.SzRecordKeys;
+
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+
+import static com.senzing.sdk.grpc.proto.SzEngineGrpc.*;
+import static com.senzing.sdk.grpc.proto.SzEngineProto.*;
+import static com.senzing.sdk.grpc.SzGrpcEngine.*;
+
+/**
+ * Provides an asynchronous facade for the operations of {@link SzEngine}
+ * using the gRPC asynchronous stub so that a single client thread can keep
+ * many requests in flight against the gRPC server.  Obtain an instance via
+ * {@link SzGrpcEngine#async()} or {@link SzGrpcEngine#async(Executor)}.
+ *
+ * <p>
+ * Each method mirrors the like-named method of {@link SzEngine} but returns
+ * a {@link CompletableFuture} instead of blocking.  If the operation fails
+ * then the returned {@link CompletableFuture} is completed exceptionally
+ * with the same {@link SzException} (or {@link RuntimeException}) that the
+ * synchronous method would have thrown.  If the associated {@link
+ * SzGrpcEnvironment} has been destroyed then each method throws an {@link
+ * IllegalStateException} immediately.  Operations that are in flight when
+ * {@link SzGrpcEnvironment#destroy()} is called are completed before it
+ * returns.
+ * </p>
+ *
+ * <p>
+ * <b>NOTE:</b> The returned {@link CompletableFuture} instances are completed
+ * on a gRPC transport thread.  Dependent stages registered without an
+ * explicit {@link Executor} will run on that thread and therefore should not
+ * block.
+ * </p>
+ *
+ * <p>
+ * <b>NOTE:</b> The export operations ({@link #exportJsonEntityReport(Set)},
+ * {@link #exportCsvEntityReport(String, Set)}, {@link #fetchNext(long)} and
+ * {@link #closeExportReport(long)}) share export handles with the associated
+ * {@link SzGrpcEngine} and are executed against it using the {@link Executor}
+ * provided at construction since they operate on a client-side stream.
+ * </p>
+ */
+public class SzGrpcAsyncEngine
+{
+    /**
+     * The {@link SzGrpcEnvironment} for this instance.
+     */
+    private SzGrpcEnvironment env = null;
+
+    /**
+     * The {@link SzGrpcEngine} for this instance.
+     */
+    private SzGrpcEngine engine = null;
+
+    /**
+     * The {@link Executor} for the export operations.
+     */
+    private Executor executor = null;
+
+    /**
+     * The underlying asynchronous stub.
+     */
+    private SzEngineStub asyncStub = null;
+
+    /**
+     * Constructs with the specified {@link SzGrpcEngine} and the
+     * {@link Executor} to use for the export operations.
+     *
+     * @param engine The {@link SzGrpcEngine} with which to construct.
+     * @param executor The {@link Executor} to use for the export operations.
+     */
+    protected SzGrpcAsyncEngine(SzGrpcEngine engine, Executor executor)
+    {
+        Objects.requireNonNull(engine, "The engine cannot be null");
+        Objects.requireNonNull(executor, "The executor cannot be null");
+        this.engine     = engine;
+        this.env        = engine.getEnvironment();
+        this.executor   = executor;
+
+        Channel channel = this.env.getChannel();
+
+        this.asyncStub = SzEngineGrpc.newStub(channel);
+    }
+
+    /**
+     * Gets the underlying asynchronous stub.
+     *
+     * @return The underlying asynchronous stub.
+     */
+    protected SzEngineStub getAsyncStub()
+    {
+        return this.asyncStub;
+    }
+
+    /**
+     * Gets the {@link SzGrpcEngine} associated with this instance.
+     *
+     * @return The {@link SzGrpcEngine} associated with this instance.
+     */
+    public SzGrpcEngine getEngine()
+    {
+        return this.engine;
+    }
+
+    /**
+     * Returns <code>null</code> if the specified result is empty, otherwise
+     * returns the specified result.
+     *
+     * @param result The result to check.
+     *
+     * @return The specified result, or <code>null</code> if empty.
+     */
+    private static String emptyToNull(String result)
+    {
+        return (result.length() == 0) ? null : result;
+    }
+
+    /**
+     * Invokes the specified method of the {@link SzGrpcIdLists#SERVICE_NAME}
+     * service with a request whose lists are in the typed encoding and maps
+     * the response to the result via the specified {@link Function}.  If
+     * the server does not provide the {@link SzGrpcIdLists#SERVICE_NAME}
+     * service (or is already known not to) then the specified unary method
+     * of the asynchronous stub is instead invoked with a request whose lists
+     * are in the JSON encoding.
+     *
+     * @param <Q> The request type.
+     * @param <R> The response type.
+     * @param <T> The result type.
+     * @param typedMethod The {@link MethodDescriptor} of the method of the
+     *                    {@link SzGrpcIdLists#SERVICE_NAME} service.
+     * @param requestFactory The {@link IdListsRequestFactory} to produce the
+     *                       request.
+     * @param method The unary method of the asynchronous stub to invoke.
+     * @param resultMapper The {@link Function} to map the response to the
+     *                     result.
+     *
+     * @return The {@link CompletableFuture} for the result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    private <Q, R, T> CompletableFuture<T> invokeTyped(
+        MethodDescriptor<Q, R>              typedMethod,
+        IdListsRequestFactory<Q>            requestFactory,
+        BiConsumer<Q, StreamObserver<R>>    method,
+        Function<R, T>                      resultMapper)
+        throws IllegalStateException
+    {
+        Callable<Q> jsonFactory = () -> requestFactory.create(false);
+        if (!this.engine.isTypedIdLists()) {
+            return this.invoke(jsonFactory, method, resultMapper);
+        }
+
+        CompletableFuture<T> typed = this.invoke(
+            () -> requestFactory.create(true),
+            (request, observer) -> ClientCalls.asyncUnaryCall(
+                this.env.getChannel().newCall(typedMethod,
+                                              CallOptions.DEFAULT),
+                request,
+                observer),
+            resultMapper);
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        typed.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            if (Status.fromThrowable(failure).getCode()
+                != Status.Code.UNIMPLEMENTED)
+            {
+                result.completeExceptionally(failure);
+                return;
+            }
+            // the server does not provide the typed service
+            this.engine.disableTypedIdLists();
+            try {
+                this.invoke(jsonFactory, method, resultMapper)
+                    .whenComplete((json, t) -> {
+                        if (t == null) {
+                            result.complete(json);
+                        } else {
+                            result.completeExceptionally(t);
+                        }
+                    });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Invokes the specified unary method of the asynchronous stub with the
+     * request produced by the specified request factory and maps the response
+     * to the result via the specified {@link Function}.
+     *
+     * @param <Q> The request type.
+     * @param <R> The response type.
+     * @param <T> The result type.
+     * @param requestFactory The {@link Callable} to produce the request.
+     * @param method The unary method of the asynchronous stub to invoke.
+     * @param resultMapper The {@link Function} to map the response to the
+     *                     result.
+     *
+     * @return The {@link CompletableFuture} for the result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    private <Q, R, T> CompletableFuture<T> invoke(
+        Callable<Q>                         requestFactory,
+        BiConsumer<Q, StreamObserver<R>>    method,
+        Function<R, T>                      resultMapper)
+        throws IllegalStateException
+    {
+        return this.env.executeAsync(() -> {
+            Q request = requestFactory.call();
+
+            CompletableFuture<T> future = new CompletableFuture<>();
+            method.accept(request, new StreamObserver<R>() {
+                @Override
+                public void onNext(R response)
+                {
+                    try {
+                        future.complete(resultMapper.apply(response));
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t)
+                {
+                    future.completeExceptionally(t);
+                }
+
+                @Override
+                public void onCompleted()
+                {
+                    if (!future.isDone()) {
+                        future.completeExceptionally(new SzException(
+                            "The gRPC call completed without a response"));
+                    }
+                }
+            });
+            return future;
+        });
+    }
+
+    /**
+     * Executes the specified blocking {@link Callable} task using the
+     * {@link Executor} for this instance.
+     *
+     * @param <T> The result type.
+     * @param task The {@link Callable} task to execute.
+     *
+     * @return The {@link CompletableFuture} for the result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    private <T> CompletableFuture<T> invokeBlocking(Callable<T> task)
+        throws IllegalStateException
+    {
+        this.env.ensureActive();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#primeEngine()}.
+     *
+     * @return The {@link CompletableFuture} that completes when the operation
+     *         completes.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<Void> primeEngine()
+    {
+        return this.invoke(
+            () -> PrimeEngineRequest.newBuilder().build(),
+            this.asyncStub::primeEngine,
+            response -> null);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#getStats()}.
+     *
+     * @return The {@link CompletableFuture} for the JSON stats.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getStats()
+    {
+        return this.invoke(
+            () -> GetStatsRequest.newBuilder().build(),
+            this.asyncStub::getStats,
+            GetStatsResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#addRecord(SzRecordKey, String, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for the record.
+     * @param recordDefinition The JSON record definition.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the optional INFO message,
+     *         which completes with <code>null</code> if no INFO was
+     *         requested.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> addRecord(SzRecordKey recordKey,
+                                               String      recordDefinition,
+                                               Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> AddRecordRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setRecordDefinition(recordDefinition)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::addRecord,
+            response -> this.engine.toWriteResult(
+                emptyToNull(response.getResult())));
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#getRecordPreview(String, Set)}.
+     *
+     * @param recordDefinition The JSON record definition.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getRecordPreview(
+        String recordDefinition, Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> GetRecordPreviewRequest.newBuilder()
+                    .setRecordDefinition(recordDefinition)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::getRecordPreview,
+            GetRecordPreviewResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#deleteRecord(SzRecordKey, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for the record.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the optional INFO message,
+     *         which completes with <code>null</code> if no INFO was
+     *         requested.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> deleteRecord(SzRecordKey recordKey,
+                                                  Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> DeleteRecordRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::deleteRecord,
+            response -> this.engine.toWriteResult(
+                emptyToNull(response.getResult())));
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#reevaluateRecord(SzRecordKey, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for the record.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the optional INFO message,
+     *         which completes with <code>null</code> if no INFO was
+     *         requested.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> reevaluateRecord(SzRecordKey recordKey,
+                                                      Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> ReevaluateRecordRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::reevaluateRecord,
+            response -> this.engine.toWriteResult(
+                emptyToNull(response.getResult())));
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#reevaluateEntity(long, Set)}.
+     *
+     * @param entityId The entity ID of the entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the optional INFO message,
+     *         which completes with <code>null</code> if no INFO was
+     *         requested.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> reevaluateEntity(long        entityId,
+                                                      Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> ReevaluateEntityRequest.newBuilder()
+                    .setEntityId(entityId)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::reevaluateEntity,
+            response -> this.engine.toWriteResult(
+                emptyToNull(response.getResult())));
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#searchByAttributes(String, String, Set)}.
+     *
+     * @param attributes The JSON search attributes.
+     * @param searchProfile The optional search profile, or <code>null</code>
+     *                      for the default search profile.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> searchByAttributes(
+        String      attributes,
+        String      searchProfile,
+        Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> {
+                SearchByAttributesRequest.Builder builder
+                    = SearchByAttributesRequest.newBuilder()
+                        .setAttributes(attributes)
+                        .setFlags(SzFlag.toLong(flags));
+                if (searchProfile != null) {
+                    builder.setSearchProfile(searchProfile);
+                }
+                return builder.build();
+            },
+            this.asyncStub::searchByAttributes,
+            SearchByAttributesResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#whySearch(String, long, String, Set)}.
+     *
+     * @param attributes The JSON search attributes.
+     * @param entityId The entity ID of the entity.
+     * @param searchProfile The optional search profile, or <code>null</code>
+     *                      for the default search profile.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> whySearch(String      attributes,
+                                               long        entityId,
+                                               String      searchProfile,
+                                               Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> {
+                WhySearchRequest.Builder builder
+                    = WhySearchRequest.newBuilder()
+                        .setAttributes(attributes)
+                        .setEntityId(entityId)
+                        .setFlags(SzFlag.toLong(flags));
+                if (searchProfile != null) {
+                    builder.setSearchProfile(searchProfile);
+                }
+                return builder.build();
+            },
+            this.asyncStub::whySearch,
+            WhySearchResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#getEntity(long, Set)}.
+     *
+     * @param entityId The entity ID of the entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getEntity(long        entityId,
+                                               Set<SzFlag> flags)
+    {
+        SzGrpcEntityCache cache = this.engine.getEntityCache();
+        if (cache == null) {
+            return this.invoke(
+                () -> GetEntityByEntityIdRequest.newBuilder()
+                        .setEntityId(entityId)
+                        .setFlags(SzFlag.toLong(flags)).build(),
+                this.asyncStub::getEntityByEntityId,
+                GetEntityByEntityIdResponse::getResult);
+        }
+
+        // check the entity cache
+        this.env.ensureActive();
+        long flagBits = SzFlag.toLong(flags);
+        String cached = cache.get(entityId, flagBits);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long stamp = cache.getStamp();
+        return this.invoke(
+            () -> GetEntityByEntityIdRequest.newBuilder()
+                    .setEntityId(entityId)
+                    .setFlags(flagBits).build(),
+            this.asyncStub::getEntityByEntityId,
+            response -> {
+                String result = response.getResult();
+                cache.put(stamp, entityId, flagBits, result);
+                return result;
+            });
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#getEntity(SzRecordKey, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for a record in the entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getEntity(SzRecordKey recordKey,
+                                               Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> GetEntityByRecordIdRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::getEntityByRecordId,
+            GetEntityByRecordIdResponse::getResult);
+    }
+
+    /**
+     * Retrieves the entities identified by the specified {@link SzEntityIds}
+     * via a single {@link SzGrpcEntityBatch#BY_ENTITY_ID_METHOD} call so that
+     * the server performs the lookups in parallel and streams back each
+     * result as its lookup completes.  Entities found in the entity cache (if
+     * enabled) are not requested.  The returned {@link Map} is populated
+     * immediately, in iteration order of the specified entity IDs, and each
+     * value completes independently with the result or failure of its
+     * lookup.  If the server does not provide the batch service then the
+     * {@link #getEntity(long, Set)} requests are issued concurrently instead.
+     *
+     * @param entityIds The {@link SzEntityIds} of the entities.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link Map} of {@link Long} entity ID keys to {@link
+     *         CompletableFuture} values for the JSON results.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public Map<Long, CompletableFuture<String>> getEntities(
+        SzEntityIds entityIds, Set<SzFlag> flags)
+    {
+        this.env.ensureActive();
+        SzGrpcEntityCache cache     = this.engine.getEntityCache();
+        long              flagBits  = SzFlag.toLong(flags);
+        long              stamp     = (cache == null) ? 0L : cache.getStamp();
+
+        Map<Long, CompletableFuture<String>> result
+            = new LinkedHashMap<>(entityIds.size() * 2);
+        List<Long>                          lookupIds = new ArrayList<>();
+        List<GetEntityByEntityIdRequest>    requests  = new ArrayList<>();
+        List<CompletableFuture<String>>     futures   = new ArrayList<>();
+
+        for (Long entityId : entityIds) {
+            String cached = (cache == null)
+                ? null : cache.get(entityId, flagBits);
+            if (cached != null) {
+                result.put(entityId, CompletableFuture.completedFuture(cached));
+                continue;
+            }
+            CompletableFuture<String> future = new CompletableFuture<>();
+            result.put(entityId, future);
+            lookupIds.add(entityId);
+            futures.add(future);
+            requests.add(GetEntityByEntityIdRequest.newBuilder()
+                .setEntityId(entityId).setFlags(flagBits).build());
+        }
+
+        this.invokeBatch(
+            SzGrpcEntityBatch.BY_ENTITY_ID_METHOD,
+            requests,
+            futures,
+            (cache == null) ? null : (index, json) -> cache.put(
+                stamp, lookupIds.get(index), flagBits, json),
+            index -> this.getEntity(lookupIds.get(index), flags));
+
+        return result;
+    }
+
+    /**
+     * Retrieves the entities containing the records identified by the
+     * specified {@link SzRecordKeys} via a single {@link
+     * SzGrpcEntityBatch#BY_RECORD_ID_METHOD} call so that the server
+     * performs the lookups in parallel and streams back each result as its
+     * lookup completes.  The returned {@link Map} is populated immediately, in
+     * iteration order of the specified record keys, and each value completes
+     * independently with the result or failure of its lookup.  If the server
+     * does not provide the batch service then the {@link
+     * #getEntity(SzRecordKey, Set)} requests are issued concurrently instead.
+     *
+     * @param recordKeys The {@link SzRecordKeys} of records in the entities.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link Map} of {@link SzRecordKey} keys to {@link
+     *         CompletableFuture} values for the JSON results.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public Map<SzRecordKey, CompletableFuture<String>> getEntities(
+        SzRecordKeys recordKeys, Set<SzFlag> flags)
+    {
+        this.env.ensureActive();
+        long flagBits = SzFlag.toLong(flags);
+
+        Map<SzRecordKey, CompletableFuture<String>> result
+            = new LinkedHashMap<>(recordKeys.size() * 2);
+        List<SzRecordKey>                   lookupKeys  = new ArrayList<>();
+        List<GetEntityByRecordIdRequest>    requests    = new ArrayList<>();
+        List<CompletableFuture<String>>     futures     = new ArrayList<>();
+
+        for (SzRecordKey recordKey : recordKeys) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            result.put(recordKey, future);
+            lookupKeys.add(recordKey);
+            futures.add(future);
+            requests.add(GetEntityByRecordIdRequest.newBuilder()
+                .setDataSourceCode(recordKey.dataSourceCode())
+                .setRecordId(recordKey.recordId())
+                .setFlags(flagBits).build());
+        }
+
+        this.invokeBatch(
+            SzGrpcEntityBatch.BY_RECORD_ID_METHOD,
+            requests,
+            futures,
+            null,
+            index -> this.getEntity(lookupKeys.get(index), flags));
+
+        return result;
+    }
+
+    /**
+     * Invokes the specified batch lookup method with the specified requests
+     * and completes each of the specified {@link CompletableFuture} instances
+     * with the result or failure of the lookup at the same index as soon as
+     * its {@link SzGrpcEntityBatch.Item} is streamed back.  If the server
+     * does not provide the batch service then each {@link CompletableFuture}
+     * is instead completed from the single-entity lookup produced by the
+     * specified fallback.  If the batch call otherwise fails then every
+     * {@link CompletableFuture} not yet completed is completed with that
+     * failure.
+     *
+     * @param <Q> The request type.
+     * @param method The {@link MethodDescriptor} of the batch lookup.
+     * @param requests The {@link List} of requests.
+     * @param futures The {@link List} of {@link CompletableFuture} instances
+     *                to complete, in the same order as the requests.
+     * @param resultListener The {@link ObjIntConsumer} to notify of each
+     *                       successful JSON result and its index before the
+     *                       associated {@link CompletableFuture} is
+     *                       completed, or <code>null</code> if none.
+     * @param fallback The {@link IntFunction} to perform the single-entity
+     *                 lookup for an index if the batch service is not
+     *                 provided.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    private <Q> void invokeBatch(
+        MethodDescriptor<List<Q>, SzGrpcEntityBatch.Item>   method,
+        List<Q>                                             requests,
+        List<CompletableFuture<String>>                     futures,
+        ObjIntConsumer<String>                              resultListener,
+        IntFunction<CompletableFuture<String>>              fallback)
+        throws IllegalStateException
+    {
+        if (requests.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> batch = this.env.executeAsync(() -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            ClientCalls.asyncServerStreamingCall(
+                this.env.getChannel().newCall(method, CallOptions.DEFAULT),
+                requests,
+                new StreamObserver<SzGrpcEntityBatch.Item>() {
+                    @Override
+                    public void onNext(SzGrpcEntityBatch.Item item)
+                    {
+                        int index = item.getIndex();
+                        if (index >= 0 && index < futures.size()) {
+                            completeItem(index, item.getResult(),
+                                         futures.get(index), resultListener);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t)
+                    {
+                        future.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted()
+                    {
+                        future.complete(null);
+                    }
+                });
+            return future;
+        });
+
+        batch.whenComplete((none, failure) -> {
+            if (failure != null && Status.fromThrowable(failure).getCode()
+                                    == Status.Code.UNIMPLEMENTED)
+            {
+                // the server does not provide the batch service
+                for (int index = 0; index < futures.size(); index++) {
+                    CompletableFuture<String> future = futures.get(index);
+                    try {
+                        fallback.apply(index).whenComplete((json, t) -> {
+                            if (t == null) {
+                                future.complete(json);
+                            } else {
+                                future.completeExceptionally(t);
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+                return;
+            }
+            for (int index = 0; index < futures.size(); index++) {
+                CompletableFuture<String> future = futures.get(index);
+                if (future.isDone()) {
+                    continue;
+                }
+                future.completeExceptionally((failure != null)
+                    ? failure
+                    : new SzException(
+                        "The batch lookup returned no result for the "
+                        + "request at index " + index));
+            }
+        });
+    }
+
+    /**
+     * Completes the specified {@link CompletableFuture} with the specified
+     * {@link SzGrpcResult} of a batch lookup, notifying the specified
+     * {@link ObjIntConsumer} (if any) of a successful result first.
+     *
+     * @param index The index of the lookup within the batch.
+     * @param item The {@link SzGrpcResult} for the lookup.
+     * @param future The {@link CompletableFuture} to complete.
+     * @param resultListener The {@link ObjIntConsumer} to notify of a
+     *                       successful JSON result and its index, or
+     *                       <code>null</code> if none.
+     */
+    private static void completeItem(
+        int                         index,
+        SzGrpcResult                item,
+        CompletableFuture<String>   future,
+        ObjIntConsumer<String>      resultListener)
+    {
+        if (!item.isSuccess()) {
+            StatusRuntimeException e = item.toException();
+            future.completeExceptionally(
+                SzGrpcEnvironment.createSzException(e.getStatus(), e));
+            return;
+        }
+        try {
+            if (resultListener != null) {
+                resultListener.accept(item.getText(), index);
+            }
+            future.complete(item.getText());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#findInterestingEntities(long, Set)}.
+     *
+     * @param entityId The entity ID of the entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> findInterestingEntities(
+        long entityId, Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> FindInterestingEntitiesByEntityIdRequest.newBuilder()
+                    .setEntityId(entityId)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::findInterestingEntitiesByEntityId,
+            FindInterestingEntitiesByEntityIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#findInterestingEntities(SzRecordKey, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for a record in the entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> findInterestingEntities(
+        SzRecordKey recordKey, Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> FindInterestingEntitiesByRecordIdRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::findInterestingEntitiesByRecordId,
+            FindInterestingEntitiesByRecordIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#findPath(long, long, int, SzEntityIds, Set, Set)}.
+     *
+     * @param startEntityId The entity ID of the starting entity.
+     * @param endEntityId The entity ID of the ending entity.
+     * @param maxDegrees The maximum number of degrees for the path.
+     * @param avoidEntityIds The optional {@link SzEntityIds} to avoid, or
+     *                       <code>null</code> if none.
+     * @param requiredDataSources The optional {@link Set} of required data
+     *                            sources, or <code>null</code> if none.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> findPath(
+        long            startEntityId,
+        long            endEntityId,
+        int             maxDegrees,
+        SzEntityIds     avoidEntityIds,
+        Set<String>     requiredDataSources,
+        Set<SzFlag>     flags)
+    {
+        return this.invokeTyped(
+            SzGrpcIdLists.FIND_PATH_BY_ENTITY_ID_METHOD,
+            typed -> {
+                FindPathByEntityIdRequest.Builder builder
+                    = FindPathByEntityIdRequest.newBuilder()
+                        .setStartEntityId(startEntityId)
+                        .setEndEntityId(endEntityId)
+                        .setMaxDegrees(maxDegrees)
+                        .setFlags(SzFlag.toLong(flags));
+                if (typed) {
+                    builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                        avoidEntityIds, null, requiredDataSources));
+                    return builder.build();
+                }
+                if (avoidEntityIds != null) {
+                    builder.setAvoidEntityIds(
+                        encodeEntityIds(avoidEntityIds));
+                }
+                if (requiredDataSources != null) {
+                    builder.setRequiredDataSources(
+                        encodeDataSources(requiredDataSources));
+                }
+                return builder.build();
+            },
+            this.asyncStub::findPathByEntityId,
+            FindPathByEntityIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#findPath(SzRecordKey, SzRecordKey, int, SzRecordKeys, Set,
+     * Set)}.
+     *
+     * @param startRecordKey The {@link SzRecordKey} for the starting record.
+     * @param endRecordKey The {@link SzRecordKey} for the ending record.
+     * @param maxDegrees The maximum number of degrees for the path.
+     * @param avoidRecordKeys The optional {@link SzRecordKeys} to avoid, or
+     *                        <code>null</code> if none.
+     * @param requiredDataSources The optional {@link Set} of required data
+     *                            sources, or <code>null</code> if none.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> findPath(
+        SzRecordKey     startRecordKey,
+        SzRecordKey     endRecordKey,
+        int             maxDegrees,
+        SzRecordKeys    avoidRecordKeys,
+        Set<String>     requiredDataSources,
+        Set<SzFlag>     flags)
+    {
+        return this.invokeTyped(
+            SzGrpcIdLists.FIND_PATH_BY_RECORD_ID_METHOD,
+            typed -> {
+                FindPathByRecordIdRequest.Builder builder
+                    = FindPathByRecordIdRequest.newBuilder()
+                        .setStartDataSourceCode(
+                            startRecordKey.dataSourceCode())
+                        .setStartRecordId(startRecordKey.recordId())
+                        .setEndDataSourceCode(endRecordKey.dataSourceCode())
+                        .setEndRecordId(endRecordKey.recordId())
+                        .setMaxDegrees(maxDegrees)
+                        .setFlags(SzFlag.toLong(flags));
+                if (typed) {
+                    builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                        null, avoidRecordKeys, requiredDataSources));
+                    return builder.build();
+                }
+                if (avoidRecordKeys != null) {
+                    builder.setAvoidRecordKeys(
+                        encodeRecordKeys(avoidRecordKeys));
+                }
+                if (requiredDataSources != null) {
+                    builder.setRequiredDataSources(
+                        encodeDataSources(requiredDataSources));
+                }
+                return builder.build();
+            },
+            this.asyncStub::findPathByRecordId,
+            FindPathByRecordIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#findNetwork(SzEntityIds, int, int, int, Set)}.
+     *
+     * @param entityIds The {@link SzEntityIds} of the entities.
+     * @param maxDegrees The maximum number of degrees between the entities.
+     * @param buildOutDegrees The number of degrees to build out.
+     * @param buildOutMaxEntities The maximum number of entities to build out.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> findNetwork(
+        SzEntityIds entityIds,
+        int         maxDegrees,
+        int         buildOutDegrees,
+        int         buildOutMaxEntities,
+        Set<SzFlag> flags)
+    {
+        return this.invokeTyped(
+            SzGrpcIdLists.FIND_NETWORK_BY_ENTITY_ID_METHOD,
+            typed -> {
+                FindNetworkByEntityIdRequest.Builder builder
+                    = FindNetworkByEntityIdRequest.newBuilder()
+                        .setMaxDegrees(maxDegrees)
+                        .setBuildOutDegrees(buildOutDegrees)
+                        .setBuildOutMaxEntities(buildOutMaxEntities)
+                        .setFlags(SzFlag.toLong(flags));
+                if (typed) {
+                    builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                        entityIds, null, null));
+                } else {
+                    builder.setEntityIds(encodeEntityIds(entityIds));
+                }
+                return builder.build();
+            },
+            this.asyncStub::findNetworkByEntityId,
+            FindNetworkByEntityIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#findNetwork(SzRecordKeys, int, int, int, Set)}.
+     *
+     * @param recordKeys The {@link SzRecordKeys} of records in the entities.
+     * @param maxDegrees The maximum number of degrees between the entities.
+     * @param buildOutDegrees The number of degrees to build out.
+     * @param buildOutMaxEntities The maximum number of entities to build out.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> findNetwork(
+        SzRecordKeys    recordKeys,
+        int             maxDegrees,
+        int             buildOutDegrees,
+        int             buildOutMaxEntities,
+        Set<SzFlag>     flags)
+    {
+        return this.invokeTyped(
+            SzGrpcIdLists.FIND_NETWORK_BY_RECORD_ID_METHOD,
+            typed -> {
+                FindNetworkByRecordIdRequest.Builder builder
+                    = FindNetworkByRecordIdRequest.newBuilder()
+                        .setMaxDegrees(maxDegrees)
+                        .setBuildOutDegrees(buildOutDegrees)
+                        .setBuildOutMaxEntities(buildOutMaxEntities)
+                        .setFlags(SzFlag.toLong(flags));
+                if (typed) {
+                    builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                        null, recordKeys, null));
+                } else {
+                    builder.setRecordKeys(encodeRecordKeys(recordKeys));
+                }
+                return builder.build();
+            },
+            this.asyncStub::findNetworkByRecordId,
+            FindNetworkByRecordIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#whyRecordInEntity(SzRecordKey, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for the record.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> whyRecordInEntity(
+        SzRecordKey recordKey, Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> WhyRecordInEntityRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::whyRecordInEntity,
+            WhyRecordInEntityResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#whyRecords(SzRecordKey, SzRecordKey, Set)}.
+     *
+     * @param recordKey1 The {@link SzRecordKey} for the first record.
+     * @param recordKey2 The {@link SzRecordKey} for the second record.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> whyRecords(SzRecordKey recordKey1,
+                                                SzRecordKey recordKey2,
+                                                Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> WhyRecordsRequest.newBuilder()
+                    .setDataSourceCode1(recordKey1.dataSourceCode())
+                    .setRecordId1(recordKey1.recordId())
+                    .setDataSourceCode2(recordKey2.dataSourceCode())
+                    .setRecordId2(recordKey2.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::whyRecords,
+            WhyRecordsResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#whyEntities(long, long, Set)}.
+     *
+     * @param entityId1 The entity ID of the first entity.
+     * @param entityId2 The entity ID of the second entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> whyEntities(long        entityId1,
+                                                 long        entityId2,
+                                                 Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> WhyEntitiesRequest.newBuilder()
+                    .setEntityId1(entityId1)
+                    .setEntityId2(entityId2)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::whyEntities,
+            WhyEntitiesResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#howEntity(long, Set)}.
+     *
+     * @param entityId The entity ID of the entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> howEntity(long        entityId,
+                                               Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> HowEntityByEntityIdRequest.newBuilder()
+                    .setEntityId(entityId)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::howEntityByEntityId,
+            HowEntityByEntityIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#getVirtualEntity(Set, Set)}.
+     *
+     * @param recordKeys The {@link Set} of {@link SzRecordKey} instances for
+     *                   the records in the virtual entity.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getVirtualEntity(
+        Set<SzRecordKey> recordKeys, Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> GetVirtualEntityByRecordIdRequest.newBuilder()
+                    .setRecordKeys(encodeRecordKeys(recordKeys))
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::getVirtualEntityByRecordId,
+            GetVirtualEntityByRecordIdResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#getRecord(SzRecordKey, Set)}.
+     *
+     * @param recordKey The {@link SzRecordKey} for the record.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the JSON result.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getRecord(SzRecordKey recordKey,
+                                               Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> GetRecordRequest.newBuilder()
+                    .setDataSourceCode(recordKey.dataSourceCode())
+                    .setRecordId(recordKey.recordId())
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::getRecord,
+            GetRecordResponse::getResult);
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#exportJsonEntityReport(Set)}.
+     * The returned export handle may be used with either this instance or the
+     * associated {@link SzGrpcEngine}.
+     *
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the export handle.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<Long> exportJsonEntityReport(Set<SzFlag> flags)
+    {
+        return this.invokeBlocking(
+            () -> this.engine.exportJsonEntityReport(flags));
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#exportCsvEntityReport(String, Set)}.  The returned export
+     * handle may be used with either this instance or the associated {@link
+     * SzGrpcEngine}.
+     *
+     * @param csvColumnList The comma-separated list of CSV columns.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the export handle.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<Long> exportCsvEntityReport(
+        String csvColumnList, Set<SzFlag> flags)
+    {
+        return this.invokeBlocking(
+            () -> this.engine.exportCsvEntityReport(csvColumnList, flags));
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#fetchNext(long)}.
+     *
+     * @param exportHandle The export handle for the export.
+     *
+     * @return The {@link CompletableFuture} for the next line of export
+     *         content, which completes with <code>null</code> if there is no
+     *         more export content.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> fetchNext(long exportHandle)
+    {
+        return this.invokeBlocking(() -> this.engine.fetchNext(exportHandle));
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#closeExportReport(long)}.
+     *
+     * @param exportHandle The export handle for the export.
+     *
+     * @return The {@link CompletableFuture} that completes when the operation
+     *         completes.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<Void> closeExportReport(long exportHandle)
+    {
+        return this.invokeBlocking(() -> {
+            this.engine.closeExportReport(exportHandle);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link
+     * SzEngine#processRedoRecord(String, Set)}.
+     *
+     * @param redoRecord The redo record to process.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} for the optional INFO message,
+     *         which completes with <code>null</code> if no INFO was
+     *         requested.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> processRedoRecord(String      redoRecord,
+                                                       Set<SzFlag> flags)
+    {
+        return this.invoke(
+            () -> ProcessRedoRecordRequest.newBuilder()
+                    .setRedoRecord(redoRecord)
+                    .setFlags(SzFlag.toLong(flags)).build(),
+            this.asyncStub::processRedoRecord,
+            response -> this.engine.toWriteResult(
+                emptyToNull(response.getResult())));
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#getRedoRecord()}.
+     *
+     * @return The {@link CompletableFuture} for the redo record, which
+     *         completes with <code>null</code> if there are no redo records.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<String> getRedoRecord()
+    {
+        return this.invoke(
+            () -> GetRedoRecordRequest.newBuilder().build(),
+            this.asyncStub::getRedoRecord,
+            response -> emptyToNull(response.getResult()));
+    }
+
+    /**
+     * Asynchronous variant of {@link SzEngine#countRedoRecords()}.
+     *
+     * @return The {@link CompletableFuture} for the number of redo records.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public CompletableFuture<Long> countRedoRecords()
+    {
+        return this.invoke(
+            () -> CountRedoRecordsRequest.newBuilder().build(),
+            this.asyncStub::countRedoRecords,
+            CountRedoRecordsResponse::getResult);
+    }
+}
@@ -0,0 +1,420 @@
+package com.senzing.sdk.grpc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import com.senzing.sdk.SzException;
+import com.senzing.util.JsonUtilities;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Provides a client for subscribing to the change feed of a gRPC server that
+ * has been configured to record the INFO messages produced by the write
+ * operations (e.g.: {@link com.senzing.sdk.SzEngine#addRecord addRecord},
+ * {@link com.senzing.sdk.SzEngine#deleteRecord deleteRecord} and {@link
+ * com.senzing.sdk.SzEngine#processRedoRecord processRedoRecord}) to a
+ * local log that is flushed to the storage device at a configurable
+ * interval.  Each {@link Entry} carries the offset at which it was
+ * recorded so that a subscriber can resume from the offset following the
+ * last entry it processed.
+ *
+ * <p>
+ * The change feed is not part of the Senzing SDK protocol buffer
+ * definitions, so its service is described by the {@link MethodDescriptor}
+ * found in {@link #SUBSCRIBE_METHOD} which exchanges JSON text.  The request
+ * is a JSON object with an <code>"offset"</code> property and each streamed
+ * response is a JSON object with <code>"offset"</code> and
+ * <code>"message"</code> properties.
+ * </p>
+ */
+public class SzGrpcChangeFeed
+{
+    /**
+     * The fully-qualified name of the change feed gRPC service.
+     */
+    public static final String SERVICE_NAME = "szchangefeed.SzChangeFeed";
+
+    /**
+     * The JSON property for the offset in requests and responses.
+     */
+    public static final String OFFSET_KEY = "offset";
+
+    /**
+     * The JSON property for the INFO message in responses.
+     */
+    public static final String MESSAGE_KEY = "message";
+
+    /**
+     * The offset from which to subscribe in order to receive only the
+     * entries recorded after the subscription is established.
+     */
+    public static final long LATEST_OFFSET = -1L;
+
+    /**
+     * The {@link MethodDescriptor.Marshaller} for UTF-8 JSON text.
+     */
+    private static final MethodDescriptor.Marshaller<String> JSON_MARSHALLER
+        = new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(String value)
+            {
+                return new ByteArrayInputStream(
+                    value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String parse(InputStream stream)
+            {
+                try {
+                    return new String(stream.readAllBytes(),
+                                      StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+    /**
+     * The server-streaming {@link MethodDescriptor} for subscribing to the
+     * change feed from an offset.
+     */
+    public static final MethodDescriptor<String, String> SUBSCRIBE_METHOD
+        = MethodDescriptor.<String, String>newBuilder()
+            .setType(MethodType.SERVER_STREAMING)
+            .setFullMethodName(
+                MethodDescriptor.generateFullMethodName(
+                    SERVICE_NAME, "Subscribe"))
+            .setRequestMarshaller(JSON_MARSHALLER)
+            .setResponseMarshaller(JSON_MARSHALLER)
+            .build();
+
+    /**
+     * Describes an entry received from the change feed.
+     */
+    public static final class Entry
+    {
+        /**
+         * The offset of the entry.
+         */
+        private final long offset;
+
+        /**
+         * The INFO message for the entry.
+         */
+        private final String message;
+
+        /**
+         * Constructs with the offset and INFO message.
+         *
+         * @param offset The offset of the entry.
+         * @param message The INFO message for the entry.
+         */
+        public Entry(long offset, String message)
+        {
+            this.offset  = offset;
+            this.message = message;
+        }
+
+        /**
+         * Gets the offset of the entry.  Subscribers that wish to resume
+         * should subscribe from the offset following this one.
+         *
+         * @return The offset of the entry.
+         */
+        public long getOffset()
+        {
+            return this.offset;
+        }
+
+        /**
+         * Gets the INFO message for the entry.
+         *
+         * @return The INFO message for the entry.
+         */
+        public String getMessage()
+        {
+            return this.message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.offset + ": " + this.message;
+        }
+    }
+
+    /**
+     * Describes an active subscription to the change feed.
+     */
+    public interface Subscription extends AutoCloseable
+    {
+        /**
+         * Gets the offset following the last entry received, which is the
+         * offset from which to resume after this subscription is closed.
+         *
+         * @return The offset following the last entry received.
+         */
+        long getNextOffset();
+
+        /**
+         * Checks if this subscription has been closed or has terminated.
+         *
+         * @return <code>true</code> if this subscription is closed,
+         *         otherwise <code>false</code>.
+         */
+        boolean isClosed();
+
+        /**
+         * Closes this subscription, cancelling the underlying gRPC call.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * The {@link SzGrpcEnvironment} for this instance.
+     */
+    private final SzGrpcEnvironment env;
+
+    /**
+     * Constructs with the {@link SzGrpcEnvironment} whose gRPC channel is
+     * used to subscribe.
+     *
+     * @param env The {@link SzGrpcEnvironment} for this instance.
+     */
+    public SzGrpcChangeFeed(SzGrpcEnvironment env)
+    {
+        Objects.requireNonNull(env, "The environment cannot be null");
+        this.env = env;
+    }
+
+    /**
+     * Encodes the subscribe request for the specified offset.
+     *
+     * @param offset The offset from which to subscribe.
+     *
+     * @return The JSON text for the request.
+     */
+    public static String encodeRequest(long offset)
+    {
+        return Json.createObjectBuilder().add(OFFSET_KEY, offset)
+            .build().toString();
+    }
+
+    /**
+     * Decodes the offset from a subscribe request.  If the request does not
+     * specify an offset then zero (0) is returned.  A negative offset is
+     * returned as {@link #LATEST_OFFSET}.
+     *
+     * @param request The JSON text for the request.
+     *
+     * @return The decoded offset.
+     *
+     * @throws IllegalArgumentException If the request is not a JSON object
+     *                                  or the offset is not an integer.
+     */
+    public static long decodeRequest(String request)
+    {
+        JsonObject jsonObject;
+        try {
+            jsonObject = JsonUtilities.parseJsonObject(request);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                "The subscribe request is not a JSON object: " + request, e);
+        }
+        if (jsonObject == null || !jsonObject.containsKey(OFFSET_KEY)) {
+            return 0L;
+        }
+        try {
+            long offset
+                = jsonObject.getJsonNumber(OFFSET_KEY).longValueExact();
+            return (offset < 0L) ? LATEST_OFFSET : offset;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                "The subscribe offset is not an integer: " + request, e);
+        }
+    }
+
+    /**
+     * Encodes a streamed response for the specified offset and message.
+     *
+     * @param offset The offset of the entry.
+     * @param message The INFO message for the entry.
+     *
+     * @return The JSON text for the response.
+     */
+    public static String encodeResponse(long offset, String message)
+    {
+        return Json.createObjectBuilder().add(OFFSET_KEY, offset)
+            .add(MESSAGE_KEY, message).build().toString();
+    }
+
+    /**
+     * Decodes a streamed response as an {@link Entry}.
+     *
+     * @param response The JSON text for the response.
+     *
+     * @return The decoded {@link Entry}.
+     */
+    public static Entry decodeResponse(String response)
+    {
+        JsonObject jsonObject = JsonUtilities.parseJsonObject(response);
+        return new Entry(jsonObject.getJsonNumber(OFFSET_KEY).longValue(),
+                         jsonObject.getString(MESSAGE_KEY));
+    }
+
+    /**
+     * Subscribes to the change feed from the specified offset.  Each entry
+     * at or after the offset is passed to the specified entry {@link
+     * Consumer} on a gRPC thread as it is recorded, and the subscription
+     * continues until {@linkplain Subscription#close() closed} or the call
+     * fails.  If entries preceding the specified offset have been removed
+     * from the server's log due to retention then the first entry received
+     * will have a greater offset than the one requested.
+     *
+     * @param fromOffset The offset of the first entry to receive, zero (0)
+     *                   to receive from the oldest retained entry, or
+     *                   {@link #LATEST_OFFSET} to receive only the entries
+     *                   recorded after subscribing.
+     * @param onEntry The {@link Consumer} for each received {@link Entry}.
+     * @param onFailure The {@link Consumer} to be notified of an {@link
+     *                  SzException} if the subscription fails for any
+     *                  reason other than being closed, or <code>null</code>
+     *                  if not needed.
+     *
+     * @return The {@link Subscription} for the active subscription.
+     */
+    public Subscription subscribe(long                    fromOffset,
+                                  Consumer<Entry>         onEntry,
+                                  Consumer<SzException>   onFailure)
+    {
+        Objects.requireNonNull(onEntry, "The entry consumer cannot be null");
+        ClientCall<String, String> call = this.env.getChannel().newCall(
+            SUBSCRIBE_METHOD, CallOptions.DEFAULT);
+
+        SubscriptionImpl subscription
+            = new SubscriptionImpl(call, fromOffset, onEntry, onFailure);
+
+        ClientCalls.asyncServerStreamingCall(
+            call, encodeRequest(fromOffset), subscription);
+
+        return subscription;
+    }
+
+    /**
+     * The {@link Subscription} implementation that observes the streamed
+     * responses.
+     */
+    private static final class SubscriptionImpl
+        implements Subscription, StreamObserver<String>
+    {
+        /**
+         * The underlying {@link ClientCall}.
+         */
+        private final ClientCall<String, String> call;
+
+        /**
+         * The {@link Consumer} for each received {@link Entry}.
+         */
+        private final Consumer<Entry> onEntry;
+
+        /**
+         * The {@link Consumer} for failures, or <code>null</code>.
+         */
+        private final Consumer<SzException> onFailure;
+
+        /**
+         * The offset following the last entry received.
+         */
+        private volatile long nextOffset;
+
+        /**
+         * Tracks if this subscription is closed.
+         */
+        private volatile boolean closed = false;
+
+        /**
+         * Constructs with the call, starting offset and consumers.
+         *
+         * @param call The underlying {@link ClientCall}.
+         * @param fromOffset The starting offset.
+         * @param onEntry The {@link Consumer} for each {@link Entry}.
+         * @param onFailure The {@link Consumer} for failures, or
+         *                  <code>null</code>.
+         */
+        private SubscriptionImpl(ClientCall<String, String> call,
+                                 long                       fromOffset,
+                                 Consumer<Entry>            onEntry,
+                                 Consumer<SzException>      onFailure)
+        {
+            this.call       = call;
+            this.nextOffset = fromOffset;
+            this.onEntry    = onEntry;
+            this.onFailure  = onFailure;
+        }
+
+        @Override
+        public long getNextOffset()
+        {
+            return this.nextOffset;
+        }
+
+        @Override
+        public boolean isClosed()
+        {
+            return this.closed;
+        }
+
+        @Override
+        public void close()
+        {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.call.cancel("Subscription closed", null);
+        }
+
+        @Override
+        public void onNext(String response)
+        {
+            Entry entry = decodeResponse(response);
+            this.nextOffset = entry.getOffset() + 1L;
+            this.onEntry.accept(entry);
+        }
+
+        @Override
+        public void onError(Throwable t)
+        {
+            boolean wasClosed = this.closed;
+            this.closed = true;
+            if (wasClosed || this.onFailure == null) {
+                return;
+            }
+            this.onFailure.accept(SzGrpcEnvironment.createSzException(
+                Status.fromThrowable(t),
+                (t instanceof Exception) ? (Exception) t : new Exception(t)));
+        }
+
+        @Override
+        public void onCompleted()
+        {
+            this.closed = true;
+        }
+    }
+}
@@ -115,7 +115,10 @@ public class SzGrpcDiagnostic implements SzDiagnostic
             this.getBlockingStub().purgeRepository(request);
 
             return null;
-        });      
+        });
+
+        // any cached entities no longer exist
+        this.env.clearEntityCache();
     }
 
     /**
@@ -2,16 +2,34 @@ package com.senzing.sdk.grpc;
 
 import java.util.Set;
 
-import javax.json.Json;
-import javax.json.JsonArrayBuilder;
-import javax.json.JsonObjectBuilder;
-
-import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import io.grpc.CallOptions;
 import io.grpc.Channel;
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.MetadataUtils;
 
 import com.senzing.sdk.SzBadInputException;
 import com.senzing.sdk.SzEngine;
@@ -97,6 +115,18 @@ public class SzGrpcEngine implements SzEngine
     private static final String INVALID_EXPORT_HANDLE_MESSAGE 
         = "Invalid Export Handle [{0}]";
 
+    /**
+     * The prefix for the names of the threads that execute the export
+     * operations of the {@linkplain #async() default} {@link
+     * SzGrpcAsyncEngine}.
+     */
+    private static final String EXPORT_THREAD_PREFIX = "sz-grpc-export-";
+
+    /**
+     * The number of seconds an idle export thread is kept alive.
+     */
+    private static final long EXPORT_KEEP_ALIVE_SECONDS = 60L;
+
     /**
      * The {@link SzGrpcEnvironment} that constructed this instance.
      */
@@ -107,11 +137,37 @@ public class SzGrpcEngine implements SzEngine
      */
     private SzEngineBlockingStub blockingStub = null;
 
+    /**
+     * Flag indicating if the lists of the "find path" and "find network"
+     * requests should be sent in the typed encoding of {@link
+     * SzGrpcIdLists}.  This is cleared once the server is found to not
+     * provide the {@link SzGrpcIdLists#SERVICE_NAME} service.
+     */
+    private volatile boolean typedIdLists = true;
+
+    /**
+     * The lazily created {@link SzGrpcAsyncEngine} for this instance.
+     */
+    private volatile SzGrpcAsyncEngine asyncEngine = null;
+
+    /**
+     * The dedicated {@link ThreadPoolExecutor} for the export operations of
+     * the {@linkplain #async() default} {@link SzGrpcAsyncEngine}, or
+     * <code>null</code> if not yet created.
+     */
+    private ThreadPoolExecutor exportExecutor = null;
+
+    /**
+     * The client-side {@link SzGrpcEntityCache}, or <code>null</code> if the
+     * entity cache is disabled.
+     */
+    private final SzGrpcEntityCache entityCache;
+
     /**
      * The {@link Map} of {@link Long} export handle keys to 
      * {@link Iterator} values for the streamed export report.
      */
-    private final Map<Long, Iterator<String>> exportReportMaps;
+    private final Map<Long, AbstractExportIterator<?>> exportReportMaps;
 
     /**
      * The previous export handle value to use.
@@ -124,30 +180,116 @@ public class SzGrpcEngine implements SzEngine
     private long nextExportHandle = 1L;
 
     /**
-     * Provide an {@link Iterator} over {@linK String} values that uses the
-     * {@link StreamExportCsvEntityReportResponse}.
+     * Provides a base {@link Iterator} over {@link String} lines of export
+     * content that wraps the streaming response iterator and transparently
+     * unpacks {@linkplain SzGrpcExportBatch batched} response messages.
+     *
+     * @param <R> The type of the streamed response message.
      */
-    private static final class CsvExportIterator implements Iterator<String>
+    private abstract static class AbstractExportIterator<R>
+        implements Iterator<String>
     {
         /**
          * The streaming response iterator.
          */
-        private Iterator<StreamExportCsvEntityReportResponse> iter = null;
+        private Iterator<R> iter = null;
+
+        /**
+         * The {@link Context.CancellableContext} in which the streaming call
+         * was started so that it can be cancelled when closed.
+         */
+        private Context.CancellableContext context = null;
+
+        /**
+         * The {@linkplain System#nanoTime() nanosecond time} at which this
+         * instance was last accessed.
+         */
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        /**
+         * The {@link AtomicReference} to the response headers, or
+         * <code>null</code> if batching was not requested.
+         */
+        private AtomicReference<Metadata> responseHeaders = null;
+
+        /**
+         * The pending lines that have been unpacked from a batched response
+         * message, but not yet returned.
+         */
+        private final Deque<String> pending = new ArrayDeque<>();
 
         /**
          * Constructs with the specified response iterator.
          * 
          * @param iter The response iterator.
+         * @param responseHeaders The {@link AtomicReference} to the response
+         *                        headers, or <code>null</code> if batching
+         *                        was not requested.
+         * @param context The {@link Context.CancellableContext} in which the
+         *                streaming call was started.
          */
-        private CsvExportIterator(
-            Iterator<StreamExportCsvEntityReportResponse> iter)
+        private AbstractExportIterator(
+            Iterator<R>                 iter,
+            AtomicReference<Metadata>   responseHeaders,
+            Context.CancellableContext  context)
         {
-            this.iter = iter;
-            
+            this.iter               = iter;
+            this.responseHeaders    = responseHeaders;
+            this.context            = context;
+
             // check if we have a next element to force blocking for first
             this.iter.hasNext();
         }
 
+        /**
+         * Gets the result text from the specified response message.
+         *
+         * @param response The response message.
+         *
+         * @return The result text from the response message.
+         */
+        protected abstract String getResult(R response);
+
+        /**
+         * Checks if the server responded with batched response messages.
+         * The response headers are always received before the first message
+         * so this is accurate once a message has been obtained.
+         *
+         * @return <code>true</code> if the response messages are batched,
+         *         otherwise <code>false</code>.
+         */
+        private boolean isBatched()
+        {
+            if (this.responseHeaders == null) {
+                return false;
+            }
+            Metadata headers = this.responseHeaders.get();
+            return (headers != null
+                    && headers.containsKey(SzGrpcExportBatch.BATCHED_KEY));
+        }
+
+        /**
+         * Gets the {@linkplain System#nanoTime() nanosecond time} at which
+         * this instance was last accessed.
+         *
+         * @return The nanosecond time at which this instance was last
+         *         accessed.
+         */
+        private long getLastAccessNanos()
+        {
+            return this.lastAccessNanos;
+        }
+
+        /**
+         * Closes this instance by cancelling the underlying streaming call
+         * so the server stops producing export content.  This has no effect
+         * if the call has already completed.
+         */
+        private void close()
+        {
+            this.context.cancel(null);
+        }
+
         /**
          * Checks if we have further export content.
          * 
@@ -157,7 +299,8 @@ public class SzGrpcEngine implements SzEngine
         @Override
         public boolean hasNext()
         {
-            return this.iter.hasNext();
+            this.lastAccessNanos = System.nanoTime();
+            return (!this.pending.isEmpty() || this.iter.hasNext());
         }
 
         /**
@@ -168,57 +311,98 @@ public class SzGrpcEngine implements SzEngine
         @Override
         public String next()
         {
-            StreamExportCsvEntityReportResponse response = this.iter.next();
-            return response.getResult();
+            this.lastAccessNanos = System.nanoTime();
+            if (!this.pending.isEmpty()) {
+                return this.pending.removeFirst();
+            }
+            String result = this.getResult(this.iter.next());
+            if (!this.isBatched()) {
+                return result;
+            }
+            SzGrpcExportBatch.decodeLines(result, this.pending);
+            if (this.pending.isEmpty()) {
+                throw new IllegalStateException(
+                    "Received an empty batch of export content");
+            }
+            return this.pending.removeFirst();
         }
     }
 
     /**
      * Provide an {@link Iterator} over {@linK String} values that uses the
-     * {@link StreamExportJsonEntityReportResponse}.
+     * {@link StreamExportCsvEntityReportResponse}.
      */
-    private static final class JsonExportIterator implements Iterator<String>
+    private static final class CsvExportIterator
+        extends AbstractExportIterator<StreamExportCsvEntityReportResponse>
     {
-        /**
-         * The streaming response iterator.
-         */
-        private Iterator<StreamExportJsonEntityReportResponse> iter = null;
-
         /**
          * Constructs with the specified response iterator.
          * 
          * @param iter The response iterator.
+         * @param responseHeaders The {@link AtomicReference} to the response
+         *                        headers, or <code>null</code> if batching
+         *                        was not requested.
+         * @param context The {@link Context.CancellableContext} in which the
+         *                streaming call was started.
          */
-        private JsonExportIterator(
-            Iterator<StreamExportJsonEntityReportResponse> iter)
+        private CsvExportIterator(
+            Iterator<StreamExportCsvEntityReportResponse>   iter,
+            AtomicReference<Metadata>                       responseHeaders,
+            Context.CancellableContext                      context)
         {
-            this.iter = iter;
-
-            // check if we have a next element to force blocking for first
-            this.iter.hasNext();
+            super(iter, responseHeaders, context);
         }
-        
+
         /**
-         * Checks if we have further export content.
-         * 
-         * @return <code>true</code> if there is additional export content,
-         *                           otherwise <code>false</code>.
+         * Gets the result text from the specified response message.
+         *
+         * @param response The response message.
+         *
+         * @return The result text from the response message.
          */
         @Override
-        public boolean hasNext()
+        protected String getResult(StreamExportCsvEntityReportResponse response)
         {
-            return this.iter.hasNext();
+            return response.getResult();
         }
+    }
 
+    /**
+     * Provide an {@link Iterator} over {@linK String} values that uses the
+     * {@link StreamExportJsonEntityReportResponse}.
+     */
+    private static final class JsonExportIterator
+        extends AbstractExportIterator<StreamExportJsonEntityReportResponse>
+    {
         /**
-         * Gets the next line of export content.
+         * Constructs with the specified response iterator.
          * 
-         * @return The next line of export content.
+         * @param iter The response iterator.
+         * @param responseHeaders The {@link AtomicReference} to the response
+         *                        headers, or <code>null</code> if batching
+         *                        was not requested.
+         * @param context The {@link Context.CancellableContext} in which the
+         *                streaming call was started.
+         */
+        private JsonExportIterator(
+            Iterator<StreamExportJsonEntityReportResponse>  iter,
+            AtomicReference<Metadata>                       responseHeaders,
+            Context.CancellableContext                      context)
+        {
+            super(iter, responseHeaders, context);
+        }
+
+        /**
+         * Gets the result text from the specified response message.
+         *
+         * @param response The response message.
+         *
+         * @return The result text from the response message.
          */
         @Override
-        public String next()
+        protected String getResult(
+            StreamExportJsonEntityReportResponse response)
         {
-            StreamExportJsonEntityReportResponse response = this.iter.next();
             return response.getResult();
         }
     }
@@ -238,6 +422,91 @@ public class SzGrpcEngine implements SzEngine
         this.blockingStub = SzEngineGrpc.newBlockingStub(channel);
 
         this.exportReportMaps = new LinkedHashMap<>();
+
+        int cacheSize = this.env.getEntityCacheSize();
+        this.entityCache = (cacheSize <= 0) ? null
+            : new SzGrpcEntityCache(cacheSize, this.env.getEntityCacheTtl());
+        if (this.entityCache != null && this.env.isEntityCacheChangeFeed()) {
+            this.entityCache.subscribe(new SzGrpcChangeFeed(this.env));
+        }
+    }
+
+    /**
+     * Package-private method for obtaining the client-side {@link
+     * SzGrpcEntityCache} for this instance.
+     *
+     * @return The {@link SzGrpcEntityCache}, or <code>null</code> if the
+     *         entity cache is disabled.
+     */
+    SzGrpcEntityCache getEntityCache()
+    {
+        return this.entityCache;
+    }
+
+    /**
+     * Package-private method for clearing the client-side entity cache (if
+     * enabled).
+     */
+    void clearEntityCache()
+    {
+        if (this.entityCache != null) {
+            this.entityCache.clear();
+        }
+    }
+
+    /**
+     * Package-private method for disabling the client-side entity cache (if
+     * enabled) and ending its change feed subscription (if any) when the
+     * associated {@link SzGrpcEnvironment} is destroyed.
+     */
+    void closeEntityCache()
+    {
+        if (this.entityCache != null) {
+            this.entityCache.disable();
+        }
+    }
+
+    /**
+     * Package-private method for shutting down the dedicated export threads
+     * of the {@linkplain #async() default} {@link SzGrpcAsyncEngine} (if
+     * created) when the associated {@link SzGrpcEnvironment} is destroyed.
+     * Export operations already running are allowed to finish.
+     */
+    void shutdownExportExecutor()
+    {
+        ThreadPoolExecutor executor = null;
+        synchronized (this.exportReportMaps) {
+            executor = this.exportExecutor;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Package-private method for handling the result of a write operation.
+     * If the entity cache is enabled then it is invalidated using the
+     * specified INFO message, or is {@linkplain SzGrpcEntityCache#clear()
+     * cleared} if the caller did not request the INFO message (i.e.: did not
+     * specify {@link SzFlag#SZ_WITH_INFO}) since the affected entities are
+     * then unknown.
+     *
+     * @param result The INFO message from the server, or <code>null</code>
+     *               if none.
+     *
+     * @return The result to return to the caller.
+     */
+    String toWriteResult(String result)
+    {
+        if (this.entityCache == null) {
+            return result;
+        }
+        if (result == null) {
+            this.entityCache.clear();
+        } else {
+            this.entityCache.invalidate(result);
+        }
+        return result;
     }
 
     /**
@@ -256,6 +525,131 @@ public class SzGrpcEngine implements SzEngine
         }
     }
 
+    /**
+     * Registers the specified export iterator under a newly assigned export
+     * handle and returns the export handle.
+     *
+     * @param exportIter The {@link AbstractExportIterator} to register.
+     *
+     * @return The export handle assigned to the export iterator.
+     */
+    private long registerExport(AbstractExportIterator<?> exportIter)
+    {
+        synchronized (this.exportReportMaps) {
+            long exportHandle = this.getNextExportHandle();
+            this.exportReportMaps.put(exportHandle, exportIter);
+            return exportHandle;
+        }
+    }
+
+    /**
+     * Evicts and cancels any exports that have not been accessed for longer
+     * than the {@linkplain SzGrpcEnvironment.Builder#exportIdleTimeout(
+     * Duration) export idle timeout}.  The handles of evicted exports are no
+     * longer valid.  This guards against exports that are abandoned without
+     * being closed from holding open streaming calls (and server-side export
+     * cursors) indefinitely.
+     */
+    private void evictIdleExports()
+    {
+        Duration idleTimeout = this.env.getExportIdleTimeout();
+        if (idleTimeout == null) {
+            return;
+        }
+        long now        = System.nanoTime();
+        long maxIdle    = idleTimeout.toNanos();
+
+        List<AbstractExportIterator<?>> evicted = null;
+        synchronized (this.exportReportMaps) {
+            Iterator<AbstractExportIterator<?>> iter
+                = this.exportReportMaps.values().iterator();
+            while (iter.hasNext()) {
+                AbstractExportIterator<?> exportIter = iter.next();
+                if ((now - exportIter.getLastAccessNanos()) <= maxIdle) {
+                    continue;
+                }
+                iter.remove();
+                if (evicted == null) {
+                    evicted = new ArrayList<>();
+                }
+                evicted.add(exportIter);
+            }
+        }
+
+        // cancel the evicted exports outside the lock
+        if (evicted != null) {
+            for (AbstractExportIterator<?> exportIter : evicted) {
+                exportIter.close();
+            }
+        }
+    }
+
+    /**
+     * Closes all open exports, cancelling the associated streaming calls.
+     * This is called when the associated {@link SzGrpcEnvironment} is
+     * destroyed so that no streaming calls remain open.
+     */
+    void closeAllExports()
+    {
+        List<AbstractExportIterator<?>> exports = null;
+        synchronized (this.exportReportMaps) {
+            exports = new ArrayList<>(this.exportReportMaps.values());
+            this.exportReportMaps.clear();
+        }
+        for (AbstractExportIterator<?> exportIter : exports) {
+            exportIter.close();
+        }
+    }
+
+    /**
+     * Creates the {@link AtomicReference} for capturing the response headers
+     * of a streamed export, or returns <code>null</code> if batching of
+     * export content has been disabled.
+     *
+     * @return The {@link AtomicReference} for capturing the response headers,
+     *         or <code>null</code> if batching is disabled.
+     */
+    private AtomicReference<Metadata> createExportHeadersReference()
+    {
+        if (this.env.getExportBatchLines() <= 1) {
+            return null;
+        }
+        return new AtomicReference<>();
+    }
+
+    /**
+     * Gets the blocking stub to use for a streamed export.  If the specified
+     * {@link AtomicReference} is <code>null</code> then the {@linkplain
+     * #getBlockingStub() default blocking stub} is returned, otherwise a stub
+     * is returned that requests {@linkplain SzGrpcExportBatch batched} export
+     * content and captures the response headers in the specified reference.
+     *
+     * @param responseHeaders The {@link AtomicReference} for capturing the
+     *                        response headers, or <code>null</code> if
+     *                        batching is disabled.
+     *
+     * @return The {@link SzEngineBlockingStub} to use for the export.
+     */
+    private SzEngineBlockingStub getExportStub(
+        AtomicReference<Metadata> responseHeaders)
+    {
+        SzEngineBlockingStub stub = this.getBlockingStub();
+        if (responseHeaders == null) {
+            return stub;
+        }
+
+        Metadata requestHeaders = new Metadata();
+        requestHeaders.put(SzGrpcExportBatch.MAX_LINES_KEY,
+                           String.valueOf(this.env.getExportBatchLines()));
+        requestHeaders.put(SzGrpcExportBatch.MAX_BYTES_KEY,
+                           String.valueOf(this.env.getExportBatchBytes()));
+
+        return stub.withInterceptors(
+            MetadataUtils.newAttachHeadersInterceptor(requestHeaders),
+            MetadataUtils.newCaptureMetadataInterceptor(
+                responseHeaders, new AtomicReference<>()));
+    }
+
     /**
      * Encodes the {@link Set} of {@link Long} entity ID's as JSON. The JSON is
      * formatted as:
@@ -276,20 +670,7 @@ public class SzGrpcEngine implements SzEngine
      */
     protected static String encodeEntityIds(Set<Long> entityIds)
     {
-        JsonObjectBuilder   job = Json.createObjectBuilder();
-        JsonArrayBuilder    jab = Json.createArrayBuilder();
-
-        for (Long entityId : entityIds) {
-            JsonObjectBuilder job2 = Json.createObjectBuilder();
-            job2.add("ENTITY_ID", entityId);
-            jab.add(job2);
-        }
-
-        job.add("ENTITIES", jab);
-        
-        StringWriter sw = new StringWriter();
-        Json.createWriter(sw).writeObject(job.build());
-        return sw.toString();
+        return SzGrpcIdLists.encodeEntityIds(entityIds);
     }
 
     /**
@@ -321,22 +702,7 @@ public class SzGrpcEngine implements SzEngine
      */
     protected static String encodeRecordKeys(Set<SzRecordKey> recordKeys)
     {
-        JsonObjectBuilder   job = Json.createObjectBuilder();
-        JsonArrayBuilder    jab = Json.createArrayBuilder();
-
-        for (SzRecordKey recordKey : recordKeys) {
-            JsonObjectBuilder job2 = Json.createObjectBuilder();
-            job2.add("DATA_SOURCE", recordKey.dataSourceCode());
-            job2.add("RECORD_ID", recordKey.recordId());
-
-            jab.add(job2);
-        }
-
-        job.add("RECORDS", jab);
-
-        StringWriter sw = new StringWriter();
-        Json.createWriter(sw).writeObject(job.build());
-        return sw.toString();
+        return SzGrpcIdLists.encodeRecordKeys(recordKeys);
     }
 
     /**
@@ -357,18 +723,98 @@ public class SzGrpcEngine implements SzEngine
      */
     protected static String encodeDataSources(Set<String> dataSources)
     {
-        JsonObjectBuilder   job = Json.createObjectBuilder();
-        JsonArrayBuilder    jab = Json.createArrayBuilder();
+        return SzGrpcIdLists.encodeDataSources(dataSources);
+    }
+
+    /**
+     * Creates a "find path" or "find network" request with its lists in
+     * either the typed encoding of {@link SzGrpcIdLists} or the JSON
+     * encoding.
+     *
+     * @param <Q> The request type.
+     */
+    @FunctionalInterface
+    interface IdListsRequestFactory<Q>
+    {
+        /**
+         * Creates the request.
+         *
+         * @param typed <code>true</code> if the lists should be in the typed
+         *              encoding, or <code>false</code> if in the JSON
+         *              encoding.
+         *
+         * @return The request.
+         *
+         * @throws Exception If a failure occurs.
+         */
+        Q create(boolean typed) throws Exception;
+    }
 
-        for (String dataSourceCode : dataSources) {
-            jab.add(dataSourceCode);
-        }
+    /**
+     * Checks if the lists of the "find path" and "find network" requests are
+     * sent in the typed encoding of {@link SzGrpcIdLists}.  This is
+     * <code>true</code> until the server is found to not provide the {@link
+     * SzGrpcIdLists#SERVICE_NAME} service.
+     *
+     * @return <code>true</code> if the lists are sent in the typed encoding,
+     *         otherwise <code>false</code>.
+     */
+    boolean isTypedIdLists()
+    {
+        return this.typedIdLists;
+    }
 
-        job.add("DATA_SOURCES", jab);
+    /**
+     * Stops sending the lists of the "find path" and "find network"
+     * requests in the typed encoding of {@link SzGrpcIdLists} since the
+     * server does not provide the {@link SzGrpcIdLists#SERVICE_NAME}
+     * service.
+     */
+    void disableTypedIdLists()
+    {
+        this.typedIdLists = false;
+    }
 
-        StringWriter sw = new StringWriter();
-        Json.createWriter(sw).writeObject(job.build());
-        return sw.toString();
+    /**
+     * Invokes the specified method of the {@link SzGrpcIdLists#SERVICE_NAME}
+     * service with a request whose lists are in the typed encoding, falling
+     * back to invoking the specified method of the engine service with a
+     * request whose lists are in the JSON encoding if the server does not
+     * provide the {@link SzGrpcIdLists#SERVICE_NAME} service.
+     *
+     * @param <Q> The request type.
+     * @param <R> The response type.
+     * @param typedMethod The {@link MethodDescriptor} of the method of the
+     *                    {@link SzGrpcIdLists#SERVICE_NAME} service.
+     * @param requestFactory The {@link IdListsRequestFactory} for creating
+     *                       the request.
+     * @param method The {@link Function} invoking the method of the engine
+     *               service.
+     *
+     * @return The response.
+     *
+     * @throws Exception If a failure occurs.
+     */
+    private <Q, R> R invokeTyped(MethodDescriptor<Q, R>    typedMethod,
+                                 IdListsRequestFactory<Q>  requestFactory,
+                                 Function<Q, R>            method)
+        throws Exception
+    {
+        if (this.typedIdLists) {
+            try {
+                return ClientCalls.blockingUnaryCall(
+                    this.env.getChannel(),
+                    typedMethod,
+                    CallOptions.DEFAULT,
+                    requestFactory.create(true));
+            } catch (StatusRuntimeException e) {
+                if (e.getStatus().getCode() != Status.Code.UNIMPLEMENTED) {
+                    throw e;
+                }
+                this.disableTypedIdLists();
+            }
+        }
+        return method.apply(requestFactory.create(false));
     }
 
     /**
@@ -381,6 +827,115 @@ public class SzGrpcEngine implements SzEngine
         return this.blockingStub;
     }
 
+    /**
+     * Package-private method for obtaining the {@link SzGrpcEnvironment}
+     * that constructed this instance.
+     *
+     * @return The {@link SzGrpcEnvironment} that constructed this instance.
+     */
+    SzGrpcEnvironment getEnvironment()
+    {
+        return this.env;
+    }
+
+    /**
+     * Gets the {@link SzGrpcAsyncEngine} for this instance which provides
+     * non-blocking variants of the {@link SzEngine} operations returning
+     * {@link CompletableFuture} instances.  The same instance is returned on
+     * each call and runs the export operations (which block reading the
+     * client-side stream) on dedicated daemon threads owned by this instance
+     * rather than a shared pool, so that slow exports cannot starve other
+     * work.  The threads are created on demand, expire when idle and are
+     * shut down when the associated {@link SzGrpcEnvironment} is destroyed.
+     *
+     * @return The {@link SzGrpcAsyncEngine} for this instance.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public SzGrpcAsyncEngine async()
+    {
+        SzGrpcAsyncEngine result = this.asyncEngine;
+        if (result == null) {
+            synchronized (this.exportReportMaps) {
+                if (this.asyncEngine == null) {
+                    this.env.ensureActive();
+                    AtomicInteger threadCount = new AtomicInteger(0);
+                    this.exportExecutor = new ThreadPoolExecutor(
+                        0,
+                        Integer.MAX_VALUE,
+                        EXPORT_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new SynchronousQueue<>(),
+                        runnable -> {
+                            Thread thread = new Thread(
+                                runnable,
+                                EXPORT_THREAD_PREFIX
+                                    + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                    this.asyncEngine = new SzGrpcAsyncEngine(
+                        this, this.exportExecutor);
+                }
+                result = this.asyncEngine;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new {@link SzGrpcAsyncEngine} for this instance that uses
+     * the specified {@link Executor} for the export operations.
+     *
+     * @param executor The {@link Executor} to use for the export operations.
+     *
+     * @return The new {@link SzGrpcAsyncEngine} for this instance.
+     *
+     * @throws NullPointerException If the specified {@link Executor} is
+     *                              <code>null</code>.
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public SzGrpcAsyncEngine async(Executor executor)
+    {
+        return new SzGrpcAsyncEngine(this, executor);
+    }
+
+    /**
+     * Creates a new {@link SzGrpcRecordLoader} for bulk loading records
+     * using the {@linkplain SzGrpcRecordLoader#DEFAULT_MAX_IN_FLIGHT default}
+     * maximum number of in-flight records.
+     *
+     * @return The new {@link SzGrpcRecordLoader}.
+     *
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public SzGrpcRecordLoader newRecordLoader()
+    {
+        return this.newRecordLoader(SzGrpcRecordLoader.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Creates a new {@link SzGrpcRecordLoader} for bulk loading records
+     * with the specified maximum number of in-flight records.
+     *
+     * @param maxInFlight The maximum number of records that may be in flight
+     *                    at once.
+     *
+     * @return The new {@link SzGrpcRecordLoader}.
+     *
+     * @throws IllegalArgumentException If the specified maximum number of
+     *                                  in-flight records is less than one.
+     * @throws IllegalStateException If the associated {@link
+     *                               SzGrpcEnvironment} has been destroyed.
+     */
+    public SzGrpcRecordLoader newRecordLoader(int maxInFlight)
+    {
+        return new SzGrpcRecordLoader(this.async(), maxInFlight);
+    }
+
     /**
      * Implemented to execute the operation over gRPC against the gRPC server
      * from the associated {@link SzGrpcEnvironment}.
@@ -445,7 +1000,7 @@ public class SzGrpcEngine implements SzEngine
                 = this.getBlockingStub().addRecord(request);
 
             String result = response.getResult();
-            return (result.length() == 0) ? null : result;
+            return this.toWriteResult((result.length() == 0) ? null : result);
         });
     }
 
@@ -493,7 +1048,7 @@ public class SzGrpcEngine implements SzEngine
                 = this.getBlockingStub().deleteRecord(request);
 
             String result = response.getResult();
-            return (result.length() == 0) ? null : result;
+            return this.toWriteResult((result.length() == 0) ? null : result);
         });
     }
 
@@ -518,7 +1073,7 @@ public class SzGrpcEngine implements SzEngine
                 = this.getBlockingStub().reevaluateRecord(request);
 
             String result = response.getResult();
-            return (result.length() == 0) ? null : result;
+            return this.toWriteResult((result.length() == 0) ? null : result);
         });
     }
 
@@ -542,7 +1097,7 @@ public class SzGrpcEngine implements SzEngine
                 = this.getBlockingStub().reevaluateEntity(request);
 
             String result = response.getResult();
-            return (result.length() == 0) ? null : result;
+            return this.toWriteResult((result.length() == 0) ? null : result);
         });
     }
 
@@ -621,15 +1176,30 @@ public class SzGrpcEngine implements SzEngine
             throws SzNotFoundException, SzException 
     {
         return this.env.execute(() -> {
+            long flagBits = SzFlag.toLong(flags);
+
+            // check the entity cache (if enabled)
+            SzGrpcEntityCache cache = this.entityCache;
+            String cached = (cache == null) ? null
+                : cache.get(entityId, flagBits);
+            if (cached != null) {
+                return cached;
+            }
+            long stamp = (cache == null) ? 0L : cache.getStamp();
+
             GetEntityByEntityIdRequest request
                 = GetEntityByEntityIdRequest.newBuilder()
                     .setEntityId(entityId)
-                    .setFlags(SzFlag.toLong(flags)).build();
+                    .setFlags(flagBits).build();
             
             GetEntityByEntityIdResponse response
                 = this.getBlockingStub().getEntityByEntityId(request);
             
-            return response.getResult();
+            String result = response.getResult();
+            if (cache != null) {
+                cache.put(stamp, entityId, flagBits, result);
+            }
+            return result;
         });
     }
 
@@ -659,6 +1229,117 @@ public class SzGrpcEngine implements SzEngine
         });
     }
 
+    /**
+     * Retrieves the entities identified by the specified {@link SzEntityIds}
+     * in a single round trip via a batch call that the server performs in
+     * parallel.  This is equivalent to calling {@link #getEntity(long, Set)}
+     * for each entity ID, but the latency is that of the slowest lookup
+     * rather than the sum of all lookups.  Use {@link
+     * SzGrpcAsyncEngine#getEntities(SzEntityIds, Set)} to handle the result
+     * or failure of each lookup individually.
+     *
+     * @param entityIds The {@link SzEntityIds} of the entities.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link Map} of {@link Long} entity ID keys to JSON result
+     *         values in the iteration order of the specified entity IDs.
+     *
+     * @throws SzNotFoundException If any of the entities could not be found.
+     * @throws SzException If any of the lookups fail.
+     */
+    public Map<Long, String> getEntities(SzEntityIds entityIds,
+                                         Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        return awaitResults(this.async().getEntities(entityIds, flags));
+    }
+
+    /**
+     * Retrieves the entities containing the records identified by the
+     * specified {@link SzRecordKeys} in a single round trip via a batch call
+     * that the server performs in parallel.  This is equivalent to calling
+     * {@link #getEntity(SzRecordKey, Set)} for each record key, but the
+     * latency is that of the slowest lookup rather than the sum of all
+     * lookups.  Use {@link SzGrpcAsyncEngine#getEntities(SzRecordKeys, Set)}
+     * to handle the result or failure of each lookup individually.
+     *
+     * @param recordKeys The {@link SzRecordKeys} of records in the entities.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link Map} of {@link SzRecordKey} keys to JSON result
+     *         values in the iteration order of the specified record keys.
+     *
+     * @throws SzUnknownDataSourceException If any of the data sources are not
+     *                                      recognized.
+     * @throws SzNotFoundException If any of the records could not be found.
+     * @throws SzException If any of the lookups fail.
+     */
+    public Map<SzRecordKey, String> getEntities(SzRecordKeys recordKeys,
+                                                Set<SzFlag>  flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        return awaitResults(this.async().getEntities(recordKeys, flags));
+    }
+
+    /**
+     * Waits for all of the {@link CompletableFuture} values in the specified
+     * {@link Map} to complete and returns a {@link Map} of the same keys to
+     * the results.  If any of the futures failed, then the failure for the
+     * first such key in iteration order is thrown after all have completed.
+     *
+     * @param <K> The key type.
+     * @param futures The {@link Map} of keys to {@link CompletableFuture}
+     *                values.
+     *
+     * @return The {@link Map} of keys to results.
+     *
+     * @throws SzException If any of the futures failed.
+     */
+    private static <K> Map<K, String> awaitResults(
+        Map<K, CompletableFuture<String>> futures)
+        throws SzException
+    {
+        Map<K, String>  results = new LinkedHashMap<>(futures.size() * 2);
+        Throwable       failure = null;
+        boolean         interrupted = false;
+        for (Map.Entry<K, CompletableFuture<String>> entry
+             : futures.entrySet())
+        {
+            CompletableFuture<String> future = entry.getValue();
+            for (;;) {
+                try {
+                    results.put(entry.getKey(), future.get());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    Throwable cause = (e.getCause() != null)
+                        ? e.getCause() : e;
+                    if (failure == null) {
+                        failure = cause;
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof SzException) {
+            throw (SzException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new SzException(failure);
+        }
+        return results;
+    }
+
     /**
      * Implemented to execute the operation over gRPC against the gRPC server
      * from the associated {@link SzGrpcEnvironment}.
@@ -726,23 +1407,31 @@ public class SzGrpcEngine implements SzEngine
         throws SzNotFoundException, SzUnknownDataSourceException, SzException 
     {
         return this.env.execute(() -> {
-            FindPathByEntityIdRequest.Builder builder
-                = FindPathByEntityIdRequest.newBuilder()
-                    .setStartEntityId(startEntityId)
-                    .setEndEntityId(endEntityId)
-                    .setMaxDegrees(maxDegrees)
-                    .setFlags(SzFlag.toLong(flags));
-            if (avoidEntityIds != null) {
-                builder.setAvoidEntityIds(encodeEntityIds(avoidEntityIds));
-            }
-            if (requiredDataSources != null) {
-                builder.setRequiredDataSources(
-                    encodeDataSources(requiredDataSources));
-            }
-            FindPathByEntityIdRequest request = builder.build();
-
-            FindPathByEntityIdResponse response
-                = this.getBlockingStub().findPathByEntityId(request);
+            FindPathByEntityIdResponse response = this.invokeTyped(
+                SzGrpcIdLists.FIND_PATH_BY_ENTITY_ID_METHOD,
+                typed -> {
+                    FindPathByEntityIdRequest.Builder builder
+                        = FindPathByEntityIdRequest.newBuilder()
+                            .setStartEntityId(startEntityId)
+                            .setEndEntityId(endEntityId)
+                            .setMaxDegrees(maxDegrees)
+                            .setFlags(SzFlag.toLong(flags));
+                    if (typed) {
+                        builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                            avoidEntityIds, null, requiredDataSources));
+                        return builder.build();
+                    }
+                    if (avoidEntityIds != null) {
+                        builder.setAvoidEntityIds(
+                            encodeEntityIds(avoidEntityIds));
+                    }
+                    if (requiredDataSources != null) {
+                        builder.setRequiredDataSources(
+                            encodeDataSources(requiredDataSources));
+                    }
+                    return builder.build();
+                },
+                this.getBlockingStub()::findPathByEntityId);
             
             return response.getResult();
         });
@@ -765,26 +1454,35 @@ public class SzGrpcEngine implements SzEngine
                SzUnknownDataSourceException, SzException
     {
         return this.env.execute(() -> {
-            FindPathByRecordIdRequest.Builder builder 
-                = FindPathByRecordIdRequest.newBuilder()
-                    .setStartDataSourceCode(startRecordKey.dataSourceCode())
-                    .setStartRecordId(startRecordKey.recordId())
-                    .setEndDataSourceCode(endRecordKey.dataSourceCode())
-                    .setEndRecordId(endRecordKey.recordId())
-                    .setMaxDegrees(maxDegrees)
-                    .setFlags(SzFlag.toLong(flags));
-
-            if (avoidRecordKeys != null) {
-                builder.setAvoidRecordKeys(
-                    encodeRecordKeys(avoidRecordKeys));
-            }
-            if (requiredDataSources != null) {
-                builder.setRequiredDataSources(
-                    encodeDataSources(requiredDataSources));
-            }
-            FindPathByRecordIdRequest request = builder.build();
-            FindPathByRecordIdResponse response
-                = this.getBlockingStub().findPathByRecordId(request);
+            FindPathByRecordIdResponse response = this.invokeTyped(
+                SzGrpcIdLists.FIND_PATH_BY_RECORD_ID_METHOD,
+                typed -> {
+                    FindPathByRecordIdRequest.Builder builder 
+                        = FindPathByRecordIdRequest.newBuilder()
+                            .setStartDataSourceCode(
+                                startRecordKey.dataSourceCode())
+                            .setStartRecordId(startRecordKey.recordId())
+                            .setEndDataSourceCode(
+                                endRecordKey.dataSourceCode())
+                            .setEndRecordId(endRecordKey.recordId())
+                            .setMaxDegrees(maxDegrees)
+                            .setFlags(SzFlag.toLong(flags));
+                    if (typed) {
+                        builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                            null, avoidRecordKeys, requiredDataSources));
+                        return builder.build();
+                    }
+                    if (avoidRecordKeys != null) {
+                        builder.setAvoidRecordKeys(
+                            encodeRecordKeys(avoidRecordKeys));
+                    }
+                    if (requiredDataSources != null) {
+                        builder.setRequiredDataSources(
+                            encodeDataSources(requiredDataSources));
+                    }
+                    return builder.build();
+                },
+                this.getBlockingStub()::findPathByRecordId);
             
             return response.getResult();
         });
@@ -805,16 +1503,24 @@ public class SzGrpcEngine implements SzEngine
             throws SzNotFoundException, SzException 
     {
         return this.env.execute(() -> {
-            FindNetworkByEntityIdRequest request
-                = FindNetworkByEntityIdRequest.newBuilder()
-                    .setEntityIds(encodeEntityIds(entityIds))
-                    .setMaxDegrees(maxDegrees)
-                    .setBuildOutDegrees(buildOutDegrees)
-                    .setBuildOutMaxEntities(buildOutMaxEntities)
-                    .setFlags(SzFlag.toLong(flags)).build();
-
-            FindNetworkByEntityIdResponse response
-                = this.getBlockingStub().findNetworkByEntityId(request);
+            FindNetworkByEntityIdResponse response = this.invokeTyped(
+                SzGrpcIdLists.FIND_NETWORK_BY_ENTITY_ID_METHOD,
+                typed -> {
+                    FindNetworkByEntityIdRequest.Builder builder
+                        = FindNetworkByEntityIdRequest.newBuilder()
+                            .setMaxDegrees(maxDegrees)
+                            .setBuildOutDegrees(buildOutDegrees)
+                            .setBuildOutMaxEntities(buildOutMaxEntities)
+                            .setFlags(SzFlag.toLong(flags));
+                    if (typed) {
+                        builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                            entityIds, null, null));
+                    } else {
+                        builder.setEntityIds(encodeEntityIds(entityIds));
+                    }
+                    return builder.build();
+                },
+                this.getBlockingStub()::findNetworkByEntityId);
             
             return response.getResult();
         });
@@ -835,16 +1541,24 @@ public class SzGrpcEngine implements SzEngine
         throws SzUnknownDataSourceException, SzNotFoundException, SzException 
     {
         return this.env.execute(() -> {
-            FindNetworkByRecordIdRequest request
-                = FindNetworkByRecordIdRequest.newBuilder()
-                    .setRecordKeys(encodeRecordKeys(recordKeys))
-                    .setMaxDegrees(maxDegrees)
-                    .setBuildOutDegrees(buildOutDegrees)
-                    .setBuildOutMaxEntities(buildOutMaxEntities)
-                    .setFlags(SzFlag.toLong(flags)).build();
-
-            FindNetworkByRecordIdResponse response
-                = this.getBlockingStub().findNetworkByRecordId(request);
+            FindNetworkByRecordIdResponse response = this.invokeTyped(
+                SzGrpcIdLists.FIND_NETWORK_BY_RECORD_ID_METHOD,
+                typed -> {
+                    FindNetworkByRecordIdRequest.Builder builder
+                        = FindNetworkByRecordIdRequest.newBuilder()
+                            .setMaxDegrees(maxDegrees)
+                            .setBuildOutDegrees(buildOutDegrees)
+                            .setBuildOutMaxEntities(buildOutMaxEntities)
+                            .setFlags(SzFlag.toLong(flags));
+                    if (typed) {
+                        builder.setUnknownFields(SzGrpcIdLists.encodeTyped(
+                            null, recordKeys, null));
+                    } else {
+                        builder.setRecordKeys(encodeRecordKeys(recordKeys));
+                    }
+                    return builder.build();
+                },
+                this.getBlockingStub()::findNetworkByRecordId);
             
             return response.getResult();
         });
@@ -1016,19 +1730,33 @@ public class SzGrpcEngine implements SzEngine
                 = StreamExportJsonEntityReportRequest.newBuilder()
                     .setFlags(SzFlag.toLong(flags)).build();
             
-            Iterator<StreamExportJsonEntityReportResponse> responseIter
-                = this.getBlockingStub().streamExportJsonEntityReport(request);
-
-            JsonExportIterator exportIter
-                = new JsonExportIterator(responseIter);
-            
-            long exportHandle = 0L;
-            synchronized (this.exportReportMaps) {
-                exportHandle = this.getNextExportHandle();
-                this.exportReportMaps.put(exportHandle, exportIter);
+            this.evictIdleExports();
+
+            AtomicReference<Metadata> responseHeaders
+                = this.createExportHeadersReference();
+
+            // start the call in a cancellable context so it can be closed
+            Context.CancellableContext context
+                = Context.current().withCancellation();
+            Context previous = context.attach();
+            JsonExportIterator exportIter = null;
+            try {
+                Iterator<StreamExportJsonEntityReportResponse> responseIter
+                    = this.getExportStub(responseHeaders)
+                        .streamExportJsonEntityReport(request);
+
+                exportIter = new JsonExportIterator(
+                    responseIter, responseHeaders, context);
+
+            } catch (RuntimeException e) {
+                context.cancel(e);
+                throw e;
+
+            } finally {
+                context.detach(previous);
             }
 
-            return exportHandle;
+            return this.registerExport(exportIter);
         });
     }
 
@@ -1049,18 +1777,33 @@ public class SzGrpcEngine implements SzEngine
                     .setCsvColumnList(csvColumnList)
                     .setFlags(SzFlag.toLong(flags)).build();
             
-            Iterator<StreamExportCsvEntityReportResponse> responseIter
-                = this.getBlockingStub().streamExportCsvEntityReport(request);
-
-            CsvExportIterator exportIter = new CsvExportIterator(responseIter);
-            
-            long exportHandle = 0L;
-            synchronized (this.exportReportMaps) {
-                exportHandle = this.getNextExportHandle();
-                this.exportReportMaps.put(exportHandle, exportIter);
+            this.evictIdleExports();
+
+            AtomicReference<Metadata> responseHeaders
+                = this.createExportHeadersReference();
+
+            // start the call in a cancellable context so it can be closed
+            Context.CancellableContext context
+                = Context.current().withCancellation();
+            Context previous = context.attach();
+            CsvExportIterator exportIter = null;
+            try {
+                Iterator<StreamExportCsvEntityReportResponse> responseIter
+                    = this.getExportStub(responseHeaders)
+                        .streamExportCsvEntityReport(request);
+
+                exportIter = new CsvExportIterator(
+                    responseIter, responseHeaders, context);
+
+            } catch (RuntimeException e) {
+                context.cancel(e);
+                throw e;
+
+            } finally {
+                context.detach(previous);
             }
 
-            return exportHandle;
+            return this.registerExport(exportIter);
         });
     }
 
@@ -1076,6 +1819,8 @@ public class SzGrpcEngine implements SzEngine
         throws SzException
     {
         return this.env.execute(() -> {
+            this.evictIdleExports();
+
             Iterator<String> exportIter = null;
             synchronized (this.exportReportMaps) {
                 exportIter = this.exportReportMaps.get(exportHandle);
@@ -1111,7 +1856,7 @@ public class SzGrpcEngine implements SzEngine
         throws SzException
     {
         this.env.execute(() -> {
-            Iterator<String> exportIter = null;
+            AbstractExportIterator<?> exportIter = null;
             synchronized (this.exportReportMaps) {
                 exportIter = this.exportReportMaps.remove(exportHandle);
             }
@@ -1121,6 +1866,11 @@ public class SzGrpcEngine implements SzEngine
                     INVALID_EXPORT_HANDLE_MESSAGE.replace(
                         "{0}", String.valueOf(exportHandle)));
             }
+
+            // cancel the call so the server stops streaming the export
+            exportIter.close();
+
+            this.evictIdleExports();
             return null;
         });
     }
@@ -1145,7 +1895,7 @@ public class SzGrpcEngine implements SzEngine
                 = this.getBlockingStub().processRedoRecord(request);
             
             String result = response.getResult();
-            return (result.length() == 0) ? null : result;
+            return this.toWriteResult((result.length() == 0) ? null : result);
         });
     }
 
@@ -0,0 +1,232 @@
+package com.senzing.sdk.grpc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByRecordIdRequest;
+
+/**
+ * Provides the constants and utility functions shared by the gRPC client and
+ * server for retrieving multiple entities in a single call.
+ *
+ * <p>
+ * The batch lookups are not part of the Senzing SDK protocol buffer
+ * definitions, so the service is described by the {@link MethodDescriptor}
+ * instances found in {@link #BY_ENTITY_ID_METHOD} and {@link
+ * #BY_RECORD_ID_METHOD}.  Each request is a list of the same request
+ * messages used for the single-entity lookups, encoded as length-delimited
+ * protocol buffer messages.  The server streams back an {@link Item} for
+ * each lookup as soon as that lookup completes, so the items arrive in
+ * completion order rather than request order.  Each {@link Item} carries
+ * the index of its request and an {@link SzGrpcResult} that is either the
+ * JSON result for the entity or the failure for that lookup, so that a
+ * failure for one entity does not fail the others.  The call completes once
+ * every lookup has been streamed back.
+ * </p>
+ *
+ * <p>
+ * A client that finds the service is not provided by the server (i.e.: the
+ * call fails with {@link io.grpc.Status.Code#UNIMPLEMENTED}) falls back to
+ * issuing the single-entity lookups concurrently.
+ * </p>
+ */
+public final class SzGrpcEntityBatch
+{
+    /**
+     * The fully-qualified name of the entity batch gRPC service.
+     */
+    public static final String SERVICE_NAME = "szbatch.SzEntityBatch";
+
+    /**
+     * Creates a {@link MethodDescriptor.Marshaller} for a {@link List} of
+     * protocol buffer messages encoded as length-delimited messages.
+     *
+     * @param <T> The message type.
+     * @param parser The {@link Parser} for the message type.
+     *
+     * @return The {@link MethodDescriptor.Marshaller} for the {@link List}.
+     */
+    private static <T extends MessageLite> MethodDescriptor.Marshaller<List<T>>
+        delimitedMarshaller(Parser<T> parser)
+    {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(List<T> messages)
+            {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try {
+                    for (T message : messages) {
+                        message.writeDelimitedTo(baos);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new ByteArrayInputStream(baos.toByteArray());
+            }
+
+            @Override
+            public List<T> parse(InputStream stream)
+            {
+                List<T> messages = new ArrayList<>();
+                try {
+                    for (T message = parser.parseDelimitedFrom(stream);
+                         message != null;
+                         message = parser.parseDelimitedFrom(stream))
+                    {
+                        messages.add(message);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return messages;
+            }
+        };
+    }
+
+    /**
+     * Describes the outcome of a single lookup of a batch streamed back via
+     * {@link #BY_ENTITY_ID_METHOD} or {@link #BY_RECORD_ID_METHOD}, carrying
+     * the index of the lookup within the batch and the {@link SzGrpcResult}
+     * describing its outcome (the JSON result for the entity if
+     * successful).
+     */
+    public static final class Item
+    {
+        /**
+         * The index of the lookup within the batch.
+         */
+        private final int index;
+
+        /**
+         * The {@link SzGrpcResult} for the lookup.
+         */
+        private final SzGrpcResult result;
+
+        /**
+         * Constructs with the index and {@link SzGrpcResult}.
+         *
+         * @param index The zero-based index of the lookup within the
+         *              batch.
+         * @param result The {@link SzGrpcResult} for the lookup.
+         */
+        public Item(int index, SzGrpcResult result)
+        {
+            Objects.requireNonNull(result, "The result cannot be null");
+            this.index  = index;
+            this.result = result;
+        }
+
+        /**
+         * Gets the zero-based index of the lookup within the batch.
+         *
+         * @return The index of the lookup within the batch.
+         */
+        public int getIndex()
+        {
+            return this.index;
+        }
+
+        /**
+         * Gets the {@link SzGrpcResult} for the lookup.
+         *
+         * @return The {@link SzGrpcResult} for the lookup.
+         */
+        public SzGrpcResult getResult()
+        {
+            return this.result;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.index + ": " + this.result;
+        }
+    }
+
+    /**
+     * The {@link MethodDescriptor.Marshaller} for {@link Item} instances.
+     */
+    private static final MethodDescriptor.Marshaller<Item> ITEM_MARSHALLER
+        = new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(Item item)
+            {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try (DataOutputStream dos = new DataOutputStream(baos)) {
+                    dos.writeInt(item.getIndex());
+                    item.getResult().writeTo(dos);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new ByteArrayInputStream(baos.toByteArray());
+            }
+
+            @Override
+            public Item parse(InputStream stream)
+            {
+                try (DataInputStream dis = new DataInputStream(stream)) {
+                    int index = dis.readInt();
+                    return new Item(index, SzGrpcResult.readFrom(dis));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+    /**
+     * The server-streaming {@link MethodDescriptor} for retrieving multiple
+     * entities by entity ID.
+     */
+    public static final MethodDescriptor<List<GetEntityByEntityIdRequest>,
+                                         Item>
+        BY_ENTITY_ID_METHOD = MethodDescriptor
+            .<List<GetEntityByEntityIdRequest>, Item>newBuilder()
+            .setType(MethodType.SERVER_STREAMING)
+            .setFullMethodName(
+                MethodDescriptor.generateFullMethodName(
+                    SERVICE_NAME, "GetEntitiesByEntityId"))
+            .setRequestMarshaller(
+                delimitedMarshaller(GetEntityByEntityIdRequest.parser()))
+            .setResponseMarshaller(ITEM_MARSHALLER)
+            .build();
+
+    /**
+     * The server-streaming {@link MethodDescriptor} for retrieving the
+     * entities for multiple records by record key.
+     */
+    public static final MethodDescriptor<List<GetEntityByRecordIdRequest>,
+                                         Item>
+        BY_RECORD_ID_METHOD = MethodDescriptor
+            .<List<GetEntityByRecordIdRequest>, Item>newBuilder()
+            .setType(MethodType.SERVER_STREAMING)
+            .setFullMethodName(
+                MethodDescriptor.generateFullMethodName(
+                    SERVICE_NAME, "GetEntitiesByRecordId"))
+            .setRequestMarshaller(
+                delimitedMarshaller(GetEntityByRecordIdRequest.parser()))
+            .setResponseMarshaller(ITEM_MARSHALLER)
+            .build();
+
+    /**
+     * Private default constructor.
+     */
+    private SzGrpcEntityBatch()
+    {
+        // do nothing
+    }
+}
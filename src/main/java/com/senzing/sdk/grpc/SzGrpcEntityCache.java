@@ -0,0 +1,468 @@
+package com.senzing.sdk.grpc;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.senzing.util.JsonUtilities;
+
+/**
+ * Provides a bounded client-side cache of the results of {@link
+ * SzGrpcEngine#getEntity(long, Set)} keyed by entity ID and flags.  Cached
+ * results are invalidated when the INFO message of a write operation lists
+ * their entity in its <code>AFFECTED_ENTITIES</code>, and also expire after
+ * a configured time-to-live which bounds the staleness of results affected
+ * by writes that this client does not observe.
+ *
+ * <p>
+ * The cache holds at most a configured number of results and evicts the
+ * least-recently used results once that bound is exceeded.  To avoid caching
+ * a result that was read concurrently with a write that affects it, callers
+ * obtain a {@linkplain #getStamp() stamp} before reading and pass it when
+ * {@linkplain #put(long, long, long, String) storing} the result, which is
+ * discarded if its entity was invalidated in the meantime.  The
+ * invalidation versions are tracked in a fixed number of stripes hashed by
+ * entity ID, so a write only rarely discards a concurrent read of an
+ * unrelated entity that hashes to the same stripe.
+ * </p>
+ *
+ * <p>
+ * If the cache is {@linkplain #subscribe(SzGrpcChangeFeed) subscribed} to
+ * the change feed of the server then it is also invalidated by the writes of
+ * other clients of that server.  Should the subscription fail, the cache is
+ * cleared and {@linkplain #isDisabled() disabled} rather than risk serving
+ * results that can no longer be invalidated.
+ * </p>
+ */
+final class SzGrpcEntityCache
+{
+    /**
+     * The JSON property for the affected entities in an INFO message.
+     */
+    private static final String AFFECTED_ENTITIES_KEY = "AFFECTED_ENTITIES";
+
+    /**
+     * The JSON property for an entity ID.
+     */
+    private static final String ENTITY_ID_KEY = "ENTITY_ID";
+
+    /**
+     * The number of stripes in which the invalidation versions of the
+     * entities are tracked, which must be a power of two.
+     */
+    private static final int VERSION_STRIPES = 256;
+
+    /**
+     * Identifies a cached result by entity ID and flags.
+     */
+    private static final class Key
+    {
+        /**
+         * The entity ID.
+         */
+        private final long entityId;
+
+        /**
+         * The flags with which the entity was retrieved.
+         */
+        private final long flags;
+
+        /**
+         * Constructs with the entity ID and flags.
+         *
+         * @param entityId The entity ID.
+         * @param flags The flags with which the entity was retrieved.
+         */
+        private Key(long entityId, long flags)
+        {
+            this.entityId   = entityId;
+            this.flags      = flags;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) object;
+            return this.entityId == key.entityId && this.flags == key.flags;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode(this.entityId) * 31
+                + Long.hashCode(this.flags);
+        }
+    }
+
+    /**
+     * Describes a cached result.
+     */
+    private static final class Entry
+    {
+        /**
+         * The cached result.
+         */
+        private final String value;
+
+        /**
+         * The {@link System#nanoTime()} at which the result expires.
+         */
+        private final long expiresNanos;
+
+        /**
+         * Constructs with the result and expiration time.
+         *
+         * @param value The cached result.
+         * @param expiresNanos The {@link System#nanoTime()} at which the
+         *                     result expires.
+         */
+        private Entry(String value, long expiresNanos)
+        {
+            this.value          = value;
+            this.expiresNanos   = expiresNanos;
+        }
+    }
+
+    /**
+     * The cached {@link Entry} instances by {@link Key} in access order.
+     */
+    private final LinkedHashMap<Key, Entry> entries
+        = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The {@link Set} of {@link Key} instances cached for each entity ID.
+     */
+    private final Map<Long, Set<Key>> entityIndex = new HashMap<>();
+
+    /**
+     * The maximum number of cached results.
+     */
+    private final int maxEntries;
+
+    /**
+     * The number of nanoseconds to retain a cached result, or {@link
+     * Long#MAX_VALUE} if no limit.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The invalidation version, which is incremented on every invalidation
+     * and serves as the stamp for reads that begin thereafter.
+     */
+    private long version = 0L;
+
+    /**
+     * The invalidation version at which the cache was last {@linkplain
+     * #clear() cleared}.
+     */
+    private long clearedVersion = 0L;
+
+    /**
+     * The invalidation version at which an entity hashing to each stripe was
+     * last invalidated.
+     */
+    private final long[] stripeVersions = new long[VERSION_STRIPES];
+
+    /**
+     * Set if the cache has been disabled.
+     */
+    private volatile boolean disabled = false;
+
+    /**
+     * The {@link SzGrpcChangeFeed.Subscription} by which the cache is
+     * invalidated, or <code>null</code> if none.
+     */
+    private SzGrpcChangeFeed.Subscription subscription = null;
+
+    /**
+     * The number of results served from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups not found in the cache.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs with the maximum number of results and the time-to-live.
+     *
+     * @param maxEntries The maximum number of cached results.
+     * @param ttl The {@link Duration} to retain a cached result, or
+     *            <code>null</code> if no limit.
+     *
+     * @throws IllegalArgumentException If the maximum number of results is
+     *                                  not positive.
+     */
+    SzGrpcEntityCache(int maxEntries, Duration ttl)
+    {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(
+                "The maximum entry count must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos   = (ttl == null) ? Long.MAX_VALUE : ttl.toNanos();
+    }
+
+    /**
+     * Subscribes to the change feed of the server via the specified {@link
+     * SzGrpcChangeFeed} so that the cache is invalidated by the writes of
+     * all clients of the server.  Only entries recorded after subscribing
+     * are received.
+     *
+     * @param changeFeed The {@link SzGrpcChangeFeed} to subscribe with.
+     */
+    synchronized void subscribe(SzGrpcChangeFeed changeFeed)
+    {
+        this.subscription = changeFeed.subscribe(
+            SzGrpcChangeFeed.LATEST_OFFSET,
+            entry -> this.invalidate(entry.getMessage()),
+            failure -> this.disable());
+    }
+
+    /**
+     * Clears and disables the cache and closes the change feed subscription
+     * (if any).  Once disabled, lookups always miss and no results are
+     * cached.
+     */
+    void disable()
+    {
+        SzGrpcChangeFeed.Subscription sub;
+        synchronized (this) {
+            this.disabled = true;
+            this.clear();
+            sub = this.subscription;
+            this.subscription = null;
+        }
+        if (sub != null) {
+            sub.close();
+        }
+    }
+
+    /**
+     * Checks if the cache has been {@linkplain #disable() disabled}.
+     *
+     * @return <code>true</code> if disabled, otherwise <code>false</code>.
+     */
+    boolean isDisabled()
+    {
+        return this.disabled;
+    }
+
+    /**
+     * Gets the current invalidation stamp to pass to {@link #put(long, long,
+     * long, String)} after reading a result.
+     *
+     * @return The current invalidation stamp.
+     */
+    synchronized long getStamp()
+    {
+        return this.version;
+    }
+
+    /**
+     * Gets the index of the stripe tracking the invalidation version for
+     * the specified entity ID.
+     *
+     * @param entityId The entity ID.
+     *
+     * @return The index of the stripe.
+     */
+    private static int stripe(long entityId)
+    {
+        int hashCode = Long.hashCode(entityId);
+        return (hashCode ^ (hashCode >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Gets the cached result for the specified entity ID and flags.
+     *
+     * @param entityId The entity ID.
+     * @param flags The flags with which the entity is retrieved.
+     *
+     * @return The cached result, or <code>null</code> if none.
+     */
+    synchronized String get(long entityId, long flags)
+    {
+        Key key = new Key(entityId, flags);
+        Entry entry = this.entries.get(key);
+        if (entry != null && entry.expiresNanos != Long.MAX_VALUE
+            && System.nanoTime() - entry.expiresNanos > 0L)
+        {
+            this.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches the specified result unless the cache is disabled or the
+     * entity was invalidated since the specified stamp was {@linkplain
+     * #getStamp() obtained}, evicting the least-recently used result if the
+     * maximum number of results is exceeded.
+     *
+     * @param stamp The stamp obtained before the result was read.
+     * @param entityId The entity ID.
+     * @param flags The flags with which the entity was retrieved.
+     * @param value The result to cache.
+     *
+     * @return <code>true</code> if the result was cached, otherwise
+     *         <code>false</code>.
+     */
+    synchronized boolean put(long   stamp,
+                             long   entityId,
+                             long   flags,
+                             String value)
+    {
+        if (this.disabled || value == null || this.clearedVersion > stamp
+            || this.stripeVersions[stripe(entityId)] > stamp)
+        {
+            return false;
+        }
+        long expiresNanos = (this.ttlNanos == Long.MAX_VALUE)
+            ? Long.MAX_VALUE : System.nanoTime() + this.ttlNanos;
+        Key key = new Key(entityId, flags);
+        this.entries.put(key, new Entry(value, expiresNanos));
+        this.entityIndex.computeIfAbsent(entityId, k -> new HashSet<>())
+            .add(key);
+
+        // evict the least-recently used entry
+        if (this.entries.size() > this.maxEntries) {
+            Iterator<Key> iter = this.entries.keySet().iterator();
+            Key eldest = iter.next();
+            iter.remove();
+            this.unindex(eldest);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the cached result for the specified {@link Key}.
+     *
+     * @param key The {@link Key} to remove.
+     */
+    private void remove(Key key)
+    {
+        if (this.entries.remove(key) != null) {
+            this.unindex(key);
+        }
+    }
+
+    /**
+     * Removes the specified {@link Key} from the entity index.
+     *
+     * @param key The {@link Key} to remove.
+     */
+    private void unindex(Key key)
+    {
+        Set<Key> keys = this.entityIndex.get(key.entityId);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            this.entityIndex.remove(key.entityId);
+        }
+    }
+
+    /**
+     * Invalidates the cached results for the <code>AFFECTED_ENTITIES</code>
+     * identified by the specified INFO message.  If the INFO message cannot
+     * be parsed then the entire cache is {@linkplain #clear() cleared}.
+     *
+     * @param infoMessage The INFO message produced by a write operation, or
+     *                    <code>null</code> if none.
+     */
+    void invalidate(String infoMessage)
+    {
+        if (infoMessage == null || infoMessage.isBlank()) {
+            return;
+        }
+        JsonObject jsonObject;
+        try {
+            jsonObject = JsonUtilities.parseJsonObject(infoMessage);
+        } catch (RuntimeException e) {
+            this.clear();
+            return;
+        }
+        JsonValue affectedValue = jsonObject.get(AFFECTED_ENTITIES_KEY);
+        if (!(affectedValue instanceof JsonArray)) {
+            return;
+        }
+        synchronized (this) {
+            long version = ++this.version;
+            for (JsonValue value : (JsonArray) affectedValue) {
+                if (value.getValueType() != JsonValue.ValueType.OBJECT) {
+                    continue;
+                }
+                JsonValue id = value.asJsonObject().get(ENTITY_ID_KEY);
+                if (!(id instanceof JsonNumber)) {
+                    continue;
+                }
+                long entityId = ((JsonNumber) id).longValue();
+                this.stripeVersions[stripe(entityId)] = version;
+                Set<Key> keys = this.entityIndex.remove(entityId);
+                if (keys != null) {
+                    for (Key key : keys) {
+                        this.entries.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached results (e.g.: because the server has been
+     * reinitialized or its repository purged).
+     */
+    synchronized void clear()
+    {
+        this.clearedVersion = ++this.version;
+        this.entries.clear();
+        this.entityIndex.clear();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return The number of cached results.
+     */
+    synchronized int getSize()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets the number of results served from the cache.
+     *
+     * @return The number of results served from the cache.
+     */
+    long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups not found in the cache.
+     *
+     * @return The number of lookups not found in the cache.
+     */
+    long getMissCount()
+    {
+        return this.misses.sum();
+    }
+}
@@ -3,19 +3,22 @@ package com.senzing.sdk.grpc;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.json.Json;
 import javax.json.JsonException;
 import javax.json.JsonObject;
 
 import io.grpc.Channel;
+import io.grpc.Metadata;
 import io.grpc.Status;
+import io.grpc.StatusException;
 import io.grpc.StatusRuntimeException;
 
 import com.senzing.sdk.SzConfigManager;
@@ -70,6 +73,41 @@ q     */
      */
     public static final String REASON_SPLITTER = "|";
 
+    /**
+     * The {@link Metadata.Key} for the trailer carrying the Senzing error
+     * code of a compactly-encoded error.  Errors encoded this way also
+     * carry the {@link #ERROR_MESSAGE_TRAILER_KEY} trailer and may be
+     * converted to an {@link SzException} without parsing the JSON status
+     * description.
+     */
+    public static final Metadata.Key<String> ERROR_CODE_TRAILER_KEY
+        = Metadata.Key.of("sz-error-code", Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * The {@link Metadata.Key} for the binary trailer carrying the UTF-8
+     * encoded Senzing error message of a compactly-encoded error.
+     */
+    public static final Metadata.Key<byte[]> ERROR_MESSAGE_TRAILER_KEY
+        = Metadata.Key.of("sz-error-message" + Metadata.BINARY_HEADER_SUFFIX,
+                          Metadata.BINARY_BYTE_MARSHALLER);
+
+    /**
+     * The default duration that an export may go without being accessed
+     * before it is evicted and its streaming call is cancelled.  The default
+     * is ten (10) minutes.  The server's default export idle timeout is
+     * derived from this value so that the two agree unless one of them is
+     * explicitly configured.
+     */
+    public static final Duration DEFAULT_EXPORT_IDLE_TIMEOUT
+        = Duration.ofMinutes(10);
+
+    /**
+     * The default duration that a result may be retained in the client-side
+     * entity cache before it expires.  The default is thirty (30) seconds.
+     */
+    public static final Duration DEFAULT_ENTITY_CACHE_TTL
+        = Duration.ofSeconds(30);
+
     /**
      * Enumerates the possible states for an instance
      * of {@link SzGrpcEnvironment}.
@@ -145,19 +183,49 @@ q     */
     private Channel grpcChannel = null;
 
     /**
-     * The {@link State} for this instance.
+     * The maximum number of lines of export content to request per message.
      */
-    private State state = null;
+    private int exportBatchLines = SzGrpcExportBatch.DEFAULT_MAX_LINES;
 
-    /** 
-     * The number of currently executing operations.
+    /**
+     * The approximate maximum number of bytes of export content to request
+     * per message.
+     */
+    private int exportBatchBytes = SzGrpcExportBatch.DEFAULT_MAX_BYTES;
+
+    /**
+     * The {@link Duration} an export may be idle before being evicted, or
+     * <code>null</code> if idle exports are never evicted.
+     */
+    private Duration exportIdleTimeout = DEFAULT_EXPORT_IDLE_TIMEOUT;
+
+    /**
+     * The maximum number of results in the client-side entity cache, or zero
+     * (0) if the entity cache is disabled.
+     */
+    private int entityCacheSize = 0;
+
+    /**
+     * The {@link Duration} a result may be retained in the client-side entity
+     * cache, or <code>null</code> if results do not expire.
+     */
+    private Duration entityCacheTtl = DEFAULT_ENTITY_CACHE_TTL;
+
+    /**
+     * Whether or not the client-side entity cache is invalidated via the
+     * change feed of the server.
      */
-    private int executingCount = 0;
+    private boolean entityCacheChangeFeed = false;
 
     /**
-     * The {@link ReadWriteLock} for this instance.
+     * The {@link State} for this instance.
+     */
+    private volatile State state = null;
+
+    /** 
+     * The {@link InFlightCounter} tracking the currently executing operations.
      */
-    private final ReadWriteLock readWriteLock;
+    private final InFlightCounter inFlight;
 
     /**
      * Internal object for instance-wide synchronized locking.
@@ -187,6 +255,110 @@ q     */
          * @return The gRPC {@link Channel} to use.
          */
         Channel getChannel();
+
+        /**
+         * Gets the maximum number of lines of export content to request the
+         * server pack into a single streamed response message.  A value of
+         * one (1) or less disables batching of export content.
+         *
+         * <p>
+         * The default implementation returns {@link
+         * SzGrpcExportBatch#DEFAULT_MAX_LINES}.
+         * </p>
+         *
+         * @return The maximum number of lines of export content per message.
+         */
+        default int getExportBatchLines()
+        {
+            return SzGrpcExportBatch.DEFAULT_MAX_LINES;
+        }
+
+        /**
+         * Gets the approximate maximum number of bytes of export content to
+         * request the server pack into a single streamed response message.
+         *
+         * <p>
+         * The default implementation returns {@link
+         * SzGrpcExportBatch#DEFAULT_MAX_BYTES}.
+         * </p>
+         *
+         * @return The approximate maximum number of bytes of export content
+         *         per message.
+         */
+        default int getExportBatchBytes()
+        {
+            return SzGrpcExportBatch.DEFAULT_MAX_BYTES;
+        }
+
+        /**
+         * Gets the {@link Duration} that an export may go without being
+         * accessed before it is evicted and its streaming call is cancelled.
+         * If <code>null</code> then idle exports are never evicted.
+         *
+         * <p>
+         * The default implementation returns {@link
+         * #DEFAULT_EXPORT_IDLE_TIMEOUT}.
+         * </p>
+         *
+         * @return The {@link Duration} that an export may be idle, or
+         *         <code>null</code> if idle exports are never evicted.
+         */
+        default Duration getExportIdleTimeout()
+        {
+            return DEFAULT_EXPORT_IDLE_TIMEOUT;
+        }
+
+        /**
+         * Gets the maximum number of results of {@link
+         * SzGrpcEngine#getEntity(long, java.util.Set)} to retain in a
+         * client-side cache.  If zero (0) then the entity cache is disabled.
+         *
+         * <p>
+         * The default implementation returns zero (0).
+         * </p>
+         *
+         * @return The maximum number of results in the entity cache, or zero
+         *         (0) if the entity cache is disabled.
+         */
+        default int getEntityCacheSize()
+        {
+            return 0;
+        }
+
+        /**
+         * Gets the {@link Duration} that a result may be retained in the
+         * client-side entity cache before it expires.  If <code>null</code>
+         * then results do not expire.
+         *
+         * <p>
+         * The default implementation returns {@link
+         * #DEFAULT_ENTITY_CACHE_TTL}.
+         * </p>
+         *
+         * @return The {@link Duration} a result may be retained, or
+         *         <code>null</code> if results do not expire.
+         */
+        default Duration getEntityCacheTtl()
+        {
+            return DEFAULT_ENTITY_CACHE_TTL;
+        }
+
+        /**
+         * Checks whether or not the client-side entity cache should also be
+         * invalidated by subscribing to the {@linkplain SzGrpcChangeFeed
+         * change feed} of the server.
+         *
+         * <p>
+         * The default implementation returns <code>false</code>.
+         * </p>
+         *
+         * @return <code>true</code> if the entity cache should subscribe to
+         *         the change feed, otherwise <code>false</code>.
+         */
+        default boolean isEntityCacheChangeFeed()
+        {
+            return false;
+        }
     }
 
     /**
@@ -219,12 +391,49 @@ q     */
          */
         private Channel channel = null;
 
+        /**
+         * The maximum number of lines of export content per message.
+         */
+        private int exportBatchLines = SzGrpcExportBatch.DEFAULT_MAX_LINES;
+
+        /**
+         * The approximate maximum number of bytes of export content per
+         * message.
+         */
+        private int exportBatchBytes = SzGrpcExportBatch.DEFAULT_MAX_BYTES;
+
+        /**
+         * The {@link Duration} an export may be idle before being evicted.
+         */
+        private Duration exportIdleTimeout = DEFAULT_EXPORT_IDLE_TIMEOUT;
+
+        /**
+         * The maximum number of results in the entity cache.
+         */
+        private int entityCacheSize = 0;
+
+        /**
+         * The {@link Duration} a result may be retained in the entity cache.
+         */
+        private Duration entityCacheTtl = DEFAULT_ENTITY_CACHE_TTL;
+
+        /**
+         * Whether or not the entity cache subscribes to the change feed.
+         */
+        private boolean entityCacheChangeFeed = false;
+
         /**
          * Default constructor.
          */
         protected AbstractBuilder()
         {
-            this.channel = null;
+            this.channel                = null;
+            this.exportBatchLines       = SzGrpcExportBatch.DEFAULT_MAX_LINES;
+            this.exportBatchBytes       = SzGrpcExportBatch.DEFAULT_MAX_BYTES;
+            this.exportIdleTimeout      = DEFAULT_EXPORT_IDLE_TIMEOUT;
+            this.entityCacheSize        = 0;
+            this.entityCacheTtl         = DEFAULT_ENTITY_CACHE_TTL;
+            this.entityCacheChangeFeed  = false;
         }
 
 
@@ -259,6 +468,260 @@ q     */
             return ((B) this);
         }
 
+        /**
+         * Gets the maximum number of lines of export content to request the
+         * server pack into a single streamed response message.
+         *
+         * @return The maximum number of lines of export content per message.
+         */
+        @Override
+        public int getExportBatchLines()
+        {
+            return this.exportBatchLines;
+        }
+
+        /**
+         * Sets the maximum number of lines of export content to request the
+         * server pack into a single streamed response message.  Specify one
+         * (1) to disable batching and receive one line per message.  If not
+         * specified then {@link SzGrpcExportBatch#DEFAULT_MAX_LINES} is used.
+         *
+         * @param lineCount The maximum number of lines of export content per
+         *                  message.
+         *
+         * @return A reference to this instance.
+         *
+         * @throws IllegalArgumentException If the specified line count is
+         *                                  less than one (1).
+         */
+        @SuppressWarnings("unchecked")
+        public B exportBatchLines(int lineCount)
+        {
+            if (lineCount < 1) {
+                throw new IllegalArgumentException(
+                    "The export batch line count cannot be less than one: "
+                    + lineCount);
+            }
+            this.exportBatchLines = lineCount;
+            return ((B) this);
+        }
+
+        /**
+         * Gets the approximate maximum number of bytes of export content to
+         * request the server pack into a single streamed response message.
+         *
+         * @return The approximate maximum number of bytes of export content
+         *         per message.
+         */
+        @Override
+        public int getExportBatchBytes()
+        {
+            return this.exportBatchBytes;
+        }
+
+        /**
+         * Sets the approximate maximum number of bytes of export content to
+         * request the server pack into a single streamed response message.
+         * A single line that exceeds this size is still sent in its own
+         * message.  The server will limit this to at most {@link
+         * SzGrpcExportBatch#MAX_BYTES_LIMIT}.  If not specified then {@link
+         * SzGrpcExportBatch#DEFAULT_MAX_BYTES} is used.
+         *
+         * @param byteCount The approximate maximum number of bytes of export
+         *                  content per message.
+         *
+         * @return A reference to this instance.
+         *
+         * @throws IllegalArgumentException If the specified byte count is
+         *                                  less than one (1).
+         */
+        @SuppressWarnings("unchecked")
+        public B exportBatchBytes(int byteCount)
+        {
+            if (byteCount < 1) {
+                throw new IllegalArgumentException(
+                    "The export batch byte count cannot be less than one: "
+                    + byteCount);
+            }
+            this.exportBatchBytes = byteCount;
+            return ((B) this);
+        }
+
+        /**
+         * Gets the {@link Duration} that an export may go without being
+         * accessed before it is evicted and its streaming call is cancelled.
+         *
+         * @return The {@link Duration} that an export may be idle, or
+         *         <code>null</code> if idle exports are never evicted.
+         */
+        @Override
+        public Duration getExportIdleTimeout()
+        {
+            return this.exportIdleTimeout;
+        }
+
+        /**
+         * Sets the {@link Duration} that an export may go without being
+         * accessed (via {@link SzEngine#fetchNext(long)}) before it is
+         * evicted and its streaming call is cancelled.  Once evicted, the
+         * export handle is no longer valid.  Specify <code>null</code> to
+         * never evict idle exports.  If not specified then {@link
+         * #DEFAULT_EXPORT_IDLE_TIMEOUT} is used.
+         *
+         * @param idleTimeout The {@link Duration} that an export may be idle,
+         *                    or <code>null</code> if idle exports should never
+         *                    be evicted.
+         *
+         * @return A reference to this instance.
+         *
+         * @throws IllegalArgumentException If the specified {@link Duration}
+         *                                  is zero or negative.
+         */
+        @SuppressWarnings("unchecked")
+        public B exportIdleTimeout(Duration idleTimeout)
+        {
+            if (idleTimeout != null
+                && (idleTimeout.isZero() || idleTimeout.isNegative()))
+            {
+                throw new IllegalArgumentException(
+                    "The export idle timeout must be positive: "
+                    + idleTimeout);
+            }
+            this.exportIdleTimeout = idleTimeout;
+            return ((B) this);
+        }
+
+        /**
+         * Gets the maximum number of results of {@link
+         * SzGrpcEngine#getEntity(long, java.util.Set)} to retain in a
+         * client-side cache.
+         *
+         * @return The maximum number of results in the entity cache, or zero
+         *         (0) if the entity cache is disabled.
+         */
+        @Override
+        public int getEntityCacheSize()
+        {
+            return this.entityCacheSize;
+        }
+
+        /**
+         * Sets the maximum number of results of {@link
+         * SzGrpcEngine#getEntity(long, java.util.Set)} to retain in a
+         * client-side cache, evicting the least-recently used results once
+         * exceeded.  Cached results are invalidated by the
+         * <code>AFFECTED_ENTITIES</code> of the INFO messages from the write
+         * operations of the engine.  The flags of the caller are sent to the
+         * server unchanged, so a write for which {@link
+         * com.senzing.sdk.SzFlag#SZ_WITH_INFO} is not specified clears the
+         * entire entity cache since the entities it affected are unknown.
+         * Specify zero (0) to disable the entity cache, which is the default.
+         *
+         * <p>
+         * <b>NOTE:</b> Unless the entity cache {@linkplain
+         * #entityCacheChangeFeed(boolean) subscribes to the change feed} of
+         * the server, the writes of other clients are not observed and a
+         * cached result they affect is served stale until it {@linkplain
+         * #entityCacheTtl(Duration) expires}, which is after {@link
+         * #DEFAULT_ENTITY_CACHE_TTL} (30 seconds) by default.
+         * </p>
+         *
+         * @param maxEntries The maximum number of results in the entity
+         *                   cache, or zero (0) to disable it.
+         *
+         * @return A reference to this instance.
+         *
+         * @throws IllegalArgumentException If the specified size is negative.
+         */
+        @SuppressWarnings("unchecked")
+        public B entityCacheSize(int maxEntries)
+        {
+            if (maxEntries < 0) {
+                throw new IllegalArgumentException(
+                    "The entity cache size cannot be negative: "
+                    + maxEntries);
+            }
+            this.entityCacheSize = maxEntries;
+            return ((B) this);
+        }
+
+        /**
+         * Gets the {@link Duration} that a result may be retained in the
+         * client-side entity cache before it expires.
+         *
+         * @return The {@link Duration} a result may be retained, or
+         *         <code>null</code> if results do not expire.
+         */
+        @Override
+        public Duration getEntityCacheTtl()
+        {
+            return this.entityCacheTtl;
+        }
+
+        /**
+         * Sets the {@link Duration} that a result may be retained in the
+         * client-side entity cache before it expires.  This bounds the
+         * staleness of results affected by writes from other clients.
+         * Specify <code>null</code> so results never expire.  If not
+         * specified then {@link #DEFAULT_ENTITY_CACHE_TTL} is used.
+         *
+         * @param ttl The {@link Duration} a result may be retained, or
+         *            <code>null</code> if results should never expire.
+         *
+         * @return A reference to this instance.
+         *
+         * @throws IllegalArgumentException If the specified {@link Duration}
+         *                                  is zero or negative.
+         */
+        @SuppressWarnings("unchecked")
+        public B entityCacheTtl(Duration ttl)
+        {
+            if (ttl != null && (ttl.isZero() || ttl.isNegative())) {
+                throw new IllegalArgumentException(
+                    "The entity cache time-to-live must be positive: "
+                    + ttl);
+            }
+            this.entityCacheTtl = ttl;
+            return ((B) this);
+        }
+
+        /**
+         * Checks whether or not the client-side entity cache should also be
+         * invalidated by subscribing to the change feed of the server.
+         *
+         * @return <code>true</code> if the entity cache should subscribe to
+         *         the change feed, otherwise <code>false</code>.
+         */
+        @Override
+        public boolean isEntityCacheChangeFeed()
+        {
+            return this.entityCacheChangeFeed;
+        }
+
+        /**
+         * Sets whether or not the client-side entity cache should also be
+         * invalidated by subscribing to the {@linkplain SzGrpcChangeFeed
+         * change feed} of the server so that writes by other clients are
+         * observed.  The server must have the change feed enabled.  If the
+         * subscription fails then the entity cache is cleared and disabled.
+         * Without the subscription, a cached result affected by the writes
+         * of another client is served stale for up to the {@linkplain
+         * #entityCacheTtl(Duration) time-to-live}.  This has no effect if the
+         * {@linkplain #entityCacheSize(int) entity cache size} is zero (0).
+         *
+         * @param subscribe <code>true</code> if the entity cache should
+         *                  subscribe to the change feed, otherwise
+         *                  <code>false</code>.
+         *
+         * @return A reference to this instance.
+         */
+        @SuppressWarnings("unchecked")
+        public B entityCacheChangeFeed(boolean subscribe)
+        {
+            this.entityCacheChangeFeed = subscribe;
+            return ((B) this);
+        }
+
         /**
          * Implement this method to create a new {@link SzGrpcEnvironment}
          * instance of type <code>E</code> based on this builder instance.
@@ -335,9 +798,15 @@ q     */
             "The Initializer is invalid.  The gRPC Channel cannot be null");
         
         // set the fields
-        this.readWriteLock  = new ReentrantReadWriteLock(true);
-        this.grpcChannel    = initializer.getChannel();
-        this.state          = State.ACTIVE;
+        this.inFlight               = new InFlightCounter();
+        this.grpcChannel            = initializer.getChannel();
+        this.exportBatchLines       = initializer.getExportBatchLines();
+        this.exportBatchBytes       = initializer.getExportBatchBytes();
+        this.exportIdleTimeout      = initializer.getExportIdleTimeout();
+        this.entityCacheSize        = initializer.getEntityCacheSize();
+        this.entityCacheTtl         = initializer.getEntityCacheTtl();
+        this.entityCacheChangeFeed  = initializer.isEntityCacheChangeFeed();
+        this.state                  = State.ACTIVE;
     }
 
     /**
@@ -357,6 +826,93 @@ q     */
         }
     }
 
+    /**
+     * Package-private method for obtaining the maximum number of lines of
+     * export content to request the server pack into a single message.
+     *
+     * @return The maximum number of lines of export content per message.
+     */
+    int getExportBatchLines()
+    {
+        return this.exportBatchLines;
+    }
+
+    /**
+     * Package-private method for obtaining the approximate maximum number of
+     * bytes of export content to request the server pack into a single
+     * message.
+     *
+     * @return The approximate maximum number of bytes of export content per
+     *         message.
+     */
+    int getExportBatchBytes()
+    {
+        return this.exportBatchBytes;
+    }
+
+    /**
+     * Package-private method for obtaining the {@link Duration} that an
+     * export may go without being accessed before it is evicted.
+     *
+     * @return The {@link Duration} that an export may be idle, or
+     *         <code>null</code> if idle exports are never evicted.
+     */
+    Duration getExportIdleTimeout()
+    {
+        return this.exportIdleTimeout;
+    }
+
+    /**
+     * Package-private method for obtaining the maximum number of results in
+     * the client-side entity cache.
+     *
+     * @return The maximum number of results in the entity cache, or zero
+     *         (0) if the entity cache is disabled.
+     */
+    int getEntityCacheSize()
+    {
+        return this.entityCacheSize;
+    }
+
+    /**
+     * Package-private method for obtaining the {@link Duration} that a
+     * result may be retained in the client-side entity cache.
+     *
+     * @return The {@link Duration} a result may be retained, or
+     *         <code>null</code> if results do not expire.
+     */
+    Duration getEntityCacheTtl()
+    {
+        return this.entityCacheTtl;
+    }
+
+    /**
+     * Package-private method for checking whether or not the client-side
+     * entity cache subscribes to the change feed of the server.
+     *
+     * @return <code>true</code> if the entity cache subscribes to the
+     *         change feed, otherwise <code>false</code>.
+     */
+    boolean isEntityCacheChangeFeed()
+    {
+        return this.entityCacheChangeFeed;
+    }
+
+    /**
+     * Package-private method for clearing the client-side entity cache (if
+     * enabled) after the server is reinitialized or its repository purged.
+     */
+    void clearEntityCache()
+    {
+        SzGrpcEngine engine;
+        synchronized (this.monitor) {
+            engine = this.grpcEngine;
+        }
+        if (engine != null) {
+            engine.clearEntityCache();
+        }
+    }
+
     /**
      * Executes the specified {@link Callable} task and returns the result if
      * successful. This will throw any exception produced by the {@link
@@ -383,20 +939,13 @@ q     */
     protected <T> T execute(Callable<T> task)
         throws SzException, IllegalStateException
     {
-        Lock lock = null;
+        // increment the executing count unless destroying
+        int token = this.inFlight.enter();
+        if (token < 0) {
+            throw new IllegalStateException(
+                "SzEnvironment has been destroyed");
+        }
         try {
-            // acquire a write lock while checking if active
-            lock = this.acquireReadLock();
-            synchronized (this.monitor) {
-                if (this.state != State.ACTIVE) {
-                    throw new IllegalStateException(
-                        "SzEnvironment has been destroyed");
-                }
-
-                // increment the executing count
-                this.executingCount++;
-            }
-        
             return task.call();
 
         } catch (StatusRuntimeException e) {
@@ -409,17 +958,94 @@ q     */
             throw new SzException(e);
 
         } finally {
-            synchronized (this.monitor) {
-                this.executingCount--;
-                this.monitor.notifyAll();
+            // decrement the executing count
+            this.inFlight.exit(token);
+        }
+    }
+
+    /**
+     * Executes the specified {@link Callable} task that initiates an
+     * asynchronous operation and returns a {@link CompletableFuture} that
+     * completes with the result of that operation.  The operation is counted
+     * as in-flight until the {@link CompletableFuture} produced by the task
+     * completes so that {@link #destroy()} will wait for it.  Exceptional
+     * completion is mapped in the same manner as {@link #execute(Callable)}.
+     *
+     * @param <T> The result type.
+     * @param task The {@link Callable} task that initiates the operation.
+     * @return The {@link CompletableFuture} for the result of the operation.
+     * @throws IllegalStateException If this {@link SzGrpcEnvironment} instance
+     *                               has already been destroyed.
+     */
+    protected <T> CompletableFuture<T> executeAsync(
+        Callable<CompletableFuture<T>> task)
+        throws IllegalStateException
+    {
+        // increment the executing count unless destroying
+        int token = this.inFlight.enter();
+        if (token < 0) {
+            throw new IllegalStateException(
+                "SzEnvironment has been destroyed");
+        }
+
+        CompletableFuture<T> operation;
+        try {
+            operation = task.call();
+        } catch (Throwable t) {
+            operation = CompletableFuture.failedFuture(t);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        operation.whenComplete((value, failure) -> {
+            // decrement the executing count before completing
+            this.inFlight.exit(token);
+            if (failure == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(toAsyncFailure(failure));
             }
-            lock = releaseLock(lock);
+        });
+        return result;
+    }
+
+    /**
+     * Maps the specified failure of an asynchronous operation to the
+     * {@link Throwable} with which to complete the associated {@link
+     * CompletableFuture}.
+     *
+     * @param failure The failure of the asynchronous operation.
+     * @return The mapped {@link Throwable}.
+     */
+    private static Throwable toAsyncFailure(Throwable failure)
+    {
+        if (failure instanceof CompletionException
+            && failure.getCause() != null)
+        {
+            failure = failure.getCause();
+        }
+        if (failure instanceof StatusRuntimeException) {
+            StatusRuntimeException e = (StatusRuntimeException) failure;
+            return createSzException(e.getStatus(), e);
+        }
+        if (failure instanceof StatusException) {
+            StatusException e = (StatusException) failure;
+            return createSzException(e.getStatus(), e);
+        }
+        if (failure instanceof SzException
+            || failure instanceof RuntimeException
+            || failure instanceof Error)
+        {
+            return failure;
         }
+        return new SzException(failure);
     }
 
     /**
      * Creates an {@link SzException} from the specified {@link Status} and
-     * {@link Exception}.
+     * {@link Exception}.  If the {@link Exception} carries the {@link
+     * #ERROR_CODE_TRAILER_KEY} and {@link #ERROR_MESSAGE_TRAILER_KEY}
+     * trailers then the {@link SzException} is created from those,
+     * otherwise the JSON status description is parsed.
      * 
      * @param status The gRPC {@link Status} describing the failure.
      * 
@@ -432,6 +1058,23 @@ q     */
      */
     public static SzException createSzException(Status status, Exception e) 
     {   
+        // check for a compactly-encoded error to avoid parsing JSON
+        Metadata trailers = Status.trailersFromThrowable(e);
+        if (trailers != null) {
+            String codeText = trailers.get(ERROR_CODE_TRAILER_KEY);
+            byte[] messageBytes = trailers.get(ERROR_MESSAGE_TRAILER_KEY);
+            if (codeText != null && messageBytes != null) {
+                try {
+                    return SzCoreUtilities.createSzException(
+                        Integer.parseInt(codeText),
+                        new String(messageBytes, StandardCharsets.UTF_8));
+
+                } catch (NumberFormatException e2) {
+                    // fall through to the JSON description
+                }
+            }
+        }
+
         String description = status.getDescription();
         if (description != null) {
             description = description.trim();
@@ -546,9 +1189,7 @@ q     */
      */
     int getExecutingCount()
     {
-        synchronized (this.monitor) {
-            return this.executingCount;
-        }
+        return (int) this.inFlight.getCount();
     }
 
     /**
@@ -560,12 +1201,10 @@ q     */
     void ensureActive()
         throws IllegalStateException
     {
-        synchronized (this.monitor) {
-            if (this.state != State.ACTIVE) {
-                throw new IllegalStateException(
-                    "The SzGrpcEnvironment instance"
-                        + " has already been destroyed.");
-            }
+        if (this.state != State.ACTIVE) {
+            throw new IllegalStateException(
+                "The SzGrpcEnvironment instance"
+                    + " has already been destroyed.");
         }
     }
 
@@ -669,42 +1308,26 @@ q     */
     public long getActiveConfigId()
         throws IllegalStateException, SzException
     {
-        Lock lock = null;
-        try {
-            // get a read lock to ensure we remain active while
-            // executing the operation
-            lock = this.acquireReadLock();
-            
-            // ensure we have initialized the engine or diagnostic
-            synchronized (this.monitor) {
-                this.ensureActive();
-
-                // check if the core engine has been initialized
-                if (this.grpcEngine == null) {
-                    // initialize the engine if not yet initialized
-                    this.getEngine();
-                }
-            }
-
-            // get the active config ID from the gRPC server
-            GetActiveConfigIdRequest request
-                = GetActiveConfigIdRequest
-                    .newBuilder().build();
-
-            // get the response
-            GetActiveConfigIdResponse response
-                = this.execute(() -> {
-                return this.grpcEngine
-                    .getBlockingStub()
-                    .getActiveConfigId(request);
-            });
-            
-            // return the config ID
-            return response.getResult();
-            
-        } finally {
-            lock = this.releaseLock(lock);
-        }
+        // ensure we have initialized the engine (this also ensures that
+        // we are active, and once executing below, the engine will remain
+        // available until the operation completes)
+        this.getEngine();
+
+        // get the active config ID from the gRPC server
+        GetActiveConfigIdRequest request
+            = GetActiveConfigIdRequest
+                .newBuilder().build();
+
+        // get the response
+        GetActiveConfigIdResponse response
+            = this.execute(() -> {
+            return this.grpcEngine
+                .getBlockingStub()
+                .getActiveConfigId(request);
+        });
+        
+        // return the config ID
+        return response.getResult();
     }
 
     /**
@@ -718,35 +1341,22 @@ q     */
     public void reinitialize(long configId)
         throws IllegalStateException, SzException
     {
-        Lock lock = null;
-        try {
-            // get a read lock to ensure we remain active while
-            // executing the operation
-            lock = this.acquireReadLock();
-            
-            // ensure we have initialized the engine or diagnostic
-            synchronized (this.monitor) {
-                this.ensureActive();
-
-                // check if the core engine has been initialized
-                if (this.grpcEngine == null) {
-                    // initialize the engine if not yet initialized
-                    this.getEngine();
-                }
-            }
-
-            // reinitialize the gRPC server
-            ReinitializeRequest request = ReinitializeRequest
-                .newBuilder().setConfigId(configId).build();
-
-            // execute the reinitialization
-            this.execute(() -> {
-                return this.grpcEngine.getBlockingStub().reinitialize(request);
-            });
-            
-        } finally {
-            lock = this.releaseLock(lock);
-        }
+        // ensure we have initialized the engine (this also ensures that
+        // we are active, and once executing below, the engine will remain
+        // available until the operation completes)
+        this.getEngine();
+
+        // reinitialize the gRPC server
+        ReinitializeRequest request = ReinitializeRequest
+            .newBuilder().setConfigId(configId).build();
+
+        // execute the reinitialization
+        this.execute(() -> {
+            return this.grpcEngine.getBlockingStub().reinitialize(request);
+        });
+
+        // the configuration may have changed how entities are resolved
+        this.clearEntityCache();
     }
 
     /**
@@ -754,7 +1364,9 @@ q     */
      * associated gRPC server's {@link SzEnvironment}. This will block until all
      * in-flight operations from {@link #execute(Callable)} complete, but will
      * prevent further tasks to be invoked via the
-     * {@link #execute(Callable)} method.
+     * {@link #execute(Callable)} method.  Any open exports and any change
+     * feed subscription are cancelled before waiting so that operations
+     * blocked on them fail promptly rather than stalling destruction.
      * 
      * <p>
      * <b>NOTE:</b> This method will <b>not</b> {@linkplain 
@@ -767,33 +1379,52 @@ q     */
     @Override
     public void destroy()
     {
-        Lock lock = null;
-        try {
-            synchronized (this.monitor) {
-                // check if this has already been called
-                if (this.state != State.ACTIVE) {
-                    return;
-                }
-
-                // set the flag for destroying
-                this.state = State.DESTROYING;
-                this.monitor.notifyAll();
+        synchronized (this.monitor) {
+            // check if this has already been called
+            if (this.state != State.ACTIVE) {
+                return;
             }
 
-            // acquire an exclusive lock for destroying to ensure
-            // all executing tasks have completed
-            lock = this.acquireWriteLock();
+            // set the flag for destroying
+            this.state = State.DESTROYING;
+            this.monitor.notifyAll();
+        }
 
-            // ensure completion of in-flight executions
-            int exeCount = this.getExecutingCount();
-            if (exeCount > 0) {
-                throw new IllegalStateException(
-                    "Acquired write lock for destroying"
-                        + " environment while tasks"
-                        + " still executing: "
-                        + exeCount);
-            }
-            
+        // reject any further executions
+        this.inFlight.close();
+
+        // cancel any open exports and the change feed subscription so that
+        // in-flight executions blocked reading them fail rather than waiting
+        // on a stalled stream
+        SzGrpcEngine engine = null;
+        synchronized (this.monitor) {
+            engine = this.grpcEngine;
+        }
+        if (engine != null) {
+            // cancel any exports that were left open
+            engine.closeAllExports();
+
+            // release the export threads of the async engine
+            engine.shutdownExportExecutor();
+
+            // end any change feed subscription for the entity cache
+            engine.closeEntityCache();
+        }
+
+        // wait for all in-flight executions to complete
+        this.inFlight.awaitQuiescence();
+
+        // ensure completion of in-flight executions
+        int exeCount = this.getExecutingCount();
+        if (exeCount > 0) {
+            throw new IllegalStateException(
+                "Awaited completion for destroying"
+                    + " environment while tasks"
+                    + " still executing: "
+                    + exeCount);
+        }
+
+        synchronized (this.monitor) {
             // once we get here we can really shut things down
             this.grpcEngine = null;
             this.grpcDiagnostic = null;
@@ -802,14 +1433,8 @@ q     */
             this.grpcChannel = null;
 
             // set the state
-            synchronized (this.monitor) {
-                this.state = State.DESTROYED;
-                this.monitor.notifyAll();
-            }
-        } finally {
-            if (lock != null) {
-                lock.unlock();
-            }
+            this.state = State.DESTROYED;
+            this.monitor.notifyAll();
         }
     }
 
@@ -819,49 +1444,6 @@ q     */
     @Override
     public boolean isDestroyed()
     {
-        synchronized (this.monitor) {
-            return this.state != State.ACTIVE;
-        }
-    }
-    
-    /**
-     * Acquires an exclusive write lock from this instance's
-     * {@link ReentrantReadWriteLock}.
-     * 
-     * @return The {@link Lock} that was acquired.
-     */
-    private Lock acquireWriteLock()
-    {
-        Lock lock = this.readWriteLock.writeLock();
-        lock.lock();
-        return lock;
-    }
-
-    /**
-     * Acquires a shared read lock from this instance's 
-     * {@link ReentrantReadWriteLock}.
-     * 
-     * @return The {@link Lock} that was acquired.
-     */
-    private Lock acquireReadLock()
-    {
-        Lock lock = this.readWriteLock.readLock();
-        lock.lock();
-        return lock;
-    }
-
-    /**
-     * Releases the specified {@link Lock} if not <code>null</code>.
-     * 
-     * @param lock The {@link Lock} to be released.
-     * 
-     * @return Always returns <code>null</code>.
-     */
-    private Lock releaseLock(Lock lock)
-    {
-        if (lock != null) {
-            lock.unlock();
-        }
-        return null;
+        return this.state != State.ACTIVE;
     }
 }
@@ -0,0 +1,207 @@
+package com.senzing.sdk.grpc;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import io.grpc.Metadata;
+
+/**
+ * Provides the constants and utility functions shared by the gRPC client and
+ * server for batching multiple lines of export content into a single
+ * streamed response message.
+ *
+ * <p>
+ * The export RPC's respond with one message per line of export content.
+ * When exporting many small lines (e.g.: CSV rows) the per-message framing
+ * dominates the cost of the export.  A client may opt-in to batching by
+ * sending the {@link #MAX_LINES_KEY} and/or {@link #MAX_BYTES_KEY} request
+ * headers with the export request.  A server that supports batching will then
+ * pack multiple lines into the <code>result</code> field of each response
+ * message and will send the {@link #BATCHED_KEY} response header to indicate
+ * that it has done so.  A server that does not support batching will ignore
+ * the request headers and respond with one line per message as before, which
+ * the client detects by the absence of the {@link #BATCHED_KEY} response
+ * header.
+ * </p>
+ *
+ * <p>
+ * Each line in a batch is encoded as its length in characters (as a decimal
+ * integer), followed by a colon (<code>':'</code>) followed by the line
+ * itself.  This allows lines with embedded line breaks (e.g.: quoted CSV
+ * values) to be batched without ambiguity.
+ * </p>
+ */
+public final class SzGrpcExportBatch
+{
+    /**
+     * The name of the request header for the maximum number of lines of
+     * export content the client will accept in a single response message.
+     */
+    public static final String MAX_LINES_HEADER = "sz-export-batch-lines";
+
+    /**
+     * The name of the request header for the approximate maximum number of
+     * bytes of export content the client will accept in a single response
+     * message.
+     */
+    public static final String MAX_BYTES_HEADER = "sz-export-batch-bytes";
+
+    /**
+     * The name of the response header that the server sends to indicate that
+     * the response messages contain batched export content.
+     */
+    public static final String BATCHED_HEADER = "sz-export-batched";
+
+    /**
+     * The {@link Metadata.Key} for the {@link #MAX_LINES_HEADER}.
+     */
+    public static final Metadata.Key<String> MAX_LINES_KEY
+        = Metadata.Key.of(MAX_LINES_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * The {@link Metadata.Key} for the {@link #MAX_BYTES_HEADER}.
+     */
+    public static final Metadata.Key<String> MAX_BYTES_KEY
+        = Metadata.Key.of(MAX_BYTES_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * The {@link Metadata.Key} for the {@link #BATCHED_HEADER}.
+     */
+    public static final Metadata.Key<String> BATCHED_KEY
+        = Metadata.Key.of(BATCHED_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * The default maximum number of lines of export content to request in a
+     * single response message.  The value of this constant is
+     * <code>{@value}</code>.
+     */
+    public static final int DEFAULT_MAX_LINES = 256;
+
+    /**
+     * The default approximate maximum number of bytes of export content to
+     * request in a single response message.  The value of this constant is
+     * <code>{@value}</code>.
+     */
+    public static final int DEFAULT_MAX_BYTES = 64 * 1024;
+
+    /**
+     * The upper limit on the maximum number of bytes of export content that
+     * the server will pack into a single response message regardless of what
+     * the client requests.  This keeps batched messages well below the default
+     * gRPC maximum inbound message size.  The value of this constant is
+     * <code>{@value}</code>.
+     */
+    public static final int MAX_BYTES_LIMIT = 1024 * 1024;
+
+    /**
+     * The character that separates the length prefix from the line.
+     */
+    private static final char LENGTH_SEPARATOR = ':';
+
+    /**
+     * Private default constructor.
+     */
+    private SzGrpcExportBatch()
+    {
+        // do nothing
+    }
+
+    /**
+     * Appends the specified line of export content to the specified
+     * {@link StringBuilder} for the batch using the batch encoding.
+     *
+     * @param batch The {@link StringBuilder} for the batch.
+     * @param line The line of export content to append.
+     *
+     * @throws NullPointerException If either parameter is <code>null</code>.
+     */
+    public static void appendLine(StringBuilder batch, String line)
+    {
+        Objects.requireNonNull(batch, "The batch cannot be null");
+        Objects.requireNonNull(line, "The line cannot be null");
+        batch.append(line.length()).append(LENGTH_SEPARATOR).append(line);
+    }
+
+    /**
+     * Decodes the lines of export content from the specified batch and adds
+     * them to the specified {@link Collection} in order.
+     *
+     * @param batch The encoded batch of lines.
+     * @param lines The {@link Collection} to add the decoded lines to.
+     *
+     * @return The number of lines that were decoded.
+     *
+     * @throws NullPointerException If either parameter is <code>null</code>.
+     *
+     * @throws IllegalArgumentException If the specified batch is not properly
+     *                                  encoded.
+     */
+    public static int decodeLines(String batch, Collection<String> lines)
+    {
+        Objects.requireNonNull(batch, "The batch cannot be null");
+        Objects.requireNonNull(lines, "The lines collection cannot be null");
+
+        int count   = 0;
+        int index   = 0;
+        int end     = batch.length();
+        while (index < end) {
+            // parse the length prefix
+            int length = 0;
+            int start  = index;
+            char c = 0;
+            while (index < end
+                   && (c = batch.charAt(index)) >= '0' && c <= '9')
+            {
+                length = (length * 10) + (c - '0');
+                if (length < 0) {
+                    throw new IllegalArgumentException(
+                        "Export batch line length overflow at index: "
+                        + start);
+                }
+                index++;
+            }
+            if (index == start || index >= end || c != LENGTH_SEPARATOR) {
+                throw new IllegalArgumentException(
+                    "Malformed export batch line length at index: " + start);
+            }
+            index++;
+
+            // check the bounds of the line
+            if (length > (end - index)) {
+                throw new IllegalArgumentException(
+                    "Truncated export batch line at index: " + start
+                    + " (expected " + length + " characters, found "
+                    + (end - index) + ")");
+            }
+
+            lines.add(batch.substring(index, index + length));
+            index += length;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Parses the specified header value as a positive integer, returning
+     * <code>null</code> if the value is <code>null</code>, not an integer or
+     * not positive.
+     *
+     * @param value The header value to parse.
+     *
+     * @return The parsed positive {@link Integer} value, or <code>null</code>
+     *         if the value is not a positive integer.
+     */
+    public static Integer parseLimit(String value)
+    {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int limit = Integer.parseInt(value.trim());
+            return (limit > 0) ? limit : null;
+
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
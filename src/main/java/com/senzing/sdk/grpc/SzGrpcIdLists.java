@@ -0,0 +1,1112 @@
+package com.senzing.sdk.grpc;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.protobuf.ProtoUtils;
+
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindNetworkByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindNetworkByEntityIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindNetworkByRecordIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindNetworkByRecordIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindPathByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindPathByEntityIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindPathByRecordIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindPathByRecordIdResponse;
+
+/**
+ * Provides utility functions for encoding and decoding the lists of entity
+ * ID's, record keys and data source codes that are exchanged in the "find
+ * path" and "find network" requests.
+ *
+ * <p>
+ * The Senzing SDK protocol buffer definitions carry these lists as JSON in
+ * string fields.  The JSON encoders write the JSON directly rather than
+ * building a JSON object model, and the JSON decoders scan the JSON
+ * directly, producing entity ID's as a primitive <code>long</code> array.
+ * If the JSON is not in the expected form (e.g.: it contains unexpected
+ * properties) then the decoders fall back to a full JSON parse so that any
+ * valid encoding is accepted.
+ * </p>
+ *
+ * <p>
+ * The lists may instead be carried in a typed encoding as additional
+ * protocol buffer fields of the same request messages, which are unknown
+ * to the Senzing SDK definitions: the entity ID's as the packed repeated
+ * <code>int64</code> field {@link #ENTITY_IDS_FIELD}, the record keys as the
+ * {@link #RECORD_KEYS_FIELD} field and the data source codes as the {@link
+ * #DATA_SOURCES_FIELD} field.  The server decodes a typed list when present
+ * and the JSON list otherwise, so clients that send JSON are unaffected.
+ * Since an older server would ignore the typed fields, requests carrying
+ * them are sent to the methods of the {@link #SERVICE_NAME} service, which
+ * an older server does not provide.  A client that finds the service is not
+ * provided (i.e.: the call fails with {@link
+ * io.grpc.Status.Code#UNIMPLEMENTED}) falls back to the JSON lists.
+ * </p>
+ */
+public final class SzGrpcIdLists
+{
+    /**
+     * The property key for the array of entities.
+     */
+    private static final String ENTITIES_KEY = "ENTITIES";
+
+    /**
+     * The property key for an entity ID.
+     */
+    private static final String ENTITY_ID_KEY = "ENTITY_ID";
+
+    /**
+     * The property key for the array of records.
+     */
+    private static final String RECORDS_KEY = "RECORDS";
+
+    /**
+     * The property key for a data source code.
+     */
+    private static final String DATA_SOURCE_KEY = "DATA_SOURCE";
+
+    /**
+     * The property key for a record ID.
+     */
+    private static final String RECORD_ID_KEY = "RECORD_ID";
+
+    /**
+     * The property key for the array of data source codes.
+     */
+    private static final String DATA_SOURCES_KEY = "DATA_SOURCES";
+
+    /**
+     * The hexadecimal digits for escaping control characters.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The fully-qualified name of the gRPC service accepting requests whose
+     * lists are in the typed encoding.
+     */
+    public static final String SERVICE_NAME = "szidlists.SzIdLists";
+
+    /**
+     * The number of the protocol buffer field carrying entity ID's as a
+     * packed repeated <code>int64</code> field.
+     */
+    public static final int ENTITY_IDS_FIELD = 1001;
+
+    /**
+     * The number of the length-delimited protocol buffer field carrying
+     * record keys as a message with a repeated message field numbered
+     * <code>1</code> for the record keys, each having the data source code
+     * as field <code>1</code> and the record ID as field <code>2</code>.
+     */
+    public static final int RECORD_KEYS_FIELD = 1002;
+
+    /**
+     * The number of the length-delimited protocol buffer field carrying data
+     * source codes as a message with a repeated string field numbered
+     * <code>1</code>.
+     */
+    public static final int DATA_SOURCES_FIELD = 1003;
+
+    /**
+     * The number of the repeated field for the elements of a typed list.
+     */
+    private static final int ELEMENT_FIELD = 1;
+
+    /**
+     * The number of the data source code field of a typed record key.
+     */
+    private static final int DATA_SOURCE_FIELD = 1;
+
+    /**
+     * The number of the record ID field of a typed record key.
+     */
+    private static final int RECORD_ID_FIELD = 2;
+
+    /**
+     * Creates the unary {@link MethodDescriptor} for the specified method of
+     * the {@link #SERVICE_NAME} service, which uses the request and response
+     * messages of the same method of the engine service.
+     *
+     * @param <Q> The request type.
+     * @param <R> The response type.
+     * @param methodName The simple name of the method.
+     * @param request The default instance of the request message.
+     * @param response The default instance of the response message.
+     *
+     * @return The {@link MethodDescriptor} for the method.
+     */
+    private static <Q extends Message, R extends Message>
+        MethodDescriptor<Q, R> typedMethod(String methodName,
+                                           Q      request,
+                                           R      response)
+    {
+        return MethodDescriptor.<Q, R>newBuilder()
+            .setType(MethodType.UNARY)
+            .setFullMethodName(
+                MethodDescriptor.generateFullMethodName(
+                    SERVICE_NAME, methodName))
+            .setRequestMarshaller(ProtoUtils.marshaller(request))
+            .setResponseMarshaller(ProtoUtils.marshaller(response))
+            .build();
+    }
+
+    /**
+     * The {@link MethodDescriptor} for finding a network by entity ID with
+     * the entity ID's in the typed encoding.
+     */
+    public static final MethodDescriptor<FindNetworkByEntityIdRequest,
+                                         FindNetworkByEntityIdResponse>
+        FIND_NETWORK_BY_ENTITY_ID_METHOD = typedMethod(
+            "FindNetworkByEntityId",
+            FindNetworkByEntityIdRequest.getDefaultInstance(),
+            FindNetworkByEntityIdResponse.getDefaultInstance());
+
+    /**
+     * The {@link MethodDescriptor} for finding a network by record key with
+     * the record keys in the typed encoding.
+     */
+    public static final MethodDescriptor<FindNetworkByRecordIdRequest,
+                                         FindNetworkByRecordIdResponse>
+        FIND_NETWORK_BY_RECORD_ID_METHOD = typedMethod(
+            "FindNetworkByRecordId",
+            FindNetworkByRecordIdRequest.getDefaultInstance(),
+            FindNetworkByRecordIdResponse.getDefaultInstance());
+
+    /**
+     * The {@link MethodDescriptor} for finding a path by entity ID with the
+     * avoided entity ID's and required data sources in the typed encoding.
+     */
+    public static final MethodDescriptor<FindPathByEntityIdRequest,
+                                         FindPathByEntityIdResponse>
+        FIND_PATH_BY_ENTITY_ID_METHOD = typedMethod(
+            "FindPathByEntityId",
+            FindPathByEntityIdRequest.getDefaultInstance(),
+            FindPathByEntityIdResponse.getDefaultInstance());
+
+    /**
+     * The {@link MethodDescriptor} for finding a path by record key with the
+     * avoided record keys and required data sources in the typed encoding.
+     */
+    public static final MethodDescriptor<FindPathByRecordIdRequest,
+                                         FindPathByRecordIdResponse>
+        FIND_PATH_BY_RECORD_ID_METHOD = typedMethod(
+            "FindPathByRecordId",
+            FindPathByRecordIdRequest.getDefaultInstance(),
+            FindPathByRecordIdResponse.getDefaultInstance());
+
+    /**
+     * Private default constructor.
+     */
+    private SzGrpcIdLists()
+    {
+        // do nothing
+    }
+
+    /**
+     * Encodes the specified {@link Set} of {@link Long} entity ID's as JSON
+     * in the form <code>{"ENTITIES":[{"ENTITY_ID":&lt;id&gt;},...]}</code>.
+     *
+     * @param entityIds The non-null {@link Set} of non-null {@link Long}
+     *                  entity ID's.
+     *
+     * @return The encoded JSON text.
+     */
+    public static String encodeEntityIds(Set<Long> entityIds)
+    {
+        StringBuilder sb = new StringBuilder(24 + (entityIds.size() * 28));
+        sb.append("{\"").append(ENTITIES_KEY).append("\":[");
+        String prefix = "";
+        for (Long entityId : entityIds) {
+            sb.append(prefix).append("{\"").append(ENTITY_ID_KEY).append("\":")
+              .append(entityId.longValue()).append('}');
+            prefix = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Encodes the specified {@link Set} of {@link SzRecordKey} instances as
+     * JSON in the form <code>{"RECORDS":[{"DATA_SOURCE":"&lt;code&gt;",
+     * "RECORD_ID":"&lt;id&gt;"},...]}</code>.
+     *
+     * @param recordKeys The non-null {@link Set} of non-null {@link
+     *                   SzRecordKey} instances.
+     *
+     * @return The encoded JSON text.
+     */
+    public static String encodeRecordKeys(Set<SzRecordKey> recordKeys)
+    {
+        StringBuilder sb = new StringBuilder(24 + (recordKeys.size() * 48));
+        sb.append("{\"").append(RECORDS_KEY).append("\":[");
+        String prefix = "";
+        for (SzRecordKey recordKey : recordKeys) {
+            sb.append(prefix).append("{\"").append(DATA_SOURCE_KEY)
+              .append("\":");
+            appendJsonString(sb, recordKey.dataSourceCode());
+            sb.append(",\"").append(RECORD_ID_KEY).append("\":");
+            appendJsonString(sb, recordKey.recordId());
+            sb.append('}');
+            prefix = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Encodes the specified {@link Set} of {@link String} data source codes
+     * as JSON in the form <code>{"DATA_SOURCES":["&lt;code&gt;",...]}</code>.
+     *
+     * @param dataSources The non-null {@link Set} of non-null {@link String}
+     *                    data source codes.
+     *
+     * @return The encoded JSON text.
+     */
+    public static String encodeDataSources(Set<String> dataSources)
+    {
+        StringBuilder sb = new StringBuilder(24 + (dataSources.size() * 16));
+        sb.append("{\"").append(DATA_SOURCES_KEY).append("\":[");
+        String prefix = "";
+        for (String dataSource : dataSources) {
+            sb.append(prefix);
+            appendJsonString(sb, dataSource);
+            prefix = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Decodes the specified JSON text describing entity ID's as encoded by
+     * {@link #encodeEntityIds(Set)} into an array of primitive entity ID's
+     * in the order they appear.  Duplicates are <b>not</b> removed.
+     *
+     * @param json The JSON text to decode.
+     *
+     * @return The array of entity ID's, or <code>null</code> if the
+     *         specified text is <code>null</code> or blank.
+     *
+     * @throws javax.json.JsonException If the text is not valid JSON.
+     * @throws ClassCastException If the JSON is not of the expected form.
+     * @throws NullPointerException If the JSON is missing a required
+     *                              property.
+     */
+    public static long[] decodeEntityIds(String json)
+    {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        long[] entityIds = new Scanner(json).scanEntityIds();
+        if (entityIds != null) {
+            return entityIds;
+        }
+
+        // fall back to a full parse
+        JsonObject jsonObj = Json.createReader(new StringReader(json))
+            .readObject();
+        JsonArray jsonArr = jsonObj.getJsonArray(ENTITIES_KEY);
+        entityIds = new long[jsonArr.size()];
+        int index = 0;
+        for (JsonObject elem : jsonArr.getValuesAs(JsonObject.class)) {
+            entityIds[index++] = elem.getJsonNumber(ENTITY_ID_KEY).longValue();
+        }
+        return entityIds;
+    }
+
+    /**
+     * Decodes the specified JSON text describing record keys as encoded by
+     * {@link #encodeRecordKeys(Set)} into a {@link List} of {@link
+     * SzRecordKey} instances in the order they appear.  Duplicates are
+     * <b>not</b> removed.
+     *
+     * @param json The JSON text to decode.
+     *
+     * @return The {@link List} of {@link SzRecordKey} instances, or
+     *         <code>null</code> if the specified text is <code>null</code> or
+     *         blank.
+     *
+     * @throws javax.json.JsonException If the text is not valid JSON.
+     * @throws ClassCastException If the JSON is not of the expected form.
+     * @throws NullPointerException If the JSON is missing a required
+     *                              property.
+     */
+    public static List<SzRecordKey> decodeRecordKeys(String json)
+    {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        List<SzRecordKey> recordKeys = new Scanner(json).scanRecordKeys();
+        if (recordKeys != null) {
+            return recordKeys;
+        }
+
+        // fall back to a full parse
+        JsonObject jsonObj = Json.createReader(new StringReader(json))
+            .readObject();
+        JsonArray jsonArr = jsonObj.getJsonArray(RECORDS_KEY);
+        recordKeys = new ArrayList<>(jsonArr.size());
+        for (JsonObject elem : jsonArr.getValuesAs(JsonObject.class)) {
+            recordKeys.add(SzRecordKey.of(elem.getString(DATA_SOURCE_KEY),
+                                          elem.getString(RECORD_ID_KEY)));
+        }
+        return recordKeys;
+    }
+
+    /**
+     * Decodes the specified JSON text describing data source codes as
+     * encoded by {@link #encodeDataSources(Set)} into a {@link List} of
+     * {@link String} data source codes in the order they appear.
+     * Duplicates are <b>not</b> removed.
+     *
+     * @param json The JSON text to decode.
+     *
+     * @return The {@link List} of data source codes, or <code>null</code> if
+     *         the specified text is <code>null</code> or blank.
+     *
+     * @throws javax.json.JsonException If the text is not valid JSON.
+     * @throws ClassCastException If the JSON is not of the expected form.
+     * @throws NullPointerException If the JSON is missing a required
+     *                              property.
+     */
+    public static List<String> decodeDataSources(String json)
+    {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        List<String> dataSources = new Scanner(json).scanDataSources();
+        if (dataSources != null) {
+            return dataSources;
+        }
+
+        // fall back to a full parse
+        JsonObject jsonObj = Json.createReader(new StringReader(json))
+            .readObject();
+        JsonArray jsonArr = jsonObj.getJsonArray(DATA_SOURCES_KEY);
+        dataSources = new ArrayList<>(jsonArr.size());
+        for (JsonString elem : jsonArr.getValuesAs(JsonString.class)) {
+            dataSources.add(elem.getString());
+        }
+        return dataSources;
+    }
+
+    /**
+     * Encodes the specified lists in the typed encoding as an {@link
+     * UnknownFieldSet} to be set on a request message.  A list that is
+     * <code>null</code> is omitted, while an empty list is encoded as
+     * present but empty.
+     *
+     * @param entityIds The {@link Set} of {@link Long} entity ID's, or
+     *                  <code>null</code> if none.
+     * @param recordKeys The {@link Set} of {@link SzRecordKey} instances, or
+     *                   <code>null</code> if none.
+     * @param dataSources The {@link Set} of {@link String} data source
+     *                    codes, or <code>null</code> if none.
+     *
+     * @return The {@link UnknownFieldSet} carrying the typed lists.
+     */
+    public static UnknownFieldSet encodeTyped(Set<Long>         entityIds,
+                                              Set<SzRecordKey>  recordKeys,
+                                              Set<String>       dataSources)
+    {
+        UnknownFieldSet.Builder builder = UnknownFieldSet.newBuilder();
+        try {
+            if (entityIds != null) {
+                builder.addField(ENTITY_IDS_FIELD,
+                                 lengthDelimited(packEntityIds(entityIds)));
+            }
+            if (recordKeys != null) {
+                builder.addField(RECORD_KEYS_FIELD,
+                                 lengthDelimited(packRecordKeys(recordKeys)));
+            }
+            if (dataSources != null) {
+                builder.addField(DATA_SOURCES_FIELD,
+                                 lengthDelimited(packDataSources(dataSources)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decodes the entity ID's in the typed encoding from the specified
+     * {@link UnknownFieldSet} of a request message into an array of
+     * primitive entity ID's in the order they were encoded.
+     *
+     * @param fields The {@link UnknownFieldSet} of the request message.
+     *
+     * @return The array of entity ID's, or <code>null</code> if the typed
+     *         entity ID's are not present.
+     *
+     * @throws IllegalArgumentException If the typed entity ID's are not
+     *                                  validly encoded.
+     */
+    public static long[] decodeTypedEntityIds(UnknownFieldSet fields)
+    {
+        ByteString bytes = getLengthDelimited(fields, ENTITY_IDS_FIELD);
+        if (bytes == null) {
+            return null;
+        }
+
+        // each varint ends with the only one of its bytes lacking the MSB
+        int count = 0;
+        for (int index = 0; index < bytes.size(); index++) {
+            if ((bytes.byteAt(index) & 0x80) == 0) {
+                count++;
+            }
+        }
+        long[] entityIds = new long[count];
+        try {
+            CodedInputStream input = bytes.newCodedInput();
+            for (int index = 0; index < count; index++) {
+                entityIds[index] = input.readInt64();
+            }
+            if (!input.isAtEnd()) {
+                throw new IOException("Truncated entity ID");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                "The typed entity ID's are not validly encoded", e);
+        }
+        return entityIds;
+    }
+
+    /**
+     * Decodes the record keys in the typed encoding from the specified
+     * {@link UnknownFieldSet} of a request message into a {@link List} of
+     * {@link SzRecordKey} instances in the order they were encoded.
+     *
+     * @param fields The {@link UnknownFieldSet} of the request message.
+     *
+     * @return The {@link List} of {@link SzRecordKey} instances, or
+     *         <code>null</code> if the typed record keys are not present.
+     *
+     * @throws IllegalArgumentException If the typed record keys are not
+     *                                  validly encoded.
+     */
+    public static List<SzRecordKey> decodeTypedRecordKeys(
+        UnknownFieldSet fields)
+    {
+        ByteString bytes = getLengthDelimited(fields, RECORD_KEYS_FIELD);
+        if (bytes == null) {
+            return null;
+        }
+        List<SzRecordKey> recordKeys = new ArrayList<>();
+        try {
+            CodedInputStream input = bytes.newCodedInput();
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                if (!isLengthDelimited(tag, ELEMENT_FIELD)) {
+                    input.skipField(tag);
+                    continue;
+                }
+                int limit = input.pushLimit(input.readRawVarint32());
+                String dataSource = null;
+                String recordId   = null;
+                for (int keyTag = input.readTag();
+                     keyTag != 0;
+                     keyTag = input.readTag())
+                {
+                    if (isLengthDelimited(keyTag, DATA_SOURCE_FIELD)) {
+                        dataSource = input.readStringRequireUtf8();
+                    } else if (isLengthDelimited(keyTag, RECORD_ID_FIELD)) {
+                        recordId = input.readStringRequireUtf8();
+                    } else {
+                        input.skipField(keyTag);
+                    }
+                }
+                input.popLimit(limit);
+                if (dataSource == null || recordId == null) {
+                    throw new IOException(
+                        "Record key missing its data source or record ID");
+                }
+                recordKeys.add(SzRecordKey.of(dataSource, recordId));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                "The typed record keys are not validly encoded", e);
+        }
+        return recordKeys;
+    }
+
+    /**
+     * Decodes the data source codes in the typed encoding from the
+     * specified {@link UnknownFieldSet} of a request message into a {@link
+     * List} of {@link String} data source codes in the order they were
+     * encoded.
+     *
+     * @param fields The {@link UnknownFieldSet} of the request message.
+     *
+     * @return The {@link List} of data source codes, or <code>null</code> if
+     *         the typed data source codes are not present.
+     *
+     * @throws IllegalArgumentException If the typed data source codes are
+     *                                  not validly encoded.
+     */
+    public static List<String> decodeTypedDataSources(UnknownFieldSet fields)
+    {
+        ByteString bytes = getLengthDelimited(fields, DATA_SOURCES_FIELD);
+        if (bytes == null) {
+            return null;
+        }
+        List<String> dataSources = new ArrayList<>();
+        try {
+            CodedInputStream input = bytes.newCodedInput();
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                if (isLengthDelimited(tag, ELEMENT_FIELD)) {
+                    dataSources.add(input.readStringRequireUtf8());
+                } else {
+                    input.skipField(tag);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                "The typed data sources are not validly encoded", e);
+        }
+        return dataSources;
+    }
+
+    /**
+     * Packs the specified entity ID's as the varints of a packed repeated
+     * <code>int64</code> field.
+     *
+     * @param entityIds The {@link Set} of {@link Long} entity ID's.
+     *
+     * @return The {@link ByteString} for the packed entity ID's.
+     *
+     * @throws IOException If the encoding fails.
+     */
+    private static ByteString packEntityIds(Set<Long> entityIds)
+        throws IOException
+    {
+        int size = 0;
+        for (Long entityId : entityIds) {
+            size += CodedOutputStream.computeInt64SizeNoTag(entityId);
+        }
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        for (Long entityId : entityIds) {
+            output.writeInt64NoTag(entityId);
+        }
+        output.checkNoSpaceLeft();
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    /**
+     * Packs the specified record keys as the content of the {@link
+     * #RECORD_KEYS_FIELD} field.
+     *
+     * @param recordKeys The {@link Set} of {@link SzRecordKey} instances.
+     *
+     * @return The {@link ByteString} for the packed record keys.
+     *
+     * @throws IOException If the encoding fails.
+     */
+    private static ByteString packRecordKeys(Set<SzRecordKey> recordKeys)
+        throws IOException
+    {
+        int[] keySizes  = new int[recordKeys.size()];
+        int   size      = 0;
+        int   index     = 0;
+        for (SzRecordKey recordKey : recordKeys) {
+            int keySize = CodedOutputStream.computeStringSize(
+                    DATA_SOURCE_FIELD, recordKey.dataSourceCode())
+                + CodedOutputStream.computeStringSize(
+                    RECORD_ID_FIELD, recordKey.recordId());
+            keySizes[index++] = keySize;
+            size += CodedOutputStream.computeTagSize(ELEMENT_FIELD)
+                + CodedOutputStream.computeUInt32SizeNoTag(keySize)
+                + keySize;
+        }
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        index = 0;
+        for (SzRecordKey recordKey : recordKeys) {
+            output.writeTag(ELEMENT_FIELD,
+                            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(keySizes[index++]);
+            output.writeString(DATA_SOURCE_FIELD, recordKey.dataSourceCode());
+            output.writeString(RECORD_ID_FIELD, recordKey.recordId());
+        }
+        output.checkNoSpaceLeft();
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    /**
+     * Packs the specified data source codes as the content of the {@link
+     * #DATA_SOURCES_FIELD} field.
+     *
+     * @param dataSources The {@link Set} of {@link String} data source
+     *                    codes.
+     *
+     * @return The {@link ByteString} for the packed data source codes.
+     *
+     * @throws IOException If the encoding fails.
+     */
+    private static ByteString packDataSources(Set<String> dataSources)
+        throws IOException
+    {
+        int size = 0;
+        for (String dataSource : dataSources) {
+            size += CodedOutputStream.computeStringSize(
+                ELEMENT_FIELD, dataSource);
+        }
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        for (String dataSource : dataSources) {
+            output.writeString(ELEMENT_FIELD, dataSource);
+        }
+        output.checkNoSpaceLeft();
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    /**
+     * Creates an {@link UnknownFieldSet.Field} with the specified
+     * length-delimited value.
+     *
+     * @param bytes The {@link ByteString} value.
+     *
+     * @return The {@link UnknownFieldSet.Field}.
+     */
+    private static UnknownFieldSet.Field lengthDelimited(ByteString bytes)
+    {
+        return UnknownFieldSet.Field.newBuilder()
+            .addLengthDelimited(bytes).build();
+    }
+
+    /**
+     * Gets the length-delimited value of the specified field from the
+     * specified {@link UnknownFieldSet}, concatenating the values if the
+     * field occurs more than once as protocol buffers does for packed and
+     * embedded message fields.
+     *
+     * @param fields The {@link UnknownFieldSet}, or <code>null</code>.
+     * @param fieldNumber The number of the field.
+     *
+     * @return The {@link ByteString} value, or <code>null</code> if the
+     *         field is not present.
+     */
+    private static ByteString getLengthDelimited(UnknownFieldSet  fields,
+                                                 int              fieldNumber)
+    {
+        if (fields == null || !fields.hasField(fieldNumber)) {
+            return null;
+        }
+        List<ByteString> values
+            = fields.getField(fieldNumber).getLengthDelimitedList();
+        if (values.isEmpty()) {
+            return null;
+        }
+        return (values.size() == 1)
+            ? values.get(0) : ByteString.copyFrom(values);
+    }
+
+    /**
+     * Checks if the specified tag is for the specified field number with
+     * the length-delimited wire type.
+     *
+     * @param tag The tag that was read.
+     * @param fieldNumber The expected field number.
+     *
+     * @return <code>true</code> if the tag matches, otherwise
+     *         <code>false</code>.
+     */
+    private static boolean isLengthDelimited(int tag, int fieldNumber)
+    {
+        return WireFormat.getTagFieldNumber(tag) == fieldNumber
+            && WireFormat.getTagWireType(tag)
+                == WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    }
+
+    /**
+     * Appends the specified text to the specified {@link StringBuilder} as
+     * a quoted and escaped JSON string.
+     *
+     * @param sb The {@link StringBuilder} to append to.
+     * @param text The text to append.
+     */
+    private static void appendJsonString(StringBuilder sb, String text)
+    {
+        sb.append('"');
+        for (int index = 0; index < text.length(); index++) {
+            char c = text.charAt(index);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX_DIGITS[c >> 4])
+                          .append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Scans JSON text of the expected forms directly.  Each scan method
+     * returns <code>null</code> as soon as the text deviates from the
+     * expected form so that the caller may fall back to a full parse.
+     */
+    private static final class Scanner
+    {
+        /**
+         * The JSON text being scanned.
+         */
+        private final String text;
+
+        /**
+         * The index of the next character to scan.
+         */
+        private int index = 0;
+
+        /**
+         * Constructs with the JSON text to scan.
+         *
+         * @param text The JSON text to scan.
+         */
+        private Scanner(String text)
+        {
+            this.text = text;
+        }
+
+        /**
+         * Scans the entity ID's JSON text.
+         *
+         * @return The array of entity ID's, or <code>null</code> if the text
+         *         is not of the expected form.
+         */
+        private long[] scanEntityIds()
+        {
+            if (!this.openArray(ENTITIES_KEY)) {
+                return null;
+            }
+            long[] entityIds = new long[16];
+            int count = 0;
+            if (!this.consume(']')) {
+                do {
+                    if (!this.consume('{') || !this.key(ENTITY_ID_KEY)) {
+                        return null;
+                    }
+                    Long entityId = this.number();
+                    if (entityId == null || !this.consume('}')) {
+                        return null;
+                    }
+                    if (count == entityIds.length) {
+                        entityIds = Arrays.copyOf(entityIds, count * 2);
+                    }
+                    entityIds[count++] = entityId;
+                } while (this.consume(','));
+
+                if (!this.consume(']')) {
+                    return null;
+                }
+            }
+            return this.closeObject() ? Arrays.copyOf(entityIds, count) : null;
+        }
+
+        /**
+         * Scans the record keys JSON text.
+         *
+         * @return The {@link List} of {@link SzRecordKey} instances, or
+         *         <code>null</code> if the text is not of the expected form.
+         */
+        private List<SzRecordKey> scanRecordKeys()
+        {
+            if (!this.openArray(RECORDS_KEY)) {
+                return null;
+            }
+            List<SzRecordKey> recordKeys = new ArrayList<>();
+            if (!this.consume(']')) {
+                do {
+                    if (!this.consume('{')) {
+                        return null;
+                    }
+                    String dataSource = null;
+                    String recordId = null;
+                    for (int field = 0; field < 2; field++) {
+                        if (field > 0 && !this.consume(',')) {
+                            return null;
+                        }
+                        String key = this.string();
+                        if (key == null || !this.consume(':')) {
+                            return null;
+                        }
+                        if (DATA_SOURCE_KEY.equals(key)
+                            && dataSource == null)
+                        {
+                            dataSource = this.string();
+                        } else if (RECORD_ID_KEY.equals(key)
+                                   && recordId == null)
+                        {
+                            recordId = this.string();
+                        } else {
+                            return null;
+                        }
+                    }
+                    if (dataSource == null || recordId == null
+                        || !this.consume('}'))
+                    {
+                        return null;
+                    }
+                    recordKeys.add(SzRecordKey.of(dataSource, recordId));
+                } while (this.consume(','));
+
+                if (!this.consume(']')) {
+                    return null;
+                }
+            }
+            return this.closeObject() ? recordKeys : null;
+        }
+
+        /**
+         * Scans the data sources JSON text.
+         *
+         * @return The {@link List} of data source codes, or
+         *         <code>null</code> if the text is not of the expected form.
+         */
+        private List<String> scanDataSources()
+        {
+            if (!this.openArray(DATA_SOURCES_KEY)) {
+                return null;
+            }
+            List<String> dataSources = new ArrayList<>();
+            if (!this.consume(']')) {
+                do {
+                    String dataSource = this.string();
+                    if (dataSource == null) {
+                        return null;
+                    }
+                    dataSources.add(dataSource);
+                } while (this.consume(','));
+
+                if (!this.consume(']')) {
+                    return null;
+                }
+            }
+            return this.closeObject() ? dataSources : null;
+        }
+
+        /**
+         * Scans the opening of the enclosing object through the opening
+         * bracket of the array with the specified property key.
+         *
+         * @param key The property key of the array.
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>.
+         */
+        private boolean openArray(String key)
+        {
+            return this.consume('{') && this.key(key) && this.consume('[');
+        }
+
+        /**
+         * Scans the closing brace of the enclosing object and verifies that
+         * only whitespace follows it.
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>.
+         */
+        private boolean closeObject()
+        {
+            if (!this.consume('}')) {
+                return false;
+            }
+            this.skipWhitespace();
+            return this.index == this.text.length();
+        }
+
+        /**
+         * Scans the specified property key and the following colon.
+         *
+         * @param key The expected property key.
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>.
+         */
+        private boolean key(String key)
+        {
+            return key.equals(this.string()) && this.consume(':');
+        }
+
+        /**
+         * Skips whitespace and then scans the specified character.
+         *
+         * @param c The expected character.
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>
+         *         and nothing other than whitespace is consumed.
+         */
+        private boolean consume(char c)
+        {
+            this.skipWhitespace();
+            if (this.index < this.text.length()
+                && this.text.charAt(this.index) == c)
+            {
+                this.index++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips any JSON whitespace.
+         */
+        private void skipWhitespace()
+        {
+            while (this.index < this.text.length()) {
+                char c = this.text.charAt(this.index);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                this.index++;
+            }
+        }
+
+        /**
+         * Skips whitespace and then scans an integer number.
+         *
+         * @return The scanned number, or <code>null</code> if the next token
+         *         is not an integer that fits in a <code>long</code>.
+         */
+        private Long number()
+        {
+            this.skipWhitespace();
+            int start = this.index;
+            int length = this.text.length();
+            if (this.index < length && this.text.charAt(this.index) == '-') {
+                this.index++;
+            }
+            int digitStart = this.index;
+            while (this.index < length) {
+                char c = this.text.charAt(this.index);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                this.index++;
+            }
+            // leave fractions, exponents and overflow to the full parser
+            int digits = this.index - digitStart;
+            if (digits == 0 || digits > 19) {
+                return null;
+            }
+            try {
+                return Long.parseLong(this.text, start, this.index, 10);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Skips whitespace and then scans a JSON string.
+         *
+         * @return The unescaped string, or <code>null</code> if the next
+         *         token is not a well-formed JSON string.
+         */
+        private String string()
+        {
+            if (!this.consume('"')) {
+                return null;
+            }
+            int length = this.text.length();
+            int start = this.index;
+
+            // fast path for strings without escapes
+            while (this.index < length) {
+                char c = this.text.charAt(this.index);
+                if (c == '"') {
+                    return this.text.substring(start, this.index++);
+                }
+                if (c == '\\') {
+                    break;
+                }
+                this.index++;
+            }
+
+            StringBuilder sb = new StringBuilder(
+                this.text.substring(start, this.index));
+            while (this.index < length) {
+                char c = this.text.charAt(this.index++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (this.index >= length) {
+                    return null;
+                }
+                char escaped = this.text.charAt(this.index++);
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(escaped);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (this.index + 4 > length) {
+                            return null;
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(
+                                this.text, this.index, this.index + 4, 16));
+                        } catch (NumberFormatException e) {
+                            return null;
+                        }
+                        this.index += 4;
+                        break;
+                    default:
+                        return null;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,717 @@
+package com.senzing.sdk.grpc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.grpc.proto.SzEngineProto.AddRecordRequest;
+
+/**
+ * Provides bulk loading of records over a single gRPC connection by
+ * streaming {@link SzEngine#addRecord(SzRecordKey, String, Set)} requests
+ * to the server on one bidirectional call with a bounded window of
+ * unacknowledged records.  Obtain an instance via {@link
+ * SzGrpcEngine#newRecordLoader()} or {@link
+ * SzGrpcEngine#newRecordLoader(int)}.
+ *
+ * <p>
+ * Each call to {@link #submit(SzRecordKey, String, Set)} returns a {@link
+ * CompletableFuture} that acknowledges that specific record by completing
+ * with the optional INFO message (exactly as {@link
+ * SzEngine#addRecord(SzRecordKey, String, Set)} would return it) or by
+ * completing exceptionally with the {@link com.senzing.sdk.SzException}
+ * describing why that record failed.  A failure for one record does not
+ * affect the other records.
+ * </p>
+ *
+ * <p>
+ * Once the configured maximum number of records are unacknowledged, {@link
+ * #submit(SzRecordKey, String, Set)} blocks until an earlier record is
+ * acknowledged.  This applies backpressure to the producer so that it can
+ * never get more than the window ahead of the server.  The server adds the
+ * records of a stream concurrently, so choose a window at least as large as
+ * the number of core engine threads on the server so that they are kept
+ * busy.
+ * </p>
+ *
+ * <p>
+ * The ingest stream is not part of the Senzing SDK protocol buffer
+ * definitions, so its service is described by the {@link MethodDescriptor}
+ * found in {@link #ADD_RECORDS_METHOD}.  Each request is an {@link
+ * AddRecordRequest} and each response is a compactly-encoded {@link Ack}
+ * carrying the zero-based sequence number of the request it acknowledges
+ * within the stream and its {@link SzGrpcResult}.  If the server does not
+ * provide the ingest stream (i.e.: it fails with {@link
+ * Status.Code#UNIMPLEMENTED}) then this instance falls back to pipelining
+ * unary {@link SzGrpcAsyncEngine#addRecord(SzRecordKey, String, Set)
+ * addRecord} calls with the same window.  If the stream fails for any other
+ * reason then the unacknowledged records are failed and the next submitted
+ * record opens a new stream.
+ * </p>
+ *
+ * <p>
+ * This class is thread-safe and multiple threads may submit records
+ * concurrently, sharing the same window.  Instances should be {@linkplain
+ * #close() closed} when no longer needed so that the stream is ended.
+ * </p>
+ */
+public class SzGrpcRecordLoader implements AutoCloseable
+{
+    /**
+     * The default maximum number of records that may be in flight at once.
+     * The value of this constant is <code>{@value}</code>.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    /**
+     * The fully-qualified name of the ingest gRPC service.
+     */
+    public static final String SERVICE_NAME = "szingest.SzIngest";
+
+    /**
+     * Describes the acknowledgement of a single record streamed via {@link
+     * #ADD_RECORDS_METHOD}, carrying the sequence number of the record
+     * within the stream and the {@link SzGrpcResult} describing its outcome
+     * (the optional INFO message if successful).
+     */
+    public static final class Ack
+    {
+        /**
+         * The sequence number of the acknowledged request.
+         */
+        private final long sequence;
+
+        /**
+         * The {@link SzGrpcResult} for the record.
+         */
+        private final SzGrpcResult result;
+
+        /**
+         * Constructs with the sequence number and {@link SzGrpcResult}.
+         *
+         * @param sequence The zero-based sequence number of the acknowledged
+         *                 request within the stream.
+         * @param result The {@link SzGrpcResult} for the record.
+         */
+        public Ack(long sequence, SzGrpcResult result)
+        {
+            Objects.requireNonNull(result, "The result cannot be null");
+            this.sequence   = sequence;
+            this.result     = result;
+        }
+
+        /**
+         * Gets the zero-based sequence number of the acknowledged request
+         * within the stream.
+         *
+         * @return The sequence number of the acknowledged request.
+         */
+        public long getSequence()
+        {
+            return this.sequence;
+        }
+
+        /**
+         * Gets the {@link SzGrpcResult} for the record.
+         *
+         * @return The {@link SzGrpcResult} for the record.
+         */
+        public SzGrpcResult getResult()
+        {
+            return this.result;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.sequence + ": " + this.result;
+        }
+    }
+
+    /**
+     * The {@link MethodDescriptor.Marshaller} for {@link Ack} instances.
+     */
+    private static final MethodDescriptor.Marshaller<Ack> ACK_MARSHALLER
+        = new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(Ack ack)
+            {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try (DataOutputStream dos = new DataOutputStream(baos)) {
+                    dos.writeLong(ack.getSequence());
+                    ack.getResult().writeTo(dos);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new ByteArrayInputStream(baos.toByteArray());
+            }
+
+            @Override
+            public Ack parse(InputStream stream)
+            {
+                try (DataInputStream dis = new DataInputStream(stream)) {
+                    long sequence = dis.readLong();
+                    return new Ack(sequence, SzGrpcResult.readFrom(dis));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+    /**
+     * The bidirectional-streaming {@link MethodDescriptor} for adding a
+     * stream of records, acknowledging each with an {@link Ack}.
+     */
+    public static final MethodDescriptor<AddRecordRequest, Ack>
+        ADD_RECORDS_METHOD
+            = MethodDescriptor.<AddRecordRequest, Ack>newBuilder()
+            .setType(MethodType.BIDI_STREAMING)
+            .setFullMethodName(
+                MethodDescriptor.generateFullMethodName(
+                    SERVICE_NAME, "AddRecords"))
+            .setRequestMarshaller(
+                ProtoUtils.marshaller(AddRecordRequest.getDefaultInstance()))
+            .setResponseMarshaller(ACK_MARSHALLER)
+            .build();
+
+    /**
+     * Describes a record that has been sent on the stream but not yet
+     * acknowledged.
+     */
+    private static final class Pending
+    {
+        /**
+         * The {@link SzRecordKey} for the record.
+         */
+        private final SzRecordKey recordKey;
+
+        /**
+         * The JSON record definition.
+         */
+        private final String recordDefinition;
+
+        /**
+         * The {@link Set} of {@link SzFlag} values specified by the caller.
+         */
+        private final Set<SzFlag> flags;
+
+        /**
+         * The {@link CompletableFuture} to complete with the acknowledgement.
+         */
+        private final CompletableFuture<String> future
+            = new CompletableFuture<>();
+
+        /**
+         * Constructs with the record and the flags specified by the caller.
+         *
+         * @param recordKey The {@link SzRecordKey} for the record.
+         * @param recordDefinition The JSON record definition.
+         * @param flags The {@link Set} of {@link SzFlag} values.
+         */
+        private Pending(SzRecordKey recordKey,
+                        String      recordDefinition,
+                        Set<SzFlag> flags)
+        {
+            this.recordKey          = recordKey;
+            this.recordDefinition   = recordDefinition;
+            this.flags              = flags;
+        }
+    }
+
+    /**
+     * The {@link SzGrpcAsyncEngine} used to add the records when the server
+     * does not provide the ingest stream.
+     */
+    private SzGrpcAsyncEngine asyncEngine = null;
+
+    /**
+     * The {@link SzGrpcEngine} used to map the flags and results.
+     */
+    private SzGrpcEngine engine = null;
+
+    /**
+     * The {@link SzGrpcEnvironment} that counts the in-flight records.
+     */
+    private SzGrpcEnvironment env = null;
+
+    /**
+     * The maximum number of records that may be in flight at once.
+     */
+    private int maxInFlight = 0;
+
+    /**
+     * The {@link Semaphore} that bounds the in-flight window.
+     */
+    private final Semaphore window;
+
+    /**
+     * The number of records submitted.
+     */
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    /**
+     * The number of records successfully acknowledged.
+     */
+    private final AtomicLong succeededCount = new AtomicLong();
+
+    /**
+     * The number of records that failed.
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Guards the sending of records on the stream and the replacement of
+     * the stream so that records are sent in sequence order.
+     */
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    /**
+     * The {@link StreamObserver} for the requests of the current stream, or
+     * <code>null</code> if no stream is open.  Guarded by {@link #sendLock}.
+     */
+    private StreamObserver<AddRecordRequest> requests = null;
+
+    /**
+     * The unacknowledged records of the current stream keyed by sequence
+     * number.  Guarded by {@link #sendLock} for insertion.
+     */
+    private Map<Long, Pending> pending = null;
+
+    /**
+     * The sequence number for the next record sent on the current stream.
+     * Guarded by {@link #sendLock}.
+     */
+    private long nextSequence = 0L;
+
+    /**
+     * Flag indicating if the server does not provide the ingest stream and
+     * unary calls must be used instead.
+     */
+    private volatile boolean unary = false;
+
+    /**
+     * Flag indicating if this instance has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs with the specified {@link SzGrpcAsyncEngine} and maximum
+     * number of in-flight records.
+     *
+     * @param asyncEngine The {@link SzGrpcAsyncEngine} to use.
+     * @param maxInFlight The maximum number of records that may be in flight
+     *                    at once.
+     *
+     * @throws IllegalArgumentException If the specified maximum number of
+     *                                  in-flight records is less than one.
+     */
+    protected SzGrpcRecordLoader(SzGrpcAsyncEngine asyncEngine,
+                                 int               maxInFlight)
+    {
+        Objects.requireNonNull(
+            asyncEngine, "The async engine cannot be null");
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(
+                "The maximum number of in-flight records must be positive: "
+                + maxInFlight);
+        }
+        this.asyncEngine    = asyncEngine;
+        this.engine         = asyncEngine.getEngine();
+        this.env            = this.engine.getEnvironment();
+        this.maxInFlight    = maxInFlight;
+        this.window         = new Semaphore(maxInFlight, true);
+    }
+
+    /**
+     * Gets the maximum number of records that may be in flight at once.
+     *
+     * @return The maximum number of records that may be in flight at once.
+     */
+    public int getMaxInFlight()
+    {
+        return this.maxInFlight;
+    }
+
+    /**
+     * Gets the number of records currently in flight.
+     *
+     * @return The number of records currently in flight.
+     */
+    public int getInFlightCount()
+    {
+        return this.maxInFlight - this.window.availablePermits();
+    }
+
+    /**
+     * Gets the number of records that have been submitted.
+     *
+     * @return The number of records that have been submitted.
+     */
+    public long getSubmittedCount()
+    {
+        return this.submittedCount.get();
+    }
+
+    /**
+     * Gets the number of records that have been successfully acknowledged.
+     *
+     * @return The number of records that have been successfully acknowledged.
+     */
+    public long getSucceededCount()
+    {
+        return this.succeededCount.get();
+    }
+
+    /**
+     * Gets the number of records that have failed.
+     *
+     * @return The number of records that have failed.
+     */
+    public long getFailedCount()
+    {
+        return this.failedCount.get();
+    }
+
+    /**
+     * Checks if this instance is using the ingest stream, as opposed to
+     * falling back to unary calls because the server does not provide it.
+     *
+     * @return <code>true</code> if using the ingest stream, otherwise
+     *         <code>false</code>.
+     */
+    public boolean isStreaming()
+    {
+        return !this.unary;
+    }
+
+    /**
+     * Submits the specified record to be added, blocking if the maximum
+     * number of records are already in flight.  The returned {@link
+     * CompletableFuture} completes with the same result that {@link
+     * SzEngine#addRecord(SzRecordKey, String, Set)} would return (the INFO
+     * message if {@link SzFlag#SZ_WITH_INFO} is specified, otherwise
+     * <code>null</code>), or completes exceptionally with the failure for
+     * this record.
+     *
+     * @param recordKey The {@link SzRecordKey} for the record.
+     * @param recordDefinition The JSON record definition.
+     * @param flags The {@link Set} of {@link SzFlag} values.
+     *
+     * @return The {@link CompletableFuture} acknowledging the record.
+     *
+     * @throws InterruptedException If interrupted while waiting for room in
+     *                              the in-flight window.
+     * @throws IllegalStateException If this instance has been {@linkplain
+     *                               #close() closed} or the associated
+     *                               {@link SzGrpcEnvironment} has been
+     *                               destroyed.
+     */
+    public CompletableFuture<String> submit(SzRecordKey recordKey,
+                                            String      recordDefinition,
+                                            Set<SzFlag> flags)
+        throws InterruptedException, IllegalStateException
+    {
+        Objects.requireNonNull(recordKey, "The record key cannot be null");
+        this.ensureOpen();
+        this.window.acquire();
+
+        CompletableFuture<String> future;
+        try {
+            this.ensureOpen();
+            if (this.unary) {
+                future = this.asyncEngine.addRecord(
+                    recordKey, recordDefinition, flags);
+            } else {
+                future = this.env.executeAsync(() -> this.send(
+                    new Pending(recordKey, recordDefinition, flags)));
+            }
+
+        } catch (RuntimeException e) {
+            this.window.release();
+            throw e;
+        }
+
+        this.submittedCount.incrementAndGet();
+        return future.whenComplete((result, failure) -> {
+            if (failure == null) {
+                this.succeededCount.incrementAndGet();
+            } else {
+                this.failedCount.incrementAndGet();
+            }
+            this.window.release();
+        });
+    }
+
+    /**
+     * Sends the specified {@link Pending} record on the current stream,
+     * opening a new stream if none is open.  If the server has been found
+     * not to provide the ingest stream then the record is added via a unary
+     * call instead.
+     *
+     * @param record The {@link Pending} record to send.
+     *
+     * @return The {@link CompletableFuture} acknowledging the record.
+     */
+    private CompletableFuture<String> send(Pending record)
+    {
+        AddRecordRequest request = AddRecordRequest.newBuilder()
+            .setDataSourceCode(record.recordKey.dataSourceCode())
+            .setRecordId(record.recordKey.recordId())
+            .setRecordDefinition(record.recordDefinition)
+            .setFlags(SzFlag.toLong(record.flags)).build();
+
+        this.sendLock.lock();
+        try {
+            if (this.unary) {
+                this.addUnary(record);
+                return record.future;
+            }
+            if (this.requests == null) {
+                this.openStream();
+            }
+            this.pending.put(this.nextSequence++, record);
+            this.requests.onNext(request);
+
+        } finally {
+            this.sendLock.unlock();
+        }
+        return record.future;
+    }
+
+    /**
+     * Opens a new stream for sending records.  This must be called while
+     * holding the {@link #sendLock}.
+     */
+    private void openStream()
+    {
+        ClientCall<AddRecordRequest, Ack> call = this.env.getChannel()
+            .newCall(ADD_RECORDS_METHOD, CallOptions.DEFAULT);
+
+        Map<Long, Pending> streamPending = new ConcurrentSkipListMap<>();
+
+        this.pending        = streamPending;
+        this.nextSequence   = 0L;
+        this.requests       = ClientCalls.asyncBidiStreamingCall(
+            call, new StreamObserver<Ack>() {
+                @Override
+                public void onNext(Ack ack)
+                {
+                    Pending record = streamPending.remove(ack.getSequence());
+                    if (record != null) {
+                        SzGrpcRecordLoader.this.acknowledge(record, ack);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t)
+                {
+                    SzGrpcRecordLoader.this.streamEnded(streamPending, t);
+                }
+
+                @Override
+                public void onCompleted()
+                {
+                    SzGrpcRecordLoader.this.streamEnded(
+                        streamPending,
+                        Status.INTERNAL.withDescription(
+                            "The ingest stream completed with "
+                            + "unacknowledged records").asRuntimeException());
+                }
+            });
+    }
+
+    /**
+     * Completes the {@link CompletableFuture} for the specified {@link
+     * Pending} record using the specified {@link Ack}.  A failure is
+     * completed with a {@link io.grpc.StatusRuntimeException} carrying the
+     * same trailers as a failed unary call so that it is mapped to the same
+     * {@link com.senzing.sdk.SzException}.
+     *
+     * @param record The {@link Pending} record.
+     * @param ack The {@link Ack} for the record.
+     */
+    private void acknowledge(Pending record, Ack ack)
+    {
+        SzGrpcResult result = ack.getResult();
+        if (!result.isSuccess()) {
+            record.future.completeExceptionally(result.toException());
+            return;
+        }
+        try {
+            String info = result.getText();
+            if (info != null && info.length() == 0) {
+                info = null;
+            }
+            record.future.complete(this.engine.toWriteResult(info));
+
+        } catch (RuntimeException e) {
+            record.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Handles the end of a stream with unacknowledged records.  The stream
+     * is discarded so the next record opens a new one.  If the server does
+     * not provide the ingest stream then the unacknowledged records are
+     * added via unary calls, otherwise they are failed with the specified
+     * {@link Throwable}.
+     *
+     * @param streamPending The unacknowledged records of the stream.
+     * @param failure The {@link Throwable} describing why the stream ended.
+     */
+    private void streamEnded(Map<Long, Pending> streamPending,
+                             Throwable          failure)
+    {
+        List<Pending> records;
+        boolean unimplemented = (Status.fromThrowable(failure).getCode()
+                                 == Status.Code.UNIMPLEMENTED);
+
+        this.sendLock.lock();
+        try {
+            if (this.pending == streamPending) {
+                this.requests   = null;
+                this.pending    = null;
+            }
+            if (unimplemented) {
+                this.unary = true;
+            }
+            records = new ArrayList<>(streamPending.values());
+            streamPending.clear();
+
+        } finally {
+            this.sendLock.unlock();
+        }
+
+        for (Pending record : records) {
+            if (unimplemented) {
+                this.addUnary(record);
+            } else {
+                record.future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Adds the specified {@link Pending} record via a unary call, completing
+     * its {@link CompletableFuture} with the outcome.
+     *
+     * @param record The {@link Pending} record to add.
+     */
+    private void addUnary(Pending record)
+    {
+        CompletableFuture<String> future;
+        try {
+            future = this.asyncEngine.addRecord(
+                record.recordKey, record.recordDefinition, record.flags);
+        } catch (RuntimeException e) {
+            record.future.completeExceptionally(e);
+            return;
+        }
+        future.whenComplete((result, failure) -> {
+            if (failure == null) {
+                record.future.complete(result);
+            } else {
+                record.future.completeExceptionally(failure);
+            }
+        });
+    }
+
+    /**
+     * Blocks until all records submitted prior to this call have been
+     * acknowledged.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void flush() throws InterruptedException
+    {
+        this.window.acquire(this.maxInFlight);
+        this.window.release(this.maxInFlight);
+    }
+
+    /**
+     * Checks if this instance has been {@linkplain #close() closed}.
+     *
+     * @return <code>true</code> if closed, otherwise <code>false</code>.
+     */
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Closes this instance so that no further records may be submitted,
+     * blocks until all records already submitted have been acknowledged and
+     * then ends the stream.  If interrupted while waiting, this method
+     * returns early with the interrupted status of the thread set and the
+     * stream is cancelled, failing any unacknowledged records.
+     */
+    @Override
+    public void close()
+    {
+        this.closed = true;
+        boolean interrupted = false;
+        try {
+            this.flush();
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
+        this.sendLock.lock();
+        try {
+            if (this.requests != null) {
+                if (interrupted) {
+                    this.requests.onError(Status.CANCELLED.withDescription(
+                        "The record loader was closed").asRuntimeException());
+                } else {
+                    this.requests.onCompleted();
+                }
+                this.requests = null;
+            }
+        } finally {
+            this.sendLock.unlock();
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ensures this instance has not been {@linkplain #close() closed}.
+     *
+     * @throws IllegalStateException If this instance has been closed.
+     */
+    private void ensureOpen() throws IllegalStateException
+    {
+        if (this.closed) {
+            throw new IllegalStateException(
+                "This record loader has been closed");
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.senzing.sdk.grpc;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_CODE_TRAILER_KEY;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_MESSAGE_TRAILER_KEY;
+
+/**
+ * Describes the outcome of a single item of a multi-item gRPC operation
+ * (e.g.: one record of an ingest stream or one entity of a batch lookup)
+ * so that the items can succeed or fail independently within one call.
+ *
+ * <p>
+ * A successful outcome carries the {@link Status.Code#OK} status and the
+ * optional text result.  A failed outcome carries the gRPC status along
+ * with the Senzing error code and message (if any) taken from the same
+ * trailers that a failed unary call would carry, so that the client maps
+ * it to the same {@link com.senzing.sdk.SzException} via {@link
+ * SzGrpcEnvironment#createSzException(Status, Exception)}.
+ * </p>
+ *
+ * <p>
+ * Outcomes are encoded compactly as the status code value, the Senzing
+ * error code (or <code>-1</code> if none) and the length-prefixed UTF-8
+ * text (or a length of <code>-1</code> if none).
+ * </p>
+ */
+public final class SzGrpcResult
+{
+    /**
+     * The value encoded when there is no Senzing error code.
+     */
+    private static final int NO_ERROR_CODE = -1;
+
+    /**
+     * The value encoded for the length when there is no text.
+     */
+    private static final int NO_TEXT = -1;
+
+    /**
+     * The gRPC {@link Status.Code} value.
+     */
+    private final int statusCode;
+
+    /**
+     * The Senzing error code, or <code>null</code>.
+     */
+    private final Integer errorCode;
+
+    /**
+     * The text result or error message, or <code>null</code>.
+     */
+    private final String text;
+
+    /**
+     * Constructs with the gRPC status code value, Senzing error code and
+     * text.
+     *
+     * @param statusCode The gRPC {@link Status.Code} value, which is that
+     *                   of {@link Status.Code#OK} for success.
+     * @param errorCode The Senzing error code, or <code>null</code> if
+     *                  successful or not a Senzing failure.
+     * @param text The text result if successful, otherwise the error
+     *             message, or <code>null</code> if none.
+     */
+    public SzGrpcResult(int statusCode, Integer errorCode, String text)
+    {
+        this.statusCode = statusCode;
+        this.errorCode  = errorCode;
+        this.text       = text;
+    }
+
+    /**
+     * Creates a successful {@link SzGrpcResult} with the specified text.
+     *
+     * @param text The text result, or <code>null</code> if none.
+     *
+     * @return The successful {@link SzGrpcResult}.
+     */
+    public static SzGrpcResult success(String text)
+    {
+        return new SzGrpcResult(Status.Code.OK.value(), null, text);
+    }
+
+    /**
+     * Creates a failed {@link SzGrpcResult} describing the specified
+     * failure as produced by a gRPC service implementation.  The Senzing
+     * error code and message are taken from the {@link
+     * SzGrpcEnvironment#ERROR_CODE_TRAILER_KEY} and {@link
+     * SzGrpcEnvironment#ERROR_MESSAGE_TRAILER_KEY} trailers if present,
+     * otherwise the status description is used as the message.
+     *
+     * @param failure The {@link Throwable} describing the failure.
+     *
+     * @return The failed {@link SzGrpcResult}.
+     */
+    public static SzGrpcResult failure(Throwable failure)
+    {
+        Status   status   = Status.fromThrowable(failure);
+        Metadata trailers = Status.trailersFromThrowable(failure);
+        if (trailers != null) {
+            String codeText     = trailers.get(ERROR_CODE_TRAILER_KEY);
+            byte[] messageBytes = trailers.get(ERROR_MESSAGE_TRAILER_KEY);
+            if (codeText != null && messageBytes != null) {
+                try {
+                    return new SzGrpcResult(
+                        status.getCode().value(),
+                        Integer.parseInt(codeText),
+                        new String(messageBytes, StandardCharsets.UTF_8));
+
+                } catch (NumberFormatException e) {
+                    // fall through to the status description
+                }
+            }
+        }
+        String description = status.getDescription();
+        if (description == null && status.getCause() != null) {
+            description = status.getCause().toString();
+        }
+        return new SzGrpcResult(status.getCode().value(), null, description);
+    }
+
+    /**
+     * Gets the gRPC {@link Status.Code} value for the item.
+     *
+     * @return The gRPC {@link Status.Code} value for the item.
+     */
+    public int getStatusCode()
+    {
+        return this.statusCode;
+    }
+
+    /**
+     * Checks if the item succeeded.
+     *
+     * @return <code>true</code> if successful, otherwise
+     *         <code>false</code>.
+     */
+    public boolean isSuccess()
+    {
+        return this.statusCode == Status.Code.OK.value();
+    }
+
+    /**
+     * Gets the Senzing error code for the failure, if any.
+     *
+     * @return The Senzing error code for the failure, or <code>null</code>
+     *         if none.
+     */
+    public Integer getErrorCode()
+    {
+        return this.errorCode;
+    }
+
+    /**
+     * Gets the text result if successful, otherwise the error message.
+     *
+     * @return The text result if successful, otherwise the error message,
+     *         or <code>null</code> if none.
+     */
+    public String getText()
+    {
+        return this.text;
+    }
+
+    /**
+     * Converts this failed {@link SzGrpcResult} to the {@link
+     * StatusRuntimeException} (with the same trailers) that a failed unary
+     * call would have produced on the client.
+     *
+     * @return The {@link StatusRuntimeException} describing the failure.
+     */
+    public StatusRuntimeException toException()
+    {
+        Metadata trailers = new Metadata();
+        if (this.errorCode != null) {
+            String message = (this.text == null) ? "" : this.text;
+            trailers.put(ERROR_CODE_TRAILER_KEY,
+                         String.valueOf(this.errorCode));
+            trailers.put(ERROR_MESSAGE_TRAILER_KEY,
+                         message.getBytes(StandardCharsets.UTF_8));
+        }
+        return Status.fromCodeValue(this.statusCode)
+            .withDescription(this.text).asRuntimeException(trailers);
+    }
+
+    /**
+     * Writes the compact encoding of this instance to the specified {@link
+     * DataOutput}.
+     *
+     * @param output The {@link DataOutput} to write to.
+     *
+     * @throws IOException If an I/O failure occurs.
+     */
+    public void writeTo(DataOutput output) throws IOException
+    {
+        output.writeInt(this.statusCode);
+        output.writeInt(
+            (this.errorCode == null) ? NO_ERROR_CODE : this.errorCode);
+        if (this.text == null) {
+            output.writeInt(NO_TEXT);
+        } else {
+            byte[] bytes = this.text.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Reads an {@link SzGrpcResult} in the compact encoding from the
+     * specified {@link DataInput}.
+     *
+     * @param input The {@link DataInput} to read from.
+     *
+     * @return The {@link SzGrpcResult} that was read.
+     *
+     * @throws IOException If an I/O failure occurs.
+     */
+    public static SzGrpcResult readFrom(DataInput input) throws IOException
+    {
+        int statusCode  = input.readInt();
+        int errorCode   = input.readInt();
+        int length      = input.readInt();
+        String text = null;
+        if (length != NO_TEXT) {
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new SzGrpcResult(
+            statusCode,
+            (errorCode == NO_ERROR_CODE) ? null : errorCode,
+            text);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.statusCode + " / " + this.errorCode + " / " + this.text;
+    }
+}
@@ -0,0 +1,162 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import com.senzing.sdk.grpc.SzGrpcEntityBatch;
+
+/**
+ * Provides a {@link ServerInterceptor} that admits unary calls and batch
+ * lookups to the Senzing services through the {@link
+ * SzGrpcConcurrencyLimiter} of the server.  A call that is not admitted is
+ * closed immediately with {@link Status#RESOURCE_EXHAUSTED} and a {@link
+ * #RETRY_PUSHBACK_KEY} trailer suggesting how long the client should wait
+ * before retrying.  Admitted calls are released when they close and the
+ * latency of those that ran to completion is used to adapt the limit.
+ *
+ * <p>
+ * Other streaming calls (exports, ingest streams and change feed
+ * subscriptions) are long-lived, so their latency does not reflect the
+ * load on the engine, and are passed through unchanged, as are calls to
+ * services other than the Senzing services (e.g.: the health service).
+ * The batch lookups of {@link SzGrpcEntityBatch} stream back their results
+ * but complete as soon as their last lookup does, so they are admitted
+ * like unary calls.
+ * </p>
+ */
+final class ConcurrencyLimitInterceptor implements ServerInterceptor
+{
+    /**
+     * The {@link Metadata.Key} for the <code>grpc-retry-pushback-ms</code>
+     * trailer which gRPC clients with a retry policy honor as the number of
+     * milliseconds to wait before retrying.
+     */
+    static final Metadata.Key<String> RETRY_PUSHBACK_KEY
+        = Metadata.Key.of("grpc-retry-pushback-ms",
+                          Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * The {@link Supplier} of the {@link SzGrpcConcurrencyLimiter}, which
+     * supplies <code>null</code> if concurrency limiting is disabled.
+     */
+    private final Supplier<SzGrpcConcurrencyLimiter> limiterSupplier;
+
+    /**
+     * Constructs with the {@link Supplier} of the {@link
+     * SzGrpcConcurrencyLimiter}.  The limiter is obtained as each call starts
+     * so it may be created after this instance.
+     *
+     * @param limiterSupplier The {@link Supplier} of the {@link
+     *                        SzGrpcConcurrencyLimiter}, which supplies
+     *                        <code>null</code> if concurrency limiting is
+     *                        disabled.
+     */
+    ConcurrencyLimitInterceptor(
+        Supplier<SzGrpcConcurrencyLimiter> limiterSupplier)
+    {
+        this.limiterSupplier = Objects.requireNonNull(limiterSupplier);
+    }
+
+    /**
+     * Checks if a call completing with the specified {@link Status.Code}
+     * should have its latency sampled.  Calls that were cancelled, expired
+     * or rejected are not sampled.
+     *
+     * @param code The {@link Status.Code} of the call.
+     *
+     * @return <code>true</code> if the latency should be sampled, otherwise
+     *         <code>false</code>.
+     */
+    static boolean isSampled(Status.Code code)
+    {
+        switch (code) {
+            case CANCELLED:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Implemented to admit the call through the {@link
+     * SzGrpcConcurrencyLimiter} and release it when it closes.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT>         call,
+        Metadata                        headers,
+        ServerCallHandler<ReqT, RespT>  next)
+    {
+        SzGrpcConcurrencyLimiter limiter = this.limiterSupplier.get();
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        if (limiter == null
+            || (method.getType() != MethodDescriptor.MethodType.UNARY
+                && !SzGrpcEntityBatch.SERVICE_NAME.equals(
+                    method.getServiceName()))
+            || SzGrpcExecutorLanes.Lane.of(method.getFullMethodName()) == null)
+        {
+            return next.startCall(call, headers);
+        }
+
+        if (!limiter.tryAcquire()) {
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_PUSHBACK_KEY,
+                         String.valueOf(limiter.getRetryAfterMillis()));
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                "The server is at its concurrency limit of "
+                + limiter.getLimit() + "; retry later"), trailers);
+            return new ServerCall.Listener<ReqT>() { };
+        }
+
+        long startNanos = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean(false);
+
+        ServerCall<ReqT, RespT> limitedCall
+            = new SimpleForwardingServerCall<ReqT, RespT>(call) {
+                @Override
+                public void close(Status status, Metadata trailers)
+                {
+                    if (released.compareAndSet(false, true)) {
+                        limiter.release(System.nanoTime() - startNanos,
+                                        isSampled(status.getCode()));
+                    }
+                    super.close(status, trailers);
+                }
+            };
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(limitedCall, headers);
+        } catch (RuntimeException e) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(0L, false);
+            }
+            throw e;
+        }
+
+        return new SimpleForwardingServerCallListener<ReqT>(listener) {
+            @Override
+            public void onCancel()
+            {
+                if (released.compareAndSet(false, true)) {
+                    limiter.release(0L, false);
+                }
+                super.onCancel();
+            }
+        };
+    }
+}
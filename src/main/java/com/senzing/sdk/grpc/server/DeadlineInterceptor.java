@@ -0,0 +1,229 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Provides a {@link ServerInterceptor} that prevents work from being
+ * dispatched to the native engine on behalf of a caller that is no longer
+ * waiting for the result.  Calls sit in the blocking task queue until a
+ * thread is available, so under load a call may be dequeued after the
+ * client's deadline has passed or after the client has cancelled it.  When
+ * such a call is dequeued it is closed immediately with {@link
+ * Status#DEADLINE_EXCEEDED} or {@link Status#CANCELLED} and the service
+ * method is never invoked.
+ *
+ * <p>
+ * The effective {@link Deadline} is the earlier of the {@link Context}
+ * deadline and the deadline obtained from the <code>grpc-timeout</code>
+ * request header as of the time the call was received.  It is made
+ * available to the service implementation via {@link #DEADLINE_CONTEXT_KEY}
+ * so that long-running, multi-step operations can {@linkplain
+ * #checkActive() check} again between steps.
+ * </p>
+ */
+final class DeadlineInterceptor implements ServerInterceptor
+{
+    /**
+     * The {@link Metadata.Key} for the <code>grpc-timeout</code> header.
+     */
+    static final Metadata.Key<String> TIMEOUT_KEY
+        = Metadata.Key.of("grpc-timeout", Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * The {@link Context.Key} for the effective {@link Deadline} of the
+     * call.  This has no value if the call has no deadline.
+     */
+    static final Context.Key<Deadline> DEADLINE_CONTEXT_KEY
+        = Context.key("sz-grpc-deadline");
+
+    /**
+     * The {@link Context.Key} for the {@link ServerCall} so its cancellation
+     * can be checked by the service implementation.
+     */
+    static final Context.Key<ServerCall<?, ?>> CALL_CONTEXT_KEY
+        = Context.key("sz-grpc-call");
+
+    /**
+     * The {@link SzGrpcServerMetrics} to record skipped calls to.
+     */
+    private final SzGrpcServerMetrics metrics;
+
+    /**
+     * Constructs with the {@link SzGrpcServerMetrics} to record skipped
+     * calls to.
+     *
+     * @param metrics The {@link SzGrpcServerMetrics} to record to.
+     */
+    DeadlineInterceptor(SzGrpcServerMetrics metrics)
+    {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Parses the value of a <code>grpc-timeout</code> header (e.g.:
+     * <code>"250m"</code>) into a {@link Deadline} relative to now.
+     *
+     * @param timeout The header value to parse, or <code>null</code>.
+     *
+     * @return The {@link Deadline}, or <code>null</code> if the specified
+     *         value is <code>null</code> or malformed.
+     */
+    static Deadline parseTimeout(String timeout)
+    {
+        if (timeout == null || timeout.length() < 2
+            || timeout.length() > 9)
+        {
+            return null;
+        }
+        long amount = 0L;
+        int last = timeout.length() - 1;
+        for (int index = 0; index < last; index++) {
+            char c = timeout.charAt(index);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            amount = (amount * 10L) + (c - '0');
+        }
+        TimeUnit unit;
+        switch (timeout.charAt(last)) {
+            case 'H':
+                unit = TimeUnit.HOURS;
+                break;
+            case 'M':
+                unit = TimeUnit.MINUTES;
+                break;
+            case 'S':
+                unit = TimeUnit.SECONDS;
+                break;
+            case 'm':
+                unit = TimeUnit.MILLISECONDS;
+                break;
+            case 'u':
+                unit = TimeUnit.MICROSECONDS;
+                break;
+            case 'n':
+                unit = TimeUnit.NANOSECONDS;
+                break;
+            default:
+                return null;
+        }
+        return Deadline.after(amount, unit);
+    }
+
+    /**
+     * Gets the {@link Status} with which a call having the specified
+     * {@link ServerCall} and {@link Deadline} should be failed rather than
+     * processed.
+     *
+     * @param call The {@link ServerCall}, or <code>null</code> if unknown.
+     * @param deadline The {@link Deadline}, or <code>null</code> if none.
+     *
+     * @return {@link Status#CANCELLED} if the call has been cancelled,
+     *         {@link Status#DEADLINE_EXCEEDED} if the deadline has expired,
+     *         otherwise <code>null</code>.
+     */
+    static Status getTerminalStatus(ServerCall<?, ?> call, Deadline deadline)
+    {
+        if (call != null && call.isCancelled()) {
+            return Status.CANCELLED.withDescription(
+                "The call was cancelled before processing completed");
+        }
+        if (deadline != null && deadline.isExpired()) {
+            return Status.DEADLINE_EXCEEDED.withDescription(
+                "The deadline expired before processing completed");
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the call associated with the current {@link Context} has
+     * been cancelled or its deadline has expired.  This should be called
+     * between the steps of long-running operations so no further work is
+     * done for a caller that is no longer waiting.
+     *
+     * @throws StatusRuntimeException With {@link Status#CANCELLED} or
+     *                                {@link Status#DEADLINE_EXCEEDED} if
+     *                                the call should not continue.
+     */
+    static void checkActive() throws StatusRuntimeException
+    {
+        Context context = Context.current();
+        Deadline deadline = DEADLINE_CONTEXT_KEY.get(context);
+        if (deadline == null) {
+            deadline = context.getDeadline();
+        }
+        Status status = getTerminalStatus(CALL_CONTEXT_KEY.get(context),
+                                          deadline);
+        if (status == null && context.isCancelled()) {
+            status = Status.CANCELLED.withDescription(
+                "The call was cancelled before processing completed");
+        }
+        if (status != null) {
+            throw status.asRuntimeException();
+        }
+    }
+
+    /**
+     * Implemented to attach the effective {@link Deadline} and the {@link
+     * ServerCall} to the {@link Context} and to close the call without
+     * invoking the service method if it is cancelled or expired by the time
+     * it is dispatched.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT>         call,
+        Metadata                        headers,
+        ServerCallHandler<ReqT, RespT>  next)
+    {
+        Context context = Context.current();
+
+        // use the earlier of the context deadline and the header deadline
+        Deadline deadline = context.getDeadline();
+        Deadline timeout  = parseTimeout(headers.get(TIMEOUT_KEY));
+        if (timeout != null) {
+            deadline = (deadline == null) ? timeout : deadline.minimum(timeout);
+        }
+
+        context = context.withValue(CALL_CONTEXT_KEY, call);
+        if (deadline != null) {
+            context = context.withValue(DEADLINE_CONTEXT_KEY, deadline);
+        }
+
+        ServerCall.Listener<ReqT> listener
+            = Contexts.interceptCall(context, call, headers, next);
+
+        final Deadline callDeadline = deadline;
+        return new SimpleForwardingServerCallListener<ReqT>(listener) {
+            @Override
+            public void onHalfClose()
+            {
+                // the service method is invoked on half-close for unary and
+                // server-streaming calls which runs once the call is dequeued
+                Status status = getTerminalStatus(call, callDeadline);
+                if (status == null) {
+                    super.onHalfClose();
+                    return;
+                }
+                DeadlineInterceptor.this.metrics.recordSkipped(
+                    status.getCode());
+                if (!call.isCancelled()) {
+                    call.close(status, new Metadata());
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,272 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import com.senzing.sdk.grpc.server.SzGrpcExecutorLanes.Lane;
+
+/**
+ * Provides a {@link ServerInterceptor} that runs the listener callbacks of
+ * each call on the executor of its {@linkplain SzGrpcExecutorLanes lane}
+ * rather than on the shared blocking task executor.  The callbacks for a
+ * single call are run serially and in order.  If no lanes are configured,
+ * or the lane for the call is not configured, then the call is passed
+ * through unchanged.
+ *
+ * <p>
+ * A call is admitted to its lane when it starts and released when it
+ * completes or is cancelled.  If the lane is at capacity when the call
+ * starts then it is closed immediately with {@link
+ * Status#RESOURCE_EXHAUSTED} and the service method is never invoked.
+ * Likewise, if the lane executor rejects a callback (e.g.: because it has
+ * been shut down) then the call is closed with {@link
+ * Status#RESOURCE_EXHAUSTED} and released rather than running the callback
+ * on the calling event loop thread.
+ * </p>
+ *
+ * <p>
+ * The callbacks are run within the Armeria {@link ServiceRequestContext} of
+ * the call so that services may use it (e.g.: to obtain its blocking task
+ * executor) from the lane threads.
+ * </p>
+ */
+final class ExecutorLaneInterceptor implements ServerInterceptor
+{
+    /**
+     * Runs tasks serially and in submission order on a backing {@link
+     * Executor}, using at most one of its threads at a time.
+     */
+    private static final class SerialExecutor implements Executor
+    {
+        /**
+         * The backing {@link Executor}.
+         */
+        private final Executor executor;
+
+        /**
+         * The {@link Queue} of pending tasks.
+         */
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The {@link Runnable} to run if the backing {@link Executor}
+         * rejects a drain of the pending tasks.
+         */
+        private final Runnable rejectionHandler;
+
+        /**
+         * Set while a drain of the pending tasks is scheduled or running.
+         */
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        /**
+         * Set once the backing {@link Executor} has rejected a drain, after
+         * which all tasks are discarded.
+         */
+        private volatile boolean rejected = false;
+
+        /**
+         * Constructs with the backing {@link Executor} and the {@link
+         * Runnable} to run if it rejects a drain of the pending tasks.
+         *
+         * @param executor The backing {@link Executor}.
+         * @param rejectionHandler The {@link Runnable} to run if the backing
+         *                         {@link Executor} rejects a drain.
+         */
+        private SerialExecutor(Executor executor, Runnable rejectionHandler)
+        {
+            this.executor           = executor;
+            this.rejectionHandler   = rejectionHandler;
+        }
+
+        @Override
+        public void execute(Runnable task)
+        {
+            if (this.rejected) {
+                return;
+            }
+            this.tasks.add(task);
+            this.schedule();
+        }
+
+        /**
+         * Schedules a drain of the pending tasks if one is not already
+         * scheduled or running.  If the backing {@link Executor} rejects the
+         * drain (e.g.: because it has been shut down) then the pending and
+         * subsequent tasks are discarded and the rejection handler is run
+         * instead, so that tasks never run on the calling thread.
+         */
+        private void schedule()
+        {
+            if (!this.draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                this.executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                this.rejected = true;
+                this.tasks.clear();
+                this.rejectionHandler.run();
+            }
+        }
+
+        /**
+         * Runs the pending tasks until none remain.
+         */
+        private void drain()
+        {
+            try {
+                for (Runnable task = this.tasks.poll();
+                     task != null;
+                     task = this.tasks.poll())
+                {
+                    task.run();
+                }
+            } finally {
+                this.draining.set(false);
+            }
+            // check for a task added after the last poll
+            if (!this.tasks.isEmpty()) {
+                this.schedule();
+            }
+        }
+    }
+
+    /**
+     * The {@link Supplier} of the {@link SzGrpcExecutorLanes}, which
+     * supplies <code>null</code> if no lanes are configured.
+     */
+    private final Supplier<SzGrpcExecutorLanes> lanesSupplier;
+
+    /**
+     * Constructs with the {@link Supplier} of the {@link
+     * SzGrpcExecutorLanes}.  The lanes are obtained as each call starts so
+     * they may be created after this instance.
+     *
+     * @param lanesSupplier The {@link Supplier} of the {@link
+     *                      SzGrpcExecutorLanes}, which supplies
+     *                      <code>null</code> if no lanes are configured.
+     */
+    ExecutorLaneInterceptor(Supplier<SzGrpcExecutorLanes> lanesSupplier)
+    {
+        this.lanesSupplier = Objects.requireNonNull(lanesSupplier);
+    }
+
+    /**
+     * Implemented to admit the call to its lane and run its listener
+     * callbacks on the executor for that lane.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT>         call,
+        Metadata                        headers,
+        ServerCallHandler<ReqT, RespT>  next)
+    {
+        SzGrpcExecutorLanes lanes = this.lanesSupplier.get();
+        if (lanes == null) {
+            return next.startCall(call, headers);
+        }
+        String methodName = call.getMethodDescriptor().getFullMethodName();
+        Lane lane = Lane.of(methodName);
+        Executor executor = (lane == null) ? null : lanes.getExecutor(lane);
+        if (executor == null) {
+            return next.startCall(call, headers);
+        }
+        ServiceRequestContext ctx = ServiceRequestContext.currentOrNull();
+        if (ctx != null) {
+            executor = ctx.makeContextAware(executor);
+        }
+
+        if (!lanes.tryAcquire(lane)) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                "The " + lane + " executor lane is at capacity"),
+                new Metadata());
+            return new ServerCall.Listener<ReqT>() { };
+        }
+
+        AtomicBoolean released = new AtomicBoolean(false);
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                lanes.release(lane);
+            }
+        };
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(call, headers);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+
+        SerialExecutor serial = new SerialExecutor(executor, () -> {
+            try {
+                call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                    "The " + lane + " executor lane is not accepting calls"),
+                    new Metadata());
+            } catch (IllegalStateException e) {
+                // the call was already closed
+            } finally {
+                release.run();
+            }
+        });
+        return new ServerCall.Listener<ReqT>() {
+            @Override
+            public void onMessage(ReqT message)
+            {
+                serial.execute(() -> listener.onMessage(message));
+            }
+
+            @Override
+            public void onHalfClose()
+            {
+                serial.execute(listener::onHalfClose);
+            }
+
+            @Override
+            public void onCancel()
+            {
+                serial.execute(() -> {
+                    try {
+                        listener.onCancel();
+                    } finally {
+                        release.run();
+                    }
+                });
+            }
+
+            @Override
+            public void onComplete()
+            {
+                serial.execute(() -> {
+                    try {
+                        listener.onComplete();
+                    } finally {
+                        release.run();
+                    }
+                });
+            }
+
+            @Override
+            public void onReady()
+            {
+                serial.execute(listener::onReady);
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.senzing.sdk.grpc.server;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import com.senzing.sdk.grpc.SzGrpcExportBatch;
+
+import static com.senzing.sdk.grpc.proto.SzEngineGrpc.*;
+
+/**
+ * Provides a {@link ServerInterceptor} that detects when a client has
+ * requested {@linkplain SzGrpcExportBatch batched} export content on one of
+ * the streaming export RPC's.  When requested, the limits are made available
+ * to the service implementation via {@link #MAX_LINES_CONTEXT_KEY} and
+ * {@link #MAX_BYTES_CONTEXT_KEY} and the {@link SzGrpcExportBatch#BATCHED_KEY}
+ * response header is sent to indicate to the client that the response
+ * messages are batched.
+ */
+final class ExportBatchInterceptor implements ServerInterceptor
+{
+    /**
+     * The {@link Context.Key} for the maximum number of lines of export
+     * content to pack into a single response message.  This has no value if
+     * the client did not request batching.
+     */
+    static final Context.Key<Integer> MAX_LINES_CONTEXT_KEY
+        = Context.key(SzGrpcExportBatch.MAX_LINES_HEADER);
+
+    /**
+     * The {@link Context.Key} for the approximate maximum number of bytes of
+     * export content to pack into a single response message.  This has no
+     * value if the client did not request batching.
+     */
+    static final Context.Key<Integer> MAX_BYTES_CONTEXT_KEY
+        = Context.key(SzGrpcExportBatch.MAX_BYTES_HEADER);
+
+    /**
+     * Default constructor.
+     */
+    ExportBatchInterceptor()
+    {
+        // do nothing
+    }
+
+    /**
+     * Checks if the specified fully-qualified method name is for one of the
+     * streaming export RPC's.
+     *
+     * @param methodName The fully-qualified method name.
+     *
+     * @return <code>true</code> if the method is a streaming export RPC,
+     *         otherwise <code>false</code>.
+     */
+    private static boolean isExportMethod(String methodName)
+    {
+        return methodName.equals(
+                getStreamExportJsonEntityReportMethod().getFullMethodName())
+            || methodName.equals(
+                getStreamExportCsvEntityReportMethod().getFullMethodName());
+    }
+
+    /**
+     * Implemented to attach the requested batch limits to the {@link Context}
+     * and add the {@link SzGrpcExportBatch#BATCHED_KEY} response header for
+     * streaming export RPC's when the client requests batching.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+        ServerCall<ReqT, RespT>         call,
+        Metadata                        headers,
+        ServerCallHandler<ReqT, RespT>  next)
+    {
+        String methodName = call.getMethodDescriptor().getFullMethodName();
+        if (!isExportMethod(methodName)) {
+            return next.startCall(call, headers);
+        }
+
+        Integer maxLines = SzGrpcExportBatch.parseLimit(
+            headers.get(SzGrpcExportBatch.MAX_LINES_KEY));
+        Integer maxBytes = SzGrpcExportBatch.parseLimit(
+            headers.get(SzGrpcExportBatch.MAX_BYTES_KEY));
+
+        // check if batching was not requested
+        if (maxLines == null || maxLines <= 1) {
+            return next.startCall(call, headers);
+        }
+
+        // cap the byte limit to keep messages under the max message size
+        if (maxBytes == null || maxBytes > SzGrpcExportBatch.MAX_BYTES_LIMIT) {
+            maxBytes = SzGrpcExportBatch.MAX_BYTES_LIMIT;
+        }
+
+        ServerCall<ReqT, RespT> batchCall
+            = new SimpleForwardingServerCall<ReqT, RespT>(call) {
+                @Override
+                public void sendHeaders(Metadata responseHeaders)
+                {
+                    responseHeaders.put(SzGrpcExportBatch.BATCHED_KEY, "true");
+                    super.sendHeaders(responseHeaders);
+                }
+            };
+
+        Context context = Context.current()
+            .withValue(MAX_LINES_CONTEXT_KEY, maxLines)
+            .withValue(MAX_BYTES_CONTEXT_KEY, maxBytes);
+
+        return Contexts.interceptCall(context, batchCall, headers, next);
+    }
+}
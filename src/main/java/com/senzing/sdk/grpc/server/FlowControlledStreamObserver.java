@@ -0,0 +1,270 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import static com.senzing.sdk.grpc.server.SzGrpcServices.*;
+
+/**
+ * Wraps the {@link StreamObserver} for a server-streaming response so that
+ * the server-side producer only emits a message when the underlying call is
+ * {@linkplain ServerCallStreamObserver#isReady() ready} to accept it.  This
+ * keeps the number of outstanding messages buffered for a slow consumer
+ * bounded by the HTTP/2 flow-control window rather than by the size of the
+ * response stream.
+ *
+ * <p>
+ * The producer thread waits in {@link #send(Object)} while the call is not
+ * ready by parking for short, bounded intervals and re-checking whether the
+ * call is {@linkplain ServerCallStreamObserver#isReady() ready} or
+ * {@linkplain ServerCallStreamObserver#isCancelled() cancelled}.  The wait
+ * does <b>not</b> depend on the {@linkplain
+ * ServerCallStreamObserver#setOnReadyHandler(Runnable) on-ready} or
+ * {@linkplain ServerCallStreamObserver#setOnCancelHandler(Runnable)
+ * on-cancel} handlers being invoked, since those are delivered on the
+ * call's serialized executor which is occupied by the producer itself when
+ * the server uses a blocking task executor.  When those handlers do run
+ * they simply wake the producer early.  Parking (rather than a monitor
+ * wait) also avoids pinning the carrier thread when the producer runs on a
+ * virtual thread.  If the wrapped {@link StreamObserver} is <b>not</b> an
+ * instance of {@link ServerCallStreamObserver} then no flow control is
+ * applied.
+ * </p>
+ *
+ * <p>
+ * If an idle timeout is specified and the call does not become ready within
+ * that time (e.g.: because the client has stopped reading without cancelling)
+ * then the call is failed with {@link Status#DEADLINE_EXCEEDED} and treated
+ * as terminated so the producer stops.
+ * </p>
+ *
+ * <p>
+ * <b>NOTE:</b> Instances must be constructed from within the gRPC service
+ * method (before it returns) so that the handlers can be registered.
+ * </p>
+ *
+ * @param <T> The type of the response message.
+ */
+final class FlowControlledStreamObserver<T>
+{
+    /**
+     * The initial number of nanoseconds to park before re-checking whether
+     * the call is ready.  The interval doubles on each re-check up to {@link
+     * #MAX_POLL_NANOS}.
+     */
+    private static final long MIN_POLL_NANOS = 50000L;
+
+    /**
+     * The maximum number of nanoseconds to park before re-checking whether
+     * the call is ready.  This bounds both the delay in resuming a stream
+     * whose consumer has caught up and how long a cancelled call goes
+     * unnoticed.
+     */
+    private static final long MAX_POLL_NANOS = 5000000L;
+
+    /**
+     * The underlying {@link StreamObserver}.
+     */
+    private final StreamObserver<T> observer;
+
+    /**
+     * The underlying {@link ServerCallStreamObserver}, or <code>null</code> if
+     * the underlying {@link StreamObserver} does not support flow control.
+     */
+    private final ServerCallStreamObserver<T> callObserver;
+
+    /**
+     * The producer {@link Thread} currently waiting in {@link #awaitReady()},
+     * or <code>null</code> if none.
+     */
+    private volatile Thread waiter = null;
+
+    /**
+     * Flag indicating if the call has been cancelled.
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * Flag indicating if the call was failed because the idle timeout expired.
+     */
+    private volatile boolean expired = false;
+
+    /**
+     * The maximum number of milliseconds to wait for the call to become
+     * ready, or zero (0) if there is no limit.
+     */
+    private final long idleTimeoutMillis;
+
+    /**
+     * Constructs with the specified {@link StreamObserver} and no idle
+     * timeout.
+     *
+     * @param observer The {@link StreamObserver} to wrap.
+     */
+    FlowControlledStreamObserver(StreamObserver<T> observer)
+    {
+        this(observer, 0L);
+    }
+
+    /**
+     * Constructs with the specified {@link StreamObserver} and idle timeout.
+     *
+     * @param observer The {@link StreamObserver} to wrap.
+     * @param idleTimeoutMillis The maximum number of milliseconds to wait for
+     *                          the call to become ready before failing it, or
+     *                          zero (0) (or negative) for no limit.
+     */
+    @SuppressWarnings("unchecked")
+    FlowControlledStreamObserver(StreamObserver<T> observer,
+                                 long              idleTimeoutMillis)
+    {
+        Objects.requireNonNull(observer, "The observer cannot be null");
+        this.observer = observer;
+        this.idleTimeoutMillis = (idleTimeoutMillis < 0L)
+            ? 0L : idleTimeoutMillis;
+        if (observer instanceof ServerCallStreamObserver) {
+            this.callObserver = (ServerCallStreamObserver<T>) observer;
+            this.callObserver.setOnReadyHandler(this::signal);
+            this.callObserver.setOnCancelHandler(() -> {
+                this.cancelled = true;
+                this.signal();
+            });
+        } else {
+            this.callObserver = null;
+        }
+    }
+
+    /**
+     * Wakes the thread waiting in {@link #awaitReady()}, if any.
+     */
+    private void signal()
+    {
+        Thread thread = this.waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Checks if the call has been cancelled by the client (or otherwise
+     * terminated by the transport or failed because the idle timeout
+     * expired).
+     *
+     * @return <code>true</code> if the call has been cancelled, otherwise
+     *         <code>false</code>.
+     */
+    boolean isCancelled()
+    {
+        if (this.cancelled || this.expired) {
+            return true;
+        }
+        return (this.callObserver != null && this.callObserver.isCancelled());
+    }
+
+    /**
+     * Blocks the calling thread until the call is ready to accept another
+     * message or has been cancelled.  If the idle timeout expires first then
+     * the call is failed with {@link Status#DEADLINE_EXCEEDED}.
+     *
+     * @return <code>true</code> if the call is ready, or <code>false</code> if
+     *         it has been cancelled or the idle timeout expired.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    boolean awaitReady() throws InterruptedException
+    {
+        if (this.callObserver == null) {
+            return true;
+        }
+        long start      = System.nanoTime();
+        long pollNanos  = MIN_POLL_NANOS;
+        long idleNanos  = this.idleTimeoutMillis * 1000000L;
+        this.waiter = Thread.currentThread();
+        try {
+            while (!this.isCancelled() && !this.callObserver.isReady()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long parkNanos = pollNanos;
+                if (idleNanos > 0L) {
+                    long remaining = idleNanos - (System.nanoTime() - start);
+                    if (remaining <= 0L) {
+                        this.expire();
+                        break;
+                    }
+                    parkNanos = Math.min(parkNanos, remaining);
+                }
+                LockSupport.parkNanos(this, parkNanos);
+                pollNanos = Math.min(pollNanos * 2L, MAX_POLL_NANOS);
+            }
+        } finally {
+            this.waiter = null;
+        }
+        return !this.isCancelled();
+    }
+
+    /**
+     * Fails the call with {@link Status#DEADLINE_EXCEEDED} because it has not
+     * become ready within the idle timeout.
+     */
+    private void expire()
+    {
+        this.expired = true;
+        if (this.cancelled || this.callObserver.isCancelled()) {
+            return;
+        }
+        this.observer.onError(toStatusRuntimeException(
+            Status.DEADLINE_EXCEEDED,
+            new TimeoutException(
+                "Streaming call was not ready for more than "
+                + this.idleTimeoutMillis + "ms; the client appears to have "
+                + "abandoned the stream")));
+    }
+
+    /**
+     * Sends the specified message once the call is ready to accept it.
+     *
+     * @param message The message to send.
+     *
+     * @return <code>true</code> if the message was sent, or <code>false</code>
+     *         if the call was cancelled and the message was dropped.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    boolean send(T message) throws InterruptedException
+    {
+        if (!this.awaitReady()) {
+            return false;
+        }
+        this.observer.onNext(message);
+        return true;
+    }
+
+    /**
+     * Completes the call unless it has been cancelled.
+     */
+    void onCompleted()
+    {
+        if (!this.isCancelled()) {
+            this.observer.onCompleted();
+        }
+    }
+
+    /**
+     * Fails the call with the specified {@link Throwable} unless it has been
+     * cancelled.
+     *
+     * @param t The {@link Throwable} describing the failure.
+     */
+    void onError(Throwable t)
+    {
+        if (!this.isCancelled()) {
+            this.observer.onError(t);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.senzing.sdk.grpc.server;
+
+import com.senzing.sdk.SzConfig;
+import com.senzing.sdk.SzConfigManager;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzReplaceConflictException;
+
+/**
+ * Provides an {@link SzConfigManager} that delegates directly to a backing
+ * {@link SzConfigManager}, holding a permit from an {@link
+ * SzGrpcNativeCallLimiter} for the duration of each call.  The {@link
+ * SzConfig} instances it creates are returned as is.
+ */
+final class LimitedConfigManager implements SzConfigManager
+{
+    /**
+     * The {@link SzGrpcNativeCallLimiter} whose permits bound the calls.
+     */
+    private final SzGrpcNativeCallLimiter limiter;
+
+    /**
+     * The backing {@link SzConfigManager}.
+     */
+    private final SzConfigManager configManager;
+
+    /**
+     * Constructs with the {@link SzGrpcNativeCallLimiter} and the backing
+     * {@link SzConfigManager}.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter} whose permits
+     *                bound the calls.
+     * @param configManager The backing {@link SzConfigManager}.
+     */
+    LimitedConfigManager(SzGrpcNativeCallLimiter limiter,
+                         SzConfigManager         configManager)
+    {
+        this.limiter       = limiter;
+        this.configManager = configManager;
+    }
+
+    /**
+     * Checks if this instance delegates to the specified {@link
+     * SzConfigManager}.
+     *
+     * @param configManager The {@link SzConfigManager} to check.
+     *
+     * @return <code>true</code> if this instance delegates to the specified
+     *         {@link SzConfigManager}, otherwise <code>false</code>.
+     */
+    boolean delegatesTo(SzConfigManager configManager)
+    {
+        return this.configManager == configManager;
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzConfig createConfig()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.createConfig();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzConfig createConfig(String configDefinition)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.createConfig(configDefinition);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzConfig createConfig(long configId)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.createConfig(configId);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long registerConfig(String configDefinition, String configComment)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.registerConfig(configDefinition,
+                                                     configComment);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long registerConfig(String configDefinition)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.registerConfig(configDefinition);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getConfigRegistry()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.getConfigRegistry();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long getDefaultConfigId()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.getDefaultConfigId();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void replaceDefaultConfigId(long currentDefaultConfigId,
+                                       long newDefaultConfigId)
+        throws SzReplaceConflictException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            this.configManager.replaceDefaultConfigId(currentDefaultConfigId,
+                                                      newDefaultConfigId);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDefaultConfigId(long configId)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            this.configManager.setDefaultConfigId(configId);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long setDefaultConfig(String configDefinition, String configComment)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.setDefaultConfig(configDefinition,
+                                                       configComment);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzConfigManager} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long setDefaultConfig(String configDefinition)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.configManager.setDefaultConfig(configDefinition);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Overridden to describe the backing {@link SzConfigManager}.
+     *
+     * @return A diagnostic {@link String} describing this instance.
+     */
+    @Override
+    public String toString()
+    {
+        return "LimitedConfigManager[" + this.configManager + "]";
+    }
+}
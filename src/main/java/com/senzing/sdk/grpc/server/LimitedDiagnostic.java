@@ -0,0 +1,133 @@
+package com.senzing.sdk.grpc.server;
+
+import com.senzing.sdk.SzDiagnostic;
+import com.senzing.sdk.SzException;
+
+/**
+ * Provides an {@link SzDiagnostic} that delegates directly to a backing
+ * {@link SzDiagnostic}, holding a permit from an {@link
+ * SzGrpcNativeCallLimiter} for the duration of each call.
+ */
+final class LimitedDiagnostic implements SzDiagnostic
+{
+    /**
+     * The {@link SzGrpcNativeCallLimiter} whose permits bound the calls.
+     */
+    private final SzGrpcNativeCallLimiter limiter;
+
+    /**
+     * The backing {@link SzDiagnostic}.
+     */
+    private final SzDiagnostic diagnostic;
+
+    /**
+     * Constructs with the {@link SzGrpcNativeCallLimiter} and the backing
+     * {@link SzDiagnostic}.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter} whose permits
+     *                bound the calls.
+     * @param diagnostic The backing {@link SzDiagnostic}.
+     */
+    LimitedDiagnostic(SzGrpcNativeCallLimiter limiter,
+                      SzDiagnostic            diagnostic)
+    {
+        this.limiter    = limiter;
+        this.diagnostic = diagnostic;
+    }
+
+    /**
+     * Checks if this instance delegates to the specified {@link SzDiagnostic}.
+     *
+     * @param diagnostic The {@link SzDiagnostic} to check.
+     *
+     * @return <code>true</code> if this instance delegates to the
+     *         specified {@link SzDiagnostic}, otherwise <code>false</code>.
+     */
+    boolean delegatesTo(SzDiagnostic diagnostic)
+    {
+        return this.diagnostic == diagnostic;
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzDiagnostic} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRepositoryInfo()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.diagnostic.getRepositoryInfo();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzDiagnostic} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String checkRepositoryPerformance(int secondsToRun)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.diagnostic.checkRepositoryPerformance(secondsToRun);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzDiagnostic} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void purgeRepository()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            this.diagnostic.purgeRepository();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzDiagnostic} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getFeature(long featureId)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.diagnostic.getFeature(featureId);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Overridden to describe the backing {@link SzDiagnostic}.
+     *
+     * @return A diagnostic {@link String} describing this instance.
+     */
+    @Override
+    public String toString()
+    {
+        return "LimitedDiagnostic[" + this.diagnostic + "]";
+    }
+}
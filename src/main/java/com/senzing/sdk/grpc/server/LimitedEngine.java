@@ -0,0 +1,649 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Set;
+
+import com.senzing.sdk.SzBadInputException;
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEntityIds;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzNotFoundException;
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.SzRecordKeys;
+import com.senzing.sdk.SzUnknownDataSourceException;
+
+/**
+ * Provides an {@link SzEngine} that delegates directly to a backing {@link
+ * SzEngine}, holding a permit from an {@link SzGrpcNativeCallLimiter} for
+ * the duration of each call.
+ */
+final class LimitedEngine implements SzEngine
+{
+    /**
+     * The {@link SzGrpcNativeCallLimiter} whose permits bound the calls.
+     */
+    private final SzGrpcNativeCallLimiter limiter;
+
+    /**
+     * The backing {@link SzEngine}.
+     */
+    private final SzEngine engine;
+
+    /**
+     * Constructs with the {@link SzGrpcNativeCallLimiter} and the backing
+     * {@link SzEngine}.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter} whose permits
+     *                bound the calls.
+     * @param engine The backing {@link SzEngine}.
+     */
+    LimitedEngine(SzGrpcNativeCallLimiter limiter,
+                  SzEngine                engine)
+    {
+        this.limiter = limiter;
+        this.engine  = engine;
+    }
+
+    /**
+     * Checks if this instance delegates to the specified {@link SzEngine}.
+     *
+     * @param engine The {@link SzEngine} to check.
+     *
+     * @return <code>true</code> if this instance delegates to the
+     *         specified {@link SzEngine}, otherwise <code>false</code>.
+     */
+    boolean delegatesTo(SzEngine engine)
+    {
+        return this.engine == engine;
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void primeEngine()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            this.engine.primeEngine();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStats()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getStats();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String addRecord(SzRecordKey recordKey,
+                            String      recordDefinition,
+                            Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzBadInputException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.addRecord(recordKey, recordDefinition, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRecordPreview(String recordDefinition, Set<SzFlag> flags)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getRecordPreview(recordDefinition, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String deleteRecord(SzRecordKey recordKey, Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.deleteRecord(recordKey, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String reevaluateRecord(SzRecordKey recordKey, Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.reevaluateRecord(recordKey, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String reevaluateEntity(long entityId, Set<SzFlag> flags)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.reevaluateEntity(entityId, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String searchByAttributes(String      attributes,
+                                     String      searchProfile,
+                                     Set<SzFlag> flags)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.searchByAttributes(attributes, searchProfile,
+                                                  flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String whySearch(String      attributes,
+                            long        entityId,
+                            String      searchProfile,
+                            Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.whySearch(attributes, entityId, searchProfile,
+                                         flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getEntity(long entityId, Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getEntity(entityId, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getEntity(SzRecordKey recordKey, Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getEntity(recordKey, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String findInterestingEntities(long entityId, Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.findInterestingEntities(entityId, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String findInterestingEntities(SzRecordKey recordKey,
+                                          Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.findInterestingEntities(recordKey, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String findPath(long        startEntityId,
+                           long        endEntityId,
+                           int         maxDegrees,
+                           SzEntityIds avoidEntityIds,
+                           Set<String> requiredDataSources,
+                           Set<SzFlag> flags)
+        throws SzNotFoundException, SzUnknownDataSourceException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.findPath(startEntityId, endEntityId, maxDegrees,
+                                        avoidEntityIds, requiredDataSources,
+                                        flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String findPath(SzRecordKey  startRecordKey,
+                           SzRecordKey  endRecordKey,
+                           int          maxDegrees,
+                           SzRecordKeys avoidRecordKeys,
+                           Set<String>  requiredDataSources,
+                           Set<SzFlag>  flags)
+        throws SzNotFoundException, SzUnknownDataSourceException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.findPath(startRecordKey, endRecordKey,
+                                        maxDegrees, avoidRecordKeys,
+                                        requiredDataSources, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String findNetwork(SzEntityIds entityIds,
+                              int         maxDegrees,
+                              int         buildOutDegrees,
+                              int         buildOutMaxEntities,
+                              Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.findNetwork(entityIds, maxDegrees,
+                                           buildOutDegrees, buildOutMaxEntities,
+                                           flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String findNetwork(SzRecordKeys recordKeys,
+                              int          maxDegrees,
+                              int          buildOutDegrees,
+                              int          buildOutMaxEntities,
+                              Set<SzFlag>  flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.findNetwork(recordKeys, maxDegrees,
+                                           buildOutDegrees, buildOutMaxEntities,
+                                           flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String whyRecordInEntity(SzRecordKey recordKey, Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.whyRecordInEntity(recordKey, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String whyRecords(SzRecordKey recordKey1,
+                             SzRecordKey recordKey2,
+                             Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.whyRecords(recordKey1, recordKey2, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String whyEntities(long entityId1, long entityId2, Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.whyEntities(entityId1, entityId2, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String howEntity(long entityId, Set<SzFlag> flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.howEntity(entityId, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getVirtualEntity(Set<SzRecordKey> recordKeys,
+                                   Set<SzFlag>      flags)
+        throws SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getVirtualEntity(recordKeys, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRecord(SzRecordKey recordKey, Set<SzFlag> flags)
+        throws SzUnknownDataSourceException, SzNotFoundException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getRecord(recordKey, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long exportJsonEntityReport(Set<SzFlag> flags)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.exportJsonEntityReport(flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long exportCsvEntityReport(String csvColumnList, Set<SzFlag> flags)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.exportCsvEntityReport(csvColumnList, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String fetchNext(long exportHandle)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.fetchNext(exportHandle);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void closeExportReport(long exportHandle)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            this.engine.closeExportReport(exportHandle);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String processRedoRecord(String redoRecord, Set<SzFlag> flags)
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.processRedoRecord(redoRecord, flags);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRedoRecord()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.getRedoRecord();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEngine} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long countRedoRecords()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.engine.countRedoRecords();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Overridden to describe the backing {@link SzEngine}.
+     *
+     * @return A diagnostic {@link String} describing this instance.
+     */
+    @Override
+    public String toString()
+    {
+        return "LimitedEngine[" + this.engine + "]";
+    }
+}
@@ -0,0 +1,235 @@
+package com.senzing.sdk.grpc.server;
+
+import com.senzing.sdk.SzConfigManager;
+import com.senzing.sdk.SzDiagnostic;
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEnvironment;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzProduct;
+
+/**
+ * Provides an {@link SzEnvironment} that delegates directly to a backing
+ * {@link SzEnvironment}, holding a permit from an {@link
+ * SzGrpcNativeCallLimiter} for the duration of each call that enters the
+ * native SDK.  The {@link SzEngine}, {@link SzConfigManager}, {@link
+ * SzDiagnostic} and {@link SzProduct} it provides are likewise limited, and
+ * each wrapper is reused for as long as the backing environment keeps
+ * providing the same instance.
+ */
+final class LimitedEnvironment implements SzEnvironment
+{
+    /**
+     * The {@link SzGrpcNativeCallLimiter} whose permits bound the calls.
+     */
+    private final SzGrpcNativeCallLimiter limiter;
+
+    /**
+     * The backing {@link SzEnvironment}.
+     */
+    private final SzEnvironment env;
+
+    /**
+     * The most recently provided {@link LimitedEngine}, or <code>null</code>.
+     */
+    private volatile LimitedEngine engine = null;
+
+    /**
+     * The most recently provided {@link LimitedConfigManager}, or
+     * <code>null</code>.
+     */
+    private volatile LimitedConfigManager configManager = null;
+
+    /**
+     * The most recently provided {@link LimitedDiagnostic}, or
+     * <code>null</code>.
+     */
+    private volatile LimitedDiagnostic diagnostic = null;
+
+    /**
+     * The most recently provided {@link LimitedProduct}, or
+     * <code>null</code>.
+     */
+    private volatile LimitedProduct product = null;
+
+    /**
+     * Constructs with the {@link SzGrpcNativeCallLimiter} and the backing
+     * {@link SzEnvironment}.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter} whose permits
+     *                bound the calls.
+     * @param env The backing {@link SzEnvironment}.
+     */
+    LimitedEnvironment(SzGrpcNativeCallLimiter limiter,
+                       SzEnvironment           env)
+    {
+        this.limiter    = limiter;
+        this.env        = env;
+    }
+
+    /**
+     * Implemented to wrap the {@link SzProduct} provided by the backing
+     * {@link SzEnvironment} so that its calls are limited.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzProduct getProduct()
+        throws IllegalStateException, SzException
+    {
+        SzProduct target = this.env.getProduct();
+        if (target == null) {
+            return null;
+        }
+        LimitedProduct limited = this.product;
+        if (limited == null || !limited.delegatesTo(target)) {
+            limited = new LimitedProduct(this.limiter, target);
+            this.product = limited;
+        }
+        return limited;
+    }
+
+    /**
+     * Implemented to wrap the {@link SzEngine} provided by the backing
+     * {@link SzEnvironment} so that its calls are limited.  Since the engine
+     * is obtained for every request, the wrapper is reused (without
+     * locking) for as long as the same engine is provided.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzEngine getEngine()
+        throws IllegalStateException, SzException
+    {
+        SzEngine target = this.env.getEngine();
+        if (target == null) {
+            return null;
+        }
+        LimitedEngine limited = this.engine;
+        if (limited == null || !limited.delegatesTo(target)) {
+            limited = new LimitedEngine(this.limiter, target);
+            this.engine = limited;
+        }
+        return limited;
+    }
+
+    /**
+     * Implemented to wrap the {@link SzConfigManager} provided by the
+     * backing {@link SzEnvironment} so that its calls are limited.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzConfigManager getConfigManager()
+        throws IllegalStateException, SzException
+    {
+        SzConfigManager target = this.env.getConfigManager();
+        if (target == null) {
+            return null;
+        }
+        LimitedConfigManager limited = this.configManager;
+        if (limited == null || !limited.delegatesTo(target)) {
+            limited = new LimitedConfigManager(this.limiter, target);
+            this.configManager = limited;
+        }
+        return limited;
+    }
+
+    /**
+     * Implemented to wrap the {@link SzDiagnostic} provided by the backing
+     * {@link SzEnvironment} so that its calls are limited.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzDiagnostic getDiagnostic()
+        throws IllegalStateException, SzException
+    {
+        SzDiagnostic target = this.env.getDiagnostic();
+        if (target == null) {
+            return null;
+        }
+        LimitedDiagnostic limited = this.diagnostic;
+        if (limited == null || !limited.delegatesTo(target)) {
+            limited = new LimitedDiagnostic(this.limiter, target);
+            this.diagnostic = limited;
+        }
+        return limited;
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long getActiveConfigId()
+        throws IllegalStateException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.env.getActiveConfigId();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment} once a
+     * permit for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void reinitialize(long configId)
+        throws IllegalStateException, SzException
+    {
+        this.limiter.acquire();
+        try {
+            this.env.reinitialize(configId);
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment} once a
+     * permit for the native call has been acquired, waiting uninterruptibly
+     * since destruction cannot report an {@link SzException}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy()
+    {
+        this.limiter.acquireUninterruptibly();
+        try {
+            this.env.destroy();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment} without
+     * a permit since no native call is made.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDestroyed()
+    {
+        return this.env.isDestroyed();
+    }
+
+    /**
+     * Overridden to describe the backing {@link SzEnvironment}.
+     *
+     * @return A diagnostic {@link String} describing this instance.
+     */
+    @Override
+    public String toString()
+    {
+        return "LimitedEnvironment[" + this.env + "]";
+    }
+}
@@ -0,0 +1,97 @@
+package com.senzing.sdk.grpc.server;
+
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzProduct;
+
+/**
+ * Provides an {@link SzProduct} that delegates directly to a backing {@link
+ * SzProduct}, holding a permit from an {@link SzGrpcNativeCallLimiter} for
+ * the duration of each call.
+ */
+final class LimitedProduct implements SzProduct
+{
+    /**
+     * The {@link SzGrpcNativeCallLimiter} whose permits bound the calls.
+     */
+    private final SzGrpcNativeCallLimiter limiter;
+
+    /**
+     * The backing {@link SzProduct}.
+     */
+    private final SzProduct product;
+
+    /**
+     * Constructs with the {@link SzGrpcNativeCallLimiter} and the backing
+     * {@link SzProduct}.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter} whose permits
+     *                bound the calls.
+     * @param product The backing {@link SzProduct}.
+     */
+    LimitedProduct(SzGrpcNativeCallLimiter limiter,
+                   SzProduct               product)
+    {
+        this.limiter = limiter;
+        this.product = product;
+    }
+
+    /**
+     * Checks if this instance delegates to the specified {@link SzProduct}.
+     *
+     * @param product The {@link SzProduct} to check.
+     *
+     * @return <code>true</code> if this instance delegates to the
+     *         specified {@link SzProduct}, otherwise <code>false</code>.
+     */
+    boolean delegatesTo(SzProduct product)
+    {
+        return this.product == product;
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzProduct} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getLicense()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.product.getLicense();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzProduct} once a permit
+     * for the native call has been acquired.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public String getVersion()
+        throws SzException
+    {
+        this.limiter.acquire();
+        try {
+            return this.product.getVersion();
+        } finally {
+            this.limiter.release();
+        }
+    }
+
+    /**
+     * Overridden to describe the backing {@link SzProduct}.
+     *
+     * @return A diagnostic {@link String} describing this instance.
+     */
+    @Override
+    public String toString()
+    {
+        return "LimitedProduct[" + this.product + "]";
+    }
+}
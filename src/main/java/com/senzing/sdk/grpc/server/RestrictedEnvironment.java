@@ -0,0 +1,151 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+
+import com.senzing.sdk.SzConfigManager;
+import com.senzing.sdk.SzDiagnostic;
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEnvironment;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzProduct;
+
+/**
+ * Provides an {@link SzEnvironment} that delegates directly to a backing
+ * {@link SzEnvironment} except for {@link #destroy()}, which is refused so
+ * that the gRPC services cannot destroy the environment they were given.
+ * Ownership of the backing environment remains with whoever created it.
+ *
+ * <p>
+ * This is used in place of a reflective {@link java.lang.reflect.Proxy}
+ * since the environment is consulted on every request and plain virtual
+ * calls are cheaper than a proxy invocation (which boxes arguments and
+ * dispatches through an {@link java.lang.reflect.InvocationHandler}) and
+ * can be inlined by the JIT compiler.
+ * </p>
+ */
+final class RestrictedEnvironment implements SzEnvironment
+{
+    /**
+     * The backing {@link SzEnvironment}.
+     */
+    private final SzEnvironment env;
+
+    /**
+     * Constructs with the backing {@link SzEnvironment}.
+     *
+     * @param env The backing {@link SzEnvironment}.
+     */
+    RestrictedEnvironment(SzEnvironment env)
+    {
+        Objects.requireNonNull(env, "The environment cannot be null");
+        this.env = env;
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzProduct getProduct()
+        throws IllegalStateException, SzException
+    {
+        return this.env.getProduct();
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzEngine getEngine()
+        throws IllegalStateException, SzException
+    {
+        return this.env.getEngine();
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzConfigManager getConfigManager()
+        throws IllegalStateException, SzException
+    {
+        return this.env.getConfigManager();
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public SzDiagnostic getDiagnostic()
+        throws IllegalStateException, SzException
+    {
+        return this.env.getDiagnostic();
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long getActiveConfigId()
+        throws IllegalStateException, SzException
+    {
+        return this.env.getActiveConfigId();
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void reinitialize(long configId)
+        throws IllegalStateException, SzException
+    {
+        this.env.reinitialize(configId);
+    }
+
+    /**
+     * Implemented to always throw {@link UnsupportedOperationException}
+     * since the backing {@link SzEnvironment} may only be destroyed by its
+     * owner.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void destroy()
+    {
+        throw new UnsupportedOperationException(
+            "The environment may not be destroyed via the gRPC services");
+    }
+
+    /**
+     * Implemented to delegate to the backing {@link SzEnvironment}.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDestroyed()
+    {
+        return this.env.isDestroyed();
+    }
+
+    /**
+     * Overridden to describe the backing {@link SzEnvironment}.
+     *
+     * @return A diagnostic {@link String} describing this instance.
+     */
+    @Override
+    public String toString()
+    {
+        return "RestrictedEnvironment[" + this.env + "]";
+    }
+}
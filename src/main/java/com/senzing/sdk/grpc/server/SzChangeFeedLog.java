@@ -0,0 +1,827 @@
+package com.senzing.sdk.grpc.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.senzing.util.LoggingUtilities.*;
+
+/**
+ * A local, append-only log of INFO messages stored in memory-mapped segment
+ * files.  Each appended message is assigned a sequential offset that can be
+ * used to {@linkplain #read(long, int) read} the log from that point.  The
+ * log is retained up to a configured number of bytes, after which the oldest
+ * segments are deleted.
+ *
+ * <p>
+ * Each segment file is named for the offset of its first entry and is
+ * pre-allocated to the segment size.  Each entry is stored as a four-byte
+ * length, an eight-byte offset and the UTF-8 bytes of the message.  The
+ * length is written last so that a partially written entry is ignored when
+ * the log is reopened.  Because the segments are memory-mapped, appended
+ * entries survive a crash of the process but are only guaranteed to survive
+ * a crash of the operating system once {@linkplain #flush() flushed}.  The
+ * log is flushed whenever a segment is filled, when the log is closed and
+ * at the configured flush interval (or after every append if the interval
+ * is zero), so at most the entries appended within the flush interval may
+ * be lost to a crash of the operating system.
+ * </p>
+ *
+ * <p>
+ * Entries are copied out of the segments without holding the lock that
+ * guards appends, so slow readers do not stall the writers.  Each segment is
+ * reference-counted while it is being read, so a segment removed by the
+ * retention policy is only deleted (and its mapping released) once the
+ * last reader is done with it.  Readers waiting for new entries park on a
+ * {@link Condition} rather than a monitor, so they do not pin the carrier
+ * thread when running on a virtual thread.
+ * </p>
+ */
+public class SzChangeFeedLog implements AutoCloseable
+{
+    /**
+     * Describes an entry that has been read from the log.
+     */
+    public static final class Entry
+    {
+        /**
+         * The offset of the entry.
+         */
+        private final long offset;
+
+        /**
+         * The message for the entry.
+         */
+        private final String message;
+
+        /**
+         * Constructs with the offset and message.
+         *
+         * @param offset The offset of the entry.
+         * @param message The message for the entry.
+         */
+        private Entry(long offset, String message)
+        {
+            this.offset  = offset;
+            this.message = message;
+        }
+
+        /**
+         * Gets the offset of the entry.
+         *
+         * @return The offset of the entry.
+         */
+        public long getOffset()
+        {
+            return this.offset;
+        }
+
+        /**
+         * Gets the message for the entry.
+         *
+         * @return The message for the entry.
+         */
+        public String getMessage()
+        {
+            return this.message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.offset + ": " + this.message;
+        }
+    }
+
+    /**
+     * The suffix for segment files.
+     */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * The number of bytes in the header of each entry.
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    /**
+     * Describes a single memory-mapped segment file.
+     */
+    private static final class Segment
+    {
+        /**
+         * The segment {@link File}.
+         */
+        private final File file;
+
+        /**
+         * The offset of the first entry in the segment.
+         */
+        private final long baseOffset;
+
+        /**
+         * The {@link MappedByteBuffer} for the segment, which is released
+         * once the segment has been deleted.
+         */
+        private MappedByteBuffer buffer;
+
+        /**
+         * The size of the segment in bytes.
+         */
+        private final int capacity;
+
+        /**
+         * The number of references to the segment, which includes one for
+         * the log itself until the segment is retired and one for each
+         * reader currently copying entries from it.
+         */
+        private int references = 1;
+
+        /**
+         * Flag indicating if the segment has been removed from the log by
+         * the retention policy and should be deleted once unreferenced.
+         */
+        private boolean retired = false;
+
+        /**
+         * The byte positions of the entries in the segment indexed by the
+         * entry offset relative to the base offset.
+         */
+        private int[] positions = new int[1024];
+
+        /**
+         * The number of entries in the segment.
+         */
+        private int count = 0;
+
+        /**
+         * The byte position at which the next entry will be written.
+         */
+        private int writePosition = 0;
+
+        /**
+         * Opens (creating if necessary) the segment for the specified file
+         * with at least the specified size.
+         *
+         * @param file The segment {@link File}.
+         * @param baseOffset The offset of the first entry in the segment.
+         * @param size The minimum size of the segment in bytes.
+         *
+         * @throws IOException If a failure occurs.
+         */
+        private Segment(File file, long baseOffset, int size)
+            throws IOException
+        {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                 FileChannel channel = raf.getChannel())
+            {
+                long length = Math.max(size, channel.size());
+                this.buffer = channel.map(
+                    FileChannel.MapMode.READ_WRITE, 0L, length);
+                this.capacity = this.buffer.capacity();
+            }
+        }
+
+        /**
+         * Releases a reference to the segment, deleting the segment file and
+         * releasing its mapping if the segment has been retired and this was
+         * the last reference.  This must be called while holding the lock of
+         * the log.
+         */
+        private void release()
+        {
+            if (--this.references > 0 || !this.retired) {
+                return;
+            }
+            // drop the mapping so it is released once garbage collected
+            this.buffer = null;
+            if (!this.file.delete()) {
+                logWarning("Failed to delete change feed segment: "
+                           + this.file);
+            }
+        }
+
+        /**
+         * Scans the existing entries in the segment to rebuild the index
+         * and locate the write position.
+         */
+        private void recover()
+        {
+            int position = 0;
+            int capacity = this.capacity;
+            while (position + HEADER_BYTES <= capacity) {
+                int length = this.buffer.getInt(position);
+                if (length <= 0 || position + HEADER_BYTES + length > capacity
+                    || this.buffer.getLong(position + Integer.BYTES)
+                        != this.baseOffset + this.count)
+                {
+                    break;
+                }
+                this.index(position);
+                position += HEADER_BYTES + length;
+            }
+            this.writePosition = position;
+        }
+
+        /**
+         * Records the byte position of the next entry in the index.
+         *
+         * @param position The byte position of the entry.
+         */
+        private void index(int position)
+        {
+            if (this.count == this.positions.length) {
+                this.positions = Arrays.copyOf(
+                    this.positions, this.positions.length * 2);
+            }
+            this.positions[this.count++] = position;
+        }
+
+        /**
+         * Gets the number of bytes remaining in the segment.
+         *
+         * @return The number of bytes remaining in the segment.
+         */
+        private int remaining()
+        {
+            return this.capacity - this.writePosition;
+        }
+
+        /**
+         * Appends the specified message bytes with the specified offset.
+         *
+         * @param offset The offset for the entry.
+         * @param bytes The message bytes.
+         */
+        private void append(long offset, byte[] bytes)
+        {
+            int position = this.writePosition;
+            this.buffer.putLong(position + Integer.BYTES, offset);
+            this.buffer.put(position + HEADER_BYTES, bytes);
+            this.buffer.putInt(position, bytes.length);
+            this.index(position);
+            this.writePosition = position + HEADER_BYTES + bytes.length;
+        }
+
+        /**
+         * Gets the byte position of the entry at the specified offset.  This
+         * must be called while holding the lock of the log.
+         *
+         * @param offset The offset of the entry, which must be in the
+         *               segment.
+         *
+         * @return The byte position of the entry.
+         */
+        private int position(long offset)
+        {
+            return this.positions[(int) (offset - this.baseOffset)];
+        }
+
+        /**
+         * Reads the entry with the specified offset at the specified byte
+         * position.  This does not require the lock of the log, but the
+         * caller must hold a reference to the segment.
+         *
+         * @param offset The offset of the entry.
+         * @param position The byte position of the entry.
+         *
+         * @return The {@link Entry} that was read.
+         */
+        private Entry read(long offset, int position)
+        {
+            byte[] bytes = new byte[this.buffer.getInt(position)];
+            this.buffer.get(position + HEADER_BYTES, bytes);
+            return new Entry(offset, new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * The directory containing the segment files.
+     */
+    private final File directory;
+
+    /**
+     * The size in bytes with which to create new segments.
+     */
+    private final int segmentBytes;
+
+    /**
+     * The maximum number of bytes to retain across all segments.
+     */
+    private final long retentionBytes;
+
+    /**
+     * The maximum number of milliseconds between flushes of the appended
+     * entries, or zero (0) if every append is flushed.
+     */
+    private final long flushIntervalMillis;
+
+    /**
+     * The lock guarding the state of the log.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The {@link Condition} signalled when an entry is appended or this
+     * instance is closed.
+     */
+    private final Condition appended = this.lock.newCondition();
+
+    /**
+     * The flusher {@link Thread}, or <code>null</code> if every append is
+     * flushed.
+     */
+    private final Thread flusher;
+
+    /**
+     * Flag indicating if entries have been appended since the last flush.
+     */
+    private boolean dirty = false;
+
+    /**
+     * The {@link Segment} instances keyed by their base offsets.
+     */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    /**
+     * The offset that will be assigned to the next appended entry.
+     */
+    private long nextOffset = 0L;
+
+    /**
+     * Tracks if this instance has been closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * Opens (creating if necessary) the log in the specified directory.
+     *
+     * @param directory The directory for the segment files.
+     * @param segmentBytes The size in bytes of each segment.
+     * @param retentionBytes The maximum number of bytes to retain across all
+     *                       segments, though at least two segments are
+     *                       always retained.
+     *
+     * @throws IOException If a failure occurs opening the log.
+     *
+     * @throws IllegalArgumentException If the segment size is too small or
+     *                                  the retention is not positive.
+     */
+    public SzChangeFeedLog(File directory,
+                           int  segmentBytes,
+                           long retentionBytes)
+        throws IOException
+    {
+        this(directory, segmentBytes, retentionBytes,
+             SzGrpcServerConstants.DEFAULT_CHANGE_FEED_FLUSH_MILLIS);
+    }
+
+    /**
+     * Opens (creating if necessary) the log in the specified directory with
+     * the specified flush interval.
+     *
+     * @param directory The directory for the segment files.
+     * @param segmentBytes The size in bytes of each segment.
+     * @param retentionBytes The maximum number of bytes to retain across all
+     *                       segments, though at least two segments are
+     *                       always retained.
+     * @param flushIntervalMillis The maximum number of milliseconds between
+     *                            flushes of the appended entries, or zero (0)
+     *                            to flush after every append.
+     *
+     * @throws IOException If a failure occurs opening the log.
+     *
+     * @throws IllegalArgumentException If the segment size is too small, the
+     *                                  retention is not positive or the flush
+     *                                  interval is negative.
+     */
+    public SzChangeFeedLog(File directory,
+                           int  segmentBytes,
+                           long retentionBytes,
+                           long flushIntervalMillis)
+        throws IOException
+    {
+        Objects.requireNonNull(directory, "The directory cannot be null");
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException(
+                "The segment size is too small: " + segmentBytes);
+        }
+        if (retentionBytes <= 0L) {
+            throw new IllegalArgumentException(
+                "The retention must be positive: " + retentionBytes);
+        }
+        if (flushIntervalMillis < 0L) {
+            throw new IllegalArgumentException(
+                "The flush interval cannot be negative: "
+                + flushIntervalMillis);
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException(
+                "Failed to create change feed directory: " + directory);
+        }
+        if (!directory.isDirectory()) {
+            throw new IOException(
+                "The change feed path is not a directory: " + directory);
+        }
+        this.directory              = directory;
+        this.segmentBytes           = segmentBytes;
+        this.retentionBytes         = retentionBytes;
+        this.flushIntervalMillis    = flushIntervalMillis;
+
+        File[] files = directory.listFiles(
+            (dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        for (File file : (files == null) ? new File[0] : files) {
+            String name = file.getName();
+            long baseOffset;
+            try {
+                baseOffset = Long.parseLong(
+                    name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                logWarning("Ignoring unrecognized change feed file: " + file);
+                continue;
+            }
+            Segment segment = new Segment(file, baseOffset, 0);
+            segment.recover();
+            this.segments.put(baseOffset, segment);
+        }
+
+        // discard any segments following a gap (e.g.: a truncated segment)
+        long expected = -1L;
+        for (Segment segment : new ArrayList<>(this.segments.values())) {
+            if (expected >= 0L && segment.baseOffset != expected) {
+                logWarning("Discarding change feed segment following a gap "
+                           + "at offset " + expected + ": " + segment.file);
+                this.segments.remove(segment.baseOffset);
+                if (!segment.file.delete()) {
+                    logWarning("Failed to delete change feed segment: "
+                               + segment.file);
+                }
+                continue;
+            }
+            expected = segment.baseOffset + segment.count;
+        }
+        if (this.segments.size() > 0) {
+            Segment last = this.segments.lastEntry().getValue();
+            this.nextOffset = last.baseOffset + last.count;
+        }
+
+        // flush periodically unless every append is flushed
+        if (this.flushIntervalMillis > 0L) {
+            this.flusher = new Thread(this::flushPeriodically);
+            this.flusher.setName("sz-change-feed-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Gets the directory containing the segment files.
+     *
+     * @return The directory containing the segment files.
+     */
+    public File getDirectory()
+    {
+        return this.directory;
+    }
+
+    /**
+     * Gets the offset of the oldest entry retained in the log.  If the log is
+     * empty then this is equal to the {@linkplain #getNextOffset() next
+     * offset}.
+     *
+     * @return The offset of the oldest entry retained in the log.
+     */
+    public long getFirstOffset()
+    {
+        this.lock.lock();
+        try {
+            return this.segments.isEmpty()
+                ? this.nextOffset : this.segments.firstKey();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the offset that will be assigned to the next appended entry.
+     *
+     * @return The offset that will be assigned to the next appended entry.
+     */
+    public long getNextOffset()
+    {
+        this.lock.lock();
+        try {
+            return this.nextOffset;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the specified message to the log, waking any threads that are
+     * {@linkplain #awaitAppend(long, long) awaiting} an append.
+     *
+     * @param message The message to append.
+     *
+     * @return The offset assigned to the appended entry.
+     *
+     * @throws IllegalStateException If this instance has been closed or a
+     *                               new segment could not be created.
+     */
+    public long append(String message)
+    {
+        Objects.requireNonNull(message, "The message cannot be null");
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        int required = HEADER_BYTES + bytes.length;
+
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException(
+                    "The change feed has been closed");
+            }
+            Map.Entry<Long, Segment> lastEntry = this.segments.lastEntry();
+            Segment segment = (lastEntry == null) ? null : lastEntry.getValue();
+            if (segment == null || segment.remaining() < required) {
+                if (segment != null) {
+                    segment.buffer.force();
+                }
+                segment = this.roll(Math.max(this.segmentBytes, required));
+            }
+            long offset = this.nextOffset++;
+            segment.append(offset, bytes);
+            if (this.flushIntervalMillis == 0L) {
+                segment.buffer.force();
+            } else {
+                this.dirty = true;
+            }
+            this.appended.signalAll();
+            return offset;
+
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Creates a new segment starting at the next offset and retires the
+     * oldest segments that exceed the retention.  A retired segment is
+     * deleted once no reader references it.  This must be called while
+     * holding the lock.
+     *
+     * @param size The size of the new segment.
+     *
+     * @return The new {@link Segment}.
+     */
+    private Segment roll(int size)
+    {
+        File file = new File(this.directory,
+            String.format("%020d", this.nextOffset) + SEGMENT_SUFFIX);
+        Segment segment;
+        try {
+            segment = new Segment(file, this.nextOffset, size);
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                "Failed to create change feed segment: " + file, e);
+        }
+        this.segments.put(this.nextOffset, segment);
+
+        // enforce retention, always keeping at least two segments
+        long total = 0L;
+        for (Segment s : this.segments.values()) {
+            total += s.capacity;
+        }
+        while (this.segments.size() > 2 && total > this.retentionBytes) {
+            Segment oldest = this.segments.pollFirstEntry().getValue();
+            total -= oldest.capacity;
+            oldest.retired = true;
+            oldest.release();
+        }
+        return segment;
+    }
+
+    /**
+     * Reads up to the specified number of entries starting at the specified
+     * offset.  If the specified offset precedes the {@linkplain
+     * #getFirstOffset() first offset} (because those entries have been
+     * deleted due to retention) then reading starts at the first offset, so
+     * callers can detect the gap by comparing the offsets of the returned
+     * entries.
+     *
+     * @param fromOffset The offset of the first entry to read.
+     * @param maxEntries The maximum number of entries to read.
+     *
+     * @return The {@link List} of {@link Entry} instances that were read,
+     *         which is empty if there are no entries at or after the
+     *         specified offset.
+     */
+    public List<Entry> read(long fromOffset, int maxEntries)
+    {
+        // locate the entries and reference their segments under the lock
+        List<Segment>   referenced = new ArrayList<>(2);
+        Segment[]       owners;
+        int[]           positions;
+        long            firstOffset;
+        this.lock.lock();
+        try {
+            firstOffset = Math.max(fromOffset, this.getFirstOffset());
+            if (firstOffset >= this.nextOffset || maxEntries <= 0) {
+                return Collections.emptyList();
+            }
+            int count = (int) Math.min(maxEntries,
+                                       this.nextOffset - firstOffset);
+            owners      = new Segment[count];
+            positions   = new int[count];
+            Segment segment = this.segments.floorEntry(firstOffset).getValue();
+            segment.references++;
+            referenced.add(segment);
+            for (int index = 0; index < count; index++) {
+                long offset = firstOffset + index;
+                if (offset >= segment.baseOffset + segment.count) {
+                    segment = this.segments.higherEntry(
+                        segment.baseOffset).getValue();
+                    segment.references++;
+                    referenced.add(segment);
+                }
+                owners[index]    = segment;
+                positions[index] = segment.position(offset);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        // copy the entries without blocking the writers
+        try {
+            List<Entry> entries = new ArrayList<>(owners.length);
+            for (int index = 0; index < owners.length; index++) {
+                entries.add(owners[index].read(firstOffset + index,
+                                               positions[index]));
+            }
+            return entries;
+
+        } finally {
+            this.lock.lock();
+            try {
+                for (Segment segment : referenced) {
+                    segment.release();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Waits until an entry has been appended at or beyond the specified
+     * offset, this instance is closed or the specified timeout elapses.
+     *
+     * @param offset The offset of the entry to wait for.
+     * @param timeoutMillis The maximum number of milliseconds to wait.
+     *
+     * @return <code>true</code> if an entry is available at or beyond the
+     *         specified offset, otherwise <code>false</code>.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean awaitAppend(long offset, long timeoutMillis)
+        throws InterruptedException
+    {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.lock.lock();
+        try {
+            while (this.nextOffset <= offset && !this.closed
+                   && remaining > 0L)
+            {
+                remaining = this.appended.awaitNanos(remaining);
+            }
+            return this.nextOffset > offset;
+
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Forces any appended entries to be written to the storage device.
+     */
+    public void flush()
+    {
+        Segment segment;
+        this.lock.lock();
+        try {
+            Map.Entry<Long, Segment> lastEntry = this.segments.lastEntry();
+            if (lastEntry == null || !this.dirty) {
+                return;
+            }
+            segment = lastEntry.getValue();
+            segment.references++;
+            this.dirty = false;
+
+        } finally {
+            this.lock.unlock();
+        }
+
+        // force outside the lock so appends are not blocked
+        try {
+            segment.buffer.force();
+        } finally {
+            this.lock.lock();
+            try {
+                segment.release();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * {@linkplain #flush() Flushes} the appended entries at the flush
+     * interval until this instance is closed.
+     */
+    private void flushPeriodically()
+    {
+        long intervalNanos
+            = TimeUnit.MILLISECONDS.toNanos(this.flushIntervalMillis);
+        while (!this.isClosed()) {
+            this.lock.lock();
+            try {
+                long remaining = intervalNanos;
+                while (!this.closed && remaining > 0L) {
+                    remaining = this.appended.awaitNanos(remaining);
+                }
+            } catch (InterruptedException ignore) {
+                // do nothing
+            } finally {
+                this.lock.unlock();
+            }
+            try {
+                this.flush();
+            } catch (RuntimeException e) {
+                logWarning(e, "Failed to flush the change feed log");
+            }
+        }
+    }
+
+    /**
+     * Checks if this instance has been closed.
+     *
+     * @return <code>true</code> if this instance has been closed, otherwise
+     *         <code>false</code>.
+     */
+    public boolean isClosed()
+    {
+        this.lock.lock();
+        try {
+            return this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Closes this instance, {@linkplain #flush() flushing} any appended
+     * entries and waking any threads awaiting an append.
+     */
+    @Override
+    public void close()
+    {
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.appended.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        boolean interrupted = false;
+        while (this.flusher != null && this.flusher.isAlive()) {
+            try {
+                this.flusher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        this.flush();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
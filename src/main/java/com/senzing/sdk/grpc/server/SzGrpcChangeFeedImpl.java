@@ -0,0 +1,146 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.senzing.sdk.grpc.SzGrpcChangeFeed;
+
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+import static com.senzing.sdk.grpc.server.SzGrpcServices.*;
+
+/**
+ * Provides the gRPC server-side implementation of the change feed described
+ * by {@link SzGrpcChangeFeed}, streaming the entries recorded in the
+ * {@link SzChangeFeedLog} of the backing {@link SzGrpcServices} to each
+ * subscriber.
+ *
+ * <p>
+ * Each subscription is served in the same manner as a streaming export: the
+ * handler thread reads the log and only sends an entry once the call is
+ * {@linkplain FlowControlledStreamObserver#awaitReady() ready} for it,
+ * waiting for new entries to be appended once it has caught up.  Since the
+ * on-cancel handler of the call cannot run while the handler thread is
+ * occupied, the wait for new entries is bounded by {@link
+ * #APPEND_POLL_MILLIS} so that a cancelled subscription releases its thread
+ * promptly.  Entries are copied from the log without blocking the writers
+ * that append to it.  A
+ * subscriber that stops reading for longer than the {@linkplain
+ * SzGrpcServices#getExportIdleTimeoutSeconds() export idle timeout} is
+ * failed so that it does not hold a thread indefinitely.
+ * </p>
+ */
+public class SzGrpcChangeFeedImpl implements BindableService
+{
+    /**
+     * The maximum number of entries to read from the log at a time.
+     */
+    private static final int READ_BATCH_SIZE = 100;
+
+    /**
+     * The maximum number of milliseconds to wait for an entry to be appended
+     * before re-checking the state of the call.  This bounds how long a
+     * cancelled subscription goes unnoticed while it has caught up.
+     */
+    private static final long APPEND_POLL_MILLIS = 100L;
+
+    /**
+     * The {@link SzGrpcServices} to use.
+     */
+    private SzGrpcServices services = null;
+
+    /**
+     * Constructs with the {@link SzGrpcServices}.
+     *
+     * @param services The {@link SzGrpcServices}.
+     */
+    protected SzGrpcChangeFeedImpl(SzGrpcServices services)
+    {
+        Objects.requireNonNull(services, "The services cannot be null");
+        if (services.isDestroyed()) {
+            throw new IllegalArgumentException(
+                "The specified SzGrpcServices has already been destroyed");
+        }
+        this.services = services;
+    }
+
+    /**
+     * Implemented to bind the {@link SzGrpcChangeFeed#SUBSCRIBE_METHOD} to
+     * {@link #subscribe(String, StreamObserver)}.
+     *
+     * @return The {@link ServerServiceDefinition} for the change feed.
+     */
+    @Override
+    public ServerServiceDefinition bindService()
+    {
+        return ServerServiceDefinition.builder(SzGrpcChangeFeed.SERVICE_NAME)
+            .addMethod(SzGrpcChangeFeed.SUBSCRIBE_METHOD,
+                       ServerCalls.asyncServerStreamingCall(this::subscribe))
+            .build();
+    }
+
+    /**
+     * Streams the entries of the change feed starting at the offset from
+     * the specified request until the call is cancelled or the services are
+     * destroyed.  If the request specifies {@link
+     * SzGrpcChangeFeed#LATEST_OFFSET} then streaming starts with the next
+     * entry to be appended.  If the change feed has not been enabled then
+     * the call is failed with {@link Status#FAILED_PRECONDITION}.
+     *
+     * @param request The JSON text for the subscribe request.
+     * @param responseObserver The {@link StreamObserver} for the responses.
+     */
+    protected void subscribe(String                 request,
+                             StreamObserver<String> responseObserver)
+    {
+        FlowControlledStreamObserver<String> observer
+            = new FlowControlledStreamObserver<>(
+                responseObserver,
+                this.services.getExportIdleTimeoutSeconds() * 1000L);
+        try {
+            SzChangeFeedLog log = this.services.getChangeFeedLog();
+            if (log == null) {
+                observer.onError(toStatusRuntimeException(
+                    Status.FAILED_PRECONDITION,
+                    new IllegalStateException(
+                        "The change feed has not been enabled")));
+                return;
+            }
+            long offset = SzGrpcChangeFeed.decodeRequest(request);
+            if (offset < 0L) {
+                offset = log.getNextOffset();
+            }
+
+            while (!observer.isCancelled() && !log.isClosed()) {
+                List<SzChangeFeedLog.Entry> entries
+                    = log.read(offset, READ_BATCH_SIZE);
+                if (entries.isEmpty()) {
+                    log.awaitAppend(offset, APPEND_POLL_MILLIS);
+                    continue;
+                }
+                for (SzChangeFeedLog.Entry entry : entries) {
+                    String response = SzGrpcChangeFeed.encodeResponse(
+                        entry.getOffset(), entry.getMessage());
+                    if (!observer.send(response)) {
+                        // the call was cancelled, stop reading
+                        return;
+                    }
+                    offset = entry.getOffset() + 1L;
+                }
+            }
+            observer.onCompleted();
+
+        } catch (IllegalArgumentException e) {
+            observer.onError(
+                toStatusRuntimeException(Status.INVALID_ARGUMENT, e));
+
+        } catch (Exception e) {
+            observer.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
+        }
+    }
+}
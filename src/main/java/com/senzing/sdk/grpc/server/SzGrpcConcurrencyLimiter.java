@@ -0,0 +1,296 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Provides an adaptive limit on the number of calls that may be in flight
+ * (executing or queued for a thread) at once, rejecting calls beyond the
+ * limit rather than letting them queue until their clients time out.  The
+ * limit is adjusted from the observed latency of completed calls using a
+ * gradient algorithm: a short-term average latency is compared with a
+ * long-term baseline and the limit shrinks as queueing inflates the
+ * short-term latency and grows (by roughly the square root of the limit)
+ * while latency remains near the baseline.
+ *
+ * <p>
+ * Each call must {@linkplain #tryAcquire() acquire} before it is processed
+ * and, if admitted, must {@linkplain #release(long, boolean) release} once
+ * it completes.  Only the latencies of calls that ran to completion should
+ * be sampled since cancelled, expired and rejected calls say little about
+ * how long the engine takes.
+ * </p>
+ */
+public class SzGrpcConcurrencyLimiter
+{
+    /**
+     * The number of samples over which the short-term latency is averaged.
+     */
+    private static final double SHORT_WINDOW = 10.0;
+
+    /**
+     * The number of samples over which the long-term latency is averaged.
+     */
+    private static final double LONG_WINDOW = 600.0;
+
+    /**
+     * The ratio of short-term to long-term latency that is tolerated before
+     * the limit is reduced.
+     */
+    private static final double TOLERANCE = 1.5;
+
+    /**
+     * The weight given to each newly computed limit.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * The minimum number of milliseconds to suggest clients wait before
+     * retrying a rejected call.
+     */
+    private static final long MIN_RETRY_AFTER_MILLIS = 10L;
+
+    /**
+     * The minimum limit.
+     */
+    private final int minLimit;
+
+    /**
+     * The maximum limit.
+     */
+    private final int maxLimit;
+
+    /**
+     * The current limit as a fractional estimate, guarded by this instance.
+     */
+    private double estimatedLimit;
+
+    /**
+     * The current limit as read by {@link #tryAcquire()}.
+     */
+    private volatile int limit;
+
+    /**
+     * The short-term average latency in nanoseconds, guarded by this
+     * instance.
+     */
+    private double shortRttNanos = 0.0;
+
+    /**
+     * The long-term average latency in nanoseconds, guarded by this
+     * instance.
+     */
+    private double longRttNanos = 0.0;
+
+    /**
+     * The short-term average latency in nanoseconds for reporting.
+     */
+    private volatile long reportedShortRttNanos = 0L;
+
+    /**
+     * The long-term average latency in nanoseconds for reporting.
+     */
+    private volatile long reportedLongRttNanos = 0L;
+
+    /**
+     * The number of calls in flight.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /**
+     * The number of calls rejected.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructs with the initial, minimum and maximum limits.
+     *
+     * @param initialLimit The initial limit.
+     * @param minLimit The minimum limit.
+     * @param maxLimit The maximum limit.
+     *
+     * @throws IllegalArgumentException If the minimum limit is not positive,
+     *                                  the maximum limit is less than the
+     *                                  minimum limit or the initial limit is
+     *                                  not between them.
+     */
+    public SzGrpcConcurrencyLimiter(int initialLimit,
+                                    int minLimit,
+                                    int maxLimit)
+    {
+        if (minLimit <= 0 || maxLimit < minLimit
+            || initialLimit < minLimit || initialLimit > maxLimit)
+        {
+            throw new IllegalArgumentException(
+                "Invalid concurrency limits (initial=" + initialLimit
+                + ", min=" + minLimit + ", max=" + maxLimit + ")");
+        }
+        this.minLimit       = minLimit;
+        this.maxLimit       = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit          = initialLimit;
+    }
+
+    /**
+     * Attempts to admit a call without waiting.
+     *
+     * @return <code>true</code> if admitted, or <code>false</code> if the
+     *         limit has been reached and the call should be rejected.
+     */
+    public boolean tryAcquire()
+    {
+        for (;;) {
+            int current = this.inFlight.get();
+            if (current >= this.limit) {
+                this.rejected.increment();
+                return false;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a call that was admitted via {@link #tryAcquire()} and
+     * optionally adjusts the limit using its latency.
+     *
+     * @param latencyNanos The number of nanoseconds from admission to
+     *                     completion.
+     * @param sample <code>true</code> if the latency should be used to
+     *               adjust the limit, otherwise <code>false</code>.
+     */
+    public void release(long latencyNanos, boolean sample)
+    {
+        int current = this.inFlight.getAndDecrement();
+        if (sample && latencyNanos > 0L) {
+            this.update(latencyNanos, current);
+        }
+    }
+
+    /**
+     * Adjusts the limit using the specified latency sample.
+     *
+     * @param latencyNanos The latency sample in nanoseconds.
+     * @param inFlightCount The number of calls in flight when the sampled
+     *                      call completed (including that call).
+     */
+    private synchronized void update(long latencyNanos, int inFlightCount)
+    {
+        double rtt = latencyNanos;
+        if (this.longRttNanos == 0.0) {
+            this.shortRttNanos  = rtt;
+            this.longRttNanos   = rtt;
+        } else {
+            this.shortRttNanos += (rtt - this.shortRttNanos) / SHORT_WINDOW;
+            this.longRttNanos  += (rtt - this.longRttNanos) / LONG_WINDOW;
+        }
+
+        // let the baseline recover quickly after a sustained improvement
+        if (this.longRttNanos / this.shortRttNanos > 2.0) {
+            this.longRttNanos *= 0.95;
+        }
+        this.reportedShortRttNanos  = (long) this.shortRttNanos;
+        this.reportedLongRttNanos   = (long) this.longRttNanos;
+
+        // avoid growing the limit when it is not being used
+        if (inFlightCount < this.estimatedLimit / 2.0) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0,
+            TOLERANCE * this.longRttNanos / this.shortRttNanos));
+        double newLimit = this.estimatedLimit * gradient
+            + Math.sqrt(this.estimatedLimit);
+        newLimit = this.estimatedLimit * (1.0 - SMOOTHING)
+            + newLimit * SMOOTHING;
+        newLimit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+
+        this.estimatedLimit = newLimit;
+        this.limit          = (int) newLimit;
+    }
+
+    /**
+     * Gets the suggested number of milliseconds a client should wait before
+     * retrying a rejected call, which is the short-term average latency.
+     *
+     * @return The suggested number of milliseconds to wait before retrying.
+     */
+    public long getRetryAfterMillis()
+    {
+        return Math.max(MIN_RETRY_AFTER_MILLIS,
+                        this.reportedShortRttNanos / 1_000_000L);
+    }
+
+    /**
+     * Gets the current limit on the number of calls in flight.
+     *
+     * @return The current limit on the number of calls in flight.
+     */
+    public int getLimit()
+    {
+        return this.limit;
+    }
+
+    /**
+     * Gets the minimum limit.
+     *
+     * @return The minimum limit.
+     */
+    public int getMinLimit()
+    {
+        return this.minLimit;
+    }
+
+    /**
+     * Gets the maximum limit.
+     *
+     * @return The maximum limit.
+     */
+    public int getMaxLimit()
+    {
+        return this.maxLimit;
+    }
+
+    /**
+     * Gets the number of calls in flight.
+     *
+     * @return The number of calls in flight.
+     */
+    public int getInFlightCount()
+    {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Gets the number of calls rejected because the limit was reached.
+     *
+     * @return The number of rejected calls.
+     */
+    public long getRejectedCount()
+    {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Gets the short-term average latency in nanoseconds.
+     *
+     * @return The short-term average latency in nanoseconds, or zero (0) if
+     *         no latencies have been sampled.
+     */
+    public long getShortLatencyNanos()
+    {
+        return this.reportedShortRttNanos;
+    }
+
+    /**
+     * Gets the long-term (baseline) average latency in nanoseconds.
+     *
+     * @return The long-term average latency in nanoseconds, or zero (0) if
+     *         no latencies have been sampled.
+     */
+    public long getLongLatencyNanos()
+    {
+        return this.reportedLongRttNanos;
+    }
+}
@@ -79,7 +79,8 @@ public class SzGrpcConfigImpl extends SzConfigImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -118,7 +119,8 @@ public class SzGrpcConfigImpl extends SzConfigImplBase
             responseObserver.onCompleted();
             
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -156,7 +158,8 @@ public class SzGrpcConfigImpl extends SzConfigImplBase
             responseObserver.onCompleted();
             
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -189,7 +192,8 @@ public class SzGrpcConfigImpl extends SzConfigImplBase
             responseObserver.onCompleted();
             
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
     
@@ -78,7 +78,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -109,7 +110,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -140,7 +142,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -173,7 +176,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -207,7 +211,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -240,7 +245,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -276,7 +282,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -308,7 +315,8 @@ public class SzGrpcConfigManagerImpl extends SzConfigManagerImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -76,7 +76,8 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -108,7 +109,8 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -138,7 +140,8 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -159,6 +162,7 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             SzDiagnostic diagnostic = this.getEnvironment().getDiagnostic();
 
             diagnostic.purgeRepository();
+            this.services.clearReadCache();
 
             PurgeRepositoryResponse response
                 = PurgeRepositoryResponse.newBuilder().build();
@@ -167,7 +171,8 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -188,6 +193,7 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             long configId = request.getConfigId();
 
             this.getEnvironment().reinitialize(configId);
+            this.services.clearReadCache();
 
             ReinitializeResponse response
                 = ReinitializeResponse.newBuilder().build();
@@ -196,7 +202,8 @@ public class SzGrpcDiagnosticImpl extends SzDiagnosticImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -2,30 +2,33 @@ package com.senzing.sdk.grpc.server;
 
 import io.grpc.stub.StreamObserver;
 
-import java.io.StringReader;
-
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.EnumSet;
 import java.util.LinkedHashSet;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 
-import javax.json.Json;
-import javax.json.JsonObject;
-import javax.json.JsonArray;
-import javax.json.JsonString;
+import com.google.protobuf.UnknownFieldSet;
 
 import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzFlagUsageGroup;
 import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzException;
 import com.senzing.sdk.SzRecordKey;
 import com.senzing.sdk.SzRecordKeys;
 import com.senzing.sdk.SzEntityIds;
 import com.senzing.sdk.SzEnvironment;
+import com.senzing.sdk.grpc.SzGrpcExportBatch;
+import com.senzing.sdk.grpc.SzGrpcIdLists;
 
 import static com.senzing.sdk.SzFlag.SZ_WITH_INFO;
 import static com.senzing.sdk.grpc.proto.SzEngineGrpc.*;
 import static com.senzing.sdk.grpc.proto.SzEngineProto.*;
 import static com.senzing.sdk.SzFlagUsageGroup.*;
 import static com.senzing.sdk.grpc.server.SzGrpcServices.*;
+import static com.senzing.sdk.grpc.server.SzGrpcFlagSets.toFlagSet;
 import static com.senzing.util.LoggingUtilities.*;
 
 /**
@@ -38,6 +41,41 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
      */
     private SzGrpcServices services = null;
 
+    /**
+     * The most recently obtained {@link EngineBinding}, or <code>null</code>
+     * if the {@link SzEngine} has not yet been obtained.
+     */
+    private volatile EngineBinding engineBinding = null;
+
+    /**
+     * Associates an {@link SzEnvironment} with the {@link SzEngine} that it
+     * provided.
+     */
+    private static final class EngineBinding
+    {
+        /**
+         * The {@link SzEnvironment} that provided the {@link SzEngine}.
+         */
+        private final SzEnvironment environment;
+
+        /**
+         * The {@link SzEngine} provided by the {@link SzEnvironment}.
+         */
+        private final SzEngine engine;
+
+        /**
+         * Constructs with the {@link SzEnvironment} and its {@link SzEngine}.
+         *
+         * @param environment The {@link SzEnvironment}.
+         * @param engine The {@link SzEngine} provided by the environment.
+         */
+        private EngineBinding(SzEnvironment environment, SzEngine engine)
+        {
+            this.environment    = environment;
+            this.engine         = engine;
+        }
+    }
+
     /**
      * Constructs with the {@link SzGrpcServices}.
      *
@@ -64,6 +102,26 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         return this.services.getEnvironment();
     }
 
+    /**
+     * Gets the {@link SzEngine} from the {@linkplain #getEnvironment()
+     * environment}.  The {@link SzEngine} is remembered along with the
+     * {@link SzEnvironment} that provided it so that it is only obtained
+     * again if the environment changes.
+     *
+     * @return The {@link SzEngine} for the backing services.
+     */
+    protected SzEngine getEngine()
+    {
+        SzEnvironment env = this.getEnvironment();
+        EngineBinding binding = this.engineBinding;
+        if (binding != null && binding.environment == env) {
+            return binding.engine;
+        }
+        SzEngine engine = env.getEngine();
+        this.engineBinding = new EngineBinding(env, engine);
+        return engine;
+    }
+
     /**
      * Checks if we are required to publish INFO messages regardless of what
      * flags are specified by the caller.
@@ -78,8 +136,24 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     }
 
     /**
-     * If this instance {@linkplain #isPublishingInfo() is publishing INFO
-     * messages} via an info message consumer <b>and</b> the specified {@link
+     * Checks if we are required to obtain INFO messages regardless of what
+     * flags are specified by the caller.  This is the case if {@linkplain
+     * #isPublishingInfo() publishing INFO messages} or if the {@linkplain
+     * SzGrpcServices#getReadCache() read cache} is enabled since it is
+     * invalidated using the INFO messages.
+     *
+     * @return <code>true</code> if INFO messages are always required,
+     *         otherwise <code>false</code>.
+     */
+    protected boolean isRequiringInfo()
+    {
+        return this.isPublishingInfo()
+            || (this.services.getReadCache() != null);
+    }
+
+    /**
+     * If this instance {@linkplain #isRequiringInfo() requires INFO
+     * messages} <b>and</b> the specified {@link
      * Set} of {@link SzFlag} instances does
      * <b>not</b> contain {@link SzFlag#SZ_WITH_INFO} then a copy of
      * the specified {@link Set} that also includes
@@ -94,7 +168,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
      */
     protected Set<SzFlag> enhanceFlags(Set<SzFlag> flagSet)
     {
-        if (flagSet.contains(SZ_WITH_INFO) || !this.isPublishingInfo()) {
+        if (flagSet.contains(SZ_WITH_INFO) || !this.isRequiringInfo()) {
             return flagSet;
         }
         EnumSet<SzFlag> enhanced = EnumSet.of(SZ_WITH_INFO);
@@ -102,6 +176,28 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         return enhanced;
     }
 
+    /**
+     * Obtains the unmodifiable {@link Set} of {@link SzFlag} instances for
+     * the specified usage group and flag bits, including {@link
+     * SzFlag#SZ_WITH_INFO} if this instance {@linkplain #isRequiringInfo()
+     * requires INFO messages}.  This is equivalent to {@link
+     * #enhanceFlags(Set)} but obtains the result from the {@link
+     * SzGrpcFlagSets} cache so that no flag set is created per request.
+     *
+     * @param group The {@link SzFlagUsageGroup} to which
+     *              {@link SzFlag#SZ_WITH_INFO} belongs.
+     * @param flags The <code>long</code> flag bits from the request.
+     *
+     * @return The unmodifiable {@link Set} of {@link SzFlag} instances.
+     */
+    protected Set<SzFlag> enhanceFlags(SzFlagUsageGroup group, long flags)
+    {
+        if (this.isRequiringInfo()) {
+            return SzGrpcFlagSets.withInfo(group, flags);
+        }
+        return toFlagSet(group, flags);
+    }
+
     /**
      * Publishes the specified message via the configured info message consumer.
      * This method does nothing if no info message consumer is configured.
@@ -126,9 +222,12 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         Objects.requireNonNull(message, 
             "The message cannot be null if publishing INFO messages");
         
+        long startNanos = System.nanoTime();
+        boolean published = false;
         try {
             this.services.getInfoMessageConsumer().accept(message);
 
+            published = true;
             return true;
 
         } catch (Exception e) {
@@ -138,7 +237,157 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
                        "- - - - - - - - - - - - - - - - - - - ",
                        "");
             return false;
+
+        } finally {
+            this.services.getMetrics().recordInfoPublish(
+                System.nanoTime() - startNanos, published);
+        }
+    }
+
+    /**
+     * Invalidates the cached results affected by the write operation that
+     * produced the specified INFO message if the {@linkplain
+     * SzGrpcServices#getReadCache() read cache} is enabled, and ensures that
+     * reads already in flight are not {@linkplain
+     * SzGrpcServices#getSingleFlight() shared} with subsequent callers.
+     *
+     * @param message The INFO message produced by the write operation, or
+     *                <code>null</code> if none.
+     */
+    protected void invalidateCache(String message)
+    {
+        SzGrpcReadCache cache = this.services.getReadCache();
+        if (cache != null) {
+            cache.invalidate(message);
+        }
+        SzGrpcSingleFlight singleFlight = this.services.getSingleFlight();
+        if (singleFlight != null) {
+            singleFlight.invalidate();
+        }
+    }
+
+    /**
+     * Describes a read operation whose result may be cached.
+     */
+    @FunctionalInterface
+    private interface CacheableRead
+    {
+        /**
+         * Performs the read operation.
+         *
+         * @param engine The {@link SzEngine} to read from.
+         *
+         * @return The result of the read operation.
+         *
+         * @throws SzException If a failure occurs.
+         */
+        String read(SzEngine engine) throws SzException;
+    }
+
+    /**
+     * Obtains the result of the specified read operation from the
+     * {@linkplain SzGrpcServices#getReadCache() read cache} if it is enabled
+     * and the result is cached, otherwise performs the read operation and
+     * caches its result.
+     *
+     * @param cacheKey The key identifying the operation, its arguments and
+     *                 its flags.
+     * @param entityIds The entity IDs the result depends on.
+     * @param recordKey The {@link SzRecordKey} the result depends on, or
+     *                  <code>null</code> if none.
+     * @param byRecord <code>true</code> if the result is an entity obtained
+     *                 by record key and should also depend on the entity to
+     *                 which the record resolved.
+     * @param operation The {@link CacheableRead} to perform on a miss.
+     *
+     * @return The result of the read operation.
+     *
+     * @throws SzException If a failure occurs.
+     */
+    private String readThrough(String         cacheKey,
+                               long[]         entityIds,
+                               SzRecordKey    recordKey,
+                               boolean        byRecord,
+                               CacheableRead  operation)
+        throws SzException
+    {
+        SzEngine engine = this.getEngine();
+        SzGrpcReadCache cache = this.services.getReadCache();
+        if (cache == null) {
+            return operation.read(engine);
+        }
+        String result = cache.get(cacheKey);
+        if (result != null) {
+            return result;
         }
+        long stamp = cache.getStamp();
+        result = operation.read(engine);
+
+        long[] dependencies = entityIds;
+        if (byRecord) {
+            long entityId = SzGrpcReadCache.extractEntityId(result);
+            if (entityId >= 0L) {
+                dependencies = new long[] { entityId };
+            }
+        }
+        cache.put(stamp, cacheKey, result, dependencies, recordKey);
+        return result;
+    }
+
+    /**
+     * Responds to the specified {@link StreamObserver} with the result of
+     * the specified read operation.  If read coalescing is {@linkplain
+     * SzGrpcServices#getSingleFlight() enabled} and an identical read is
+     * already in flight then this returns immediately and the response is
+     * sent once that read completes, otherwise the read is performed on the
+     * calling thread.
+     *
+     * @param <T> The response type.
+     * @param key The key identifying the operation, its arguments and its
+     *            flags.
+     * @param operation The {@link Callable} that performs the read.
+     * @param responseFactory The {@link Function} that creates the response
+     *                        from the result.
+     * @param responseObserver The {@link StreamObserver} for the response.
+     */
+    private <T> void respondCoalesced(
+            String                  key,
+            Callable<String>        operation,
+            Function<String, T>     responseFactory,
+            StreamObserver<T>       responseObserver)
+    {
+        SzGrpcSingleFlight singleFlight = this.services.getSingleFlight();
+        if (singleFlight == null) {
+            try {
+                T response = responseFactory.apply(operation.call());
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+
+            } catch (Exception e) {
+                responseObserver.onError(toStatusRuntimeException(
+                    e, this.services.isErrorStackTraces()));
+            }
+            return;
+        }
+
+        singleFlight.execute(key, operation).whenComplete(
+            (result, failure) -> {
+                if (failure != null) {
+                    responseObserver.onError(toStatusRuntimeException(
+                        SzGrpcSingleFlight.unwrap(failure),
+                        this.services.isErrorStackTraces()));
+                    return;
+                }
+                try {
+                    T response = responseFactory.apply(result);
+                    responseObserver.onNext(response);
+                    responseObserver.onCompleted();
+
+                } catch (Exception e) {
+                    responseObserver.onError(toStatusRuntimeException(
+                        e, this.services.isErrorStackTraces()));
+                }
+            });
     }
     /**
      * Implemented to execute the operation using the {@link SzEnvironment} from
@@ -160,10 +409,11 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
 
             SzRecordKey recordKey
                 = SzRecordKey.of(dataSourceCode, recordId);
-            Set<SzFlag> origFlagSet = SZ_ADD_RECORD_FLAGS.toFlagSet(flags);
-            Set<SzFlag> flagSet     = this.enhanceFlags(origFlagSet);
+            Set<SzFlag> origFlagSet = toFlagSet(SZ_ADD_RECORD_FLAGS, flags);
+            Set<SzFlag> flagSet
+                = this.enhanceFlags(SZ_ADD_RECORD_FLAGS, flags);
             
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.addRecord(recordKey,
                                              recordDefinition,
@@ -171,6 +421,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
 
             // optionally publish the info message
             this.publishInfoMessage(result);
+            this.invalidateCache(result);
             
             AddRecordResponse.Builder builder 
                 = AddRecordResponse.newBuilder();
@@ -183,7 +434,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -219,7 +471,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             StreamObserver<CountRedoRecordsResponse> responseObserver)
     {
         try {
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             long result = engine.countRedoRecords();
 
@@ -231,7 +483,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -255,15 +508,17 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
 
             SzRecordKey recordKey
                 = SzRecordKey.of(dataSourceCode, recordId);
-            Set<SzFlag> origFlagSet = SZ_DELETE_RECORD_FLAGS.toFlagSet(flags);
-            Set<SzFlag> flagSet     = this.enhanceFlags(origFlagSet);
+            Set<SzFlag> origFlagSet = toFlagSet(SZ_DELETE_RECORD_FLAGS, flags);
+            Set<SzFlag> flagSet
+                = this.enhanceFlags(SZ_DELETE_RECORD_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.deleteRecord(recordKey, flagSet);
 
             // optionally publish the info message
             this.publishInfoMessage(result);
+            this.invalidateCache(result);
 
             DeleteRecordResponse.Builder builder
                 = DeleteRecordResponse.newBuilder();
@@ -276,7 +531,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
    }
 
@@ -356,10 +612,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             Long        entityId    = request.getEntityId();
             long        flags       = request.getFlags();
             Set<SzFlag> flagSet
-                = SZ_FIND_INTERESTING_ENTITIES_FLAGS
-                    .toFlagSet(flags);
+                = toFlagSet(SZ_FIND_INTERESTING_ENTITIES_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.findInterestingEntities(
                 entityId, flagSet);
@@ -372,7 +627,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -398,10 +654,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             SzRecordKey recordKey
                 = SzRecordKey.of(dataSourceCode, recordId);
             Set<SzFlag> flagSet
-                = SZ_FIND_INTERESTING_ENTITIES_FLAGS
-                    .toFlagSet(flags);
+                = toFlagSet(SZ_FIND_INTERESTING_ENTITIES_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result
                 = engine.findInterestingEntities(
@@ -415,86 +670,107 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
     /**
-     * Internal method for parsing the entity ID's JSON.
+     * Internal method for parsing the entity ID's from the typed fields of
+     * the request if present, otherwise from the entity ID's JSON.  The
+     * entity ID's are decoded into a primitive array by {@link
+     * SzGrpcIdLists#decodeTypedEntityIds(UnknownFieldSet)} or {@link
+     * SzGrpcIdLists#decodeEntityIds(String)} and only boxed once when added
+     * to the returned {@link Set}.
      * 
+     * @param typedFields The {@link UnknownFieldSet} of the request.
      * @param entityIdsJson The JSON text to parse.
      * 
      * @return The {@link Set} of {@link Long} entity ID's.
      */
-    private static Set<Long> parseEntityIds(String entityIdsJson)
+    private static Set<Long> parseEntityIds(UnknownFieldSet typedFields,
+                                            String          entityIdsJson)
     {
-        if (entityIdsJson == null || entityIdsJson.trim().length() == 0) 
-        {
+        long[] ids = SzGrpcIdLists.decodeTypedEntityIds(typedFields);
+        if (ids == null) {
+            ids = SzGrpcIdLists.decodeEntityIds(entityIdsJson);
+        }
+        if (ids == null) {
             return null;
         }
-        StringReader    sr = new StringReader(entityIdsJson);
-        JsonObject      jsonObj = Json.createReader(sr).readObject();
-        JsonArray       jsonArr = jsonObj.getJsonArray("ENTITIES");
-
-        Set<Long> entityIds = new LinkedHashSet<>();
-        for (JsonObject elem : jsonArr.getValuesAs(JsonObject.class)) {
-            entityIds.add(elem.getJsonNumber("ENTITY_ID").longValue());
+        Set<Long> entityIds = new LinkedHashSet<>(hashCapacity(ids.length));
+        for (long id : ids) {
+            entityIds.add(id);
         }
         return entityIds;
     }
 
     /**
-     * Internal method for parsing the record keys JSON.
+     * Internal method for parsing the record keys from the typed fields of
+     * the request if present, otherwise from the record keys JSON.
      * 
+     * @param typedFields The {@link UnknownFieldSet} of the request.
      * @param recordKeysJson The JSON text to parse.
      * 
      * @return The {@link Set} of {@link SzRecordKey} instances.
      */
-    private static Set<SzRecordKey> parseRecordKeys(String recordKeysJson)
+    private static Set<SzRecordKey> parseRecordKeys(
+        UnknownFieldSet typedFields,
+        String          recordKeysJson)
     {
-        if (recordKeysJson == null || recordKeysJson.trim().length() == 0)
-        {
-            return null;
+        List<SzRecordKey> keys
+            = SzGrpcIdLists.decodeTypedRecordKeys(typedFields);
+        if (keys == null) {
+            keys = SzGrpcIdLists.decodeRecordKeys(recordKeysJson);
         }
-        StringReader    sr = new StringReader(recordKeysJson);
-        JsonObject      jsonObj = Json.createReader(sr).readObject();
-        JsonArray       jsonArr = jsonObj.getJsonArray("RECORDS");
-
-        Set<SzRecordKey> recordKeys = new LinkedHashSet<>();
-        for (JsonObject elem : jsonArr.getValuesAs(JsonObject.class)) {
-            String dataSource = elem.getString("DATA_SOURCE");
-            String recordId   = elem.getString("RECORD_ID");
-
-            SzRecordKey recordKey = SzRecordKey.of(dataSource, recordId);
-            recordKeys.add(recordKey);
+        if (keys == null) {
+            return null;
         }
+        Set<SzRecordKey> recordKeys
+            = new LinkedHashSet<>(hashCapacity(keys.size()));
+        recordKeys.addAll(keys);
         return recordKeys;
     }
 
     /**
-     * Internal method for parsing the data sources JSON.
+     * Internal method for parsing the data sources from the typed fields of
+     * the request if present, otherwise from the data sources JSON.
      * 
+     * @param typedFields The {@link UnknownFieldSet} of the request.
      * @param dataSourcesJson The JSON text to parse.
      * 
      * @return The {@link Set} of {@link String} data source codes.
      */
-    private static Set<String> parseDataSources(String dataSourcesJson)
+    private static Set<String> parseDataSources(
+        UnknownFieldSet typedFields,
+        String          dataSourcesJson)
     {
-        if (dataSourcesJson == null || dataSourcesJson.trim().length() == 0)
-        {
-            return null;
+        List<String> codes = SzGrpcIdLists.decodeTypedDataSources(typedFields);
+        if (codes == null) {
+            codes = SzGrpcIdLists.decodeDataSources(dataSourcesJson);
         }
-        StringReader    sr = new StringReader(dataSourcesJson);
-        JsonObject      jsonObj = Json.createReader(sr).readObject();
-        JsonArray       jsonArr = jsonObj.getJsonArray("DATA_SOURCES");
-
-        Set<String> dataSources = new LinkedHashSet<>();
-        for (JsonString elem : jsonArr.getValuesAs(JsonString.class)) {
-            dataSources.add(elem.getString());
+        if (codes == null) {
+            return null;
         }
+        Set<String> dataSources
+            = new LinkedHashSet<>(hashCapacity(codes.size()));
+        dataSources.addAll(codes);
         return dataSources;
     }
 
+    /**
+     * Gets the initial capacity for a hash-based collection that will hold
+     * the specified number of elements without rehashing.
+     * 
+     * @param count The number of elements.
+     * 
+     * @return The initial capacity.
+     */
+    private static int hashCapacity(int count)
+    {
+        return Math.max(16, (int) (count / 0.75f) + 1);
+    }
+
     /**
      * Implemented to execute the operation using the {@link SzEnvironment} from
      * the associated {@link SzGrpcServer} leveraging the
@@ -515,11 +791,12 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
                 = (int) request.getBuildOutMaxEntities();
             long    flags               = request.getFlags();
 
-            Set<Long> entityIds = parseEntityIds(entityIdsJson);
+            Set<Long> entityIds = parseEntityIds(
+                request.getUnknownFields(), entityIdsJson);
 
-            Set<SzFlag> flagSet = SZ_FIND_NETWORK_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet = toFlagSet(SZ_FIND_NETWORK_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.findNetwork(
                 SzEntityIds.of(entityIds),
@@ -536,7 +813,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -560,11 +838,12 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
                 = (int) request.getBuildOutMaxEntities();
             long    flags               = request.getFlags();
 
-            Set<SzRecordKey> recordKeys = parseRecordKeys(recordKeysJson);
+            Set<SzRecordKey> recordKeys = parseRecordKeys(
+                request.getUnknownFields(), recordKeysJson);
 
-            Set<SzFlag> flagSet = SZ_FIND_NETWORK_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet = toFlagSet(SZ_FIND_NETWORK_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.findNetwork(
                 SzRecordKeys.of(recordKeys),
@@ -581,7 +860,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -605,12 +885,14 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             String  dataSourcesJson     = request.getRequiredDataSources();
             long    flags               = request.getFlags();
 
-            Set<Long>   avoidEntityIds  = parseEntityIds(avoidanceJson);
-            Set<String> requiredSources = parseDataSources(dataSourcesJson);
+            Set<Long>   avoidEntityIds  = parseEntityIds(
+                request.getUnknownFields(), avoidanceJson);
+            Set<String> requiredSources = parseDataSources(
+                request.getUnknownFields(), dataSourcesJson);
 
-            Set<SzFlag> flagSet = SZ_FIND_PATH_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet = toFlagSet(SZ_FIND_PATH_FLAGS, flags);
             
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.findPath(
                 startEntityId,
@@ -628,7 +910,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -656,9 +939,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long    flags               = request.getFlags();
 
             Set<SzRecordKey> avoidRecordKeys
-                = parseRecordKeys(avoidanceJson);
+                = parseRecordKeys(request.getUnknownFields(), avoidanceJson);
             Set<String> requiredSources
-                = parseDataSources(dataSourcesJson);
+                = parseDataSources(request.getUnknownFields(), dataSourcesJson);
 
             SzRecordKey startRecordKey
                 = SzRecordKey.of(startDataSource,
@@ -666,9 +949,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             SzRecordKey endRecordKey
                 = SzRecordKey.of(endDataSource,
                                  endRecordId);
-            Set<SzFlag> flagSet         = SZ_FIND_PATH_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet         = toFlagSet(SZ_FIND_PATH_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.findPath(
                 startRecordKey,
@@ -686,7 +969,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -713,7 +997,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -729,25 +1014,20 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     public void getEntityByEntityId(GetEntityByEntityIdRequest request,
             StreamObserver<GetEntityByEntityIdResponse> responseObserver)
     {
-        try {
-            long        entityId    = request.getEntityId();
-            long        flags       = request.getFlags();
-            Set<SzFlag> flagSet     = SZ_ENTITY_FLAGS.toFlagSet(flags);
-
-            SzEngine engine = this.getEnvironment().getEngine();
-
-            String result = engine.getEntity(entityId, flagSet);
-                
-            GetEntityByEntityIdResponse response
-                = GetEntityByEntityIdResponse
-                    .newBuilder().setResult(result).build();
-
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-
-        } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
-        }
+        long        entityId    = request.getEntityId();
+        long        flags       = request.getFlags();
+        String      key         = SzGrpcSingleFlight.key(
+                                    "getEntity", entityId, flags);
+
+        this.respondCoalesced(key, () -> {
+            Set<SzFlag> flagSet = toFlagSet(SZ_ENTITY_FLAGS, flags);
+            return this.readThrough(
+                key, new long[] { entityId }, null, false,
+                engine -> engine.getEntity(entityId, flagSet));
+        },
+        result -> GetEntityByEntityIdResponse
+            .newBuilder().setResult(result).build(),
+        responseObserver);
     }
 
     /**
@@ -762,27 +1042,23 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     public void getEntityByRecordId(GetEntityByRecordIdRequest request,
             StreamObserver<GetEntityByRecordIdResponse> responseObserver) 
     {
-        try {
-            String      dataSource  = request.getDataSourceCode();
-            String      recordId    = request.getRecordId();
-            long        flags       = request.getFlags();
+        String      dataSource  = request.getDataSourceCode();
+        String      recordId    = request.getRecordId();
+        long        flags       = request.getFlags();
+        String      key         = SzGrpcSingleFlight.key(
+                                    "getEntityByRecord",
+                                    dataSource, recordId, flags);
+
+        this.respondCoalesced(key, () -> {
             SzRecordKey recordKey   = SzRecordKey.of(dataSource, recordId);
-            Set<SzFlag> flagSet     = SZ_ENTITY_FLAGS.toFlagSet(flags);
-
-            SzEngine engine = this.getEnvironment().getEngine();
-            
-            String result = engine.getEntity(recordKey, flagSet);
-                
-            GetEntityByRecordIdResponse response
-                = GetEntityByRecordIdResponse
-                    .newBuilder().setResult(result).build();
-
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-
-        } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
-        }
+            Set<SzFlag> flagSet     = toFlagSet(SZ_ENTITY_FLAGS, flags);
+            return this.readThrough(
+                key, null, recordKey, true,
+                engine -> engine.getEntity(recordKey, flagSet));
+        },
+        result -> GetEntityByRecordIdResponse
+            .newBuilder().setResult(result).build(),
+        responseObserver);
     }
 
     /**
@@ -797,26 +1073,21 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     public void getRecord(GetRecordRequest request, 
         StreamObserver<GetRecordResponse> responseObserver) 
     {
-        try {
-            String      dataSource  = request.getDataSourceCode();
-            String      recordId    = request.getRecordId();
-            long        flags       = request.getFlags();
-            SzRecordKey recordKey   = SzRecordKey.of(dataSource, recordId);
-            Set<SzFlag> flagSet     = SZ_RECORD_FLAGS.toFlagSet(flags);
-
-            SzEngine engine = this.getEnvironment().getEngine();
-            
-            String result = engine.getRecord(recordKey, flagSet);
-                
-            GetRecordResponse response
-                = GetRecordResponse.newBuilder().setResult(result).build();
-
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+        String      dataSource  = request.getDataSourceCode();
+        String      recordId    = request.getRecordId();
+        long        flags       = request.getFlags();
+        String      key         = SzGrpcSingleFlight.key(
+                                    "getRecord", dataSource, recordId, flags);
 
-        } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
-        }
+        this.respondCoalesced(key, () -> {
+            SzRecordKey recordKey   = SzRecordKey.of(dataSource, recordId);
+            Set<SzFlag> flagSet     = toFlagSet(SZ_RECORD_FLAGS, flags);
+            return this.readThrough(
+                key, null, recordKey, false,
+                engine -> engine.getRecord(recordKey, flagSet));
+        },
+        result -> GetRecordResponse.newBuilder().setResult(result).build(),
+        responseObserver);
     }
 
     /**
@@ -835,9 +1106,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             String      recordDef   = request.getRecordDefinition();
             long        flags       = request.getFlags();
             Set<SzFlag> flagSet
-                = SZ_RECORD_PREVIEW_FLAGS.toFlagSet(flags);
+                = toFlagSet(SZ_RECORD_PREVIEW_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result
                 = engine.getRecordPreview(recordDef, flagSet);
@@ -850,7 +1121,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -867,7 +1139,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         StreamObserver<GetRedoRecordResponse> responseObserver) 
     {
         try {
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
             
             String result = engine.getRedoRecord();
             
@@ -882,7 +1154,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -899,7 +1172,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         StreamObserver<GetStatsResponse> responseObserver) 
     {
         try {
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
             
             String result = engine.getStats();
                 
@@ -910,7 +1183,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -932,11 +1206,12 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             String  recordKeysJson      = request.getRecordKeys();
             long    flags               = request.getFlags();
 
-            Set<SzRecordKey> recordKeys = parseRecordKeys(recordKeysJson);
+            Set<SzRecordKey> recordKeys = parseRecordKeys(
+                request.getUnknownFields(), recordKeysJson);
 
-            Set<SzFlag> flagSet = SZ_VIRTUAL_ENTITY_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet = toFlagSet(SZ_VIRTUAL_ENTITY_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.getVirtualEntity(
                 SzRecordKeys.of(recordKeys), flagSet);
@@ -949,7 +1224,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -965,25 +1241,20 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     public void howEntityByEntityId(HowEntityByEntityIdRequest request,
             StreamObserver<HowEntityByEntityIdResponse> responseObserver) 
     {
-        try {
-            long        entityId    = request.getEntityId();
-            long        flags       = request.getFlags();
-            Set<SzFlag> flagSet     = SZ_HOW_FLAGS.toFlagSet(flags);
-
-            SzEngine engine = this.getEnvironment().getEngine();
-
-            String result = engine.howEntity(entityId, flagSet);
-                
-            HowEntityByEntityIdResponse response
-                = HowEntityByEntityIdResponse
-                    .newBuilder().setResult(result).build();
-
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-
-        } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
-        }
+        long        entityId    = request.getEntityId();
+        long        flags       = request.getFlags();
+        String      key         = SzGrpcSingleFlight.key(
+                                    "howEntity", entityId, flags);
+
+        this.respondCoalesced(key, () -> {
+            Set<SzFlag> flagSet = toFlagSet(SZ_HOW_FLAGS, flags);
+            return this.readThrough(
+                key, new long[] { entityId }, null, false,
+                engine -> engine.howEntity(entityId, flagSet));
+        },
+        result -> HowEntityByEntityIdResponse
+            .newBuilder().setResult(result).build(),
+        responseObserver);
     }
 
     /**
@@ -999,7 +1270,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         StreamObserver<PrimeEngineResponse> responseObserver)
     {
         try {
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
             
             engine.primeEngine();
                 
@@ -1010,7 +1281,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1029,15 +1301,16 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         try {
             String      redoRecord  = request.getRedoRecord();
             long        flags       = request.getFlags();
-            Set<SzFlag> origFlagSet = SZ_REDO_FLAGS.toFlagSet(flags);
-            Set<SzFlag> flagSet     = this.enhanceFlags(origFlagSet);
+            Set<SzFlag> origFlagSet = toFlagSet(SZ_REDO_FLAGS, flags);
+            Set<SzFlag> flagSet     = this.enhanceFlags(SZ_REDO_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
             
             String result = engine.processRedoRecord(redoRecord, flagSet);
 
             // optionally publish the info message
             this.publishInfoMessage(result);
+            this.invalidateCache(result);
                         
             ProcessRedoRecordResponse.Builder builder
                 = ProcessRedoRecordResponse.newBuilder();
@@ -1050,7 +1323,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1070,15 +1344,17 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long        entityId    = request.getEntityId();
             long        flags       = request.getFlags();
             Set<SzFlag> origFlagSet
-                = SZ_REEVALUATE_ENTITY_FLAGS.toFlagSet(flags);
-            Set<SzFlag> flagSet     = this.enhanceFlags(origFlagSet);
+                = toFlagSet(SZ_REEVALUATE_ENTITY_FLAGS, flags);
+            Set<SzFlag> flagSet
+                = this.enhanceFlags(SZ_REEVALUATE_ENTITY_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.reevaluateEntity(entityId, flagSet);
 
             // optionally publish the info message
             this.publishInfoMessage(result);
+            this.invalidateCache(result);
             
             ReevaluateEntityResponse.Builder builder
                 = ReevaluateEntityResponse.newBuilder();
@@ -1091,7 +1367,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1113,15 +1390,17 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long        flags       = request.getFlags();
             SzRecordKey recordKey   = SzRecordKey.of(dataSource, recordId);
             Set<SzFlag> origFlagSet
-                = SZ_REEVALUATE_RECORD_FLAGS.toFlagSet(flags);
-            Set<SzFlag> flagSet     = this.enhanceFlags(origFlagSet);
+                = toFlagSet(SZ_REEVALUATE_RECORD_FLAGS, flags);
+            Set<SzFlag> flagSet
+                = this.enhanceFlags(SZ_REEVALUATE_RECORD_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.reevaluateRecord(recordKey, flagSet);
 
             // optionally publish the info message
             this.publishInfoMessage(result);
+            this.invalidateCache(result);
             
             ReevaluateRecordResponse.Builder builder
                 = ReevaluateRecordResponse.newBuilder();
@@ -1135,7 +1414,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1155,6 +1435,7 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long configId = request.getConfigId();
 
             this.getEnvironment().reinitialize(configId);
+            this.services.clearReadCache();
                 
             ReinitializeResponse response
                 = ReinitializeResponse.newBuilder().build();
@@ -1163,7 +1444,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1179,27 +1461,136 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     public void searchByAttributes(SearchByAttributesRequest request,
             StreamObserver<SearchByAttributesResponse> responseObserver) 
     {
-        try {
-            String      attributes  = request.getAttributes();
-            String      profile     = request.getSearchProfile();
-            long        flags       = request.getFlags();
+        String      attributes  = request.getAttributes();
+        String      profile     = request.getSearchProfile();
+        long        flags       = request.getFlags();
+        String      key         = SzGrpcSingleFlight.key(
+                                    "searchByAttributes",
+                                    flags, profile, attributes);
+
+        this.respondCoalesced(key, () -> {
             Set<SzFlag> flagSet
-                = SZ_REEVALUATE_RECORD_FLAGS.toFlagSet(flags);
+                = toFlagSet(SZ_REEVALUATE_RECORD_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
-            String result = engine.searchByAttributes(
-                attributes, profile, flagSet);
-                
-            SearchByAttributesResponse response
-                = SearchByAttributesResponse
-                    .newBuilder().setResult(result).build();
+            return engine.searchByAttributes(attributes, profile, flagSet);
+        },
+        result -> SearchByAttributesResponse
+            .newBuilder().setResult(result).build(),
+        responseObserver);
+    }
 
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+    /**
+     * Gets the number of milliseconds that a streaming export may wait for
+     * the client to read before the call is failed, or zero (0) if there is
+     * no limit.
+     *
+     * @return The export idle timeout in milliseconds, or zero (0) if there
+     *         is no limit.
+     */
+    private long getExportIdleTimeoutMillis()
+    {
+        return this.services.getExportIdleTimeoutSeconds() * 1000L;
+    }
 
-        } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+    /**
+     * Streams the content of the export identified by the specified export
+     * handle to the specified {@link StreamObserver}, closing the export when
+     * done.  Each message of export content is only sent once the call is
+     * {@linkplain FlowControlledStreamObserver#awaitReady() ready} for it so
+     * that a slow consumer cannot cause the entire export to be buffered in
+     * server memory.  If the call is cancelled (or the client stops reading
+     * for longer than the {@linkplain
+     * SzGrpcServices#getExportIdleTimeoutSeconds() export idle timeout}) then
+     * no further content is fetched and the export is closed promptly.  The
+     * same is true if the {@linkplain DeadlineInterceptor#checkActive()
+     * deadline} of the call expires, in which case the call is failed with
+     * {@link io.grpc.Status#DEADLINE_EXCEEDED}.
+     *
+     * <p>
+     * If the client requested {@linkplain SzGrpcExportBatch batched} export
+     * content then multiple lines are packed into each message up to the
+     * limits found in the current {@link io.grpc.Context}, otherwise each
+     * line is sent in its own message.
+     * </p>
+     *
+     * @param <T> The type of the response message.
+     * @param engine The {@link SzEngine} from which the export was opened.
+     * @param exportHandle The export handle for the export.
+     * @param observer The {@link FlowControlledStreamObserver} to stream to.
+     * @param responseFactory The {@link Function} for creating a response
+     *                        message from the result text.
+     *
+     * @throws Exception If a failure occurs.
+     */
+    private static <T> void streamExport(
+        SzEngine                        engine,
+        long                            exportHandle,
+        FlowControlledStreamObserver<T> observer,
+        Function<String, T>             responseFactory)
+        throws Exception
+    {
+        Integer maxLines = ExportBatchInterceptor.MAX_LINES_CONTEXT_KEY.get();
+        Integer maxBytes = ExportBatchInterceptor.MAX_BYTES_CONTEXT_KEY.get();
+        try {
+            if (maxLines == null || maxBytes == null) {
+                for (String line = engine.fetchNext(exportHandle); 
+                     line != null;
+                     line = engine.fetchNext(exportHandle)) 
+                {
+                    if (observer.isCancelled()
+                        || !observer.send(responseFactory.apply(line)))
+                    {
+                        // the call was cancelled, stop fetching
+                        return;
+                    }
+                    DeadlineInterceptor.checkActive();
+                }
+
+            } else {
+                StringBuilder   batch       = new StringBuilder();
+                int             lineCount   = 0;
+                for (String line = engine.fetchNext(exportHandle); 
+                     line != null;
+                     line = engine.fetchNext(exportHandle)) 
+                {
+                    if (observer.isCancelled()) {
+                        // the call was cancelled, stop fetching
+                        return;
+                    }
+                    DeadlineInterceptor.checkActive();
+                    SzGrpcExportBatch.appendLine(batch, line);
+                    lineCount++;
+
+                    // check if the batch is not yet full
+                    if (lineCount < maxLines && batch.length() < maxBytes) {
+                        continue;
+                    }
+
+                    if (!observer.send(responseFactory.apply(
+                            batch.toString())))
+                    {
+                        // the call was cancelled, stop fetching
+                        return;
+                    }
+                    batch.setLength(0);
+                    lineCount = 0;
+                }
+
+                // send any partial batch
+                if (lineCount > 0 
+                    && !observer.send(responseFactory.apply(batch.toString())))
+                {
+                    // the call was cancelled
+                    return;
+                }
+            }
+
+            observer.onCompleted();
+
+        } finally {
+            engine.closeExportReport(exportHandle);
         }
     }
 
@@ -1219,38 +1610,27 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         StreamObserver<StreamExportCsvEntityReportResponse>
             responseObserver)
     {
+        FlowControlledStreamObserver<StreamExportCsvEntityReportResponse>
+            observer = new FlowControlledStreamObserver<>(
+                responseObserver, this.getExportIdleTimeoutMillis());
         try {
             String      csvColumnList   = request.getCsvColumnList();
             long        flags           = request.getFlags();
-            Set<SzFlag> flagSet         = SZ_EXPORT_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet         = toFlagSet(SZ_EXPORT_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             long exportHandle
                 = engine.exportCsvEntityReport(
                     csvColumnList, flagSet);
 
-            try {
-                for (String line = engine.fetchNext(exportHandle); 
-                     line != null;
-                     line = engine.fetchNext(exportHandle)) 
-                     
-                {
-                    StreamExportCsvEntityReportResponse response
-                        = StreamExportCsvEntityReportResponse
-                            .newBuilder().setResult(line).build();
-                    
-                    responseObserver.onNext(response);
-                }
-
-                responseObserver.onCompleted();
- 
-            } finally {
-                engine.closeExportReport(exportHandle);
-            }
+            streamExport(engine, exportHandle, observer,
+                result -> StreamExportCsvEntityReportResponse
+                            .newBuilder().setResult(result).build());
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            observer.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1270,35 +1650,24 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
         StreamObserver<StreamExportJsonEntityReportResponse>
             responseObserver)
     {
+        FlowControlledStreamObserver<StreamExportJsonEntityReportResponse>
+            observer = new FlowControlledStreamObserver<>(
+                responseObserver, this.getExportIdleTimeoutMillis());
         try {
             long        flags   = request.getFlags();
-            Set<SzFlag> flagSet = SZ_EXPORT_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet = toFlagSet(SZ_EXPORT_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             long exportHandle = engine.exportJsonEntityReport(flagSet);
 
-            try {
-                for (String line = engine.fetchNext(exportHandle); 
-                     line != null;
-                     line = engine.fetchNext(exportHandle)) 
-                     
-                {
-                    StreamExportJsonEntityReportResponse response
-                        = StreamExportJsonEntityReportResponse
-                            .newBuilder().setResult(line).build();
-
-                    responseObserver.onNext(response);
-                }
-
-                responseObserver.onCompleted();
- 
-            } finally {
-                engine.closeExportReport(exportHandle);
-            }
+            streamExport(engine, exportHandle, observer,
+                result -> StreamExportJsonEntityReportResponse
+                            .newBuilder().setResult(result).build());
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            observer.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1314,25 +1683,20 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
     public void whyEntities(WhyEntitiesRequest request,
         StreamObserver<WhyEntitiesResponse> responseObserver) 
     {
-        try {
-            long        entityId1   = request.getEntityId1();
-            long        entityId2   = request.getEntityId2();
-            long        flags       = request.getFlags();
-            Set<SzFlag> flagSet     = SZ_WHY_ENTITIES_FLAGS.toFlagSet(flags);
-
-            SzEngine engine = this.getEnvironment().getEngine();
-
-            String result = engine.whyEntities(entityId1, entityId2, flagSet);
-                
-            WhyEntitiesResponse response
-                = WhyEntitiesResponse.newBuilder().setResult(result).build();
-
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
-
-        } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
-        }
+        long        entityId1   = request.getEntityId1();
+        long        entityId2   = request.getEntityId2();
+        long        flags       = request.getFlags();
+        String      key         = SzGrpcSingleFlight.key(
+                                    "whyEntities", entityId1, entityId2, flags);
+
+        this.respondCoalesced(key, () -> {
+            Set<SzFlag> flagSet = toFlagSet(SZ_WHY_ENTITIES_FLAGS, flags);
+            return this.readThrough(
+                key, new long[] { entityId1, entityId2 }, null, false,
+                engine -> engine.whyEntities(entityId1, entityId2, flagSet));
+        },
+        result -> WhyEntitiesResponse.newBuilder().setResult(result).build(),
+        responseObserver);
     }
 
     /**
@@ -1353,10 +1717,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long        flags       = request.getFlags();
             SzRecordKey recordKey   = SzRecordKey.of(dataSource, recordId);
             Set<SzFlag> flagSet
-                = SZ_WHY_RECORD_IN_ENTITY_FLAGS
-                    .toFlagSet(flags);
+                = toFlagSet(SZ_WHY_RECORD_IN_ENTITY_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.whyRecordInEntity(recordKey, flagSet);
                 
@@ -1368,7 +1731,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1392,9 +1756,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long        flags       = request.getFlags();
             SzRecordKey recordKey1  = SzRecordKey.of(dataSource1, recordId1);
             SzRecordKey recordKey2  = SzRecordKey.of(dataSource2, recordId2);
-            Set<SzFlag> flagSet     = SZ_WHY_RECORDS_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet     = toFlagSet(SZ_WHY_RECORDS_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.whyRecords(recordKey1, recordKey2, flagSet);
                 
@@ -1405,7 +1769,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -1426,9 +1791,9 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             long        entityId    = request.getEntityId();
             String      profile     = request.getSearchProfile();
             long        flags       = request.getFlags();
-            Set<SzFlag> flagSet     = SZ_WHY_SEARCH_FLAGS.toFlagSet(flags);
+            Set<SzFlag> flagSet     = toFlagSet(SZ_WHY_SEARCH_FLAGS, flags);
 
-            SzEngine engine = this.getEnvironment().getEngine();
+            SzEngine engine = this.getEngine();
 
             String result = engine.whySearch(
                 attributes, entityId, profile, flagSet);
@@ -1440,7 +1805,8 @@ public class SzGrpcEngineImpl extends SzEngineImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
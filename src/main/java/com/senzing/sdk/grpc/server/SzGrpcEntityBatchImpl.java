@@ -0,0 +1,331 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import com.senzing.sdk.grpc.SzGrpcEntityBatch;
+import com.senzing.sdk.grpc.SzGrpcEntityBatch.Item;
+import com.senzing.sdk.grpc.SzGrpcResult;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc.SzEngineImplBase;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByRecordIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByRecordIdResponse;
+
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Provides the gRPC server-side implementation of the batch entity lookups
+ * described by {@link SzGrpcEntityBatch}, retrieving each entity of the
+ * batch via the single-entity lookup of an engine service.
+ *
+ * <p>
+ * Each lookup is handled exactly as the corresponding unary call would be
+ * (including use of the read cache and read coalescing, if enabled), but
+ * the whole batch costs the client a single round trip.  The lookups of a
+ * batch are started concurrently by the handling thread and up to {@link
+ * #MAX_HELPERS} helper tasks on the blocking task executor of the call.
+ * The handling thread starts whatever lookups the helpers have not
+ * claimed, so the batch completes even if no helper is ever scheduled.
+ * </p>
+ *
+ * <p>
+ * A lookup may complete after the thread that started it has moved on
+ * (e.g.: when it joins an identical read already in progress), so each
+ * lookup completes a {@link CompletableFuture} and its {@link Item} is
+ * streamed back as soon as that future completes.  A failed lookup is
+ * streamed back as a failed {@link SzGrpcResult} without failing the
+ * others, and the call completes once every {@link Item} has been sent.
+ * </p>
+ */
+public class SzGrpcEntityBatchImpl implements BindableService
+{
+    /**
+     * The maximum number of helper tasks used to perform the lookups of a
+     * single batch concurrently with the handling thread.
+     */
+    public static final int MAX_HELPERS = 7;
+
+    /**
+     * The engine service whose single-entity lookups are used.
+     */
+    private final SzEngineImplBase engineService;
+
+    /**
+     * Constructs with the engine service whose single-entity lookups are
+     * used to retrieve each entity of a batch.
+     *
+     * @param engineService The engine service to use.
+     */
+    public SzGrpcEntityBatchImpl(SzEngineImplBase engineService)
+    {
+        Objects.requireNonNull(
+            engineService, "The engine service cannot be null");
+        this.engineService = engineService;
+    }
+
+    /**
+     * Implemented to bind the {@link SzGrpcEntityBatch#BY_ENTITY_ID_METHOD}
+     * and {@link SzGrpcEntityBatch#BY_RECORD_ID_METHOD} to {@link
+     * #getEntitiesByEntityId(List, StreamObserver)} and {@link
+     * #getEntitiesByRecordId(List, StreamObserver)}, respectively.
+     *
+     * @return The {@link ServerServiceDefinition} for the batch lookups.
+     */
+    @Override
+    public ServerServiceDefinition bindService()
+    {
+        return ServerServiceDefinition.builder(SzGrpcEntityBatch.SERVICE_NAME)
+            .addMethod(SzGrpcEntityBatch.BY_ENTITY_ID_METHOD,
+                       ServerCalls.asyncServerStreamingCall(
+                           this::getEntitiesByEntityId))
+            .addMethod(SzGrpcEntityBatch.BY_RECORD_ID_METHOD,
+                       ServerCalls.asyncServerStreamingCall(
+                           this::getEntitiesByRecordId))
+            .build();
+    }
+
+    /**
+     * Retrieves the entities for the specified batch of entity ID lookups.
+     *
+     * @param requests The {@link List} of {@link GetEntityByEntityIdRequest}
+     *                 lookups.
+     * @param responseObserver The {@link StreamObserver} for the {@link
+     *                         Item} responses.
+     */
+    protected void getEntitiesByEntityId(
+        List<GetEntityByEntityIdRequest>    requests,
+        StreamObserver<Item>                responseObserver)
+    {
+        this.lookupAll(requests,
+                       this.engineService::getEntityByEntityId,
+                       GetEntityByEntityIdResponse::getResult,
+                       responseObserver);
+    }
+
+    /**
+     * Retrieves the entities for the specified batch of record key lookups.
+     *
+     * @param requests The {@link List} of {@link GetEntityByRecordIdRequest}
+     *                 lookups.
+     * @param responseObserver The {@link StreamObserver} for the {@link
+     *                         Item} responses.
+     */
+    protected void getEntitiesByRecordId(
+        List<GetEntityByRecordIdRequest>    requests,
+        StreamObserver<Item>                responseObserver)
+    {
+        this.lookupAll(requests,
+                       this.engineService::getEntityByRecordId,
+                       GetEntityByRecordIdResponse::getResult,
+                       responseObserver);
+    }
+
+    /**
+     * Starts the specified lookups concurrently and streams back the {@link
+     * Item} for each as it completes, completing the call once every lookup
+     * has been streamed back.
+     *
+     * @param <Q> The request type.
+     * @param <R> The response type.
+     * @param requests The {@link List} of requests.
+     * @param method The single-entity lookup method of the engine service.
+     * @param resultMapper The {@link Function} to map a response to its JSON
+     *                     result.
+     * @param responseObserver The {@link StreamObserver} for the {@link
+     *                         Item} responses.
+     */
+    private <Q, R> void lookupAll(
+        List<Q>                             requests,
+        BiConsumer<Q, StreamObserver<R>>    method,
+        Function<R, String>                 resultMapper,
+        StreamObserver<Item>                responseObserver)
+    {
+        int count = requests.size();
+        if (count == 0) {
+            responseObserver.onCompleted();
+            return;
+        }
+        ItemSender    sender = new ItemSender(
+            (ServerCallStreamObserver<Item>) responseObserver, count);
+        AtomicInteger next   = new AtomicInteger(0);
+
+        Runnable worker = () -> {
+            for (int index = next.getAndIncrement();
+                 index < count;
+                 index = next.getAndIncrement())
+            {
+                if (sender.isCancelled()) {
+                    return;
+                }
+                int itemIndex = index;
+                lookup(requests.get(index), method, resultMapper)
+                    .thenAccept(result -> sender.send(itemIndex, result));
+            }
+        };
+
+        ServiceRequestContext ctx = ServiceRequestContext.currentOrNull();
+        if (ctx != null) {
+            Executor executor = ctx.blockingTaskExecutor();
+            int helperCount = Math.min(MAX_HELPERS, count - 1);
+            try {
+                for (int index = 0; index < helperCount; index++) {
+                    executor.execute(worker);
+                }
+            } catch (RejectedExecutionException e) {
+                // the handling thread starts the remaining lookups
+            }
+        }
+        worker.run();
+    }
+
+    /**
+     * Starts a single lookup via the specified method of the engine service
+     * and returns the {@link CompletableFuture} that completes with its
+     * {@link SzGrpcResult}.  The returned {@link CompletableFuture} never
+     * completes exceptionally since a failure is described by a failed
+     * {@link SzGrpcResult}.
+     *
+     * @param <Q> The request type.
+     * @param <R> The response type.
+     * @param request The request for the lookup.
+     * @param method The single-entity lookup method of the engine service.
+     * @param resultMapper The {@link Function} to map a response to its JSON
+     *                     result.
+     *
+     * @return The {@link CompletableFuture} for the {@link SzGrpcResult} of
+     *         the lookup.
+     */
+    private static <Q, R> CompletableFuture<SzGrpcResult> lookup(
+        Q                                   request,
+        BiConsumer<Q, StreamObserver<R>>    method,
+        Function<R, String>                 resultMapper)
+    {
+        CompletableFuture<SzGrpcResult> future = new CompletableFuture<>();
+        try {
+            method.accept(request, new StreamObserver<R>() {
+                @Override
+                public void onNext(R value)
+                {
+                    try {
+                        future.complete(
+                            SzGrpcResult.success(resultMapper.apply(value)));
+                    } catch (RuntimeException e) {
+                        future.complete(SzGrpcResult.failure(e));
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t)
+                {
+                    future.complete(SzGrpcResult.failure(t));
+                }
+
+                @Override
+                public void onCompleted()
+                {
+                    // no effect if the response has already been received
+                    future.complete(SzGrpcResult.failure(
+                        new IllegalStateException(
+                            "The lookup completed without a response")));
+                }
+            });
+
+        } catch (RuntimeException e) {
+            future.complete(SzGrpcResult.failure(e));
+        }
+        return future;
+    }
+
+    /**
+     * Sends the {@link Item} instances of a single batch, which may be
+     * produced by several threads at once, and completes the call once
+     * every {@link Item} has been sent.
+     */
+    private static final class ItemSender
+    {
+        /**
+         * The {@link ServerCallStreamObserver} for the {@link Item}
+         * responses.
+         */
+        private final ServerCallStreamObserver<Item> responses;
+
+        /**
+         * Guards the sending of responses.
+         */
+        private final ReentrantLock sendLock = new ReentrantLock();
+
+        /**
+         * The number of {@link Item} instances not yet sent, which is only
+         * accessed while holding the {@link #sendLock}.
+         */
+        private int remaining;
+
+        /**
+         * Constructs with the {@link ServerCallStreamObserver} for the
+         * responses and the number of {@link Item} instances to send.
+         *
+         * @param responses The {@link ServerCallStreamObserver} for the
+         *                  {@link Item} responses.
+         * @param count The number of {@link Item} instances to send.
+         */
+        private ItemSender(ServerCallStreamObserver<Item>   responses,
+                           int                              count)
+        {
+            this.responses  = responses;
+            this.remaining  = count;
+        }
+
+        /**
+         * Checks if the client has cancelled the call.
+         *
+         * @return <code>true</code> if the call has been cancelled,
+         *         otherwise <code>false</code>.
+         */
+        private boolean isCancelled()
+        {
+            return this.responses.isCancelled();
+        }
+
+        /**
+         * Sends the {@link Item} for the lookup at the specified index,
+         * completing the call if it is the last.
+         *
+         * @param index The index of the lookup within the batch.
+         * @param result The {@link SzGrpcResult} for the lookup.
+         */
+        private void send(int index, SzGrpcResult result)
+        {
+            this.sendLock.lock();
+            try {
+                if (this.remaining <= 0 || this.responses.isCancelled()) {
+                    return;
+                }
+                this.responses.onNext(new Item(index, result));
+                if (--this.remaining == 0) {
+                    this.responses.onCompleted();
+                }
+
+            } catch (RuntimeException e) {
+                // the call has been closed, abandon the remaining items
+                this.remaining = 0;
+
+            } finally {
+                this.sendLock.unlock();
+            }
+        }
+    }
+}
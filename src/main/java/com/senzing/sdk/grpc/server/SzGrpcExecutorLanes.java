@@ -0,0 +1,507 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.linecorp.armeria.common.util.ThreadFactories;
+import com.senzing.sdk.grpc.SzGrpcChangeFeed;
+import com.senzing.sdk.grpc.SzGrpcEntityBatch;
+import com.senzing.sdk.grpc.SzGrpcIdLists;
+import com.senzing.sdk.grpc.SzGrpcRecordLoader;
+import com.senzing.sdk.grpc.proto.SzConfigGrpc;
+import com.senzing.sdk.grpc.proto.SzConfigManagerGrpc;
+import com.senzing.sdk.grpc.proto.SzDiagnosticGrpc;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+import com.senzing.sdk.grpc.proto.SzProductGrpc;
+
+/**
+ * Provides separate executor "lanes" (bulkheads) for classes of RPC's so
+ * that bulk work such as loading records or streaming exports cannot starve
+ * interactive reads such as {@link com.senzing.sdk.SzEngine#getEntity(long,
+ * Set)} and {@link com.senzing.sdk.SzEngine#searchByAttributes(String,
+ * Set)}.  Each configured {@link Lane} has its own fixed number of threads
+ * and its own bound on the number of calls that may be waiting for one of
+ * those threads.  A call arriving when its lane is at capacity is failed
+ * immediately with {@link io.grpc.Status#RESOURCE_EXHAUSTED}.
+ *
+ * <p>
+ * Calls belonging to a {@link Lane} that is not configured (and calls to
+ * services other than the Senzing services) continue to run on the shared
+ * blocking task executor of the server.
+ * </p>
+ *
+ * <p>
+ * The lanes are specified as a comma-separated list of
+ * <code>{lane}={threads}[:{queue-size}]</code> entries (e.g.:
+ * <code>"reads=8:64,writes=4:16,exports=2:2"</code>) where the lane names
+ * are those of {@link Lane} (case-insensitive).  If the queue size is
+ * omitted then {@link
+ * SzGrpcServerConstants#DEFAULT_EXECUTOR_LANE_QUEUE_SIZE} is used.
+ * </p>
+ */
+public class SzGrpcExecutorLanes
+{
+    /**
+     * The thread name prefix for the lane threads.
+     */
+    private static final String THREAD_PREFIX = "sz-grpc-lane-";
+
+    /**
+     * The number of seconds an idle lane thread is kept alive before it is
+     * terminated.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Enumerates the classes of RPC's that may be assigned their own lane.
+     */
+    public enum Lane
+    {
+        /**
+         * Interactive engine reads (e.g.: getting entities and records,
+         * searching and the "find", "how" and "why" operations).
+         */
+        READS,
+
+        /**
+         * Engine writes including redo processing and ingest streams.
+         */
+        WRITES,
+
+        /**
+         * Entity exports and change feed subscriptions.
+         */
+        EXPORTS,
+
+        /**
+         * Administrative operations on the product, configuration,
+         * diagnostic and engine (e.g.: reinitializing and statistics).
+         */
+        ADMIN;
+
+        /**
+         * The engine method names for the {@link #WRITES} lane.
+         */
+        private static final Set<String> WRITE_METHODS = Set.of(
+            "AddRecord", "DeleteRecord", "ReevaluateEntity",
+            "ReevaluateRecord", "ProcessRedoRecord", "GetRedoRecord",
+            "CountRedoRecords");
+
+        /**
+         * The engine method names for the {@link #EXPORTS} lane.
+         */
+        private static final Set<String> EXPORT_METHODS = Set.of(
+            "ExportCsvEntityReport", "ExportJsonEntityReport", "FetchNext",
+            "CloseExportReport", "StreamExportCsvEntityReport",
+            "StreamExportJsonEntityReport");
+
+        /**
+         * The engine method names for the {@link #ADMIN} lane.
+         */
+        private static final Set<String> ADMIN_METHODS = Set.of(
+            "GetActiveConfigId", "GetStats", "PrimeEngine", "Reinitialize");
+
+        /**
+         * The Senzing service names for the {@link #ADMIN} lane.
+         */
+        private static final Set<String> ADMIN_SERVICES = Set.of(
+            SzProductGrpc.SERVICE_NAME,
+            SzConfigGrpc.SERVICE_NAME,
+            SzConfigManagerGrpc.SERVICE_NAME,
+            SzDiagnosticGrpc.SERVICE_NAME);
+
+        /**
+         * Gets the {@link Lane} for the specified fully-qualified method
+         * name.
+         *
+         * @param fullMethodName The fully-qualified method name.
+         *
+         * @return The {@link Lane} for the method, or <code>null</code> if the
+         *         method does not belong to a Senzing service.
+         */
+        public static Lane of(String fullMethodName)
+        {
+            int index = fullMethodName.indexOf('/');
+            if (index < 0) {
+                return null;
+            }
+            String service = fullMethodName.substring(0, index);
+            String method = fullMethodName.substring(index + 1);
+            if (service.equals(SzEngineGrpc.SERVICE_NAME)) {
+                if (WRITE_METHODS.contains(method)) {
+                    return WRITES;
+                }
+                if (EXPORT_METHODS.contains(method)) {
+                    return EXPORTS;
+                }
+                if (ADMIN_METHODS.contains(method)) {
+                    return ADMIN;
+                }
+                return READS;
+            }
+            if (service.equals(SzGrpcChangeFeed.SERVICE_NAME)) {
+                return EXPORTS;
+            }
+            if (service.equals(SzGrpcRecordLoader.SERVICE_NAME)) {
+                return WRITES;
+            }
+            if (service.equals(SzGrpcEntityBatch.SERVICE_NAME)) {
+                return READS;
+            }
+            if (service.equals(SzGrpcIdLists.SERVICE_NAME)) {
+                return READS;
+            }
+            if (ADMIN_SERVICES.contains(service)) {
+                return ADMIN;
+            }
+            return null;
+        }
+
+        /**
+         * Parses the specified text as a {@link Lane}.  The text is matched
+         * case-insensitively.
+         *
+         * @param text The text to parse.
+         *
+         * @return The parsed {@link Lane}.
+         *
+         * @throws IllegalArgumentException If the text does not match any
+         *                                  {@link Lane}.
+         */
+        public static Lane parse(String text)
+        {
+            Objects.requireNonNull(text, "The text cannot be null");
+            String name = text.trim().toUpperCase(Locale.ROOT);
+            for (Lane lane : values()) {
+                if (lane.name().equals(name)) {
+                    return lane;
+                }
+            }
+            throw new IllegalArgumentException(
+                "Unrecognized executor lane: " + text);
+        }
+    }
+
+    /**
+     * Describes the number of threads and the queue size for a {@link Lane}.
+     */
+    public static final class LaneConfig
+    {
+        /**
+         * The number of threads.
+         */
+        private final int threadCount;
+
+        /**
+         * The maximum number of calls that may wait for a thread.
+         */
+        private final int queueSize;
+
+        /**
+         * Constructs with the number of threads and the queue size.
+         *
+         * @param threadCount The number of threads.
+         * @param queueSize The maximum number of calls that may wait for a
+         *                  thread.
+         *
+         * @throws IllegalArgumentException If the thread count is not
+         *                                  positive or the queue size is
+         *                                  negative.
+         */
+        public LaneConfig(int threadCount, int queueSize)
+        {
+            if (threadCount <= 0) {
+                throw new IllegalArgumentException(
+                    "The lane thread count must be positive: " + threadCount);
+            }
+            if (queueSize < 0) {
+                throw new IllegalArgumentException(
+                    "The lane queue size cannot be negative: " + queueSize);
+            }
+            this.threadCount    = threadCount;
+            this.queueSize      = queueSize;
+        }
+
+        /**
+         * Gets the number of threads.
+         *
+         * @return The number of threads.
+         */
+        public int getThreadCount()
+        {
+            return this.threadCount;
+        }
+
+        /**
+         * Gets the maximum number of calls that may wait for a thread.
+         *
+         * @return The maximum number of calls that may wait for a thread.
+         */
+        public int getQueueSize()
+        {
+            return this.queueSize;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (!(object instanceof LaneConfig)) {
+                return false;
+            }
+            LaneConfig config = (LaneConfig) object;
+            return this.threadCount == config.threadCount
+                && this.queueSize == config.queueSize;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.threadCount * 31 + this.queueSize;
+        }
+
+        /**
+         * Returns the <code>{threads}:{queue-size}</code> form of this
+         * instance.
+         *
+         * @return The <code>{threads}:{queue-size}</code> form of this
+         *         instance.
+         */
+        @Override
+        public String toString()
+        {
+            return this.threadCount + ":" + this.queueSize;
+        }
+    }
+
+    /**
+     * Parses the specified lane specification of comma-separated
+     * <code>{lane}={threads}[:{queue-size}]</code> entries.
+     *
+     * @param spec The lane specification to parse.
+     *
+     * @return The unmodifiable {@link Map} of {@link Lane} keys to {@link
+     *         LaneConfig} values.
+     *
+     * @throws IllegalArgumentException If the specification is malformed.
+     */
+    public static Map<Lane, LaneConfig> parse(String spec)
+    {
+        Objects.requireNonNull(spec, "The lane specification cannot be null");
+        Map<Lane, LaneConfig> result = new EnumMap<>(Lane.class);
+        for (String entry : spec.split(",")) {
+            entry = entry.trim();
+            if (entry.length() == 0) {
+                continue;
+            }
+            int equalsIndex = entry.indexOf('=');
+            if (equalsIndex < 0) {
+                throw new IllegalArgumentException(
+                    "Executor lane must be specified as "
+                    + "{lane}={threads}[:{queue-size}]: " + entry);
+            }
+            Lane lane = Lane.parse(entry.substring(0, equalsIndex));
+            if (result.containsKey(lane)) {
+                throw new IllegalArgumentException(
+                    "Executor lane specified more than once: " + lane);
+            }
+            String value = entry.substring(equalsIndex + 1).trim();
+            int colonIndex = value.indexOf(':');
+            String threads = (colonIndex < 0)
+                ? value : value.substring(0, colonIndex).trim();
+            String queue = (colonIndex < 0)
+                ? null : value.substring(colonIndex + 1).trim();
+            try {
+                result.put(lane, new LaneConfig(
+                    Integer.parseInt(threads),
+                    (queue == null)
+                        ? SzGrpcServerConstants.DEFAULT_EXECUTOR_LANE_QUEUE_SIZE
+                        : Integer.parseInt(queue)));
+
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                    "Executor lane thread count and queue size must be "
+                    + "integers: " + entry);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException(
+                "No executor lanes were specified: " + spec);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * The {@link LaneConfig} for each configured {@link Lane}.
+     */
+    private final Map<Lane, LaneConfig> configs;
+
+    /**
+     * The {@link ThreadPoolExecutor} for each configured {@link Lane}.
+     */
+    private final Map<Lane, ThreadPoolExecutor> executors
+        = new EnumMap<>(Lane.class);
+
+    /**
+     * The {@link Semaphore} bounding the number of running and waiting calls
+     * for each configured {@link Lane}.
+     */
+    private final Map<Lane, Semaphore> permits = new EnumMap<>(Lane.class);
+
+    /**
+     * The number of calls rejected for each {@link Lane} indexed by ordinal.
+     */
+    private final LongAdder[] rejected = new LongAdder[Lane.values().length];
+
+    /**
+     * Constructs with the {@link Map} of {@link Lane} keys to {@link
+     * LaneConfig} values describing the lanes to create.
+     *
+     * @param configs The {@link Map} of {@link Lane} keys to {@link
+     *                LaneConfig} values.
+     */
+    public SzGrpcExecutorLanes(Map<Lane, LaneConfig> configs)
+    {
+        Objects.requireNonNull(configs, "The lane configs cannot be null");
+        Map<Lane, LaneConfig> map = new EnumMap<>(Lane.class);
+        map.putAll(configs);
+        this.configs = Collections.unmodifiableMap(map);
+
+        for (int index = 0; index < this.rejected.length; index++) {
+            this.rejected[index] = new LongAdder();
+        }
+        this.configs.forEach((lane, config) -> {
+            // the queue is unbounded since admission is bounded by permits
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                config.getThreadCount(),
+                config.getThreadCount(),
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactories.newThreadFactory(
+                    THREAD_PREFIX + lane.name().toLowerCase(Locale.ROOT),
+                    true));
+            executor.allowCoreThreadTimeOut(true);
+            this.executors.put(lane, executor);
+            this.permits.put(lane, new Semaphore(
+                config.getThreadCount() + config.getQueueSize()));
+        });
+    }
+
+    /**
+     * Gets the unmodifiable {@link Map} of {@link Lane} keys to {@link
+     * LaneConfig} values for the configured lanes.
+     *
+     * @return The {@link Map} of {@link Lane} keys to {@link LaneConfig}
+     *         values.
+     */
+    public Map<Lane, LaneConfig> getConfigs()
+    {
+        return this.configs;
+    }
+
+    /**
+     * Gets the {@link Executor} for the specified {@link Lane}.
+     *
+     * @param lane The {@link Lane}.
+     *
+     * @return The {@link Executor} for the {@link Lane}, or
+     *         <code>null</code> if the lane is not configured.
+     */
+    Executor getExecutor(Lane lane)
+    {
+        return this.executors.get(lane);
+    }
+
+    /**
+     * Attempts to admit a call to the specified configured {@link Lane}
+     * without waiting.  Each successful call must be paired with a call to
+     * {@link #release(Lane)} once the call completes.
+     *
+     * @param lane The {@link Lane}.
+     *
+     * @return <code>true</code> if admitted, or <code>false</code> if the
+     *         lane is at capacity.
+     */
+    boolean tryAcquire(Lane lane)
+    {
+        if (this.permits.get(lane).tryAcquire()) {
+            return true;
+        }
+        this.rejected[lane.ordinal()].increment();
+        return false;
+    }
+
+    /**
+     * Releases a call that was admitted via {@link #tryAcquire(Lane)}.
+     *
+     * @param lane The {@link Lane}.
+     */
+    void release(Lane lane)
+    {
+        this.permits.get(lane).release();
+    }
+
+    /**
+     * Gets the number of calls waiting for a thread in the specified
+     * {@link Lane}.
+     *
+     * @param lane The {@link Lane}.
+     *
+     * @return The number of waiting calls, or zero (0) if the lane is not
+     *         configured.
+     */
+    public int getQueueDepth(Lane lane)
+    {
+        ThreadPoolExecutor executor = this.executors.get(lane);
+        return (executor == null) ? 0 : executor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of threads actively running calls in the specified
+     * {@link Lane}.
+     *
+     * @param lane The {@link Lane}.
+     *
+     * @return The number of active threads, or zero (0) if the lane is not
+     *         configured.
+     */
+    public int getActiveCount(Lane lane)
+    {
+        ThreadPoolExecutor executor = this.executors.get(lane);
+        return (executor == null) ? 0 : executor.getActiveCount();
+    }
+
+    /**
+     * Gets the number of calls rejected because the specified {@link Lane}
+     * was at capacity.
+     *
+     * @param lane The {@link Lane}.
+     *
+     * @return The number of rejected calls.
+     */
+    public long getRejectedCount(Lane lane)
+    {
+        return this.rejected[lane.ordinal()].sum();
+    }
+
+    /**
+     * Shuts down the lane threads once the calls already submitted have
+     * completed.
+     */
+    public void shutdown()
+    {
+        for (ThreadPoolExecutor executor : this.executors.values()) {
+            executor.shutdown();
+        }
+    }
+}
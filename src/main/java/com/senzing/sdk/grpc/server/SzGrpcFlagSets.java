@@ -0,0 +1,150 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzFlagUsageGroup;
+
+import static com.senzing.sdk.SzFlag.SZ_WITH_INFO;
+
+/**
+ * Caches the unmodifiable {@link Set} of {@link SzFlag} instances for each
+ * combination of {@link SzFlagUsageGroup} and <code>long</code> flag bits
+ * so that decoding the flags of a request does not allocate a new {@link
+ * EnumSet} for each call.  Clients tend to use a small number of
+ * distinct flag combinations per operation, so nearly every lookup is a
+ * cache hit that performs no allocation.
+ *
+ * <p>
+ * Each usage group has a fixed-size table indexed by a hash of the flag
+ * bits.  A colliding combination simply replaces the previous entry, so
+ * the cache never grows beyond its fixed size.
+ * </p>
+ */
+public final class SzGrpcFlagSets
+{
+    /**
+     * The number of cached flag sets per usage group, which must be a power
+     * of two.
+     */
+    private static final int TABLE_SIZE = 64;
+
+    /**
+     * The flag bits for {@link SzFlag#SZ_WITH_INFO}.
+     */
+    private static final long WITH_INFO_FLAG = SzFlag.toLong(
+        EnumSet.of(SZ_WITH_INFO));
+
+    /**
+     * The {@link Map} of {@link SzFlagUsageGroup} keys to the table of
+     * cached entries for that group.
+     */
+    private static final Map<SzFlagUsageGroup, AtomicReferenceArray<Entry>>
+        TABLES = new EnumMap<>(SzFlagUsageGroup.class);
+
+    static {
+        for (SzFlagUsageGroup group : SzFlagUsageGroup.values()) {
+            TABLES.put(group, new AtomicReferenceArray<>(TABLE_SIZE));
+        }
+    }
+
+    /**
+     * Associates the flag bits with the cached unmodifiable flag set.
+     */
+    private static final class Entry
+    {
+        /**
+         * The flag bits.
+         */
+        private final long flags;
+
+        /**
+         * The unmodifiable {@link Set} of {@link SzFlag} instances.
+         */
+        private final Set<SzFlag> flagSet;
+
+        /**
+         * Constructs with the flag bits and the flag set.
+         *
+         * @param flags The flag bits.
+         * @param flagSet The unmodifiable {@link Set} of {@link SzFlag}
+         *                instances.
+         */
+        private Entry(long flags, Set<SzFlag> flagSet)
+        {
+            this.flags      = flags;
+            this.flagSet    = flagSet;
+        }
+    }
+
+    /**
+     * Private default constructor.
+     */
+    private SzGrpcFlagSets()
+    {
+        // do nothing
+    }
+
+    /**
+     * Gets the unmodifiable {@link Set} of {@link SzFlag} instances that
+     * {@link SzFlagUsageGroup#toFlagSet(long)} produces for the specified
+     * usage group and flag bits, creating and caching it if not already
+     * cached.
+     *
+     * @param group The {@link SzFlagUsageGroup} for the flags.
+     * @param flags The <code>long</code> flag bits.
+     *
+     * @return The unmodifiable {@link Set} of {@link SzFlag} instances.
+     */
+    public static Set<SzFlag> toFlagSet(SzFlagUsageGroup group, long flags)
+    {
+        Objects.requireNonNull(group, "The usage group cannot be null");
+        AtomicReferenceArray<Entry> table = TABLES.get(group);
+        int index = indexOf(flags);
+
+        Entry entry = table.get(index);
+        if (entry != null && entry.flags == flags) {
+            return entry.flagSet;
+        }
+        Set<SzFlag> flagSet
+            = Collections.unmodifiableSet(group.toFlagSet(flags));
+        table.set(index, new Entry(flags, flagSet));
+        return flagSet;
+    }
+
+    /**
+     * Gets the unmodifiable {@link Set} of {@link SzFlag} instances for the
+     * specified usage group and flag bits with {@link SzFlag#SZ_WITH_INFO}
+     * added.  The specified usage group must be one to which {@link
+     * SzFlag#SZ_WITH_INFO} belongs.
+     *
+     * @param group The {@link SzFlagUsageGroup} for the flags.
+     * @param flags The <code>long</code> flag bits.
+     *
+     * @return The unmodifiable {@link Set} of {@link SzFlag} instances
+     *         including {@link SzFlag#SZ_WITH_INFO}.
+     */
+    public static Set<SzFlag> withInfo(SzFlagUsageGroup group, long flags)
+    {
+        return toFlagSet(group, flags | WITH_INFO_FLAG);
+    }
+
+    /**
+     * Gets the table index for the specified flag bits.
+     *
+     * @param flags The <code>long</code> flag bits.
+     *
+     * @return The table index.
+     */
+    private static int indexOf(long flags)
+    {
+        long hash = flags * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 58) & (TABLE_SIZE - 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+
+import com.senzing.sdk.grpc.SzGrpcIdLists;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc.SzEngineImplBase;
+
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCalls;
+
+/**
+ * Provides the gRPC server-side implementation of the {@link
+ * SzGrpcIdLists#SERVICE_NAME} service, which accepts the "find path" and
+ * "find network" requests with their lists in the typed encoding described
+ * by {@link SzGrpcIdLists}.
+ *
+ * <p>
+ * Each request is handled by the same method of an engine service, which
+ * decodes the typed lists when present and the JSON lists otherwise.  This
+ * service only exists so that a client can tell that the server decodes
+ * the typed lists, since an older server would silently ignore them.
+ * </p>
+ */
+public class SzGrpcIdListsImpl implements BindableService
+{
+    /**
+     * The engine service that handles the requests.
+     */
+    private final SzEngineImplBase engineService;
+
+    /**
+     * Constructs with the engine service that handles the requests.
+     *
+     * @param engineService The engine service to use.
+     */
+    public SzGrpcIdListsImpl(SzEngineImplBase engineService)
+    {
+        Objects.requireNonNull(
+            engineService, "The engine service cannot be null");
+        this.engineService = engineService;
+    }
+
+    /**
+     * Implemented to bind the methods of the {@link
+     * SzGrpcIdLists#SERVICE_NAME} service to the corresponding methods of
+     * the engine service.
+     *
+     * @return The {@link ServerServiceDefinition} for the service.
+     */
+    @Override
+    public ServerServiceDefinition bindService()
+    {
+        SzEngineImplBase service = this.engineService;
+        return ServerServiceDefinition.builder(SzGrpcIdLists.SERVICE_NAME)
+            .addMethod(SzGrpcIdLists.FIND_NETWORK_BY_ENTITY_ID_METHOD,
+                       ServerCalls.asyncUnaryCall(
+                           service::findNetworkByEntityId))
+            .addMethod(SzGrpcIdLists.FIND_NETWORK_BY_RECORD_ID_METHOD,
+                       ServerCalls.asyncUnaryCall(
+                           service::findNetworkByRecordId))
+            .addMethod(SzGrpcIdLists.FIND_PATH_BY_ENTITY_ID_METHOD,
+                       ServerCalls.asyncUnaryCall(
+                           service::findPathByEntityId))
+            .addMethod(SzGrpcIdLists.FIND_PATH_BY_RECORD_ID_METHOD,
+                       ServerCalls.asyncUnaryCall(
+                           service::findPathByRecordId))
+            .build();
+    }
+}
@@ -0,0 +1,469 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import com.senzing.sdk.grpc.SzGrpcRecordLoader;
+import com.senzing.sdk.grpc.SzGrpcRecordLoader.Ack;
+import com.senzing.sdk.grpc.SzGrpcResult;
+import com.senzing.sdk.grpc.server.SzGrpcExecutorLanes.Lane;
+import com.senzing.sdk.grpc.server.SzGrpcExecutorLanes.LaneConfig;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc.SzEngineImplBase;
+import com.senzing.sdk.grpc.proto.SzEngineProto.AddRecordRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.AddRecordResponse;
+
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Provides the gRPC server-side implementation of the ingest stream
+ * described by {@link SzGrpcRecordLoader}, adding each streamed record via
+ * the <code>addRecord</code> operation of an engine service and
+ * acknowledging it with an {@link Ack}.
+ *
+ * <p>
+ * Each record is handled exactly as a unary <code>addRecord</code> call
+ * would be (including the publishing of its INFO message), but without the
+ * per-call overhead.  The records of a stream are added concurrently, so
+ * their acknowledgements may be sent out of order.  If the {@linkplain
+ * Lane#WRITES writes lane} is configured then the records are added on the
+ * threads of that lane and at most as many records as the lane has threads
+ * are added at once.  Otherwise the records are added on the blocking task
+ * executor of the call and at most the {@linkplain
+ * SzGrpcServices#getIngestConcurrency() ingest concurrency} are added at
+ * once.  The remaining records received from the client wait in the order
+ * received until a record being added completes.
+ * </p>
+ *
+ * <p>
+ * At most {@link #MAX_PENDING_RECORDS} records of a stream are requested
+ * from the client at a time, which applies backpressure to a client that
+ * streams records faster than they can be added.  The stream is completed
+ * once the client has ended it and every record has been acknowledged.
+ * </p>
+ */
+public class SzGrpcIngestImpl implements BindableService
+{
+    /**
+     * The maximum number of records of a single stream that may be
+     * requested from the client but not yet acknowledged.
+     */
+    public static final int MAX_PENDING_RECORDS = 256;
+
+    /**
+     * The engine service whose <code>addRecord</code> operation adds each
+     * streamed record.
+     */
+    private final SzEngineImplBase engineService;
+
+    /**
+     * The {@link Supplier} of the {@link SzGrpcExecutorLanes}, which
+     * supplies <code>null</code> if no executor lanes are configured.
+     */
+    private final Supplier<SzGrpcExecutorLanes> lanesSupplier;
+
+    /**
+     * The {@link IntSupplier} of the maximum number of records of a stream
+     * to add at once on the blocking task executor of the call.
+     */
+    private final IntSupplier concurrencySupplier;
+
+    /**
+     * Constructs with the engine service whose <code>addRecord</code>
+     * operation is used to add each streamed record.  The records of each
+     * stream are added on the blocking task executor of the call and at
+     * most {@link SzGrpcServerConstants#DEFAULT_CORE_CONCURRENCY} records
+     * of a stream are added at once.
+     *
+     * @param engineService The engine service to use.
+     */
+    public SzGrpcIngestImpl(SzEngineImplBase engineService)
+    {
+        this(engineService,
+             () -> null,
+             () -> SzGrpcServerConstants.DEFAULT_CORE_CONCURRENCY);
+    }
+
+    /**
+     * Constructs with the engine service whose <code>addRecord</code>
+     * operation is used to add each streamed record, the {@link Supplier}
+     * of the {@link SzGrpcExecutorLanes} and the {@link IntSupplier} of the
+     * maximum number of records of a stream to add at once when the
+     * {@linkplain Lane#WRITES writes lane} is not configured.  Both
+     * suppliers are consulted as each stream is started.
+     *
+     * @param engineService The engine service to use.
+     * @param lanesSupplier The {@link Supplier} of the {@link
+     *                      SzGrpcExecutorLanes}, which may supply
+     *                      <code>null</code> if no lanes are configured.
+     * @param concurrencySupplier The {@link IntSupplier} of the maximum
+     *                            number of records of a stream to add at
+     *                            once on the blocking task executor.
+     */
+    public SzGrpcIngestImpl(SzEngineImplBase              engineService,
+                            Supplier<SzGrpcExecutorLanes> lanesSupplier,
+                            IntSupplier                   concurrencySupplier)
+    {
+        Objects.requireNonNull(
+            engineService, "The engine service cannot be null");
+        Objects.requireNonNull(
+            lanesSupplier, "The lanes supplier cannot be null");
+        Objects.requireNonNull(
+            concurrencySupplier, "The concurrency supplier cannot be null");
+        this.engineService          = engineService;
+        this.lanesSupplier          = lanesSupplier;
+        this.concurrencySupplier    = concurrencySupplier;
+    }
+
+    /**
+     * Implemented to bind the {@link SzGrpcRecordLoader#ADD_RECORDS_METHOD}
+     * to {@link #addRecords(StreamObserver)}.
+     *
+     * @return The {@link ServerServiceDefinition} for the ingest stream.
+     */
+    @Override
+    public ServerServiceDefinition bindService()
+    {
+        return ServerServiceDefinition.builder(SzGrpcRecordLoader.SERVICE_NAME)
+            .addMethod(SzGrpcRecordLoader.ADD_RECORDS_METHOD,
+                       ServerCalls.asyncBidiStreamingCall(this::addRecords))
+            .build();
+    }
+
+    /**
+     * Starts an ingest stream, returning the {@link StreamObserver} that
+     * adds each streamed record and acknowledges it via the specified
+     * {@link StreamObserver}.
+     *
+     * @param responseObserver The {@link StreamObserver} for the {@link Ack}
+     *                         responses.
+     *
+     * @return The {@link StreamObserver} for the streamed records.
+     */
+    protected StreamObserver<AddRecordRequest> addRecords(
+        StreamObserver<Ack> responseObserver)
+    {
+        ServiceRequestContext ctx = ServiceRequestContext.currentOrNull();
+
+        SzGrpcExecutorLanes lanes = this.lanesSupplier.get();
+        Executor laneExecutor = (lanes == null)
+            ? null : lanes.getExecutor(Lane.WRITES);
+
+        Executor executor;
+        int      maxActive;
+        if (laneExecutor != null) {
+            Map<Lane, LaneConfig> configs = lanes.getConfigs();
+            maxActive = configs.get(Lane.WRITES).getThreadCount();
+            executor  = (ctx == null)
+                ? laneExecutor : ctx.makeContextAware(laneExecutor);
+
+        } else {
+            maxActive = this.concurrencySupplier.getAsInt();
+            executor  = (ctx == null)
+                ? Runnable::run : ctx.blockingTaskExecutor();
+        }
+
+        return new IngestStream(
+            (ServerCallStreamObserver<Ack>) responseObserver,
+            executor,
+            Math.max(1, maxActive));
+    }
+
+    /**
+     * Adds the specified record via the engine service and returns the
+     * {@link Ack} for it.
+     *
+     * @param sequence The sequence number of the record within its stream.
+     * @param request The {@link AddRecordRequest} for the record.
+     *
+     * @return The {@link Ack} for the record.
+     */
+    private Ack addRecord(long sequence, AddRecordRequest request)
+    {
+        AddRecordResponse[]  response = { null };
+        Throwable[]          failure  = { null };
+
+        try {
+            this.engineService.addRecord(
+                request, new StreamObserver<AddRecordResponse>() {
+                    @Override
+                    public void onNext(AddRecordResponse value)
+                    {
+                        response[0] = value;
+                    }
+
+                    @Override
+                    public void onError(Throwable t)
+                    {
+                        failure[0] = t;
+                    }
+
+                    @Override
+                    public void onCompleted()
+                    {
+                        // do nothing
+                    }
+                });
+
+        } catch (RuntimeException e) {
+            failure[0] = e;
+        }
+
+        if (failure[0] == null && response[0] != null) {
+            return new Ack(sequence,
+                           SzGrpcResult.success(response[0].getResult()));
+        }
+        if (failure[0] == null) {
+            failure[0] = new IllegalStateException(
+                "The addRecord operation completed without a response");
+        }
+        return new Ack(sequence, SzGrpcResult.failure(failure[0]));
+    }
+
+    /**
+     * The {@link StreamObserver} for the records of a single ingest stream.
+     */
+    private final class IngestStream
+        implements StreamObserver<AddRecordRequest>
+    {
+        /**
+         * The {@link ServerCallStreamObserver} for the {@link Ack}
+         * responses.
+         */
+        private final ServerCallStreamObserver<Ack> responses;
+
+        /**
+         * The {@link Executor} on which to add the records.
+         */
+        private final Executor executor;
+
+        /**
+         * The maximum number of records to add at once.
+         */
+        private final int maxActive;
+
+        /**
+         * The {@link Queue} of records received but not yet started.
+         */
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The number of records started but not yet finished.
+         */
+        private final AtomicInteger active = new AtomicInteger(0);
+
+        /**
+         * Guards the sending of responses, which may be produced by several
+         * threads at once.
+         */
+        private final ReentrantLock sendLock = new ReentrantLock();
+
+        /**
+         * The number of records received but not yet acknowledged.
+         */
+        private final AtomicInteger pending = new AtomicInteger(0);
+
+        /**
+         * Flag indicating if the client has ended the stream.
+         */
+        private volatile boolean halfClosed = false;
+
+        /**
+         * Flag indicating if the stream has been terminated.
+         */
+        private final AtomicBoolean terminated = new AtomicBoolean(false);
+
+        /**
+         * The sequence number for the next record received, which is only
+         * accessed from the serialized inbound callbacks.
+         */
+        private long nextSequence = 0L;
+
+        /**
+         * Constructs with the {@link ServerCallStreamObserver} for the
+         * responses, the {@link Executor} on which to add the records and
+         * the maximum number of records to add at once.  Automatic inbound
+         * flow control is disabled and the first batch of records is
+         * requested.
+         *
+         * @param responses The {@link ServerCallStreamObserver} for the
+         *                  {@link Ack} responses.
+         * @param executor The {@link Executor} on which to add the records.
+         * @param maxActive The maximum number of records to add at once.
+         */
+        private IngestStream(ServerCallStreamObserver<Ack>  responses,
+                             Executor                       executor,
+                             int                            maxActive)
+        {
+            this.responses  = responses;
+            this.executor   = executor;
+            this.maxActive  = maxActive;
+            this.responses.disableAutoRequest();
+            this.responses.request(MAX_PENDING_RECORDS);
+        }
+
+        @Override
+        public void onNext(AddRecordRequest request)
+        {
+            long sequence = this.nextSequence++;
+            this.pending.incrementAndGet();
+            this.waiting.add(() -> this.process(sequence, request));
+            this.dispatch();
+        }
+
+        @Override
+        public void onError(Throwable t)
+        {
+            // the client cancelled the stream, abandon the responses
+            this.terminated.set(true);
+        }
+
+        @Override
+        public void onCompleted()
+        {
+            this.halfClosed = true;
+            this.completeIfDone();
+        }
+
+        /**
+         * Adds the specified record and sends its {@link Ack}, then requests
+         * another record from the client.
+         *
+         * @param sequence The sequence number of the record.
+         * @param request The {@link AddRecordRequest} for the record.
+         */
+        private void process(long sequence, AddRecordRequest request)
+        {
+            try {
+                if (this.terminated.get() || this.responses.isCancelled()) {
+                    return;
+                }
+                Ack ack = SzGrpcIngestImpl.this.addRecord(sequence, request);
+
+                this.sendLock.lock();
+                try {
+                    if (!this.terminated.get()) {
+                        this.responses.onNext(ack);
+                        this.responses.request(1);
+                    }
+                } finally {
+                    this.sendLock.unlock();
+                }
+
+            } catch (RuntimeException e) {
+                this.terminate(e);
+
+            } finally {
+                this.pending.decrementAndGet();
+            }
+            this.completeIfDone();
+        }
+
+        /**
+         * Starts waiting records on the executor until either none are
+         * waiting or the maximum number of records are being added.  This is
+         * called whenever a record is received and whenever a record being
+         * added finishes, so a waiting record is never left unstarted.
+         */
+        private void dispatch()
+        {
+            while (!this.waiting.isEmpty()) {
+                int count = this.active.get();
+                if (count >= this.maxActive) {
+                    return;
+                }
+                if (!this.active.compareAndSet(count, count + 1)) {
+                    continue;
+                }
+                Runnable task = this.waiting.poll();
+                if (task == null) {
+                    // another thread started the record first
+                    this.active.decrementAndGet();
+                    continue;
+                }
+                try {
+                    this.executor.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            this.active.decrementAndGet();
+                            this.dispatch();
+                        }
+                    });
+
+                } catch (RejectedExecutionException e) {
+                    this.active.decrementAndGet();
+                    this.pending.decrementAndGet();
+                    this.terminate(Status.UNAVAILABLE
+                        .withDescription("The server is shutting down")
+                        .withCause(e).asRuntimeException());
+                    this.abandonWaiting();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Discards the records that are waiting to be started once the
+         * stream has been terminated.
+         */
+        private void abandonWaiting()
+        {
+            while (this.waiting.poll() != null) {
+                this.pending.decrementAndGet();
+            }
+        }
+
+        /**
+         * Completes the stream if the client has ended it and every record
+         * has been acknowledged.
+         */
+        private void completeIfDone()
+        {
+            if (!this.halfClosed || this.pending.get() > 0) {
+                return;
+            }
+            this.sendLock.lock();
+            try {
+                if (this.terminated.compareAndSet(false, true)) {
+                    this.responses.onCompleted();
+                }
+            } finally {
+                this.sendLock.unlock();
+            }
+        }
+
+        /**
+         * Terminates the stream with the specified failure unless already
+         * terminated.
+         *
+         * @param failure The {@link Throwable} describing the failure.
+         */
+        private void terminate(Throwable failure)
+        {
+            this.sendLock.lock();
+            try {
+                if (this.terminated.compareAndSet(false, true)) {
+                    this.responses.onError(failure);
+                }
+            } finally {
+                this.sendLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.senzing.sdk.SzConfigManager;
+import com.senzing.sdk.SzDiagnostic;
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEnvironment;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzProduct;
+
+/**
+ * Limits the number of calls into the native Senzing SDK that may run at
+ * once, independent of the number of threads servicing requests.  This
+ * allows requests to be serviced on virtual threads (of which there may be
+ * thousands, most of them waiting on clients, coalesced reads or buffered
+ * INFO messages) while the number of concurrent native calls remains
+ * bounded by what the native engine was initialized to handle.  It also
+ * bounds the number of carrier threads that can be pinned by native calls
+ * made from virtual threads.
+ *
+ * <p>
+ * The limit is applied by {@linkplain #wrap(SzEnvironment) wrapping} an
+ * {@link SzEnvironment} so that every method of the {@link SzEngine},
+ * {@link SzConfigManager}, {@link SzDiagnostic} and {@link SzProduct} it
+ * provides first acquires a permit, waiting if necessary, and releases the
+ * permit once the call returns.  The wrappers delegate through plain
+ * interface calls rather than a reflective {@link java.lang.reflect.Proxy},
+ * so a limited call costs no more than the permit itself.
+ * </p>
+ */
+public class SzGrpcNativeCallLimiter
+{
+    /**
+     * The {@link Semaphore} holding the permits for native calls.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The maximum number of concurrent native calls.
+     */
+    private final int limit;
+
+    /**
+     * The number of native calls that have been made.
+     */
+    private final LongAdder callCount = new LongAdder();
+
+    /**
+     * Constructs with the maximum number of concurrent native calls.
+     *
+     * @param limit The maximum number of concurrent native calls.
+     *
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public SzGrpcNativeCallLimiter(int limit)
+    {
+        if (limit <= 0) {
+            throw new IllegalArgumentException(
+                "The native call limit must be positive: " + limit);
+        }
+        this.limit      = limit;
+        this.permits    = new Semaphore(limit, true);
+    }
+
+    /**
+     * Wraps the specified {@link SzEnvironment} so that calls to the native
+     * SDK through it, or through the SDK objects it provides, are limited by
+     * this instance.
+     *
+     * @param env The {@link SzEnvironment} to wrap.
+     *
+     * @return The wrapped {@link SzEnvironment}.
+     */
+    public SzEnvironment wrap(SzEnvironment env)
+    {
+        Objects.requireNonNull(env, "The environment cannot be null");
+        return new LimitedEnvironment(this, env);
+    }
+
+    /**
+     * Acquires a permit for a native call, waiting if necessary.  Each
+     * successful call must be paired with a call to {@link #release()} once
+     * the native call returns.
+     *
+     * @throws SzException If interrupted while waiting for a permit.
+     */
+    void acquire() throws SzException
+    {
+        try {
+            this.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SzException(
+                "Interrupted while waiting to call the native SDK", e);
+        }
+        this.callCount.increment();
+    }
+
+    /**
+     * Acquires a permit for a native call, waiting uninterruptibly if
+     * necessary.  Each call must be paired with a call to {@link #release()}
+     * once the native call returns.
+     */
+    void acquireUninterruptibly()
+    {
+        this.permits.acquireUninterruptibly();
+        this.callCount.increment();
+    }
+
+    /**
+     * Releases a permit obtained via {@link #acquire()} or {@link
+     * #acquireUninterruptibly()}.
+     */
+    void release()
+    {
+        this.permits.release();
+    }
+
+    /**
+     * Gets the maximum number of concurrent native calls.
+     *
+     * @return The maximum number of concurrent native calls.
+     */
+    public int getLimit()
+    {
+        return this.limit;
+    }
+
+    /**
+     * Gets the number of native calls currently running.
+     *
+     * @return The number of native calls currently running.
+     */
+    public int getActiveCount()
+    {
+        return this.limit - this.permits.availablePermits();
+    }
+
+    /**
+     * Gets the estimated number of threads waiting to make a native call.
+     *
+     * @return The estimated number of threads waiting to make a native call.
+     */
+    public int getWaitingCount()
+    {
+        return this.permits.getQueueLength();
+    }
+
+    /**
+     * Gets the number of native calls that have been made.
+     *
+     * @return The number of native calls that have been made.
+     */
+    public long getCallCount()
+    {
+        return this.callCount.sum();
+    }
+}
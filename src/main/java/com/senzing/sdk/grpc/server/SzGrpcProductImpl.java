@@ -72,7 +72,8 @@ public class SzGrpcProductImpl extends SzProductImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -102,7 +103,8 @@ public class SzGrpcProductImpl extends SzProductImplBase
             responseObserver.onCompleted();
 
         } catch (Exception e) {
-            responseObserver.onError(toStatusRuntimeException(e));
+            responseObserver.onError(toStatusRuntimeException(
+                e, this.services.isErrorStackTraces()));
         }
     }
 
@@ -0,0 +1,883 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.util.JsonUtilities;
+
+/**
+ * A bounded cache of the results of read operations (e.g.: getting an entity
+ * or record) that is precisely invalidated using the INFO messages produced
+ * by write operations.  Each cached result is associated with the entity IDs
+ * and/or {@link SzRecordKey} instances it depends on, and is evicted when an
+ * INFO message lists one of those entities in its
+ * <code>AFFECTED_ENTITIES</code> or identifies one of those records.
+ *
+ * <p>
+ * The cache is bounded by an approximate weight in bytes and evicts the
+ * least-recently used results once the bound is exceeded.  Cached results
+ * also expire after a configured time-to-live, which bounds the staleness
+ * of results affected by writes that this instance does not observe (e.g.:
+ * records loaded into the repository by another process).
+ * </p>
+ *
+ * <p>
+ * To avoid caching a result that was read concurrently with a write that
+ * affects it, callers obtain a {@linkplain #getStamp() stamp} before reading
+ * and pass it when {@linkplain #put(long, String, String, long[],
+ * SzRecordKey) storing} the result, which is discarded if one of the
+ * entities or records it depends on was invalidated in the meantime.  The
+ * invalidation versions are tracked in a fixed number of stripes hashed by
+ * entity ID and record key, so a write only rarely discards a concurrent
+ * read of an unrelated entity that hashes to the same stripe.
+ * </p>
+ *
+ * <p>
+ * The INFO messages are scanned directly for the record and the affected
+ * entity IDs, falling back to a full JSON parse only if a message is not of
+ * the expected form, so invalidation adds little to the write operations
+ * on whose threads it is performed.
+ * </p>
+ */
+public class SzGrpcReadCache
+{
+    /**
+     * The approximate fixed overhead in bytes of each cached result.
+     */
+    private static final long ENTRY_OVERHEAD = 96L;
+
+    /**
+     * The number of stripes in which the invalidation versions of the
+     * entities and records are tracked, which must be a power of two.
+     */
+    private static final int VERSION_STRIPES = 1024;
+
+    /**
+     * The JSON property for the affected entities in an INFO message.
+     */
+    private static final String AFFECTED_ENTITIES_KEY = "AFFECTED_ENTITIES";
+
+    /**
+     * The JSON property for an entity ID.
+     */
+    private static final String ENTITY_ID_KEY = "ENTITY_ID";
+
+    /**
+     * The JSON property for the data source code in an INFO message.
+     */
+    private static final String DATA_SOURCE_KEY = "DATA_SOURCE";
+
+    /**
+     * The JSON property for the record ID in an INFO message.
+     */
+    private static final String RECORD_ID_KEY = "RECORD_ID";
+
+    /**
+     * The text preceding the first entity ID in an entity result.
+     */
+    private static final String ENTITY_ID_PREFIX = "\"" + ENTITY_ID_KEY + "\":";
+
+    /**
+     * Describes a cached result.
+     */
+    private static final class Entry
+    {
+        /**
+         * The cache key.
+         */
+        private final String key;
+
+        /**
+         * The cached result.
+         */
+        private final String value;
+
+        /**
+         * The approximate weight in bytes.
+         */
+        private final long weight;
+
+        /**
+         * The {@link System#nanoTime()} after which the result expires.
+         */
+        private final long expiresNanos;
+
+        /**
+         * The entity IDs the result depends on.
+         */
+        private final long[] entityIds;
+
+        /**
+         * The {@link SzRecordKey} the result depends on, or <code>null</code>.
+         */
+        private final SzRecordKey recordKey;
+
+        /**
+         * Constructs with the specified fields.
+         *
+         * @param key The cache key.
+         * @param value The cached result.
+         * @param expiresNanos The time after which the result expires.
+         * @param entityIds The entity IDs the result depends on.
+         * @param recordKey The record the result depends on, or
+         *                  <code>null</code>.
+         */
+        private Entry(String        key,
+                      String        value,
+                      long          expiresNanos,
+                      long[]        entityIds,
+                      SzRecordKey   recordKey)
+        {
+            this.key            = key;
+            this.value          = value;
+            this.expiresNanos   = expiresNanos;
+            this.entityIds      = entityIds;
+            this.recordKey      = recordKey;
+            this.weight = ENTRY_OVERHEAD
+                + (2L * (key.length() + value.length()))
+                + (8L * entityIds.length);
+        }
+    }
+
+    /**
+     * The maximum total weight in bytes of the cached results.
+     */
+    private final long maxWeight;
+
+    /**
+     * The time-to-live in nanoseconds for cached results.
+     */
+    private final long ttlNanos;
+
+    /**
+     * The cached {@link Entry} instances keyed by cache key in access order.
+     */
+    private final LinkedHashMap<String, Entry> entries
+        = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * The cache keys indexed by the entity IDs they depend on.
+     */
+    private final Map<Long, Set<String>> entityIndex = new HashMap<>();
+
+    /**
+     * The cache keys indexed by the {@link SzRecordKey} they depend on.
+     */
+    private final Map<SzRecordKey, Set<String>> recordIndex = new HashMap<>();
+
+    /**
+     * The current total weight in bytes of the cached results.
+     */
+    private long weight = 0L;
+
+    /**
+     * The invalidation version, which is incremented on every invalidation
+     * and serves as the stamp for reads that begin thereafter.
+     */
+    private long version = 0L;
+
+    /**
+     * The invalidation version at which the cache was last {@linkplain
+     * #clear() cleared}.
+     */
+    private long clearedVersion = 0L;
+
+    /**
+     * The invalidation version at which an entity or record hashing to each
+     * stripe was last invalidated.
+     */
+    private final long[] stripeVersions = new long[VERSION_STRIPES];
+
+    /**
+     * The number of cache hits.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of cache misses.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The number of results evicted due to the weight bound.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The number of results removed due to invalidation.
+     */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructs with the maximum weight and time-to-live.
+     *
+     * @param maxWeightBytes The maximum total weight in bytes of the cached
+     *                       results.
+     * @param ttlMillis The maximum number of milliseconds to retain a cached
+     *                  result, or zero (0) if no limit.
+     *
+     * @throws IllegalArgumentException If the maximum weight is not positive
+     *                                  or the time-to-live is negative.
+     */
+    public SzGrpcReadCache(long maxWeightBytes, long ttlMillis)
+    {
+        if (maxWeightBytes <= 0L) {
+            throw new IllegalArgumentException(
+                "The maximum weight must be positive: " + maxWeightBytes);
+        }
+        if (ttlMillis < 0L) {
+            throw new IllegalArgumentException(
+                "The time-to-live cannot be negative: " + ttlMillis);
+        }
+        this.maxWeight  = maxWeightBytes;
+        this.ttlNanos   = (ttlMillis == 0L)
+            ? Long.MAX_VALUE : ttlMillis * 1000000L;
+    }
+
+    /**
+     * Gets the current invalidation stamp to pass to {@link #put(long,
+     * String, String, long[], SzRecordKey)} after reading a result.
+     *
+     * @return The current invalidation stamp.
+     */
+    public synchronized long getStamp()
+    {
+        return this.version;
+    }
+
+    /**
+     * Gets the index of the stripe tracking the invalidation version for
+     * the specified hash code.
+     *
+     * @param hashCode The hash code of the entity ID or record key.
+     *
+     * @return The index of the stripe.
+     */
+    private static int stripe(int hashCode)
+    {
+        return (hashCode ^ (hashCode >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Checks if any of the specified entities or the specified record may
+     * have been invalidated after the specified stamp was obtained.
+     *
+     * @param stamp The stamp obtained before the result was read.
+     * @param entityIds The entity IDs the result depends on.
+     * @param recordKey The normalized {@link SzRecordKey} the result depends
+     *                  on, or <code>null</code> if none.
+     *
+     * @return <code>true</code> if invalidated since the stamp was obtained,
+     *         otherwise <code>false</code>.
+     */
+    private boolean isInvalidatedSince(long         stamp,
+                                       long[]       entityIds,
+                                       SzRecordKey  recordKey)
+    {
+        if (this.clearedVersion > stamp) {
+            return true;
+        }
+        for (long entityId : entityIds) {
+            if (this.stripeVersions[stripe(Long.hashCode(entityId))] > stamp) {
+                return true;
+            }
+        }
+        return (recordKey != null
+                && this.stripeVersions[stripe(recordKey.hashCode())] > stamp);
+    }
+
+    /**
+     * Gets the cached result for the specified key.
+     *
+     * @param key The cache key.
+     *
+     * @return The cached result, or <code>null</code> if none.
+     */
+    public synchronized String get(String key)
+    {
+        Entry entry = this.entries.get(key);
+        if (entry != null && entry.expiresNanos != Long.MAX_VALUE
+            && System.nanoTime() - entry.expiresNanos > 0L)
+        {
+            this.remove(entry);
+            entry = null;
+        }
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches the specified result unless one of the entities or the record
+     * it depends on was invalidated since the specified stamp was {@linkplain
+     * #getStamp() obtained}, evicting the least-recently used results if the
+     * maximum weight is exceeded.
+     *
+     * @param stamp The stamp obtained before the result was read.
+     * @param key The cache key.
+     * @param value The result to cache.
+     * @param entityIds The entity IDs the result depends on.
+     * @param recordKey The {@link SzRecordKey} the result depends on, or
+     *                  <code>null</code> if none.
+     *
+     * @return <code>true</code> if the result was cached, otherwise
+     *         <code>false</code>.
+     */
+    public synchronized boolean put(long        stamp,
+                                    String      key,
+                                    String      value,
+                                    long[]      entityIds,
+                                    SzRecordKey recordKey)
+    {
+        if (value == null) {
+            return false;
+        }
+        long[] dependencies = (entityIds == null) ? new long[0] : entityIds;
+        SzRecordKey normalized = normalize(recordKey);
+        if (this.isInvalidatedSince(stamp, dependencies, normalized)) {
+            return false;
+        }
+        long expiresNanos = (this.ttlNanos == Long.MAX_VALUE)
+            ? Long.MAX_VALUE : System.nanoTime() + this.ttlNanos;
+        Entry entry = new Entry(
+            key, value, expiresNanos, dependencies, normalized);
+        if (entry.weight > this.maxWeight) {
+            return false;
+        }
+        Entry previous = this.entries.get(key);
+        if (previous != null) {
+            this.remove(previous);
+        }
+        this.entries.put(key, entry);
+        this.weight += entry.weight;
+        for (long entityId : entry.entityIds) {
+            this.entityIndex.computeIfAbsent(
+                entityId, k -> new HashSet<>()).add(key);
+        }
+        if (entry.recordKey != null) {
+            this.recordIndex.computeIfAbsent(
+                entry.recordKey, k -> new HashSet<>()).add(key);
+        }
+
+        // evict the least-recently used entries
+        Iterator<Entry> iter = this.entries.values().iterator();
+        while (this.weight > this.maxWeight && iter.hasNext()) {
+            Entry eldest = iter.next();
+            iter.remove();
+            this.unindex(eldest);
+            this.evictions.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified {@link Entry} from the cache and indexes.
+     *
+     * @param entry The {@link Entry} to remove.
+     */
+    private void remove(Entry entry)
+    {
+        this.entries.remove(entry.key);
+        this.unindex(entry);
+    }
+
+    /**
+     * Removes the specified {@link Entry} from the indexes and deducts its
+     * weight.
+     *
+     * @param entry The {@link Entry} to remove.
+     */
+    private void unindex(Entry entry)
+    {
+        this.weight -= entry.weight;
+        for (long entityId : entry.entityIds) {
+            Set<String> keys = this.entityIndex.get(entityId);
+            if (keys != null && keys.remove(entry.key) && keys.isEmpty()) {
+                this.entityIndex.remove(entityId);
+            }
+        }
+        if (entry.recordKey != null) {
+            Set<String> keys = this.recordIndex.get(entry.recordKey);
+            if (keys != null && keys.remove(entry.key) && keys.isEmpty()) {
+                this.recordIndex.remove(entry.recordKey);
+            }
+        }
+    }
+
+    /**
+     * Removes the cached results for all keys in the specified {@link Set}.
+     *
+     * @param keys The {@link Set} of keys, or <code>null</code>.
+     */
+    private void removeAll(Set<String> keys)
+    {
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys.toArray(new String[keys.size()])) {
+            Entry entry = this.entries.remove(key);
+            if (entry != null) {
+                this.unindex(entry);
+                this.invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached results that depend on the record and the
+     * <code>AFFECTED_ENTITIES</code> identified by the specified INFO
+     * message.  If the INFO message cannot be parsed then the entire cache
+     * is {@linkplain #clear() cleared}.
+     *
+     * @param infoMessage The INFO message produced by a write operation.
+     */
+    public void invalidate(String infoMessage)
+    {
+        if (infoMessage == null || infoMessage.isBlank()) {
+            return;
+        }
+        InfoScanner scanner = new InfoScanner(infoMessage);
+        if (!scanner.scan() && !scanner.parse()) {
+            this.clear();
+            return;
+        }
+        SzRecordKey recordKey = (scanner.dataSource == null
+                                 || scanner.recordId == null)
+            ? null
+            : normalize(SzRecordKey.of(scanner.dataSource, scanner.recordId));
+
+        synchronized (this) {
+            long version = ++this.version;
+            if (recordKey != null) {
+                this.stripeVersions[stripe(recordKey.hashCode())] = version;
+                this.removeAll(this.recordIndex.get(recordKey));
+            }
+            for (int index = 0; index < scanner.entityCount; index++) {
+                long entityId = scanner.entityIds[index];
+                this.stripeVersions[stripe(Long.hashCode(entityId))] = version;
+                this.removeAll(this.entityIndex.get(entityId));
+            }
+        }
+    }
+
+    /**
+     * Removes all cached results (e.g.: because the configuration has been
+     * reinitialized or the repository purged).
+     */
+    public synchronized void clear()
+    {
+        this.clearedVersion = ++this.version;
+        this.invalidations.add(this.entries.size());
+        this.entries.clear();
+        this.entityIndex.clear();
+        this.recordIndex.clear();
+        this.weight = 0L;
+    }
+
+    /**
+     * Normalizes the specified {@link SzRecordKey} so that its data source
+     * code is upper case, matching the data source codes found in INFO
+     * messages.
+     *
+     * @param recordKey The {@link SzRecordKey} to normalize, or
+     *                  <code>null</code>.
+     *
+     * @return The normalized {@link SzRecordKey}, or <code>null</code> if
+     *         the specified key is <code>null</code>.
+     */
+    private static SzRecordKey normalize(SzRecordKey recordKey)
+    {
+        if (recordKey == null) {
+            return null;
+        }
+        String dataSource = recordKey.dataSourceCode();
+        String upperCase = dataSource.toUpperCase();
+        return (upperCase.equals(dataSource))
+            ? recordKey : SzRecordKey.of(upperCase, recordKey.recordId());
+    }
+
+    /**
+     * Extracts the first entity ID from the specified entity result without
+     * fully parsing it.  This is used to associate a result obtained by
+     * record key with the entity to which the record resolved.
+     *
+     * @param result The JSON text for the entity result.
+     *
+     * @return The first entity ID found, or <code>-1</code> if none.
+     */
+    static long extractEntityId(String result)
+    {
+        int index = result.indexOf(ENTITY_ID_PREFIX);
+        if (index < 0) {
+            return -1L;
+        }
+        index += ENTITY_ID_PREFIX.length();
+        int length = result.length();
+        while (index < length && result.charAt(index) == ' ') {
+            index++;
+        }
+        long entityId = 0L;
+        int start = index;
+        for (; index < length; index++) {
+            char c = result.charAt(index);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            entityId = (entityId * 10L) + (c - '0');
+        }
+        return (index == start) ? -1L : entityId;
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return The number of cached results.
+     */
+    public synchronized int getSize()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets the approximate total weight in bytes of the cached results.
+     *
+     * @return The approximate total weight in bytes of the cached results.
+     */
+    public synchronized long getWeight()
+    {
+        return this.weight;
+    }
+
+    /**
+     * Gets the number of cache hits.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of cache misses.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of results evicted due to the weight bound.
+     *
+     * @return The number of results evicted.
+     */
+    public long getEvictionCount()
+    {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Gets the number of results removed due to invalidation.
+     *
+     * @return The number of results removed due to invalidation.
+     */
+    public long getInvalidationCount()
+    {
+        return this.invalidations.sum();
+    }
+
+    /**
+     * Extracts the record and the affected entity IDs from an INFO message.
+     * The message is first {@linkplain #scan() scanned} directly, which
+     * gives up as soon as the text deviates from the expected form so that
+     * the caller may fall back to a full {@linkplain #parse() parse}.
+     */
+    private static final class InfoScanner
+    {
+        /**
+         * The JSON text of the INFO message.
+         */
+        private final String text;
+
+        /**
+         * The index of the next character to scan.
+         */
+        private int index = 0;
+
+        /**
+         * The data source code of the record, or <code>null</code> if none.
+         */
+        private String dataSource = null;
+
+        /**
+         * The record ID of the record, or <code>null</code> if none.
+         */
+        private String recordId = null;
+
+        /**
+         * The affected entity IDs, of which the first {@link #entityCount}
+         * elements are used.
+         */
+        private long[] entityIds = new long[8];
+
+        /**
+         * The number of affected entity IDs.
+         */
+        private int entityCount = 0;
+
+        /**
+         * Constructs with the JSON text of the INFO message.
+         *
+         * @param text The JSON text of the INFO message.
+         */
+        private InfoScanner(String text)
+        {
+            this.text = text;
+        }
+
+        /**
+         * Scans the INFO message directly, expecting an object with only the
+         * <code>DATA_SOURCE</code>, <code>RECORD_ID</code> and
+         * <code>AFFECTED_ENTITIES</code> properties (in any order).
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>
+         *         if the text is not of the expected form.
+         */
+        private boolean scan()
+        {
+            if (!this.consume('{')) {
+                return false;
+            }
+            boolean affected = false;
+            if (!this.consume('}')) {
+                do {
+                    String key = this.string();
+                    if (key == null || !this.consume(':')) {
+                        return false;
+                    }
+                    if (DATA_SOURCE_KEY.equals(key)
+                        && this.dataSource == null)
+                    {
+                        this.dataSource = this.string();
+                        if (this.dataSource == null) {
+                            return false;
+                        }
+                    } else if (RECORD_ID_KEY.equals(key)
+                               && this.recordId == null)
+                    {
+                        this.recordId = this.string();
+                        if (this.recordId == null) {
+                            return false;
+                        }
+                    } else if (AFFECTED_ENTITIES_KEY.equals(key) && !affected) {
+                        if (!this.scanAffectedEntities()) {
+                            return false;
+                        }
+                        affected = true;
+                    } else {
+                        return false;
+                    }
+                } while (this.consume(','));
+
+                if (!this.consume('}')) {
+                    return false;
+                }
+            }
+            this.skipWhitespace();
+            return this.index == this.text.length();
+        }
+
+        /**
+         * Scans the array of affected entities, each of which is expected
+         * to be an object with only the <code>ENTITY_ID</code> property.
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>
+         *         if the text is not of the expected form.
+         */
+        private boolean scanAffectedEntities()
+        {
+            if (!this.consume('[')) {
+                return false;
+            }
+            if (this.consume(']')) {
+                return true;
+            }
+            do {
+                if (!this.consume('{') || !ENTITY_ID_KEY.equals(this.string())
+                    || !this.consume(':'))
+                {
+                    return false;
+                }
+                Long entityId = this.number();
+                if (entityId == null || !this.consume('}')) {
+                    return false;
+                }
+                this.addEntityId(entityId);
+            } while (this.consume(','));
+
+            return this.consume(']');
+        }
+
+        /**
+         * Fully parses the INFO message, discarding anything found by a
+         * prior {@linkplain #scan() scan}.
+         *
+         * @return <code>true</code> if parsed, otherwise <code>false</code>
+         *         if the text is not a JSON object.
+         */
+        private boolean parse()
+        {
+            JsonObject jsonObject;
+            try {
+                jsonObject = JsonUtilities.parseJsonObject(this.text);
+            } catch (RuntimeException e) {
+                return false;
+            }
+            this.dataSource = JsonUtilities.getString(
+                jsonObject, DATA_SOURCE_KEY);
+            this.recordId = JsonUtilities.getString(jsonObject, RECORD_ID_KEY);
+            this.entityCount = 0;
+
+            JsonValue affectedValue = jsonObject.get(AFFECTED_ENTITIES_KEY);
+            if (!(affectedValue instanceof JsonArray)) {
+                return true;
+            }
+            for (JsonValue value : (JsonArray) affectedValue) {
+                if (value.getValueType() != JsonValue.ValueType.OBJECT) {
+                    continue;
+                }
+                JsonValue id = value.asJsonObject().get(ENTITY_ID_KEY);
+                if (id instanceof JsonNumber) {
+                    this.addEntityId(((JsonNumber) id).longValue());
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Adds the specified affected entity ID.
+         *
+         * @param entityId The affected entity ID.
+         */
+        private void addEntityId(long entityId)
+        {
+            if (this.entityCount == this.entityIds.length) {
+                this.entityIds = Arrays.copyOf(
+                    this.entityIds, this.entityCount * 2);
+            }
+            this.entityIds[this.entityCount++] = entityId;
+        }
+
+        /**
+         * Skips whitespace and then scans the specified character.
+         *
+         * @param c The expected character.
+         *
+         * @return <code>true</code> if scanned, otherwise <code>false</code>
+         *         and nothing other than whitespace is consumed.
+         */
+        private boolean consume(char c)
+        {
+            this.skipWhitespace();
+            if (this.index < this.text.length()
+                && this.text.charAt(this.index) == c)
+            {
+                this.index++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips any JSON whitespace.
+         */
+        private void skipWhitespace()
+        {
+            while (this.index < this.text.length()) {
+                char c = this.text.charAt(this.index);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                this.index++;
+            }
+        }
+
+        /**
+         * Skips whitespace and then scans an integer number.
+         *
+         * @return The scanned number, or <code>null</code> if the next token
+         *         is not an integer that fits in a <code>long</code>.
+         */
+        private Long number()
+        {
+            this.skipWhitespace();
+            int start = this.index;
+            int length = this.text.length();
+            if (this.index < length && this.text.charAt(this.index) == '-') {
+                this.index++;
+            }
+            int digitStart = this.index;
+            while (this.index < length) {
+                char c = this.text.charAt(this.index);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                this.index++;
+            }
+            // leave fractions, exponents and overflow to the full parser
+            int digits = this.index - digitStart;
+            if (digits == 0 || digits > 19) {
+                return null;
+            }
+            try {
+                return Long.parseLong(this.text, start, this.index, 10);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Skips whitespace and then scans a JSON string.  Strings containing
+         * escapes are left to the full parser.
+         *
+         * @return The string, or <code>null</code> if the next token is not
+         *         a JSON string without escapes.
+         */
+        private String string()
+        {
+            if (!this.consume('"')) {
+                return null;
+            }
+            int length = this.text.length();
+            int start = this.index;
+            while (this.index < length) {
+                char c = this.text.charAt(this.index);
+                if (c == '"') {
+                    return this.text.substring(start, this.index++);
+                }
+                if (c == '\\') {
+                    return null;
+                }
+                this.index++;
+            }
+            return null;
+        }
+    }
+}
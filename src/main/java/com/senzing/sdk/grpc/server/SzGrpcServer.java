@@ -11,6 +11,9 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -34,6 +37,8 @@ import com.senzing.sql.SQLiteConnector;
 import com.senzing.util.JsonUtilities;
 
 import com.google.protobuf.GeneratedMessage;
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.util.ThreadFactories;
 import com.linecorp.armeria.server.HttpService;
 import com.linecorp.armeria.server.Server;
 import com.linecorp.armeria.server.ServerBuilder;
@@ -56,9 +61,17 @@ import static com.linecorp.armeria.common.HttpMethod.*;
  */
 public class SzGrpcServer
 {
+    /**
+     * The system property from which Armeria reads its transport type when
+     * it is first initialized.
+     */
+    private static final String TRANSPORT_TYPE_PROPERTY
+        = "com.linecorp.armeria.transportType";
+
     // must be in static initializer before ANY Armeria usage
     static {
-        System.setProperty("com.linecorp.armeria.transportType", "nio");
+        System.setProperty(TRANSPORT_TYPE_PROPERTY,
+                           SzGrpcTransport.NIO.getArmeriaName());
     }
 
     /**
@@ -66,6 +79,18 @@ public class SzGrpcServer
      */
     public static final String DATA_MART_PREFIX = "/data-mart";
 
+    /**
+     * The thread name prefix for the blocking task executor threads.
+     */
+    private static final String BLOCKING_THREAD_PREFIX
+        = "sz-grpc-blocking-tasks";
+
+    /**
+     * The number of seconds an idle blocking task executor thread is kept
+     * alive before it is terminated.
+     */
+    private static final long BLOCKING_KEEP_ALIVE_SECONDS = 60L;
+
     /**
      * The {@link SzEnvironment} to use.
      */
@@ -93,6 +118,27 @@ public class SzGrpcServer
      */
     private Server grpcServer = null;
 
+    /**
+     * The {@link SzGrpcTransport} on which the server event loops run.
+     */
+    private SzGrpcTransport transport = null;
+
+    /**
+     * Whether or not to skip the repository performance check before
+     * starting.
+     */
+    private boolean skipStartupPerf = false;
+
+    /**
+     * Tracks if the startup repository performance check has been performed.
+     */
+    private boolean perfChecked = false;
+
+    /**
+     * Whether or not to skip priming the engine before starting.
+     */
+    private boolean skipEnginePriming = false;
+
     /**
      * Tracks if the gRPC server has been started.
      */
@@ -296,6 +342,9 @@ public class SzGrpcServer
                            SzGrpcServerOptions  options,
                            boolean              startServer)
     {
+        // select the transport before anything initializes Armeria
+        this.transport = selectTransport(options.getGrpcTransport());
+
         int concurrency = options.getGrpcConcurrency();
         int port = options.getGrpcPort();
         InetAddress bindAddress = options.getBindAddress();
@@ -348,6 +397,41 @@ public class SzGrpcServer
 
         // create the composable services
         this.services = new SzGrpcServices(env, resolvedUri, processingRate);
+        this.services.setExportIdleTimeoutSeconds(
+            options.getExportIdleTimeoutSeconds());
+        this.services.setLogStatsSeconds(options.getLogStatsSeconds());
+        this.services.setPerformanceCheckSeconds(
+            options.getPerformanceCheckSeconds());
+        this.services.setPerformanceWarningRate(
+            options.getPerformanceWarningRate());
+        this.services.setPerformanceRecheckSeconds(
+            options.getPerformanceRecheckSeconds());
+        this.services.setChangeFeedDirectory(
+            options.getChangeFeedDirectory());
+        this.services.setChangeFeedRetentionBytes(
+            options.getChangeFeedRetentionMegabytes() * 1024L * 1024L);
+        this.services.setChangeFeedFlushMillis(
+            options.getChangeFeedFlushMillis());
+        this.services.setReadCacheMaxBytes(
+            options.getReadCacheMegabytes() * 1024L * 1024L);
+        this.services.setReadCacheTtlSeconds(
+            options.getReadCacheTtlSeconds());
+        this.services.setReadCoalescing(!options.isReadCoalescingDisabled());
+        this.services.setExecutorLaneConfigs(options.getExecutorLanes());
+        this.services.setIngestConcurrency(options.getCoreConcurrency());
+        if (options.isAdaptiveConcurrency()) {
+            int minLimit = Math.max(1, concurrency
+                / SzGrpcServerConstants.ADAPTIVE_CONCURRENCY_MIN_DIVISOR);
+            int maxLimit = concurrency
+                * SzGrpcServerConstants.ADAPTIVE_CONCURRENCY_MAX_FACTOR;
+            this.services.setConcurrencyLimiter(new SzGrpcConcurrencyLimiter(
+                concurrency, minLimit, maxLimit));
+        }
+        this.services.setErrorStackTraces(options.isErrorStackTraces());
+        this.services.setInfoQueueCapacity(options.getInfoQueueCapacity());
+        this.services.setInfoQueueOverflow(options.getInfoQueueOverflow());
+        this.skipStartupPerf = options.isSkippingStartupPerformance();
+        this.skipEnginePriming = options.isSkippingEnginePriming();
 
         // create a CORS decorator if we need to decorate the server
         // NOTE: we decorate the ENTIRE server rather
@@ -384,15 +468,62 @@ public class SzGrpcServer
             }
         }
 
+        // optionally service requests on virtual threads (one per task) with
+        // the native calls bounded by the core concurrency instead of the
+        // thread count
+        ScheduledThreadPoolExecutor blockingExecutor = null;
+        if (options.isVirtualThreads()) {
+            ThreadFactory virtualFactory
+                = newVirtualThreadFactory(BLOCKING_THREAD_PREFIX);
+            if (virtualFactory == null) {
+                logWarning("Virtual threads are not supported by this JVM "
+                           + "(Java 21 or later is required); using "
+                           + concurrency + " platform threads");
+            } else {
+                blockingExecutor = new VirtualThreadTaskExecutor(
+                    virtualFactory,
+                    ThreadFactories.newThreadFactory(
+                        BLOCKING_THREAD_PREFIX + "-scheduler", true));
+                this.services.setNativeCallLimiter(
+                    new SzGrpcNativeCallLimiter(
+                        options.getCoreConcurrency()));
+            }
+        }
+        if (blockingExecutor == null) {
+            blockingExecutor = new ScheduledThreadPoolExecutor(
+                concurrency,
+                ThreadFactories.newThreadFactory(
+                    BLOCKING_THREAD_PREFIX, true));
+        }
+
+        // let idle threads expire and observe the executor metrics
+        blockingExecutor.setKeepAliveTime(
+            BLOCKING_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        blockingExecutor.allowCoreThreadTimeOut(true);
+        this.services.getMetrics().setBlockingExecutor(blockingExecutor);
+
         // create the server builder
         this.grpcServerBuilder = Server.builder()
                 .http(new InetSocketAddress(bindAddress, port))
-                .blockingTaskExecutor(concurrency);
+                .blockingTaskExecutor(blockingExecutor, true);
+
+        // optionally size the event loop group
+        Integer eventLoopThreads = options.getEventLoopThreads();
+        if (eventLoopThreads != null) {
+            this.grpcServerBuilder.workerGroup(eventLoopThreads);
+        }
 
         // configure Senzing services onto the server builder
         this.services.configureServer(this.grpcServerBuilder,
                                       DATA_MART_PREFIX);
 
+        // optionally expose the metrics endpoint
+        String metricsPath = options.getMetricsPath();
+        if (metricsPath != null) {
+            this.grpcServerBuilder.service(
+                metricsPath, this.services.getMetrics().newHttpService());
+        }
+
         // decorate with CORS if configured
         if (corsDecorator != null) {
             this.grpcServerBuilder.decoratorUnder("/", corsDecorator);
@@ -403,12 +534,97 @@ public class SzGrpcServer
             // build the server
             this.grpcServer = this.grpcServerBuilder.build();
 
+            this.checkPerformance();
+            this.primeEngine();
             this.services.start();
             this.grpcServer.start().join();
             this.started = true;
         }
     }
 
+    /**
+     * Selects the {@link SzGrpcTransport} for Armeria to use, falling back
+     * to {@link SzGrpcTransport#NIO} if the requested transport is not
+     * available.  Armeria reads its transport type only once per process,
+     * so if Armeria has already been initialized then the transport it
+     * chose at that time is retained.
+     *
+     * @param requested The requested {@link SzGrpcTransport}.
+     *
+     * @return The {@link SzGrpcTransport} that Armeria will use, or
+     *         <code>null</code> if Armeria was already initialized with a
+     *         transport that is not an {@link SzGrpcTransport}.
+     */
+    private static synchronized SzGrpcTransport selectTransport(
+        SzGrpcTransport requested)
+    {
+        SzGrpcTransport transport = requested;
+        Throwable cause = transport.getUnavailabilityCause();
+        if (cause != null) {
+            logWarning("The " + transport.getArmeriaName()
+                       + " transport is not available ("
+                       + cause + "); falling back to "
+                       + SzGrpcTransport.NIO.getArmeriaName());
+            transport = SzGrpcTransport.NIO;
+        }
+        System.setProperty(TRANSPORT_TYPE_PROPERTY, transport.getArmeriaName());
+
+        // check if Armeria was already initialized with another transport
+        String actual = Flags.transportType().name();
+        if (!actual.equals(transport.name())) {
+            logWarning("Armeria was already initialized with the "
+                       + actual.toLowerCase() + " transport; ignoring "
+                       + "the " + transport.getArmeriaName() + " transport");
+            for (SzGrpcTransport value : SzGrpcTransport.values()) {
+                if (value.name().equals(actual)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+        return transport;
+    }
+
+    /**
+     * Creates a {@link ThreadFactory} for virtual threads with names having
+     * the specified prefix.  Virtual threads are obtained reflectively so
+     * that this class still runs on JVM's that predate them.
+     *
+     * @param prefix The prefix for the thread names.
+     *
+     * @return The {@link ThreadFactory} for virtual threads, or
+     *         <code>null</code> if the running JVM does not support them.
+     */
+    private static ThreadFactory newVirtualThreadFactory(String prefix)
+    {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                .invoke(builder, prefix + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory")
+                .invoke(builder);
+
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the {@link SzGrpcTransport} on which the server event loops of
+     * this instance run.  This may differ from the {@linkplain
+     * SzGrpcServerOptions#getGrpcTransport() requested transport} if that
+     * transport was not available.
+     *
+     * @return The {@link SzGrpcTransport} on which the server event loops
+     *         run, or <code>null</code> if Armeria was initialized elsewhere
+     *         with a transport that is not an {@link SzGrpcTransport}.
+     */
+    public SzGrpcTransport getTransport()
+    {
+        return this.transport;
+    }
+
     /**
      * Gets the {@link SzGrpcServices} used by this instance. This allows
      * callers to access the composable Senzing services independently of the
@@ -487,12 +703,56 @@ public class SzGrpcServer
                 this.grpcServer = this.grpcServerBuilder.build();
             }
 
+            this.checkPerformance();
+            this.primeEngine();
             this.services.start();
             this.grpcServer.start().join();
             this.started = true;
         }
     }
 
+    /**
+     * Performs the repository performance check before the server begins
+     * accepting traffic unless {@linkplain
+     * SzGrpcServerOptions#isSkippingStartupPerformance() skipping the startup
+     * performance check} or the check has already been performed.
+     */
+    private void checkPerformance()
+    {
+        if (!this.skipStartupPerf && !this.perfChecked) {
+            this.perfChecked = true;
+            this.services.checkRepositoryPerformance();
+        }
+    }
+
+    /**
+     * Primes the engine before the server begins accepting traffic unless
+     * {@linkplain SzGrpcServerOptions#isSkippingEnginePriming() skipping
+     * engine priming} or the engine has already been primed.
+     */
+    private void primeEngine()
+    {
+        if (!this.skipEnginePriming && !this.services.isEnginePrimed()) {
+            this.services.primeEngine();
+        }
+    }
+
+    /**
+     * Checks if the gRPC server is ready to service requests.  This returns
+     * <code>true</code> if the server {@linkplain #isRunning() is running}
+     * and, unless skipped, engine priming succeeded.  Engine priming
+     * completes before the server starts, so readiness is never reported for
+     * an engine whose priming is pending or has failed.  This is also
+     * reported via the standard gRPC health service.
+     *
+     * @return <code>true</code> if the gRPC server is ready, otherwise
+     *                           <code>false</code>.
+     */
+    public synchronized boolean isReady()
+    {
+        return this.isRunning() && this.services.isReady();
+    }
+
     /**
      * Destroys this instance.
      *
@@ -3,6 +3,8 @@ package com.senzing.sdk.grpc.server;
 import java.net.InetAddress;
 import java.time.Duration;
 
+import com.senzing.sdk.grpc.SzGrpcEnvironment;
+
 /**
  * Utility class to provide common constants pertaining to the Senzing gRPC
  * Server. These are factored into their own class to avoid circular
@@ -69,6 +71,20 @@ public final class SzGrpcServerConstants
     static final String DEFAULT_GRPC_CONCURRENCY_PARAM
         = String.valueOf(DEFAULT_GRPC_CONCURRENCY);
 
+    /**
+     * The default {@link SzGrpcTransport} for the server event loops.  The
+     * default is the portable NIO transport so that the native transports
+     * are strictly opt-in.
+     */
+    public static final SzGrpcTransport DEFAULT_GRPC_TRANSPORT
+        = SzGrpcTransport.NIO;
+
+    /**
+     * The default gRPC transport as a string.
+     */
+    static final String DEFAULT_GRPC_TRANSPORT_PARAM
+        = DEFAULT_GRPC_TRANSPORT.getArmeriaName();
+
     /**
      * The default stats interval for logging stats. This is the default minimum
      * period of time between logging of stats. The actual interval may be
@@ -84,6 +100,173 @@ public final class SzGrpcServerConstants
     static final String DEFAULT_LOG_STATS_SECONDS_PARAM 
         = String.valueOf(DEFAULT_LOG_STATS_SECONDS);
 
+    /**
+     * The default number of seconds to run the repository performance check
+     * that is performed on startup (unless skipped).  The default is three
+     * seconds.
+     */
+    public static final int DEFAULT_PERF_CHECK_SECONDS = 3;
+
+    /**
+     * The default startup performance check duration as a string.
+     */
+    static final String DEFAULT_PERF_CHECK_SECONDS_PARAM
+        = String.valueOf(DEFAULT_PERF_CHECK_SECONDS);
+
+    /**
+     * The default minimum number of records per second inserted by the
+     * repository performance check below which a warning is logged.  The
+     * default is one hundred records per second.
+     */
+    public static final double DEFAULT_PERF_WARNING_RATE = 100.0;
+
+    /**
+     * The default performance warning rate as a string.
+     */
+    static final String DEFAULT_PERF_WARNING_RATE_PARAM
+        = String.valueOf(DEFAULT_PERF_WARNING_RATE);
+
+    /**
+     * The default number of seconds between periodic repository performance
+     * checks after startup.  The default is zero (0) indicating that the
+     * performance check is only performed on startup.
+     */
+    public static final long DEFAULT_PERF_RECHECK_SECONDS = 0L;
+
+    /**
+     * The default performance re-check interval as a string.
+     */
+    static final String DEFAULT_PERF_RECHECK_SECONDS_PARAM
+        = String.valueOf(DEFAULT_PERF_RECHECK_SECONDS);
+
+    /**
+     * The default maximum number of INFO messages that may be buffered
+     * awaiting asynchronous publishing.  The default is ten thousand.
+     */
+    public static final int DEFAULT_INFO_QUEUE_CAPACITY = 10000;
+
+    /**
+     * The default INFO message buffer capacity as a string.
+     */
+    static final String DEFAULT_INFO_QUEUE_CAPACITY_PARAM
+        = String.valueOf(DEFAULT_INFO_QUEUE_CAPACITY);
+
+    /**
+     * The default maximum number of buffered INFO messages delivered per
+     * batch.
+     */
+    public static final int DEFAULT_INFO_BATCH_SIZE = 100;
+
+    /**
+     * The default {@link SzInfoMessagePublisher.OverflowPolicy} for when the
+     * INFO message buffer is full.  The default is to apply backpressure by
+     * blocking the request thread.
+     */
+    public static final SzInfoMessagePublisher.OverflowPolicy
+        DEFAULT_INFO_QUEUE_OVERFLOW
+            = SzInfoMessagePublisher.OverflowPolicy.BLOCK;
+
+    /**
+     * The default INFO message buffer overflow policy as a string.
+     */
+    static final String DEFAULT_INFO_QUEUE_OVERFLOW_PARAM
+        = DEFAULT_INFO_QUEUE_OVERFLOW.toString();
+
+    /**
+     * The default size in bytes of each segment file of the change feed
+     * log.  The default is sixty-four megabytes.
+     */
+    public static final int DEFAULT_CHANGE_FEED_SEGMENT_BYTES
+        = 64 * 1024 * 1024;
+
+    /**
+     * The default maximum number of megabytes of change feed segments to
+     * retain.  The default is one gigabyte.
+     */
+    public static final long DEFAULT_CHANGE_FEED_RETENTION_MB = 1024L;
+
+    /**
+     * The default change feed retention as a string.
+     */
+    static final String DEFAULT_CHANGE_FEED_RETENTION_MB_PARAM
+        = String.valueOf(DEFAULT_CHANGE_FEED_RETENTION_MB);
+
+    /**
+     * The default maximum number of milliseconds between flushes of the
+     * change feed log to the storage device, which bounds the entries that
+     * may be lost to a crash of the operating system.  The default is one
+     * second.
+     */
+    public static final long DEFAULT_CHANGE_FEED_FLUSH_MILLIS = 1000L;
+
+    /**
+     * The default change feed flush interval as a string.
+     */
+    static final String DEFAULT_CHANGE_FEED_FLUSH_MILLIS_PARAM
+        = String.valueOf(DEFAULT_CHANGE_FEED_FLUSH_MILLIS);
+
+    /**
+     * The default maximum number of megabytes for the server-side read
+     * cache.  The default is zero (0) which disables the read cache.
+     */
+    public static final long DEFAULT_READ_CACHE_MB = 0L;
+
+    /**
+     * The default read cache size as a string.
+     */
+    static final String DEFAULT_READ_CACHE_MB_PARAM
+        = String.valueOf(DEFAULT_READ_CACHE_MB);
+
+    /**
+     * The default maximum number of seconds to retain a result in the
+     * server-side read cache.  The default is five minutes.
+     */
+    public static final long DEFAULT_READ_CACHE_TTL_SECONDS = 300L;
+
+    /**
+     * The default read cache time-to-live as a string.
+     */
+    static final String DEFAULT_READ_CACHE_TTL_SECONDS_PARAM
+        = String.valueOf(DEFAULT_READ_CACHE_TTL_SECONDS);
+
+    /**
+     * The default maximum number of calls that may wait for a thread in an
+     * {@linkplain SzGrpcExecutorLanes executor lane} whose queue size is
+     * not specified.
+     */
+    public static final int DEFAULT_EXECUTOR_LANE_QUEUE_SIZE = 100;
+
+    /**
+     * The divisor applied to the gRPC concurrency to obtain the minimum
+     * limit on calls in flight when adaptive concurrency limiting is
+     * enabled.
+     */
+    public static final int ADAPTIVE_CONCURRENCY_MIN_DIVISOR = 4;
+
+    /**
+     * The factor applied to the gRPC concurrency to obtain the maximum
+     * limit on calls in flight when adaptive concurrency limiting is
+     * enabled.
+     */
+    public static final int ADAPTIVE_CONCURRENCY_MAX_FACTOR = 4;
+
+    /**
+     * The default number of seconds that a streaming export may wait for the
+     * client to read more content before the call is failed and the export is
+     * closed.  This is derived from the client's {@linkplain
+     * SzGrpcEnvironment#DEFAULT_EXPORT_IDLE_TIMEOUT default export idle
+     * timeout} so that, by default, the server does not fail an export that
+     * the client still considers active.
+     */
+    public static final long DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS
+        = SzGrpcEnvironment.DEFAULT_EXPORT_IDLE_TIMEOUT.getSeconds();
+
+    /**
+     * The default export idle timeout as a string.
+     */
+    static final String DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS_PARAM
+        = String.valueOf(DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS);
+
     /**
      * The default number of seconds to wait in between checking for changes in
      * the configuration and automatically refreshing the configuration.
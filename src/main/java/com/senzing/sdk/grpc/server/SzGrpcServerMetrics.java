@@ -0,0 +1,1092 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.server.HttpService;
+import com.senzing.sdk.SzEngine;
+import com.senzing.util.JsonUtilities;
+
+/**
+ * Collects the metrics for the Senzing gRPC services and renders them in the
+ * Prometheus text exposition format so they can be scraped.  The following
+ * metrics are published:
+ * <ul>
+ *   <li><code>grpc_server_started_total</code> &mdash; The number of calls
+ *       started per method.</li>
+ *   <li><code>grpc_server_handled_total</code> &mdash; The number of calls
+ *       completed per method and {@link Status.Code}.</li>
+ *   <li><code>grpc_server_handling_seconds</code> &mdash; A histogram of
+ *       the call latency per method.</li>
+ *   <li><code>sz_grpc_blocking_executor_*</code> &mdash; The queue depth,
+ *       active threads, pool size and completed tasks of the blocking task
+ *       executor, if one has been {@linkplain
+ *       #setBlockingExecutor(ThreadPoolExecutor) registered}.</li>
+ *   <li><code>sz_grpc_lane_*</code> &mdash; The queue depth, active
+ *       threads, configured threads and rejected calls per executor lane,
+ *       if {@link SzGrpcExecutorLanes} have been {@linkplain
+ *       #setExecutorLanes(SzGrpcExecutorLanes) registered}.</li>
+ *   <li><code>sz_grpc_concurrency_*</code> &mdash; The current limit,
+ *       calls in flight, rejected calls and the short-term and long-term
+ *       latency of the adaptive concurrency limiter, if an {@link
+ *       SzGrpcConcurrencyLimiter} has been {@linkplain
+ *       #setConcurrencyLimiter(SzGrpcConcurrencyLimiter) registered}.</li>
+ *   <li><code>sz_grpc_native_call*</code> &mdash; The limit, active
+ *       calls, waiting calls and total calls into the native SDK, if an
+ *       {@link SzGrpcNativeCallLimiter} has been {@linkplain
+ *       #setNativeCallLimiter(SzGrpcNativeCallLimiter) registered}.</li>
+ *   <li><code>sz_engine_stat</code> &mdash; The numeric values from the
+ *       most recent {@linkplain #updateEngineStats(String) engine stats}
+ *       report.</li>
+ *   <li><code>sz_grpc_info_publish_seconds</code> &mdash; A histogram of the
+ *       latency for publishing INFO messages.</li>
+ *   <li><code>sz_grpc_info_publish_failures_total</code> &mdash; The number
+ *       of INFO messages that failed to publish.</li>
+ *   <li><code>sz_grpc_calls_skipped_total</code> &mdash; The number of
+ *       calls that were not dispatched to the engine because they were
+ *       cancelled or their deadline expired while queued, per {@link
+ *       Status.Code}.</li>
+ *   <li><code>sz_grpc_info_queue_*</code> &mdash; The depth, capacity,
+ *       dropped, caller-runs and delivery failure counts of the INFO message
+ *       buffer, if an {@link SzInfoMessagePublisher} has been {@linkplain
+ *       #setInfoMessagePublisher(SzInfoMessagePublisher) registered}.</li>
+ *   <li><code>sz_grpc_read_cache_*</code> &mdash; The hit, miss, eviction
+ *       and invalidation counts along with the number of entries and
+ *       approximate bytes of the read cache, if an {@link SzGrpcReadCache}
+ *       has been {@linkplain #setReadCache(SzGrpcReadCache)
+ *       registered}.</li>
+ *   <li><code>sz_grpc_read_coalescing_*</code> &mdash; The number of
+ *       reads executed, the number of reads that joined an identical read
+ *       in flight and the number of reads in flight, if an {@link
+ *       SzGrpcSingleFlight} has been {@linkplain
+ *       #setSingleFlight(SzGrpcSingleFlight) registered}.</li>
+ *   <li><code>sz_repository_insert_records_per_second</code> &mdash; The
+ *       rate from the most recent {@linkplain
+ *       #recordRepositoryPerformance(double) repository performance
+ *       check}.</li>
+ * </ul>
+ *
+ * <p>
+ * Recording uses {@link LongAdder} counters so that it adds negligible
+ * contention to the request path.  The call metrics are recorded by the
+ * {@link ServerInterceptor} obtained from {@link #newInterceptor()} and the
+ * metrics are served by the {@link HttpService} obtained from {@link
+ * #newHttpService()}.
+ * </p>
+ */
+public class SzGrpcServerMetrics
+{
+    /**
+     * The content type for the Prometheus text exposition format.
+     */
+    public static final String CONTENT_TYPE
+        = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * The upper bounds (in seconds) of the latency histogram buckets.
+     */
+    private static final double[] LATENCY_BUCKETS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1,
+        0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0, 60.0
+    };
+
+    /**
+     * The upper bounds (in nanoseconds) of the latency histogram buckets.
+     */
+    private static final long[] LATENCY_BUCKET_NANOS;
+    static {
+        LATENCY_BUCKET_NANOS = new long[LATENCY_BUCKETS.length];
+        for (int index = 0; index < LATENCY_BUCKETS.length; index++) {
+            LATENCY_BUCKET_NANOS[index]
+                = (long) (LATENCY_BUCKETS[index] * 1_000_000_000.0);
+        }
+    }
+
+    /**
+     * The number of nanoseconds per second as a <code>double</code>.
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * The {@link Status.Code} values indexed by {@link Status.Code#value()}.
+     */
+    private static final Status.Code[] STATUS_CODES = Status.Code.values();
+
+    /**
+     * Provides a latency histogram with fixed buckets.
+     */
+    static final class Histogram
+    {
+        /**
+         * The non-cumulative bucket counts with the last bucket being the
+         * overflow (<code>+Inf</code>) bucket.
+         */
+        private final LongAdder[] buckets
+            = new LongAdder[LATENCY_BUCKETS.length + 1];
+
+        /**
+         * The total number of observations.
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * The sum of all observations in nanoseconds.
+         */
+        private final LongAdder sumNanos = new LongAdder();
+
+        /**
+         * Default constructor.
+         */
+        Histogram()
+        {
+            for (int index = 0; index < this.buckets.length; index++) {
+                this.buckets[index] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records an observation of the specified number of nanoseconds.
+         *
+         * @param nanos The number of nanoseconds to record.
+         */
+        void record(long nanos)
+        {
+            int index = 0;
+            while (index < LATENCY_BUCKET_NANOS.length
+                   && nanos > LATENCY_BUCKET_NANOS[index])
+            {
+                index++;
+            }
+            this.buckets[index].increment();
+            this.count.increment();
+            this.sumNanos.add(nanos);
+        }
+
+        /**
+         * Gets the total number of observations.
+         *
+         * @return The total number of observations.
+         */
+        long getCount()
+        {
+            return this.count.sum();
+        }
+
+        /**
+         * Writes this histogram in the Prometheus text exposition format.
+         *
+         * @param sb The {@link StringBuilder} to write to.
+         * @param name The metric name.
+         * @param labels The label text (without braces) or an empty string.
+         */
+        void write(StringBuilder sb, String name, String labels)
+        {
+            String prefix = (labels.length() == 0) ? "" : labels + ",";
+            long cumulative = 0L;
+            for (int index = 0; index < this.buckets.length; index++) {
+                cumulative += this.buckets[index].sum();
+                String bound = (index < LATENCY_BUCKETS.length)
+                    ? Double.toString(LATENCY_BUCKETS[index]) : "+Inf";
+                sb.append(name).append("_bucket{").append(prefix)
+                  .append("le=\"").append(bound).append("\"} ")
+                  .append(cumulative).append('\n');
+            }
+            String braced = (labels.length() == 0) ? "" : "{" + labels + "}";
+            sb.append(name).append("_sum").append(braced).append(' ')
+              .append(this.sumNanos.sum() / NANOS_PER_SECOND).append('\n');
+            sb.append(name).append("_count").append(braced).append(' ')
+              .append(cumulative).append('\n');
+        }
+    }
+
+    /**
+     * Holds the metrics for a single gRPC method.
+     */
+    static final class MethodMetrics
+    {
+        /**
+         * The label text identifying the method.
+         */
+        private final String labels;
+
+        /**
+         * The number of calls started.
+         */
+        private final LongAdder started = new LongAdder();
+
+        /**
+         * The number of calls handled indexed by {@link Status.Code#value()}.
+         */
+        private final LongAdder[] handled
+            = new LongAdder[STATUS_CODES.length];
+
+        /**
+         * The latency {@link Histogram}.
+         */
+        private final Histogram latency = new Histogram();
+
+        /**
+         * Constructs with the specified fully-qualified method name.
+         *
+         * @param fullMethodName The fully-qualified method name.
+         */
+        MethodMetrics(String fullMethodName)
+        {
+            String service = MethodDescriptor.extractFullServiceName(
+                fullMethodName);
+            String method = (service == null)
+                ? fullMethodName
+                : fullMethodName.substring(service.length() + 1);
+            this.labels = "grpc_service=\"" + escape(service) + "\","
+                + "grpc_method=\"" + escape(method) + "\"";
+            for (int index = 0; index < this.handled.length; index++) {
+                this.handled[index] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * The {@link Map} of fully-qualified method names to {@link
+     * MethodMetrics}.
+     */
+    private final Map<String, MethodMetrics> methodMetrics
+        = new ConcurrentHashMap<>();
+
+    /**
+     * The latency {@link Histogram} for publishing INFO messages.
+     */
+    private final Histogram infoPublishLatency = new Histogram();
+
+    /**
+     * The number of INFO messages that failed to publish.
+     */
+    private final LongAdder infoPublishFailures = new LongAdder();
+
+    /**
+     * The number of calls skipped because their deadline expired.
+     */
+    private final LongAdder skippedExpired = new LongAdder();
+
+    /**
+     * The number of calls skipped because they were cancelled.
+     */
+    private final LongAdder skippedCancelled = new LongAdder();
+
+    /**
+     * The blocking task {@link ThreadPoolExecutor}, if registered.
+     */
+    private volatile ThreadPoolExecutor blockingExecutor = null;
+
+    /**
+     * The {@link SzGrpcExecutorLanes}, if registered.
+     */
+    private volatile SzGrpcExecutorLanes executorLanes = null;
+
+    /**
+     * The {@link SzGrpcConcurrencyLimiter}, if registered.
+     */
+    private volatile SzGrpcConcurrencyLimiter concurrencyLimiter = null;
+
+    /**
+     * The {@link SzGrpcNativeCallLimiter}, if registered.
+     */
+    private volatile SzGrpcNativeCallLimiter nativeCallLimiter = null;
+
+    /**
+     * The {@link SzInfoMessagePublisher}, if registered.
+     */
+    private volatile SzInfoMessagePublisher infoPublisher = null;
+
+    /**
+     * The {@link SzGrpcReadCache}, if registered.
+     */
+    private volatile SzGrpcReadCache readCache = null;
+
+    /**
+     * The {@link SzGrpcSingleFlight}, if registered.
+     */
+    private volatile SzGrpcSingleFlight singleFlight = null;
+
+    /**
+     * The most recent engine statistics as a {@link Map} of {@link String}
+     * statistic paths to {@link Double} values.
+     */
+    private volatile Map<String, Double> engineStats = Collections.emptyMap();
+
+    /**
+     * The number of records per second inserted by the most recent repository
+     * performance check, or {@link Double#NaN} if none has been recorded.
+     */
+    private volatile double repositoryInsertRate = Double.NaN;
+
+    /**
+     * Default constructor.
+     */
+    public SzGrpcServerMetrics()
+    {
+        // do nothing
+    }
+
+    /**
+     * Escapes the specified label value for the Prometheus text exposition
+     * format.
+     *
+     * @param value The value to escape.
+     *
+     * @return The escaped value.
+     */
+    static String escape(String value)
+    {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = null;
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            String replacement = null;
+            switch (c) {
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '"':
+                    replacement = "\\\"";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                default:
+                    break;
+            }
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(value.length() + 8);
+                sb.append(value, 0, index);
+            }
+            if (sb != null) {
+                if (replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return (sb == null) ? value : sb.toString();
+    }
+
+    /**
+     * Gets the {@link MethodMetrics} for the specified fully-qualified method
+     * name, creating it if necessary.
+     *
+     * @param fullMethodName The fully-qualified method name.
+     *
+     * @return The {@link MethodMetrics} for the method.
+     */
+    private MethodMetrics getMethodMetrics(String fullMethodName)
+    {
+        MethodMetrics metrics = this.methodMetrics.get(fullMethodName);
+        if (metrics == null) {
+            metrics = this.methodMetrics.computeIfAbsent(
+                fullMethodName, MethodMetrics::new);
+        }
+        return metrics;
+    }
+
+    /**
+     * Registers the blocking task {@link ThreadPoolExecutor} whose queue
+     * depth and active threads should be published.
+     *
+     * @param executor The blocking task {@link ThreadPoolExecutor}, or
+     *                 <code>null</code> to unregister it.
+     */
+    public void setBlockingExecutor(ThreadPoolExecutor executor)
+    {
+        this.blockingExecutor = executor;
+    }
+
+    /**
+     * Registers the {@link SzGrpcExecutorLanes} whose queue depth, active
+     * threads, configured threads and rejected calls should be published
+     * per lane.
+     *
+     * @param lanes The {@link SzGrpcExecutorLanes}, or <code>null</code> to
+     *              unregister.
+     */
+    public void setExecutorLanes(SzGrpcExecutorLanes lanes)
+    {
+        this.executorLanes = lanes;
+    }
+
+    /**
+     * Registers the {@link SzGrpcConcurrencyLimiter} whose limit, calls in
+     * flight, rejected calls and latency should be published.
+     *
+     * @param limiter The {@link SzGrpcConcurrencyLimiter}, or
+     *                <code>null</code> to unregister.
+     */
+    public void setConcurrencyLimiter(SzGrpcConcurrencyLimiter limiter)
+    {
+        this.concurrencyLimiter = limiter;
+    }
+
+    /**
+     * Registers the {@link SzGrpcNativeCallLimiter} whose limit, active
+     * calls, waiting calls and total calls should be published.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter}, or
+     *                <code>null</code> to unregister.
+     */
+    public void setNativeCallLimiter(SzGrpcNativeCallLimiter limiter)
+    {
+        this.nativeCallLimiter = limiter;
+    }
+
+    /**
+     * Updates the engine statistics published as gauges from the specified
+     * JSON text obtained from {@link SzEngine#getStats()}.  Each numeric
+     * value in the JSON is published with its dot-separated path (e.g.:
+     * <code>workload.loadedRecords</code>) as the <code>stat</code> label.
+     *
+     * @param statsJson The JSON text obtained from {@link
+     *                  SzEngine#getStats()}.
+     *
+     * @return The {@link Map} of {@link String} statistic paths to {@link
+     *         Double} values that were extracted.
+     *
+     * @throws IllegalArgumentException If the specified text is not a JSON
+     *                                  object.
+     */
+    public Map<String, Double> updateEngineStats(String statsJson)
+    {
+        JsonObject jsonObject;
+        try {
+            jsonObject = JsonUtilities.parseJsonObject(statsJson);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                "The engine stats are not a JSON object: " + statsJson, e);
+        }
+        Map<String, Double> stats = new TreeMap<>();
+        flattenStats(null, jsonObject, stats);
+        this.engineStats = Collections.unmodifiableMap(stats);
+        return this.engineStats;
+    }
+
+    /**
+     * Recursively extracts the numeric values from the specified {@link
+     * JsonValue} into the specified {@link Map} keyed by dot-separated path.
+     *
+     * @param path The path to the specified value, or <code>null</code> if
+     *             the root.
+     * @param value The {@link JsonValue} to extract from.
+     * @param stats The {@link Map} to populate.
+     */
+    static void flattenStats(String              path,
+                             JsonValue           value,
+                             Map<String, Double> stats)
+    {
+        switch (value.getValueType()) {
+            case OBJECT:
+                for (Map.Entry<String, JsonValue> entry
+                     : value.asJsonObject().entrySet())
+                {
+                    String childPath = (path == null)
+                        ? entry.getKey() : path + "." + entry.getKey();
+                    flattenStats(childPath, entry.getValue(), stats);
+                }
+                break;
+            case ARRAY:
+                JsonArray array = value.asJsonArray();
+                for (int index = 0; index < array.size(); index++) {
+                    String childPath = (path == null)
+                        ? String.valueOf(index) : path + "." + index;
+                    flattenStats(childPath, array.get(index), stats);
+                }
+                break;
+            case NUMBER:
+                if (path != null) {
+                    stats.put(path, ((JsonNumber) value).doubleValue());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Registers the {@link SzInfoMessagePublisher} that buffers the INFO
+     * messages so its queue depth and overflow counts are published.
+     *
+     * @param publisher The {@link SzInfoMessagePublisher} to register, or
+     *                  <code>null</code> to unregister.
+     */
+    public void setInfoMessagePublisher(SzInfoMessagePublisher publisher)
+    {
+        this.infoPublisher = publisher;
+    }
+
+    /**
+     * Registers the {@link SzGrpcReadCache} so its hit, miss, eviction and
+     * invalidation counts and its size are published.
+     *
+     * @param cache The {@link SzGrpcReadCache} to register, or
+     *              <code>null</code> to unregister.
+     */
+    public void setReadCache(SzGrpcReadCache cache)
+    {
+        this.readCache = cache;
+    }
+
+    /**
+     * Registers the {@link SzGrpcSingleFlight} that coalesces identical
+     * concurrent reads so its counts are published.
+     *
+     * @param singleFlight The {@link SzGrpcSingleFlight} to register, or
+     *                     <code>null</code> to unregister.
+     */
+    public void setSingleFlight(SzGrpcSingleFlight singleFlight)
+    {
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Records the number of records per second inserted by a repository
+     * performance check.
+     *
+     * @param recordsPerSecond The number of records per second inserted.
+     */
+    public void recordRepositoryPerformance(double recordsPerSecond)
+    {
+        this.repositoryInsertRate = recordsPerSecond;
+    }
+
+    /**
+     * Gets the total number of calls handled across all methods regardless
+     * of {@link Status.Code}.
+     *
+     * @return The total number of calls handled.
+     */
+    public long getHandledTotal()
+    {
+        long total = 0L;
+        for (MethodMetrics metrics : this.methodMetrics.values()) {
+            for (LongAdder handled : metrics.handled) {
+                total += handled.sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Records the start of a call to the specified method.
+     *
+     * @param fullMethodName The fully-qualified method name.
+     */
+    void recordStarted(String fullMethodName)
+    {
+        this.getMethodMetrics(fullMethodName).started.increment();
+    }
+
+    /**
+     * Records the completion of a call to the specified method.
+     *
+     * @param fullMethodName The fully-qualified method name.
+     * @param code The {@link Status.Code} with which the call completed.
+     * @param nanos The number of nanoseconds the call took.
+     */
+    void recordHandled(String fullMethodName, Status.Code code, long nanos)
+    {
+        MethodMetrics metrics = this.getMethodMetrics(fullMethodName);
+        metrics.handled[code.value()].increment();
+        metrics.latency.record(nanos);
+    }
+
+    /**
+     * Records a call that was not dispatched because it was cancelled or its
+     * deadline expired before it was dequeued.
+     *
+     * @param code The {@link Status.Code} with which the call was closed.
+     */
+    void recordSkipped(Status.Code code)
+    {
+        if (code == Status.Code.DEADLINE_EXCEEDED) {
+            this.skippedExpired.increment();
+        } else {
+            this.skippedCancelled.increment();
+        }
+    }
+
+    /**
+     * Gets the number of calls that were not dispatched because they were
+     * cancelled or their deadline expired before they were dequeued.
+     *
+     * @return The number of skipped calls.
+     */
+    public long getSkippedCount()
+    {
+        return this.skippedExpired.sum() + this.skippedCancelled.sum();
+    }
+
+    /**
+     * Records an attempt to publish an INFO message.
+     *
+     * @param nanos The number of nanoseconds the attempt took.
+     * @param success <code>true</code> if the message was published,
+     *                otherwise <code>false</code>.
+     */
+    public void recordInfoPublish(long nanos, boolean success)
+    {
+        this.infoPublishLatency.record(nanos);
+        if (!success) {
+            this.infoPublishFailures.increment();
+        }
+    }
+
+    /**
+     * Gets the number of calls started for the specified fully-qualified
+     * method name.
+     *
+     * @param fullMethodName The fully-qualified method name.
+     *
+     * @return The number of calls started for the method.
+     */
+    public long getStartedCount(String fullMethodName)
+    {
+        MethodMetrics metrics = this.methodMetrics.get(fullMethodName);
+        return (metrics == null) ? 0L : metrics.started.sum();
+    }
+
+    /**
+     * Gets the number of calls handled for the specified fully-qualified
+     * method name that completed with the specified {@link Status.Code}.
+     *
+     * @param fullMethodName The fully-qualified method name.
+     * @param code The {@link Status.Code}.
+     *
+     * @return The number of calls handled for the method with the code.
+     */
+    public long getHandledCount(String fullMethodName, Status.Code code)
+    {
+        MethodMetrics metrics = this.methodMetrics.get(fullMethodName);
+        return (metrics == null) ? 0L : metrics.handled[code.value()].sum();
+    }
+
+    /**
+     * Creates a new {@link ServerInterceptor} that records the call metrics
+     * to this instance.
+     *
+     * @return A new {@link ServerInterceptor} recording to this instance.
+     */
+    public ServerInterceptor newInterceptor()
+    {
+        return new MetricsInterceptor(this);
+    }
+
+    /**
+     * Creates a new {@link HttpService} that serves the metrics from this
+     * instance in the Prometheus text exposition format.
+     *
+     * @return A new {@link HttpService} serving the metrics.
+     */
+    public HttpService newHttpService()
+    {
+        MediaType mediaType = MediaType.parse(CONTENT_TYPE);
+        return (ctx, req) -> HttpResponse.of(
+            HttpStatus.OK, mediaType, this.scrape());
+    }
+
+    /**
+     * Renders the current metrics in the Prometheus text exposition format.
+     *
+     * @return The current metrics in the Prometheus text exposition format.
+     */
+    public String scrape()
+    {
+        StringBuilder sb = new StringBuilder(4096);
+
+        // sort the methods so the output is stable
+        Map<String, MethodMetrics> methods
+            = new TreeMap<>(this.methodMetrics);
+
+        sb.append("# HELP grpc_server_started_total ")
+          .append("Total number of RPCs started on the server.\n");
+        sb.append("# TYPE grpc_server_started_total counter\n");
+        for (MethodMetrics metrics : methods.values()) {
+            sb.append("grpc_server_started_total{").append(metrics.labels)
+              .append("} ").append(metrics.started.sum()).append('\n');
+        }
+
+        sb.append("# HELP grpc_server_handled_total ")
+          .append("Total number of RPCs completed on the server, ")
+          .append("regardless of success or failure.\n");
+        sb.append("# TYPE grpc_server_handled_total counter\n");
+        for (MethodMetrics metrics : methods.values()) {
+            for (Status.Code code : STATUS_CODES) {
+                long count = metrics.handled[code.value()].sum();
+                if (count == 0L) {
+                    continue;
+                }
+                sb.append("grpc_server_handled_total{").append(metrics.labels)
+                  .append(",grpc_code=\"").append(code.name()).append("\"} ")
+                  .append(count).append('\n');
+            }
+        }
+
+        sb.append("# HELP grpc_server_handling_seconds ")
+          .append("Histogram of response latency of RPCs handled ")
+          .append("by the server.\n");
+        sb.append("# TYPE grpc_server_handling_seconds histogram\n");
+        for (MethodMetrics metrics : methods.values()) {
+            metrics.latency.write(
+                sb, "grpc_server_handling_seconds", metrics.labels);
+        }
+
+        ThreadPoolExecutor executor = this.blockingExecutor;
+        if (executor != null) {
+            writeGauge(sb, "sz_grpc_blocking_executor_queue_depth",
+                       "Number of tasks waiting for a blocking thread.",
+                       executor.getQueue().size());
+            writeGauge(sb, "sz_grpc_blocking_executor_active_threads",
+                       "Number of blocking threads executing tasks.",
+                       executor.getActiveCount());
+            writeGauge(sb, "sz_grpc_blocking_executor_pool_size",
+                       "Number of threads in the blocking thread pool.",
+                       executor.getPoolSize());
+            sb.append("# HELP sz_grpc_blocking_executor_completed_total ")
+              .append("Total number of blocking tasks completed.\n");
+            sb.append("# TYPE sz_grpc_blocking_executor_completed_total ")
+              .append("counter\n");
+            sb.append("sz_grpc_blocking_executor_completed_total ")
+              .append(executor.getCompletedTaskCount()).append('\n');
+        }
+
+        SzGrpcExecutorLanes lanes = this.executorLanes;
+        if (lanes != null) {
+            writeLaneMetric(sb, lanes, "sz_grpc_lane_queue_depth", "gauge",
+                            "Number of calls waiting for a lane thread.",
+                            lanes::getQueueDepth);
+            writeLaneMetric(sb, lanes, "sz_grpc_lane_active_threads", "gauge",
+                            "Number of lane threads executing calls.",
+                            lanes::getActiveCount);
+            writeLaneMetric(sb, lanes, "sz_grpc_lane_threads", "gauge",
+                            "Number of threads configured for the lane.",
+                            lane -> lanes.getConfigs().get(lane)
+                                         .getThreadCount());
+            writeLaneMetric(sb, lanes, "sz_grpc_lane_rejected_total",
+                            "counter",
+                            "Total number of calls rejected because the "
+                            + "lane was at capacity.",
+                            lanes::getRejectedCount);
+        }
+
+        SzGrpcConcurrencyLimiter limiter = this.concurrencyLimiter;
+        if (limiter != null) {
+            writeGauge(sb, "sz_grpc_concurrency_limit",
+                       "Current adaptive limit on calls in flight.",
+                       limiter.getLimit());
+            writeGauge(sb, "sz_grpc_concurrency_in_flight",
+                       "Number of admitted calls in flight.",
+                       limiter.getInFlightCount());
+            writeCounter(sb, "sz_grpc_concurrency_rejected_total",
+                         "Total number of calls rejected at the "
+                         + "concurrency limit.",
+                         limiter.getRejectedCount());
+            sb.append("# HELP sz_grpc_concurrency_latency_seconds ")
+              .append("Average latency of admitted calls by window.\n");
+            sb.append("# TYPE sz_grpc_concurrency_latency_seconds gauge\n");
+            sb.append("sz_grpc_concurrency_latency_seconds{window=\"short\"} ")
+              .append(limiter.getShortLatencyNanos() / NANOS_PER_SECOND)
+              .append('\n');
+            sb.append("sz_grpc_concurrency_latency_seconds{window=\"long\"} ")
+              .append(limiter.getLongLatencyNanos() / NANOS_PER_SECOND)
+              .append('\n');
+        }
+
+        SzGrpcNativeCallLimiter nativeLimiter = this.nativeCallLimiter;
+        if (nativeLimiter != null) {
+            writeGauge(sb, "sz_grpc_native_call_limit",
+                       "Maximum number of concurrent native SDK calls.",
+                       nativeLimiter.getLimit());
+            writeGauge(sb, "sz_grpc_native_calls_active",
+                       "Number of native SDK calls running.",
+                       nativeLimiter.getActiveCount());
+            writeGauge(sb, "sz_grpc_native_calls_waiting",
+                       "Number of threads waiting to call the native SDK.",
+                       nativeLimiter.getWaitingCount());
+            writeCounter(sb, "sz_grpc_native_calls_total",
+                         "Total number of native SDK calls.",
+                         nativeLimiter.getCallCount());
+        }
+
+        Map<String, Double> stats = this.engineStats;
+        if (stats.size() > 0) {
+            sb.append("# HELP sz_engine_stat ")
+              .append("Engine statistics from the most recent stats ")
+              .append("report.\n");
+            sb.append("# TYPE sz_engine_stat gauge\n");
+            for (Map.Entry<String, Double> entry : stats.entrySet()) {
+                sb.append("sz_engine_stat{stat=\"")
+                  .append(escape(entry.getKey())).append("\"} ")
+                  .append(entry.getValue()).append('\n');
+            }
+        }
+
+        SzInfoMessagePublisher publisher = this.infoPublisher;
+        if (publisher != null) {
+            writeGauge(sb, "sz_grpc_info_queue_depth",
+                       "Number of INFO messages awaiting delivery.",
+                       publisher.getQueueDepth());
+            writeGauge(sb, "sz_grpc_info_queue_capacity",
+                       "Maximum number of INFO messages that may be "
+                       + "buffered.",
+                       publisher.getCapacity());
+            writeCounter(sb, "sz_grpc_info_queue_dropped_total",
+                         "Total number of INFO messages dropped because "
+                         + "the buffer was full.",
+                         publisher.getDroppedCount());
+            writeCounter(sb, "sz_grpc_info_queue_caller_runs_total",
+                         "Total number of INFO messages published on the "
+                         + "request thread.",
+                         publisher.getCallerRunsCount());
+            writeCounter(sb, "sz_grpc_info_queue_delivery_failures_total",
+                         "Total number of buffered INFO messages that "
+                         + "failed delivery.",
+                         publisher.getFailedCount());
+        }
+
+        SzGrpcReadCache cache = this.readCache;
+        if (cache != null) {
+            writeCounter(sb, "sz_grpc_read_cache_hits_total",
+                         "Total number of reads served from the read cache.",
+                         cache.getHitCount());
+            writeCounter(sb, "sz_grpc_read_cache_misses_total",
+                         "Total number of reads not found in the read cache.",
+                         cache.getMissCount());
+            writeCounter(sb, "sz_grpc_read_cache_evictions_total",
+                         "Total number of read cache entries evicted due to "
+                         + "size or age.",
+                         cache.getEvictionCount());
+            writeCounter(sb, "sz_grpc_read_cache_invalidations_total",
+                         "Total number of read cache entries invalidated by "
+                         + "writes.",
+                         cache.getInvalidationCount());
+            writeGauge(sb, "sz_grpc_read_cache_entries",
+                       "Number of results in the read cache.",
+                       cache.getSize());
+            writeGauge(sb, "sz_grpc_read_cache_bytes",
+                       "Approximate number of bytes in the read cache.",
+                       cache.getWeight());
+        }
+
+        SzGrpcSingleFlight flight = this.singleFlight;
+        if (flight != null) {
+            writeCounter(sb, "sz_grpc_read_coalescing_executed_total",
+                         "Total number of coalescable reads executed.",
+                         flight.getExecutedCount());
+            writeCounter(sb, "sz_grpc_read_coalescing_joined_total",
+                         "Total number of reads that joined an identical "
+                         + "read in flight.",
+                         flight.getCoalescedCount());
+            writeGauge(sb, "sz_grpc_read_coalescing_in_flight",
+                       "Number of coalescable reads in flight.",
+                       flight.getInFlightCount());
+        }
+
+        double insertRate = this.repositoryInsertRate;
+        if (!Double.isNaN(insertRate)) {
+            sb.append("# HELP sz_repository_insert_records_per_second ")
+              .append("Records per second inserted by the most recent ")
+              .append("repository performance check.\n");
+            sb.append("# TYPE sz_repository_insert_records_per_second ")
+              .append("gauge\n");
+            sb.append("sz_repository_insert_records_per_second ")
+              .append(insertRate).append('\n');
+        }
+
+        if (this.infoPublishLatency.getCount() > 0L) {
+            sb.append("# HELP sz_grpc_info_publish_seconds ")
+              .append("Histogram of latency publishing INFO messages.\n");
+            sb.append("# TYPE sz_grpc_info_publish_seconds histogram\n");
+            this.infoPublishLatency.write(
+                sb, "sz_grpc_info_publish_seconds", "");
+            sb.append("# HELP sz_grpc_info_publish_failures_total ")
+              .append("Total number of INFO messages that failed ")
+              .append("to publish.\n");
+            sb.append("# TYPE sz_grpc_info_publish_failures_total counter\n");
+            sb.append("sz_grpc_info_publish_failures_total ")
+              .append(this.infoPublishFailures.sum()).append('\n');
+        }
+
+        sb.append("# HELP sz_grpc_calls_skipped_total ")
+          .append("Total number of calls not dispatched because they were ")
+          .append("cancelled or expired while queued.\n");
+        sb.append("# TYPE sz_grpc_calls_skipped_total counter\n");
+        sb.append("sz_grpc_calls_skipped_total{grpc_code=\"")
+          .append(Status.Code.DEADLINE_EXCEEDED.name()).append("\"} ")
+          .append(this.skippedExpired.sum()).append('\n');
+        sb.append("sz_grpc_calls_skipped_total{grpc_code=\"")
+          .append(Status.Code.CANCELLED.name()).append("\"} ")
+          .append(this.skippedCancelled.sum()).append('\n');
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes a metric in the Prometheus text exposition format with a value
+     * for each configured lane of the specified {@link SzGrpcExecutorLanes}.
+     *
+     * @param sb The {@link StringBuilder} to write to.
+     * @param lanes The {@link SzGrpcExecutorLanes}.
+     * @param name The name of the metric.
+     * @param type The type of the metric.
+     * @param help The help text for the metric.
+     * @param valueFunction The {@link ToLongFunction} for obtaining the
+     *                      value for each lane.
+     */
+    private static void writeLaneMetric(
+        StringBuilder                                   sb,
+        SzGrpcExecutorLanes                             lanes,
+        String                                          name,
+        String                                          type,
+        String                                          help,
+        ToLongFunction<SzGrpcExecutorLanes.Lane>        valueFunction)
+    {
+        sb.append("# HELP ").append(name).append(' ').append(help)
+          .append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type)
+          .append('\n');
+        for (SzGrpcExecutorLanes.Lane lane : lanes.getConfigs().keySet()) {
+            sb.append(name).append("{lane=\"")
+              .append(lane.name().toLowerCase(Locale.ROOT)).append("\"} ")
+              .append(valueFunction.applyAsLong(lane)).append('\n');
+        }
+    }
+
+    /**
+     * Writes a gauge in the Prometheus text exposition format.
+     *
+     * @param sb The {@link StringBuilder} to write to.
+     * @param name The metric name.
+     * @param help The help text.
+     * @param value The value of the gauge.
+     */
+    private static void writeGauge(StringBuilder   sb,
+                                   String          name,
+                                   String          help,
+                                   long            value)
+    {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" gauge\n");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Writes a counter in the Prometheus text exposition format.
+     *
+     * @param sb The {@link StringBuilder} to write to.
+     * @param name The metric name.
+     * @param help The help text.
+     * @param value The value of the counter.
+     */
+    private static void writeCounter(StringBuilder   sb,
+                                     String          name,
+                                     String          help,
+                                     long            value)
+    {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" counter\n");
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * The {@link ServerInterceptor} that records call metrics.
+     */
+    private static final class MetricsInterceptor implements ServerInterceptor
+    {
+        /**
+         * The {@link SzGrpcServerMetrics} to record to.
+         */
+        private final SzGrpcServerMetrics metrics;
+
+        /**
+         * Constructs with the {@link SzGrpcServerMetrics} to record to.
+         *
+         * @param metrics The {@link SzGrpcServerMetrics} to record to.
+         */
+        private MetricsInterceptor(SzGrpcServerMetrics metrics)
+        {
+            this.metrics = Objects.requireNonNull(metrics);
+        }
+
+        /**
+         * Implemented to record the start, completion status and latency of
+         * the call.
+         *
+         * {@inheritDoc}
+         */
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT>         call,
+            Metadata                        headers,
+            ServerCallHandler<ReqT, RespT>  next)
+        {
+            String methodName = call.getMethodDescriptor().getFullMethodName();
+            long startNanos = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean(false);
+
+            this.metrics.recordStarted(methodName);
+
+            ServerCall<ReqT, RespT> metricsCall
+                = new SimpleForwardingServerCall<ReqT, RespT>(call) {
+                    @Override
+                    public void close(Status status, Metadata trailers)
+                    {
+                        if (recorded.compareAndSet(false, true)) {
+                            MetricsInterceptor.this.metrics.recordHandled(
+                                methodName, status.getCode(),
+                                System.nanoTime() - startNanos);
+                        }
+                        super.close(status, trailers);
+                    }
+                };
+
+            ServerCall.Listener<ReqT> listener
+                = next.startCall(metricsCall, headers);
+
+            return new SimpleForwardingServerCallListener<ReqT>(listener) {
+                @Override
+                public void onCancel()
+                {
+                    if (recorded.compareAndSet(false, true)) {
+                        MetricsInterceptor.this.metrics.recordHandled(
+                            methodName, Status.Code.CANCELLED,
+                            System.nanoTime() - startNanos);
+                    }
+                    super.onCancel();
+                }
+            };
+        }
+    }
+}
@@ -289,6 +289,76 @@ public enum SzGrpcServerOption
             ENV_PREFIX + "GRPC_CONCURRENCY",
             1, DEFAULT_GRPC_CONCURRENCY_PARAM),
 
+    /**
+     * <p>
+     * This option is used to give classes of RPC's their own executor
+     * "lanes" (bulkheads) with dedicated threads and a bounded queue so that
+     * bulk work cannot starve interactive reads.  The single parameter is a
+     * comma-separated list of <code>{lane}={threads}[:{queue-size}]</code>
+     * entries where the lane is one of <code>reads</code>,
+     * <code>writes</code>, <code>exports</code> or <code>admin</code> (see
+     * {@link SzGrpcExecutorLanes.Lane}).  If the queue size is omitted then
+     * {@link SzGrpcServerConstants#DEFAULT_EXECUTOR_LANE_QUEUE_SIZE} is
+     * used.  Calls arriving when their lane is full are failed with
+     * <code>RESOURCE_EXHAUSTED</code>.  Calls in lanes that are not
+     * specified share the {@linkplain #GRPC_CONCURRENCY blocking task
+     * executor}.  If omitted then all calls share the blocking task
+     * executor.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line:
+     * <code>--executor-lanes reads=8:64,writes=4:16,exports=2:2</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_EXECUTOR_LANES="{lane-specification}"</code></li>
+     * </ul>
+     */
+    EXECUTOR_LANES("--executor-lanes",
+            ENV_PREFIX + "EXECUTOR_LANES",
+            null, 1),
+
+    /**
+     * <p>
+     * This option sets the network transport for the server event loops.
+     * The single parameter to this option should be one of
+     * <code>nio</code>, <code>epoll</code> or <code>io_uring</code> (see
+     * {@link SzGrpcTransport}).  The native <code>epoll</code> and
+     * <code>io_uring</code> transports are only available on Linux and if
+     * the requested transport cannot be loaded then the server logs the
+     * reason and falls back to <code>nio</code>.  If not specified, then
+     * this defaults to {@link SzGrpcServerConstants#DEFAULT_GRPC_TRANSPORT}.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--grpc-transport {transport}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_GRPC_TRANSPORT="{transport}"</code></li>
+     * </ul>
+     */
+    GRPC_TRANSPORT("--grpc-transport",
+            ENV_PREFIX + "GRPC_TRANSPORT",
+            1, DEFAULT_GRPC_TRANSPORT_PARAM),
+
+    /**
+     * <p>
+     * This option sets the number of event loop threads that perform the
+     * network I/O for the server.  These are distinct from the {@linkplain
+     * #GRPC_CONCURRENCY gRPC concurrency} threads that execute the Senzing
+     * SDK functions.  The single parameter to this option should be a
+     * positive integer.  If not specified, then the Armeria default (twice
+     * the number of available processors) is used.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--event-loop-threads {thread-count}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_EVENT_LOOP_THREADS="{thread-count}"</code></li>
+     * </ul>
+     */
+    EVENT_LOOP_THREADS("--event-loop-threads",
+            ENV_PREFIX + "EVENT_LOOP_THREADS",
+            null, 1),
+
     /**
      * <p>
      * If leveraging the default configuration stored in the
@@ -369,6 +439,64 @@ public enum SzGrpcServerOption
             ENV_PREFIX + "SKIP_STARTUP_PERF",
             0, "false"),
 
+    /**
+     * <p>
+     * This option is used to specify the number of <b>seconds</b> for which
+     * to run the repository performance check on startup (unless the check
+     * is {@linkplain #SKIP_STARTUP_PERF skipped}) and on each periodic
+     * {@linkplain #PERF_RECHECK_SECONDS re-check}.  By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_PERF_CHECK_SECONDS}.  The value
+     * must be a positive integer.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--perf-check-seconds {seconds}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_PERF_CHECK_SECONDS="{seconds}"</code></li>
+     * </ul>
+     */
+    PERF_CHECK_SECONDS("--perf-check-seconds",
+            ENV_PREFIX + "PERF_CHECK_SECONDS",
+            1, DEFAULT_PERF_CHECK_SECONDS_PARAM),
+
+    /**
+     * <p>
+     * This option is used to specify the minimum number of records per
+     * second inserted by the repository performance check below which a
+     * warning is logged.  By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_PERF_WARNING_RATE}.  If zero (0)
+     * is specified then no warning is ever logged.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--perf-warning-rate {records/sec}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_PERF_WARNING_RATE="{records/sec}"</code></li>
+     * </ul>
+     */
+    PERF_WARNING_RATE("--perf-warning-rate",
+            ENV_PREFIX + "PERF_WARNING_RATE",
+            1, DEFAULT_PERF_WARNING_RATE_PARAM),
+
+    /**
+     * <p>
+     * This option is used to specify the number of <b>seconds</b> between
+     * periodic repository performance checks after startup so that database
+     * degradation can be observed over time.  By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_PERF_RECHECK_SECONDS}.  If zero
+     * (0) is specified then the check is only performed on startup.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--perf-recheck-seconds {seconds}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_PERF_RECHECK_SECONDS="{seconds}"</code></li>
+     * </ul>
+     */
+    PERF_RECHECK_SECONDS("--perf-recheck-seconds",
+            ENV_PREFIX + "PERF_RECHECK_SECONDS",
+            1, DEFAULT_PERF_RECHECK_SECONDS_PARAM),
+
     /**
      * The presence of this option causes the API Server to skip
      * priming the engine on startup, and its absence allows the
@@ -388,6 +516,295 @@ public enum SzGrpcServerOption
             ENV_PREFIX + "SKIP_ENGINE_PRIMING",
             0, "false"),
 
+    /**
+     * The presence of this option causes the API Server to execute every
+     * read request independently, and its absence allows identical
+     * concurrent reads (e.g.: getting the same entity or searching with
+     * the same attributes and flags) to be coalesced into a single engine
+     * call as is the default behavior. A single parameter may optionally
+     * be specified as <code>true</code> or <code>false</code> with
+     * <code>false</code> simulating the absence of the option.
+     * <ul>
+     * <li>Command Line:
+     * <code>--disable-read-coalescing [true|false]</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_DISABLE_READ_COALESCING=
+     * "{true|false}"</code></li>
+     * </ul>
+     */
+    DISABLE_READ_COALESCING("--disable-read-coalescing",
+            ENV_PREFIX + "DISABLE_READ_COALESCING",
+            0, "false"),
+
+    /**
+     * The presence of this option causes the API Server to adaptively limit
+     * the number of unary calls in flight based on their observed latency,
+     * rejecting calls beyond the limit with <code>RESOURCE_EXHAUSTED</code>
+     * and a <code>grpc-retry-pushback-ms</code> hint rather than queueing
+     * them.  The limit starts at the {@linkplain #GRPC_CONCURRENCY gRPC
+     * concurrency} and adapts between the bounds derived from it using
+     * {@link SzGrpcServerConstants#ADAPTIVE_CONCURRENCY_MIN_DIVISOR} and
+     * {@link SzGrpcServerConstants#ADAPTIVE_CONCURRENCY_MAX_FACTOR}.  Its
+     * absence leaves the number of calls in flight unlimited as is the
+     * default behavior.  A single parameter may optionally be specified as
+     * <code>true</code> or <code>false</code> with <code>false</code>
+     * simulating the absence of the option.
+     * <ul>
+     * <li>Command Line:
+     * <code>--adaptive-concurrency [true|false]</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_ADAPTIVE_CONCURRENCY=
+     * "{true|false}"</code></li>
+     * </ul>
+     */
+    ADAPTIVE_CONCURRENCY("--adaptive-concurrency",
+            ENV_PREFIX + "ADAPTIVE_CONCURRENCY",
+            0, "false"),
+
+    /**
+     * The presence of this option causes the API Server to service requests
+     * on virtual threads (a new one per task, since virtual threads are not
+     * pooled) rather than on a pool of {@linkplain #GRPC_CONCURRENCY gRPC
+     * concurrency} platform threads, so that calls waiting on clients,
+     * coalesced reads or INFO message buffering do not each hold an
+     * operating system thread.  The number of concurrent calls into the
+     * native SDK is then bounded by the {@linkplain #CORE_CONCURRENCY core
+     * concurrency}.  Virtual threads require Java 21 or later and if not
+     * supported by the running JVM then the server logs a warning and uses
+     * platform threads.  Its absence leaves requests serviced on platform
+     * threads as is the default behavior.  A single parameter may
+     * optionally be specified as <code>true</code> or <code>false</code>
+     * with <code>false</code> simulating the absence of the option.
+     * <ul>
+     * <li>Command Line:
+     * <code>--virtual-threads [true|false]</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_VIRTUAL_THREADS="{true|false}"</code></li>
+     * </ul>
+     */
+    VIRTUAL_THREADS("--virtual-threads",
+            ENV_PREFIX + "VIRTUAL_THREADS",
+            0, "false"),
+
+    /**
+     * The presence of this option causes the API Server to include the
+     * exception text, function and stack trace in the errors returned for
+     * Senzing SDK failures (e.g.: entity not found).  Its absence causes
+     * such errors to be encoded compactly with only the error code and
+     * message as is the default behavior.  Errors for unexpected failures
+     * always include the stack trace.  A single parameter may optionally be
+     * specified as <code>true</code> or <code>false</code> with
+     * <code>false</code> simulating the absence of the option.
+     * <ul>
+     * <li>Command Line:
+     * <code>--error-stack-traces [true|false]</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_ERROR_STACK_TRACES="{true|false}"</code></li>
+     * </ul>
+     */
+    ERROR_STACK_TRACES("--error-stack-traces",
+            ENV_PREFIX + "ERROR_STACK_TRACES",
+            0, "false"),
+
+    /**
+     * <p>
+     * This option is used to specify the maximum number of <b>seconds</b>
+     * that a streaming export may wait for the client to read more content
+     * before the call is failed and the export is closed. This prevents a
+     * client that abandons an export without closing it from holding an
+     * export cursor open indefinitely. By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS}.
+     * If zero (0) is specified then there is no limit.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line:
+     * <code>--export-idle-timeout-seconds {seconds}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_EXPORT_IDLE_TIMEOUT_SECONDS="{seconds}"</code></li>
+     * </ul>
+     */
+    EXPORT_IDLE_TIMEOUT_SECONDS("--export-idle-timeout-seconds",
+            ENV_PREFIX + "EXPORT_IDLE_TIMEOUT_SECONDS",
+            1, DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS_PARAM),
+
+    /**
+     * <p>
+     * This option is used to enable a metrics endpoint that publishes the
+     * gRPC server metrics in the Prometheus text exposition format. The
+     * single parameter is the URL path for the endpoint (e.g.:
+     * <code>/metrics</code>) and must begin with a forward slash. If omitted
+     * then no metrics endpoint is exposed.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--metrics-path {path}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_METRICS_PATH="{path}"</code></li>
+     * </ul>
+     */
+    METRICS_PATH("--metrics-path",
+            ENV_PREFIX + "METRICS_PATH",
+            null, 1),
+
+    /**
+     * <p>
+     * This option is used to specify the maximum number of INFO messages
+     * that may be buffered awaiting asynchronous publishing to the data mart
+     * and/or other INFO message consumers.  Buffered messages are delivered
+     * in batches by a dedicated thread so that publishing does not add to
+     * the latency of write operations.  By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_INFO_QUEUE_CAPACITY}.  If zero (0)
+     * is specified then INFO messages are published synchronously on the
+     * request thread.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--info-queue-capacity {count}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_INFO_QUEUE_CAPACITY="{count}"</code></li>
+     * </ul>
+     */
+    INFO_QUEUE_CAPACITY("--info-queue-capacity",
+            ENV_PREFIX + "INFO_QUEUE_CAPACITY",
+            1, DEFAULT_INFO_QUEUE_CAPACITY_PARAM),
+
+    /**
+     * <p>
+     * This option is used to specify the policy for handling INFO messages
+     * when the {@linkplain #INFO_QUEUE_CAPACITY INFO message buffer} is
+     * full.  The possible values are:
+     * <ul>
+     * <li><code>BLOCK</code> &mdash; Blocks the request thread until space
+     * is available (backpressure).</li>
+     * <li><code>CALLER_RUNS</code> &mdash; Publishes on the request
+     * thread.</li>
+     * <li><code>DROP_NEWEST</code> &mdash; Drops the message being
+     * published.</li>
+     * <li><code>DROP_OLDEST</code> &mdash; Drops the oldest buffered
+     * message.</li>
+     * </ul>
+     * <b>NOTE:</b> The <code>DROP_NEWEST</code> and <code>DROP_OLDEST</code>
+     * policies lose INFO messages, which are counted in the metrics and
+     * logged as warnings.  By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_INFO_QUEUE_OVERFLOW}.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--info-queue-overflow {policy}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_INFO_QUEUE_OVERFLOW="{policy}"</code></li>
+     * </ul>
+     */
+    INFO_QUEUE_OVERFLOW("--info-queue-overflow",
+            ENV_PREFIX + "INFO_QUEUE_OVERFLOW",
+            1, DEFAULT_INFO_QUEUE_OVERFLOW_PARAM),
+
+    /**
+     * <p>
+     * This option is used to enable the change feed by specifying the
+     * directory in which to record the INFO messages produced by write
+     * operations to a memory-mapped segment log that is flushed to the
+     * storage device at the {@linkplain #CHANGE_FEED_FLUSH_MILLIS flush
+     * interval}.  Clients may then subscribe to the change feed from an
+     * offset using {@link com.senzing.sdk.grpc.SzGrpcChangeFeed}.  If
+     * omitted then the change feed is not enabled.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--change-feed-dir {directory}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_CHANGE_FEED_DIR="{directory}"</code></li>
+     * </ul>
+     */
+    CHANGE_FEED_DIR("--change-feed-dir",
+            ENV_PREFIX + "CHANGE_FEED_DIR",
+            null, 1),
+
+    /**
+     * <p>
+     * This option is used to specify the maximum number of <b>megabytes</b>
+     * of the {@linkplain #CHANGE_FEED_DIR change feed} log to retain before
+     * the oldest entries are deleted.  By default this is set to
+     * {@link SzGrpcServerConstants#DEFAULT_CHANGE_FEED_RETENTION_MB}.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--change-feed-retention-mb {megabytes}</code>
+     * </li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_CHANGE_FEED_RETENTION_MB="{megabytes}"</code></li>
+     * </ul>
+     */
+    CHANGE_FEED_RETENTION_MB("--change-feed-retention-mb",
+            ENV_PREFIX + "CHANGE_FEED_RETENTION_MB",
+            1, DEFAULT_CHANGE_FEED_RETENTION_MB_PARAM),
+
+    /**
+     * <p>
+     * This option is used to specify the maximum number of
+     * <b>milliseconds</b> between flushes of the {@linkplain
+     * #CHANGE_FEED_DIR change feed} log to the storage device.  Entries
+     * appended within this interval survive a crash of the server process
+     * but may be lost to a crash of the operating system.  Specify zero (0)
+     * to flush after every append at the cost of write throughput.  By
+     * default this is set to {@link
+     * SzGrpcServerConstants#DEFAULT_CHANGE_FEED_FLUSH_MILLIS}.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--change-feed-flush-millis {milliseconds}</code>
+     * </li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_CHANGE_FEED_FLUSH_MILLIS="{milliseconds}"</code>
+     * </li>
+     * </ul>
+     */
+    CHANGE_FEED_FLUSH_MILLIS("--change-feed-flush-millis",
+            ENV_PREFIX + "CHANGE_FEED_FLUSH_MILLIS",
+            1, DEFAULT_CHANGE_FEED_FLUSH_MILLIS_PARAM),
+
+    /**
+     * <p>
+     * This option is used to specify the maximum number of <b>megabytes</b>
+     * for the server-side read cache.  If positive then the results of
+     * entity, record, "how" and "why" reads are cached and are invalidated
+     * using the INFO messages of the write operations (which are then always
+     * requested from the engine).  By default this is set to {@link
+     * SzGrpcServerConstants#DEFAULT_READ_CACHE_MB} which disables the read
+     * cache.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--read-cache-mb {megabytes}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_READ_CACHE_MB="{megabytes}"</code></li>
+     * </ul>
+     */
+    READ_CACHE_MB("--read-cache-mb",
+            ENV_PREFIX + "READ_CACHE_MB",
+            1, DEFAULT_READ_CACHE_MB_PARAM),
+
+    /**
+     * <p>
+     * This option is used to specify the maximum number of seconds to retain
+     * a result in the {@linkplain #READ_CACHE_MB read cache}, bounding the
+     * staleness of cached results with respect to writes performed by other
+     * servers or processes sharing the repository.  Zero (0) indicates that
+     * results do not expire.  By default this is set to {@link
+     * SzGrpcServerConstants#DEFAULT_READ_CACHE_TTL_SECONDS}.
+     * <p>
+     * This option can be specified in the following ways:
+     * <ul>
+     * <li>Command Line: <code>--read-cache-ttl-seconds {seconds}</code></li>
+     * <li>Environment:
+     * <code>SENZING_TOOLS_READ_CACHE_TTL_SECONDS="{seconds}"</code></li>
+     * </ul>
+     */
+    READ_CACHE_TTL_SECONDS("--read-cache-ttl-seconds",
+            ENV_PREFIX + "READ_CACHE_TTL_SECONDS",
+            1, DEFAULT_READ_CACHE_TTL_SECONDS_PARAM),
+
     /**
      * This option is used to specify the database connection
      * for the data mart, if omitted then the data mart will
@@ -852,6 +1269,12 @@ public enum SzGrpcServerOption
 
             dependencyMap.put(DATA_MART_RATE,
                     Set.of(Set.of(DATA_MART_DATABASE_URI)));
+            dependencyMap.put(CHANGE_FEED_RETENTION_MB,
+                    Set.of(Set.of(CHANGE_FEED_DIR)));
+            dependencyMap.put(CHANGE_FEED_FLUSH_MILLIS,
+                    Set.of(Set.of(CHANGE_FEED_DIR)));
+            dependencyMap.put(READ_CACHE_TTL_SECONDS,
+                    Set.of(Set.of(READ_CACHE_MB)));
             dependencyMap.put(LICENSE_STRING_BASE64,
                     Set.of(Set.of(CORE_DATABASE_URI)));
 
@@ -1029,7 +1452,8 @@ public enum SzGrpcServerOption
                 }
 
                 case CORE_CONCURRENCY:
-                case GRPC_CONCURRENCY: {
+                case GRPC_CONCURRENCY:
+                case EVENT_LOOP_THREADS: {
                     int threadCount;
                     try {
                         threadCount = Integer.parseInt(params.get(0));
@@ -1048,6 +1472,12 @@ public enum SzGrpcServerOption
                     return threadCount;
                 }
 
+                case EXECUTOR_LANES:
+                    return SzGrpcExecutorLanes.parse(params.get(0));
+
+                case GRPC_TRANSPORT:
+                    return SzGrpcTransport.parse(params.get(0));
+
                 case REFRESH_CONFIG_SECONDS:
                     try {
                         return Long.parseLong(params.get(0));
@@ -1078,6 +1508,194 @@ public enum SzGrpcServerOption
                     return statsInterval;
                 }
 
+                case PERF_CHECK_SECONDS: {
+                    int perfSeconds;
+                    try {
+                        perfSeconds = Integer.parseInt(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Performance check duration must be an "
+                                        + "integer: "
+                                        + params.get(0));
+                    }
+                    if (perfSeconds <= 0) {
+                        throw new IllegalArgumentException(
+                                "Performance check duration must be "
+                                        + "positive: " + perfSeconds);
+                    }
+                    return perfSeconds;
+                }
+
+                case PERF_WARNING_RATE: {
+                    double warningRate;
+                    try {
+                        warningRate = Double.parseDouble(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Performance warning rate must be a "
+                                        + "number: "
+                                        + params.get(0));
+                    }
+                    if (warningRate < 0.0 || Double.isNaN(warningRate)
+                        || Double.isInfinite(warningRate))
+                    {
+                        throw new IllegalArgumentException(
+                                "Performance warning rate must be a finite "
+                                        + "non-negative number: "
+                                        + warningRate);
+                    }
+                    return warningRate;
+                }
+
+                case PERF_RECHECK_SECONDS: {
+                    long recheckSeconds;
+                    try {
+                        recheckSeconds = Long.parseLong(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Performance re-check interval must be an "
+                                        + "integer: "
+                                        + params.get(0));
+                    }
+                    if (recheckSeconds < 0) {
+                        throw new IllegalArgumentException(
+                                "Negative performance re-check intervals "
+                                        + "are not allowed: "
+                                        + recheckSeconds);
+                    }
+                    return recheckSeconds;
+                }
+
+                case EXPORT_IDLE_TIMEOUT_SECONDS: {
+                    long idleTimeout;
+                    try {
+                        idleTimeout = Long.parseLong(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Export idle timeout must be an "
+                                        + "integer: "
+                                        + params.get(0));
+                    }
+                    if (idleTimeout < 0) {
+                        throw new IllegalArgumentException(
+                                "Negative export idle timeouts are not "
+                                        + "allowed: " + idleTimeout);
+                    }
+                    return idleTimeout;
+                }
+
+                case METRICS_PATH: {
+                    String path = params.get(0).trim();
+                    if (!path.startsWith("/")) {
+                        throw new IllegalArgumentException(
+                                "The metrics path must begin with a "
+                                        + "forward slash: " + path);
+                    }
+                    return path;
+                }
+
+                case INFO_QUEUE_CAPACITY: {
+                    int capacity;
+                    try {
+                        capacity = Integer.parseInt(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "INFO queue capacity must be an "
+                                        + "integer: "
+                                        + params.get(0));
+                    }
+                    if (capacity < 0) {
+                        throw new IllegalArgumentException(
+                                "Negative INFO queue capacities are not "
+                                        + "allowed: " + capacity);
+                    }
+                    return capacity;
+                }
+
+                case INFO_QUEUE_OVERFLOW:
+                    return SzInfoMessagePublisher.OverflowPolicy.parse(
+                        params.get(0));
+
+                case CHANGE_FEED_DIR: {
+                    File directory = new File(params.get(0).trim());
+                    if (directory.exists() && !directory.isDirectory()) {
+                        throw new IllegalArgumentException(
+                                "The change feed path is not a "
+                                        + "directory: " + directory);
+                    }
+                    return directory;
+                }
+
+                case CHANGE_FEED_RETENTION_MB: {
+                    long retention;
+                    try {
+                        retention = Long.parseLong(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Change feed retention must be an "
+                                        + "integer: "
+                                        + params.get(0));
+                    }
+                    if (retention <= 0) {
+                        throw new IllegalArgumentException(
+                                "Change feed retention must be "
+                                        + "positive: " + retention);
+                    }
+                    return retention;
+                }
+
+                case CHANGE_FEED_FLUSH_MILLIS: {
+                    long millis;
+                    try {
+                        millis = Long.parseLong(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Change feed flush interval must be an "
+                                        + "integer: "
+                                        + params.get(0));
+                    }
+                    if (millis < 0) {
+                        throw new IllegalArgumentException(
+                                "Change feed flush interval cannot be "
+                                        + "negative: " + millis);
+                    }
+                    return millis;
+                }
+
+                case READ_CACHE_MB: {
+                    long size;
+                    try {
+                        size = Long.parseLong(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Read cache size must be an integer: "
+                                        + params.get(0));
+                    }
+                    if (size < 0) {
+                        throw new IllegalArgumentException(
+                                "Read cache size cannot be negative: "
+                                        + size);
+                    }
+                    return size;
+                }
+
+                case READ_CACHE_TTL_SECONDS: {
+                    long ttl;
+                    try {
+                        ttl = Long.parseLong(params.get(0));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(
+                                "Read cache time-to-live must be an "
+                                        + "integer: " + params.get(0));
+                    }
+                    if (ttl < 0) {
+                        throw new IllegalArgumentException(
+                                "Read cache time-to-live cannot be "
+                                        + "negative: " + ttl);
+                    }
+                    return ttl;
+                }
+
                 case DATA_MART_DATABASE_URI:
                     try {
                         return SzReplicatorOption
@@ -1093,6 +1711,10 @@ public enum SzGrpcServerOption
 
                 case SKIP_STARTUP_PERF:
                 case SKIP_ENGINE_PRIMING:
+                case DISABLE_READ_COALESCING:
+                case ADAPTIVE_CONCURRENCY:
+                case VIRTUAL_THREADS:
+                case ERROR_STACK_TRACES:
                 case IGNORE_ENVIRONMENT:
                     if (params.size() == 0) {
                         return Boolean.TRUE;
@@ -10,6 +10,7 @@ import com.senzing.util.JsonUtilities;
 
 import javax.json.JsonObject;
 
+import java.io.File;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -106,6 +107,25 @@ public class SzGrpcServerOptions
      */
     private int grpcConcurrency = DEFAULT_GRPC_CONCURRENCY;
 
+    /**
+     * The {@link Map} of {@link SzGrpcExecutorLanes.Lane} keys to {@link
+     * SzGrpcExecutorLanes.LaneConfig} values describing the executor lanes,
+     * or <code>null</code> if all calls share the blocking task executor.
+     */
+    private Map<SzGrpcExecutorLanes.Lane, SzGrpcExecutorLanes.LaneConfig>
+        executorLanes = null;
+
+    /**
+     * The {@link SzGrpcTransport} for the server event loops.
+     */
+    private SzGrpcTransport grpcTransport = DEFAULT_GRPC_TRANSPORT;
+
+    /**
+     * The number of event loop threads for the server, or <code>null</code>
+     * if the Armeria default should be used.
+     */
+    private Integer eventLoopThreads = null;
+
     /**
      * The config refresh period (in seconds) with which to initialize the auto
      * core SDK.
@@ -122,11 +142,99 @@ public class SzGrpcServerOptions
      */
     private boolean skipStartupPerf = false;
 
+    /**
+     * The number of seconds to run the repository performance check.
+     */
+    private int perfCheckSeconds = DEFAULT_PERF_CHECK_SECONDS;
+
+    /**
+     * The minimum records per second for the repository performance check
+     * below which a warning is logged.
+     */
+    private double perfWarningRate = DEFAULT_PERF_WARNING_RATE;
+
+    /**
+     * The number of seconds between periodic repository performance checks.
+     */
+    private long perfRecheckSeconds = DEFAULT_PERF_RECHECK_SECONDS;
+
     /**
      * Whether or not to skip priming the engine on startup.
      */
     private boolean skipEnginePriming = false;
 
+    /**
+     * Whether or not to disable coalescing of identical concurrent reads.
+     */
+    private boolean disableReadCoalescing = false;
+
+    /**
+     * Whether or not to adaptively limit the number of calls in flight.
+     */
+    private boolean adaptiveConcurrency = false;
+
+    /**
+     * Whether or not to service requests on virtual threads.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Whether or not to include stack traces in the errors for Senzing SDK
+     * failures.
+     */
+    private boolean errorStackTraces = false;
+
+    /**
+     * The maximum number of INFO messages that may be buffered for
+     * asynchronous publishing, or zero (0) to publish synchronously.
+     */
+    private int infoQueueCapacity = DEFAULT_INFO_QUEUE_CAPACITY;
+
+    /**
+     * The directory for the change feed log, or <code>null</code> if the
+     * change feed is not enabled.
+     */
+    private File changeFeedDirectory = null;
+
+    /**
+     * The maximum number of megabytes of the change feed log to retain.
+     */
+    private long changeFeedRetentionMB = DEFAULT_CHANGE_FEED_RETENTION_MB;
+
+    /**
+     * The maximum number of milliseconds between flushes of the change feed
+     * log.
+     */
+    private long changeFeedFlushMillis = DEFAULT_CHANGE_FEED_FLUSH_MILLIS;
+
+    /**
+     * The maximum number of megabytes for the read cache.
+     */
+    private long readCacheMB = DEFAULT_READ_CACHE_MB;
+
+    /**
+     * The maximum number of seconds to retain a result in the read cache.
+     */
+    private long readCacheTtlSeconds = DEFAULT_READ_CACHE_TTL_SECONDS;
+
+    /**
+     * The policy for handling INFO messages when the buffer is full.
+     */
+    private SzInfoMessagePublisher.OverflowPolicy infoQueueOverflow
+        = DEFAULT_INFO_QUEUE_OVERFLOW;
+
+    /**
+     * The number of seconds a streaming export may wait for the client to
+     * read before the call is failed.
+     */
+    private long exportIdleTimeoutSeconds = DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS;
+
+    /**
+     * The URL path for the metrics endpoint, or <code>null</code> if the
+     * metrics endpoint is disabled.
+     */
+    private String metricsPath = null;
+
     /**
      * The {@link ConnectionUri} for the data mart database connection.
      */
@@ -519,6 +627,107 @@ public class SzGrpcServerOptions
         return this;
     }
 
+    /**
+     * Gets the {@link Map} of {@link SzGrpcExecutorLanes.Lane} keys to
+     * {@link SzGrpcExecutorLanes.LaneConfig} values describing the executor
+     * lanes that give classes of RPC's their own threads.  If
+     * <code>null</code> then all calls share the blocking task executor.
+     *
+     * @return The {@link Map} describing the executor lanes, or
+     *         <code>null</code> if none are configured.
+     */
+    @Option(EXECUTOR_LANES)
+    public Map<SzGrpcExecutorLanes.Lane, SzGrpcExecutorLanes.LaneConfig>
+        getExecutorLanes()
+    {
+        return this.executorLanes;
+    }
+
+    /**
+     * Sets the {@link Map} of {@link SzGrpcExecutorLanes.Lane} keys to
+     * {@link SzGrpcExecutorLanes.LaneConfig} values describing the executor
+     * lanes that give classes of RPC's their own threads.  Set to
+     * <code>null</code> to have all calls share the blocking task executor.
+     *
+     * @param lanes The {@link Map} describing the executor lanes, or
+     *              <code>null</code> if none.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(EXECUTOR_LANES)
+    public SzGrpcServerOptions setExecutorLanes(
+        Map<SzGrpcExecutorLanes.Lane, SzGrpcExecutorLanes.LaneConfig> lanes)
+    {
+        this.executorLanes = (lanes == null || lanes.isEmpty())
+            ? null : Collections.unmodifiableMap(new LinkedHashMap<>(lanes));
+        return this;
+    }
+
+    /**
+     * Gets the {@link SzGrpcTransport} for the server event loops.  If the
+     * value has not been {@linkplain #setGrpcTransport(SzGrpcTransport)
+     * explicitly set} then {@link
+     * SzGrpcServerConstants#DEFAULT_GRPC_TRANSPORT} is returned.
+     *
+     * @return The {@link SzGrpcTransport} for the server event loops.
+     */
+    @Option(GRPC_TRANSPORT)
+    public SzGrpcTransport getGrpcTransport()
+    {
+        return this.grpcTransport;
+    }
+
+    /**
+     * Sets the {@link SzGrpcTransport} for the server event loops.  If the
+     * specified transport is not available when the server is constructed
+     * then the server falls back to {@link SzGrpcTransport#NIO}.  Set to
+     * <code>null</code> to use {@link
+     * SzGrpcServerConstants#DEFAULT_GRPC_TRANSPORT}.
+     *
+     * @param transport The {@link SzGrpcTransport} for the server event
+     *                  loops, or <code>null</code> for the default.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(GRPC_TRANSPORT)
+    public SzGrpcServerOptions setGrpcTransport(SzGrpcTransport transport)
+    {
+        this.grpcTransport = (transport != null)
+                ? transport
+                : DEFAULT_GRPC_TRANSPORT;
+        return this;
+    }
+
+    /**
+     * Gets the number of event loop threads that perform the network I/O
+     * for the server.  If <code>null</code> then the Armeria default is
+     * used.
+     *
+     * @return The number of event loop threads, or <code>null</code> if the
+     *         Armeria default is used.
+     */
+    @Option(EVENT_LOOP_THREADS)
+    public Integer getEventLoopThreads()
+    {
+        return this.eventLoopThreads;
+    }
+
+    /**
+     * Sets the number of event loop threads that perform the network I/O
+     * for the server.  Set to <code>null</code> to use the Armeria default.
+     *
+     * @param threadCount The number of event loop threads, or
+     *                    <code>null</code> for the Armeria default.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(EVENT_LOOP_THREADS)
+    public SzGrpcServerOptions setEventLoopThreads(Integer threadCount)
+    {
+        this.eventLoopThreads = threadCount;
+        return this;
+    }
+
     /**
      * Gets the instance name with which to initialize the
      * core Senzing SDK via {@link
@@ -750,6 +959,104 @@ public class SzGrpcServerOptions
         return this;
     }
 
+    /**
+     * Gets the number of seconds for which to run the repository performance
+     * check on startup and on each periodic re-check.
+     *
+     * @return The number of seconds for which to run the repository
+     *         performance check.
+     */
+    @Option(PERF_CHECK_SECONDS)
+    public int getPerformanceCheckSeconds()
+    {
+        return this.perfCheckSeconds;
+    }
+
+    /**
+     * Sets the number of seconds for which to run the repository performance
+     * check on startup and on each periodic re-check.  If the specified value
+     * is not positive then {@link
+     * SzGrpcServerConstants#DEFAULT_PERF_CHECK_SECONDS} is used.
+     *
+     * @param seconds The number of seconds for which to run the repository
+     *                performance check.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(PERF_CHECK_SECONDS)
+    public SzGrpcServerOptions setPerformanceCheckSeconds(int seconds)
+    {
+        this.perfCheckSeconds = (seconds <= 0)
+            ? DEFAULT_PERF_CHECK_SECONDS : seconds;
+        return this;
+    }
+
+    /**
+     * Gets the minimum number of records per second inserted by the
+     * repository performance check below which a warning is logged.  If zero
+     * (0) then no warning is logged.
+     *
+     * @return The minimum number of records per second below which a
+     *         warning is logged, or zero (0) if no warning is logged.
+     */
+    @Option(PERF_WARNING_RATE)
+    public double getPerformanceWarningRate()
+    {
+        return this.perfWarningRate;
+    }
+
+    /**
+     * Sets the minimum number of records per second inserted by the
+     * repository performance check below which a warning is logged.  If zero
+     * (0) or negative then no warning is logged.
+     *
+     * @param recordsPerSecond The minimum number of records per second below
+     *                         which a warning is logged, or zero (0) if no
+     *                         warning should be logged.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(PERF_WARNING_RATE)
+    public SzGrpcServerOptions setPerformanceWarningRate(
+            double recordsPerSecond)
+    {
+        this.perfWarningRate = (recordsPerSecond < 0.0)
+            ? 0.0 : recordsPerSecond;
+        return this;
+    }
+
+    /**
+     * Gets the number of seconds between periodic repository performance
+     * checks after startup.  If zero (0) then the performance check is only
+     * performed on startup.
+     *
+     * @return The number of seconds between periodic repository performance
+     *         checks, or zero (0) if no periodic checks are performed.
+     */
+    @Option(PERF_RECHECK_SECONDS)
+    public long getPerformanceRecheckSeconds()
+    {
+        return this.perfRecheckSeconds;
+    }
+
+    /**
+     * Sets the number of seconds between periodic repository performance
+     * checks after startup.  If zero (0) or negative then the performance
+     * check is only performed on startup.
+     *
+     * @param seconds The number of seconds between periodic repository
+     *                performance checks, or zero (0) if no periodic checks
+     *                should be performed.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(PERF_RECHECK_SECONDS)
+    public SzGrpcServerOptions setPerformanceRecheckSeconds(long seconds)
+    {
+        this.perfRecheckSeconds = (seconds < 0L) ? 0L : seconds;
+        return this;
+    }
+
     /**
      * Checks whether or not the gRPC server should skip priming the engine on
      * startup.
@@ -780,6 +1087,416 @@ public class SzGrpcServerOptions
         return this;
     }
 
+    /**
+     * Checks whether or not the gRPC server should disable coalescing of
+     * identical concurrent reads into a single engine call.
+     *
+     * @return <code>true</code> if the gRPC server should disable read
+     *         coalescing, and <code>false</code> if not.
+     */
+    @Option(DISABLE_READ_COALESCING)
+    public boolean isReadCoalescingDisabled()
+    {
+        return this.disableReadCoalescing;
+    }
+
+    /**
+     * Sets whether or not the gRPC server should disable coalescing of
+     * identical concurrent reads into a single engine call.
+     *
+     * @param disabled <code>true</code> if the gRPC server should disable
+     *                 read coalescing, and <code>false</code> if not.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(DISABLE_READ_COALESCING)
+    public SzGrpcServerOptions setReadCoalescingDisabled(boolean disabled)
+    {
+        this.disableReadCoalescing = disabled;
+        return this;
+    }
+
+    /**
+     * Checks whether or not the gRPC server should adaptively limit the
+     * number of calls in flight and reject those beyond the limit.
+     *
+     * @return <code>true</code> if the gRPC server should adaptively limit
+     *         concurrency, and <code>false</code> if not.
+     */
+    @Option(ADAPTIVE_CONCURRENCY)
+    public boolean isAdaptiveConcurrency()
+    {
+        return this.adaptiveConcurrency;
+    }
+
+    /**
+     * Sets whether or not the gRPC server should adaptively limit the
+     * number of calls in flight and reject those beyond the limit.
+     *
+     * @param adaptive <code>true</code> if the gRPC server should adaptively
+     *                 limit concurrency, and <code>false</code> if not.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(ADAPTIVE_CONCURRENCY)
+    public SzGrpcServerOptions setAdaptiveConcurrency(boolean adaptive)
+    {
+        this.adaptiveConcurrency = adaptive;
+        return this;
+    }
+
+    /**
+     * Checks whether or not the gRPC server should service requests on
+     * virtual threads with the number of concurrent native SDK calls
+     * bounded by the {@linkplain #getCoreConcurrency() core concurrency}.
+     *
+     * @return <code>true</code> if the gRPC server should service requests
+     *         on virtual threads, and <code>false</code> if not.
+     */
+    @Option(VIRTUAL_THREADS)
+    public boolean isVirtualThreads()
+    {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Sets whether or not the gRPC server should service requests on
+     * virtual threads with the number of concurrent native SDK calls
+     * bounded by the {@linkplain #getCoreConcurrency() core concurrency}.
+     *
+     * @param virtual <code>true</code> if the gRPC server should service
+     *                requests on virtual threads, and <code>false</code> if
+     *                not.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(VIRTUAL_THREADS)
+    public SzGrpcServerOptions setVirtualThreads(boolean virtual)
+    {
+        this.virtualThreads = virtual;
+        return this;
+    }
+
+    /**
+     * Checks whether or not the gRPC server should include the exception
+     * text, function and stack trace in the errors for Senzing SDK failures
+     * rather than encoding them compactly.
+     *
+     * @return <code>true</code> if the gRPC server should include stack
+     *         traces in the errors for Senzing SDK failures, and
+     *         <code>false</code> if not.
+     */
+    @Option(ERROR_STACK_TRACES)
+    public boolean isErrorStackTraces()
+    {
+        return this.errorStackTraces;
+    }
+
+    /**
+     * Sets whether or not the gRPC server should include the exception
+     * text, function and stack trace in the errors for Senzing SDK failures
+     * rather than encoding them compactly.
+     *
+     * @param enabled <code>true</code> if the gRPC server should include
+     *                stack traces in the errors for Senzing SDK failures,
+     *                and <code>false</code> if not.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(ERROR_STACK_TRACES)
+    public SzGrpcServerOptions setErrorStackTraces(boolean enabled)
+    {
+        this.errorStackTraces = enabled;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of INFO messages that may be buffered awaiting
+     * asynchronous publishing.  If zero (0) then INFO messages are published
+     * synchronously on the request thread.
+     *
+     * @return The maximum number of INFO messages that may be buffered, or
+     *         zero (0) if INFO messages are published synchronously.
+     */
+    @Option(INFO_QUEUE_CAPACITY)
+    public int getInfoQueueCapacity()
+    {
+        return this.infoQueueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of INFO messages that may be buffered awaiting
+     * asynchronous publishing.  If zero (0) or negative then INFO messages
+     * are published synchronously on the request thread.
+     *
+     * @param capacity The maximum number of INFO messages that may be
+     *                 buffered, or zero (0) to publish synchronously.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(INFO_QUEUE_CAPACITY)
+    public SzGrpcServerOptions setInfoQueueCapacity(int capacity)
+    {
+        this.infoQueueCapacity = (capacity < 0) ? 0 : capacity;
+        return this;
+    }
+
+    /**
+     * Gets the {@link SzInfoMessagePublisher.OverflowPolicy} for handling
+     * INFO messages when the buffer is full.
+     *
+     * @return The {@link SzInfoMessagePublisher.OverflowPolicy} for handling
+     *         INFO messages when the buffer is full.
+     */
+    @Option(INFO_QUEUE_OVERFLOW)
+    public SzInfoMessagePublisher.OverflowPolicy getInfoQueueOverflow()
+    {
+        return this.infoQueueOverflow;
+    }
+
+    /**
+     * Sets the {@link SzInfoMessagePublisher.OverflowPolicy} for handling
+     * INFO messages when the buffer is full.  If <code>null</code> then
+     * {@link SzGrpcServerConstants#DEFAULT_INFO_QUEUE_OVERFLOW} is used.
+     *
+     * @param policy The {@link SzInfoMessagePublisher.OverflowPolicy} for
+     *               handling INFO messages when the buffer is full.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(INFO_QUEUE_OVERFLOW)
+    public SzGrpcServerOptions setInfoQueueOverflow(
+            SzInfoMessagePublisher.OverflowPolicy policy)
+    {
+        this.infoQueueOverflow = (policy == null)
+            ? DEFAULT_INFO_QUEUE_OVERFLOW : policy;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of seconds that a streaming export may wait for
+     * the client to read more content before the call is failed and the
+     * export is closed.  If zero (0) then there is no limit.
+     *
+     * @return The export idle timeout in seconds, or zero (0) if there is no
+     *         limit.
+     */
+    @Option(EXPORT_IDLE_TIMEOUT_SECONDS)
+    public long getExportIdleTimeoutSeconds()
+    {
+        return this.exportIdleTimeoutSeconds;
+    }
+
+    /**
+     * Sets the maximum number of seconds that a streaming export may wait for
+     * the client to read more content before the call is failed and the
+     * export is closed.  If zero (0) then there is no limit.
+     *
+     * @param seconds The export idle timeout in seconds, or a non-positive
+     *                number (e.g.: zero) for no limit.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(EXPORT_IDLE_TIMEOUT_SECONDS)
+    public SzGrpcServerOptions setExportIdleTimeoutSeconds(long seconds)
+    {
+        this.exportIdleTimeoutSeconds = (seconds < 0L) ? 0L : seconds;
+        return this;
+    }
+
+    /**
+     * Gets the URL path for the metrics endpoint that publishes the gRPC
+     * server metrics in the Prometheus text exposition format.  If
+     * <code>null</code> then the metrics endpoint is disabled.
+     *
+     * @return The URL path for the metrics endpoint, or <code>null</code> if
+     *         the metrics endpoint is disabled.
+     */
+    @Option(METRICS_PATH)
+    public String getMetricsPath()
+    {
+        return this.metricsPath;
+    }
+
+    /**
+     * Sets the URL path for the metrics endpoint that publishes the gRPC
+     * server metrics in the Prometheus text exposition format.  Specify
+     * <code>null</code> to disable the metrics endpoint.
+     *
+     * @param path The URL path for the metrics endpoint, or
+     *             <code>null</code> to disable the metrics endpoint.
+     *
+     * @return A reference to this instance.
+     *
+     * @throws IllegalArgumentException If the specified path is not
+     *                                  <code>null</code> and does not begin
+     *                                  with a forward slash.
+     */
+    @Option(METRICS_PATH)
+    public SzGrpcServerOptions setMetricsPath(String path)
+    {
+        if (path != null && !path.startsWith("/")) {
+            throw new IllegalArgumentException(
+                "The metrics path must begin with a forward slash: " + path);
+        }
+        this.metricsPath = path;
+        return this;
+    }
+
+    /**
+     * Gets the directory for the change feed log.  If <code>null</code> then
+     * the change feed is not enabled.
+     *
+     * @return The directory for the change feed log, or <code>null</code> if
+     *         the change feed is not enabled.
+     */
+    @Option(CHANGE_FEED_DIR)
+    public File getChangeFeedDirectory()
+    {
+        return this.changeFeedDirectory;
+    }
+
+    /**
+     * Sets the directory for the change feed log.  If <code>null</code> then
+     * the change feed is not enabled.
+     *
+     * @param directory The directory for the change feed log, or
+     *                  <code>null</code> if the change feed should not be
+     *                  enabled.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(CHANGE_FEED_DIR)
+    public SzGrpcServerOptions setChangeFeedDirectory(File directory)
+    {
+        this.changeFeedDirectory = directory;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of megabytes of the change feed log to retain
+     * before the oldest entries are deleted.
+     *
+     * @return The maximum number of megabytes of the change feed log to
+     *         retain.
+     */
+    @Option(CHANGE_FEED_RETENTION_MB)
+    public long getChangeFeedRetentionMegabytes()
+    {
+        return this.changeFeedRetentionMB;
+    }
+
+    /**
+     * Sets the maximum number of megabytes of the change feed log to retain
+     * before the oldest entries are deleted.  If not positive then {@link
+     * SzGrpcServerConstants#DEFAULT_CHANGE_FEED_RETENTION_MB} is used.
+     *
+     * @param megabytes The maximum number of megabytes of the change feed log
+     *                  to retain.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(CHANGE_FEED_RETENTION_MB)
+    public SzGrpcServerOptions setChangeFeedRetentionMegabytes(long megabytes)
+    {
+        this.changeFeedRetentionMB = (megabytes <= 0L)
+            ? DEFAULT_CHANGE_FEED_RETENTION_MB : megabytes;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of milliseconds between flushes of the change
+     * feed log to the storage device.  If zero (0) then the log is flushed
+     * after every append.
+     *
+     * @return The maximum number of milliseconds between flushes of the
+     *         change feed log.
+     */
+    @Option(CHANGE_FEED_FLUSH_MILLIS)
+    public long getChangeFeedFlushMillis()
+    {
+        return this.changeFeedFlushMillis;
+    }
+
+    /**
+     * Sets the maximum number of milliseconds between flushes of the change
+     * feed log to the storage device.  If zero (0) then the log is flushed
+     * after every append.  If negative then {@link
+     * SzGrpcServerConstants#DEFAULT_CHANGE_FEED_FLUSH_MILLIS} is used.
+     *
+     * @param millis The maximum number of milliseconds between flushes of
+     *               the change feed log.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(CHANGE_FEED_FLUSH_MILLIS)
+    public SzGrpcServerOptions setChangeFeedFlushMillis(long millis)
+    {
+        this.changeFeedFlushMillis = (millis < 0L)
+            ? DEFAULT_CHANGE_FEED_FLUSH_MILLIS : millis;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of megabytes for the server-side read cache.
+     * If zero (0) then the read cache is disabled.
+     *
+     * @return The maximum number of megabytes for the read cache, or zero
+     *         (0) if disabled.
+     */
+    @Option(READ_CACHE_MB)
+    public long getReadCacheMegabytes()
+    {
+        return this.readCacheMB;
+    }
+
+    /**
+     * Sets the maximum number of megabytes for the server-side read cache.
+     * If not positive then the read cache is disabled.
+     *
+     * @param megabytes The maximum number of megabytes for the read cache,
+     *                  or zero (0) to disable it.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(READ_CACHE_MB)
+    public SzGrpcServerOptions setReadCacheMegabytes(long megabytes)
+    {
+        this.readCacheMB = (megabytes < 0L) ? 0L : megabytes;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of seconds to retain a result in the
+     * server-side read cache.  If zero (0) then results do not expire.
+     *
+     * @return The maximum number of seconds to retain a result in the read
+     *         cache, or zero (0) if results do not expire.
+     */
+    @Option(READ_CACHE_TTL_SECONDS)
+    public long getReadCacheTtlSeconds()
+    {
+        return this.readCacheTtlSeconds;
+    }
+
+    /**
+     * Sets the maximum number of seconds to retain a result in the
+     * server-side read cache.  If negative then {@link
+     * SzGrpcServerConstants#DEFAULT_READ_CACHE_TTL_SECONDS} is used.
+     *
+     * @param seconds The maximum number of seconds to retain a result in the
+     *                read cache, or zero (0) if results do not expire.
+     *
+     * @return A reference to this instance.
+     */
+    @Option(READ_CACHE_TTL_SECONDS)
+    public SzGrpcServerOptions setReadCacheTtlSeconds(long seconds)
+    {
+        this.readCacheTtlSeconds = (seconds < 0L)
+            ? DEFAULT_READ_CACHE_TTL_SECONDS : seconds;
+        return this;
+    }
+
     /**
      * Gets the data mart database {@link ConnectionUri} for this instance.
      * 
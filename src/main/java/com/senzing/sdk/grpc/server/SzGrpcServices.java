@@ -1,6 +1,8 @@
 package com.senzing.sdk.grpc.server;
 
-import java.lang.reflect.Method;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -42,6 +44,7 @@ import com.senzing.datamart.reports.DataMartReportsServices;
 import com.senzing.listener.communication.sql.SQLConsumer;
 import com.senzing.sdk.SzBadInputException;
 import com.senzing.sdk.SzConfigurationException;
+import com.senzing.sdk.SzDiagnostic;
 import com.senzing.sdk.SzEnvironment;
 import com.senzing.sdk.SzException;
 import com.senzing.sdk.SzLicenseException;
@@ -55,10 +58,12 @@ import com.senzing.sdk.SzUnknownDataSourceException;
 import com.senzing.sdk.core.SzCoreEnvironment;
 import com.senzing.sdk.core.SzCoreUtilities;
 import com.senzing.util.JsonUtilities;
+import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.protobuf.services.HealthStatusManager;
 
-import static com.senzing.reflect.ReflectionUtilities.restrictedProxy;
 import static com.senzing.sdk.grpc.SzGrpcEnvironment.*;
 import static com.senzing.util.JsonUtilities.toJsonText;
 import static com.senzing.util.LoggingUtilities.*;
@@ -95,20 +100,6 @@ import static com.senzing.util.LoggingUtilities.*;
 public class SzGrpcServices
 {
 
-    /**
-     * A constant for the {@link SzEnvironment#destroy()} method.
-     */
-    private static final Method DESTROY_METHOD;
-    static {
-        Method method = null;
-        try {
-            method = SzEnvironment.class.getMethod("destroy");
-        } catch (NoSuchMethodException e) {
-            throw new ExceptionInInitializerError(e);
-        }
-        DESTROY_METHOD = method;
-    }
-
     /**
      * Provides a mapping of exception class types to {@link Status} values.
      */
@@ -135,6 +126,26 @@ public class SzGrpcServices
         STATUS_MAP = Collections.unmodifiableMap(map);
     }
 
+    /**
+     * Caches the {@link Status} for each exception class as found by the
+     * first matching entry of {@link #STATUS_MAP}, or {@link Status#UNKNOWN}
+     * if none match.
+     */
+    private static final ClassValue<Status> STATUS_CACHE
+        = new ClassValue<Status>() {
+            @Override
+            protected Status computeValue(Class<?> type)
+            {
+                for (Map.Entry<Class<?>, Status> entry : STATUS_MAP.entrySet())
+                {
+                    if (entry.getKey().isAssignableFrom(type)) {
+                        return entry.getValue();
+                    }
+                }
+                return Status.UNKNOWN;
+            }
+        };
+
     /**
      * The number of milliseconds to provide advance warning of an expiring
      * license.
@@ -164,10 +175,10 @@ public class SzGrpcServices
             .toFormatter(Locale.UK);
 
     /**
-     * The proxied {@link SzEnvironment} to prevent calling of
+     * The restricted {@link SzEnvironment} to prevent calling of
      * {@link SzEnvironment#destroy()}.
      */
-    private SzEnvironment proxyEnvironment = null;
+    private SzEnvironment restrictedEnvironment = null;
 
     /**
      * The built {@link GrpcService} containing all Senzing
@@ -183,9 +194,132 @@ public class SzGrpcServices
     /**
      * The {@link Consumer} for publishing INFO messages. This may wrap the data
      * mart message queue, an externally provided consumer, or a composite of
-     * both.
+     * both.  Once started, this is wrapped by the {@link #infoPublisher} if
+     * INFO messages are published asynchronously.
+     */
+    private volatile Consumer<String> infoMsgConsumer = null;
+
+    /**
+     * The {@link SzInfoMessagePublisher} for asynchronously publishing INFO
+     * messages, or <code>null</code> if publishing synchronously.
+     */
+    private SzInfoMessagePublisher infoPublisher = null;
+
+    /**
+     * The directory for the change feed log, or <code>null</code> if the
+     * change feed is not enabled.
+     */
+    private File changeFeedDirectory = null;
+
+    /**
+     * The maximum number of bytes of the change feed log to retain.
+     */
+    private long changeFeedRetentionBytes
+        = SzGrpcServerConstants.DEFAULT_CHANGE_FEED_RETENTION_MB
+            * 1024L * 1024L;
+
+    /**
+     * The maximum number of milliseconds between flushes of the change feed
+     * log, or zero (0) if every append is flushed.
+     */
+    private long changeFeedFlushMillis
+        = SzGrpcServerConstants.DEFAULT_CHANGE_FEED_FLUSH_MILLIS;
+
+    /**
+     * The {@link SzChangeFeedLog} if the change feed is enabled and this
+     * instance has been started, otherwise <code>null</code>.
+     */
+    private volatile SzChangeFeedLog changeFeedLog = null;
+
+    /**
+     * The maximum approximate number of bytes for the read cache, or zero
+     * (0) if the read cache is disabled.
+     */
+    private long readCacheMaxBytes
+        = SzGrpcServerConstants.DEFAULT_READ_CACHE_MB * 1024L * 1024L;
+
+    /**
+     * The maximum number of seconds to retain a result in the read cache, or
+     * zero (0) if results do not expire.
+     */
+    private long readCacheTtlSeconds
+        = SzGrpcServerConstants.DEFAULT_READ_CACHE_TTL_SECONDS;
+
+    /**
+     * The {@link SzGrpcReadCache} if the read cache is enabled and this
+     * instance has been started, otherwise <code>null</code>.
+     */
+    private volatile SzGrpcReadCache readCache = null;
+
+    /**
+     * Whether or not identical concurrent reads should be coalesced.
+     */
+    private boolean readCoalescing = true;
+
+    /**
+     * The {@link SzGrpcSingleFlight} for coalescing identical concurrent
+     * reads if enabled and this instance has been started, otherwise
+     * <code>null</code>.
+     */
+    private volatile SzGrpcSingleFlight singleFlight = null;
+
+    /**
+     * The {@link Map} of {@link SzGrpcExecutorLanes.Lane} keys to {@link
+     * SzGrpcExecutorLanes.LaneConfig} values describing the executor lanes,
+     * or <code>null</code> if all calls share the blocking task executor.
+     */
+    private Map<SzGrpcExecutorLanes.Lane, SzGrpcExecutorLanes.LaneConfig>
+        executorLaneConfigs = null;
+
+    /**
+     * The {@link SzGrpcExecutorLanes} if executor lanes are configured and
+     * this instance has been started, otherwise <code>null</code>.
+     */
+    private volatile SzGrpcExecutorLanes executorLanes = null;
+
+    /**
+     * The maximum number of records of a single ingest stream that are
+     * added at once when the writes lane is not configured.
+     */
+    private volatile int ingestConcurrency
+        = SzGrpcServerConstants.DEFAULT_CORE_CONCURRENCY;
+
+    /**
+     * The {@link SzGrpcConcurrencyLimiter} through which unary calls are
+     * admitted, or <code>null</code> if concurrency limiting is disabled.
+     */
+    private volatile SzGrpcConcurrencyLimiter concurrencyLimiter = null;
+
+    /**
+     * The {@link SzGrpcNativeCallLimiter} bounding the number of concurrent
+     * native SDK calls, or <code>null</code> if native calls are unbounded.
+     */
+    private volatile SzGrpcNativeCallLimiter nativeCallLimiter = null;
+
+    /**
+     * The {@link SzEnvironment} wrapped by the {@link
+     * SzGrpcNativeCallLimiter}, or <code>null</code> if native calls are
+     * unbounded.
+     */
+    private volatile SzEnvironment limitedEnvironment = null;
+
+    /**
+     * The maximum number of INFO messages that may be buffered for
+     * asynchronous publishing, or zero (0) to publish synchronously.
      */
-    private Consumer<String> infoMsgConsumer = null;
+    private int infoQueueCapacity
+        = SzGrpcServerConstants.DEFAULT_INFO_QUEUE_CAPACITY;
+
+    /**
+     * The policy for handling INFO messages when the buffer is full.
+     */
+    private SzInfoMessagePublisher.OverflowPolicy infoQueueOverflow
+        = SzGrpcServerConstants.DEFAULT_INFO_QUEUE_OVERFLOW;
+
+    /**
+     * The {@link SzGrpcServerMetrics} for collecting metrics on the services.
+     */
+    private final SzGrpcServerMetrics metrics = new SzGrpcServerMetrics();
 
     /**
      * The {@link ObjectMapper} for converting the response objects for HTTP to
@@ -193,6 +327,65 @@ public class SzGrpcServices
      */
     private ObjectMapper objectMapper = null;
 
+    /**
+     * The number of seconds a streaming export may wait for the client to
+     * read before the call is failed, or zero (0) if there is no limit.
+     */
+    private volatile long exportIdleTimeoutSeconds
+        = SzGrpcServerConstants.DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS;
+
+    /**
+     * Whether or not the errors for {@link SzException} failures include the
+     * text, function and stack trace of the exception.
+     */
+    private volatile boolean errorStackTraces = false;
+
+    /**
+     * The minimum number of seconds between logging of engine stats, or zero
+     * (0) if stats logging is suppressed.
+     */
+    private volatile long logStatsSeconds
+        = SzGrpcServerConstants.DEFAULT_LOG_STATS_SECONDS;
+
+    /**
+     * The number of seconds for which to run the repository performance
+     * check.
+     */
+    private volatile int perfCheckSeconds
+        = SzGrpcServerConstants.DEFAULT_PERF_CHECK_SECONDS;
+
+    /**
+     * The minimum records per second for the repository performance check
+     * below which a warning is logged, or zero (0) if no warning is logged.
+     */
+    private volatile double perfWarningRate
+        = SzGrpcServerConstants.DEFAULT_PERF_WARNING_RATE;
+
+    /**
+     * The number of seconds between periodic repository performance checks,
+     * or zero (0) if no periodic checks are performed.
+     */
+    private volatile long perfRecheckSeconds
+        = SzGrpcServerConstants.DEFAULT_PERF_RECHECK_SECONDS;
+
+    /**
+     * The {@link HealthStatusManager} backing the standard gRPC health
+     * service used for readiness checks.
+     */
+    private final HealthStatusManager healthStatus = new HealthStatusManager();
+
+    /**
+     * Tracks if the engine has been primed via {@link #primeEngine()}.
+     */
+    private volatile boolean enginePrimed = false;
+
+    /**
+     * Tracks if the most recent attempt to prime the engine via {@link
+     * #primeEngine()} failed, in which case this instance is not reported
+     * as ready.
+     */
+    private volatile boolean enginePrimingFailed = false;
+
     /**
      * Tracks if {@link #configureServer(ServerBuilder,
      * String)} has been called.
@@ -274,10 +467,8 @@ public class SzGrpcServices
     {
         Objects.requireNonNull(env, "The environment cannot be null");
 
-        // proxy the environment to prevent destroy() calls
-        this.proxyEnvironment
-            = (SzEnvironment) restrictedProxy(
-                env, DESTROY_METHOD);
+        // wrap the environment to prevent destroy() calls
+        this.restrictedEnvironment = new RestrictedEnvironment(env);
 
         // build the replicator if data mart is configured
         Consumer<String> dataMartConsumer = null;
@@ -288,7 +479,7 @@ public class SzGrpcServices
             replicatorOptions.setDatabaseUri(dataMartUri);
 
             try {
-                this.replicator = new SzReplicator(this.proxyEnvironment,
+                this.replicator = new SzReplicator(this.restrictedEnvironment,
                         replicatorOptions,
                         false);
 
@@ -326,15 +517,37 @@ public class SzGrpcServices
         this.infoMsgConsumer = chainConsumers(dataMartConsumer,
                                               infoMsgConsumer);
 
+        // the ingest stream, batch lookups and typed list requests delegate to
+        // the engine service
+        SzGrpcEngineImpl engineService = new SzGrpcEngineImpl(this);
+
         // build the gRPC service with all Senzing service implementations
         this.grpcService = GrpcService.builder()
                 .useBlockingTaskExecutor(true)
+                .intercept(new DeadlineInterceptor(this.metrics))
+                .intercept(new ExportBatchInterceptor())
+                .intercept(new ExecutorLaneInterceptor(this::getExecutorLanes))
+                .intercept(new ConcurrencyLimitInterceptor(
+                    this::getConcurrencyLimiter))
+                .intercept(this.metrics.newInterceptor())
                 .addService(new SzGrpcProductImpl(this))
                 .addService(new SzGrpcConfigImpl(this))
                 .addService(new SzGrpcConfigManagerImpl(this))
                 .addService(new SzGrpcDiagnosticImpl(this))
-                .addService(new SzGrpcEngineImpl(this))
+                .addService(engineService)
+                .addService(new SzGrpcIngestImpl(engineService,
+                                                 this::getExecutorLanes,
+                                                 this::getIngestConcurrency))
+                .addService(new SzGrpcEntityBatchImpl(engineService))
+                .addService(new SzGrpcIdListsImpl(engineService))
+                .addService(new SzGrpcChangeFeedImpl(this))
+                .addService(this.healthStatus.getHealthService())
                 .build();
+
+        // not ready until started
+        this.healthStatus.setStatus(
+            HealthStatusManager.SERVICE_NAME_ALL_SERVICES,
+            ServingStatus.NOT_SERVING);
     }
 
     /**
@@ -397,7 +610,7 @@ public class SzGrpcServices
 
             DataMartReportsServices dataMartReports
                 = new DataMartReportsServices(
-                    this.proxyEnvironment,
+                    this.restrictedEnvironment,
                     provider.getConnectionProvider());
 
             this.objectMapper = new ObjectMapper();
@@ -419,14 +632,18 @@ public class SzGrpcServices
     /**
      * Gets the {@link SzEnvironment} used by this instance.
      *
-     * The returned instance is a {@link java.lang.reflect.Proxy} that will not
-     * allow the caller to invoke {@link SzEnvironment#destroy()}.
+     * The returned instance is a {@link RestrictedEnvironment} that will not
+     * allow the caller to invoke {@link SzEnvironment#destroy()}.  If a
+     * {@linkplain #setNativeCallLimiter(SzGrpcNativeCallLimiter) native call
+     * limiter} is set then calls through the returned instance are bounded
+     * by that limiter.
      *
      * @return The {@link SzEnvironment} used by this instance.
      */
     public SzEnvironment getEnvironment()
     {
-        return this.proxyEnvironment;
+        SzEnvironment limited = this.limitedEnvironment;
+        return (limited != null) ? limited : this.restrictedEnvironment;
     }
 
     /**
@@ -444,208 +661,1196 @@ public class SzGrpcServices
     }
 
     /**
-     * Gets the {@link Consumer} for publishing INFO messages. This returns
-     * {@code null} if no info message consumer has been configured (neither via
-     * data mart replication nor via an externally provided consumer).
+     * Gets the maximum number of INFO messages that may be buffered awaiting
+     * asynchronous publishing.  If zero (0) then INFO messages are published
+     * synchronously on the request thread.
      *
-     * @return The {@link Consumer} for publishing INFO messages, or {@code
-     *             null} if none is configured.
+     * @return The maximum number of INFO messages that may be buffered, or
+     *         zero (0) if INFO messages are published synchronously.
      */
-    public Consumer<String> getInfoMessageConsumer()
+    public synchronized int getInfoQueueCapacity()
     {
-        return this.infoMsgConsumer;
+        return this.infoQueueCapacity;
     }
 
     /**
-     * Checks if this instance has been destroyed.
+     * Sets the maximum number of INFO messages that may be buffered awaiting
+     * asynchronous publishing.  If zero (0) or negative then INFO messages
+     * are published synchronously on the request thread.  By default this
+     * is {@link SzGrpcServerConstants#DEFAULT_INFO_QUEUE_CAPACITY}.  This
+     * must be set before {@link #start()} is called to take effect.
      *
-     * @return {@code true} if this instance has been destroyed, otherwise
-     *                {@code false}.
+     * @param capacity The maximum number of INFO messages that may be
+     *                 buffered, or zero (0) to publish synchronously.
      */
-    public synchronized boolean isDestroyed()
+    public synchronized void setInfoQueueCapacity(int capacity)
     {
-        return this.destroyed;
+        this.infoQueueCapacity = (capacity < 0) ? 0 : capacity;
     }
 
     /**
-     * Starts the data mart replicator (if configured) and the license
-     * expiration monitoring thread.  This should be called after
-     * {@link #configureServer(ServerBuilder, String)} and after the
-     * Armeria server has been started.
-     *
-     * <p><b>NOTE:</b> This method may be called without
-     * {@link #configureServer(ServerBuilder, String)} having been called
-     * if the caller only needs the replicator and license monitoring without
-     * gRPC services registered on a server.</p>
+     * Gets the {@link SzInfoMessagePublisher.OverflowPolicy} for handling
+     * INFO messages when the buffer is full.
      *
-     * @throws IllegalStateException If this instance has already been
-     *                               destroyed.
+     * @return The {@link SzInfoMessagePublisher.OverflowPolicy} for handling
+     *         INFO messages when the buffer is full.
      */
-    public synchronized void start()
+    public synchronized SzInfoMessagePublisher.OverflowPolicy
+        getInfoQueueOverflow()
     {
-        if (this.destroyed) {
-            throw new IllegalStateException(
-                    "This instance has already been destroyed");
-        }
-        if (this.started) {
-            return;
-        }
-        this.started = true;
-        if (this.replicator != null) {
-            this.replicator.start();
-        }
-
-        // start license expiration monitoring thread
-        Thread monitorThread = new Thread(() -> {
-            DateTimeFormatter formatter = DateTimeFormatter
-                .ofLocalizedDate(FormatStyle.LONG)
-                .withZone(ZoneId.systemDefault());
-
-            while (!this.isDestroyed()) {
-                try {
-                    SzProduct product = this.getEnvironment().getProduct();
-                    String license = product.getLicense();
-                    JsonObject jsonObject
-                        = JsonUtilities.parseJsonObject(license);
-                    String dateText = JsonUtilities.getString(
-                        jsonObject, "expireDate");
-                    LocalDateTime expireDateTime = (dateText == null)
-                        ? null : LocalDateTime.parse(dateText, DATE_FORMAT);
-
-                    if (expireDateTime != null) {
-                        Instant expiration
-                            = expireDateTime.toInstant(ZoneOffset.UTC);
-                        long diff = expiration.toEpochMilli()
-                            - System.currentTimeMillis();
-
-                        if (diff < 0L) {
-                            logWarning(
-                                "WARNING: License expired -- was valid "
-                                + "through "
-                                + formatter.format(expiration) + ".");
-
-                        } else if (diff < EXPIRATION_WARNING_MILLIS) {
-                            logWarning(
-                                "WARNING: License expiring soon -- valid "
-                                + "through "
-                                + formatter.format(expiration) + ".");
-                        }
-                    }
-                    synchronized (this) {
-                        if (!this.isDestroyed()) {
-                            this.wait(Duration.ofHours(6).toMillis());
-                        }
-                    }
-                } catch (InterruptedException ignore) {
-                    // do nothing
-                } catch (Exception failure) {
-                    logWarning(failure,
-                        "License monitoring encountered an error; "
-                        + "will retry");
-                    try {
-                        synchronized (this) {
-                            if (!this.isDestroyed()) {
-                                this.wait(
-                                    Duration.ofMinutes(30).toMillis());
-                            }
-                        }
-                    } catch (InterruptedException ignore) {
-                        // do nothing
-                    }
-                }
-            }
-        });
-        monitorThread.setName("sz-license-monitor");
-        monitorThread.setDaemon(true);
-        monitorThread.start();
+        return this.infoQueueOverflow;
     }
 
     /**
-     * Destroys this instance, shutting down the data mart replicator (if
-     * configured) and the license expiration monitoring thread.
+     * Sets the {@link SzInfoMessagePublisher.OverflowPolicy} for handling
+     * INFO messages when the buffer is full.  If <code>null</code> then
+     * {@link SzGrpcServerConstants#DEFAULT_INFO_QUEUE_OVERFLOW} is used.
+     * This must be set before {@link #start()} is called to take effect.
+     *
+     * @param policy The {@link SzInfoMessagePublisher.OverflowPolicy} for
+     *               handling INFO messages when the buffer is full.
      */
-    public synchronized void destroy()
+    public synchronized void setInfoQueueOverflow(
+            SzInfoMessagePublisher.OverflowPolicy policy)
     {
-        if (this.destroyed) {
-            return;
-        }
-        try {
-            if (this.replicator != null) {
-                this.replicator.shutdown();
-            }
-        } finally {
-            this.destroyed = true;
-            this.notifyAll();
-        }
+        this.infoQueueOverflow = (policy == null)
+            ? SzGrpcServerConstants.DEFAULT_INFO_QUEUE_OVERFLOW : policy;
     }
 
     /**
-     * Chains two {@link Consumer} instances into a single composite consumer
-     * that calls both. If either is {@code null}, the other is returned (or
-     * {@code null} if both are {@code null}). When both are non-null, both are
-     * always attempted even if the first throws; if both throw, the second
-     * exception is added as
-     * {@linkplain Throwable#addSuppressed(Throwable) suppressed} on
-     * the first.
+     * Gets the directory for the change feed log.  If <code>null</code> then
+     * the change feed is not enabled.
      *
-     * @param first  The first consumer, or {@code null}.
-     * @param second The second consumer, or {@code null}.
-     * @return A composite consumer, one of the inputs, or {@code null}.
+     * @return The directory for the change feed log, or <code>null</code> if
+     *         the change feed is not enabled.
      */
-    static Consumer<String> chainConsumers(Consumer<String> first,
-                                           Consumer<String> second)
+    public synchronized File getChangeFeedDirectory()
     {
-        if (first != null && second != null) {
-            return (msg) -> {
-                RuntimeException firstFailure = null;
-                try {
-                    first.accept(msg);
-                } catch (RuntimeException e) {
-                    firstFailure = e;
-                }
-                try {
-                    second.accept(msg);
-                } catch (RuntimeException e) {
-                    if (firstFailure != null) {
-                        firstFailure.addSuppressed(e);
-                    } else {
-                        firstFailure = e;
-                    }
-                }
-                if (firstFailure != null) {
-                    throw firstFailure;
-                }
-            };
-        } else if (first != null) {
-            return first;
-        } else {
-            return second;
-        }
+        return this.changeFeedDirectory;
     }
 
     /**
-     * Attempt to infer the {@link Status} from the {@link Throwable}. If it
-     * cannot be inferred then {@link Status#UNKNOWN} is returned.
+     * Sets the directory for the change feed log.  If non-null then the INFO
+     * messages produced by write operations are recorded to a {@link
+     * SzChangeFeedLog} in the directory once {@linkplain #start() started}
+     * and clients may subscribe to it via {@link
+     * com.senzing.sdk.grpc.SzGrpcChangeFeed}.  This must be set before
+     * {@link #start()} is called to take effect.
      *
-     * @param t The {@link Throwable} from which to infer the {@link Status}.
-     * @return The inferred {@link Status}.
+     * @param directory The directory for the change feed log, or
+     *                  <code>null</code> to disable the change feed.
      */
-    protected static io.grpc.Status inferStatus(Throwable t)
+    public synchronized void setChangeFeedDirectory(File directory)
     {
-        if (t == null) {
-            return Status.UNKNOWN;
-        }
-        for (Map.Entry<Class<?>, Status> entry : STATUS_MAP.entrySet()) {
-            if (entry.getKey().isInstance(t)) {
-                return entry.getValue();
-            }
-        }
-        return Status.UNKNOWN;
+        this.changeFeedDirectory = directory;
     }
 
     /**
-     * Creates a {@link StatusRuntimeException} from the optionally-specified
-     * {@link Status} and the specified {@link Throwable}.
+     * Gets the maximum number of bytes of the change feed log to retain
+     * before the oldest entries are deleted.
+     *
+     * @return The maximum number of bytes of the change feed log to retain.
+     */
+    public synchronized long getChangeFeedRetentionBytes()
+    {
+        return this.changeFeedRetentionBytes;
+    }
+
+    /**
+     * Sets the maximum number of bytes of the change feed log to retain
+     * before the oldest entries are deleted.  This must be set before {@link
+     * #start()} is called to take effect.
+     *
+     * @param bytes The maximum number of bytes of the change feed log to
+     *              retain.
+     *
+     * @throws IllegalArgumentException If the specified value is not
+     *                                  positive.
+     */
+    public synchronized void setChangeFeedRetentionBytes(long bytes)
+    {
+        if (bytes <= 0L) {
+            throw new IllegalArgumentException(
+                "The change feed retention must be positive: " + bytes);
+        }
+        this.changeFeedRetentionBytes = bytes;
+    }
+
+    /**
+     * Gets the maximum number of milliseconds between flushes of the change
+     * feed log to the storage device.  If zero (0) then the log is flushed
+     * after every append.
+     *
+     * @return The maximum number of milliseconds between flushes of the
+     *         change feed log.
+     */
+    public synchronized long getChangeFeedFlushMillis()
+    {
+        return this.changeFeedFlushMillis;
+    }
+
+    /**
+     * Sets the maximum number of milliseconds between flushes of the change
+     * feed log to the storage device.  If zero (0) then the log is flushed
+     * after every append.  This must be set before {@link #start()} is
+     * called to take effect.
+     *
+     * @param millis The maximum number of milliseconds between flushes of
+     *               the change feed log.
+     *
+     * @throws IllegalArgumentException If the specified value is negative.
+     */
+    public synchronized void setChangeFeedFlushMillis(long millis)
+    {
+        if (millis < 0L) {
+            throw new IllegalArgumentException(
+                "The change feed flush interval cannot be negative: "
+                + millis);
+        }
+        this.changeFeedFlushMillis = millis;
+    }
+
+    /**
+     * Gets the maximum approximate number of bytes for the read cache.  If
+     * zero (0) then the read cache is disabled.
+     *
+     * @return The maximum approximate number of bytes for the read cache,
+     *         or zero (0) if disabled.
+     */
+    public synchronized long getReadCacheMaxBytes()
+    {
+        return this.readCacheMaxBytes;
+    }
+
+    /**
+     * Sets the maximum approximate number of bytes for the read cache.  If
+     * positive then the results of entity and record reads are cached in a
+     * {@link SzGrpcReadCache} once {@linkplain #start() started} and are
+     * invalidated using the INFO messages of the write operations.  This
+     * must be set before {@link #start()} is called to take effect.
+     *
+     * @param bytes The maximum approximate number of bytes for the read
+     *              cache, or zero (0) to disable the read cache.
+     *
+     * @throws IllegalArgumentException If the specified value is negative.
+     */
+    public synchronized void setReadCacheMaxBytes(long bytes)
+    {
+        if (bytes < 0L) {
+            throw new IllegalArgumentException(
+                "The read cache size cannot be negative: " + bytes);
+        }
+        this.readCacheMaxBytes = bytes;
+    }
+
+    /**
+     * Gets the maximum number of seconds to retain a result in the read
+     * cache.  If zero (0) then results do not expire.
+     *
+     * @return The maximum number of seconds to retain a result in the read
+     *         cache, or zero (0) if results do not expire.
+     */
+    public synchronized long getReadCacheTtlSeconds()
+    {
+        return this.readCacheTtlSeconds;
+    }
+
+    /**
+     * Sets the maximum number of seconds to retain a result in the read
+     * cache.  This bounds the staleness of cached results with respect to
+     * writes performed outside this server.  This must be set before {@link
+     * #start()} is called to take effect.
+     *
+     * @param seconds The maximum number of seconds to retain a result in
+     *                the read cache, or zero (0) if results do not expire.
+     *
+     * @throws IllegalArgumentException If the specified value is negative.
+     */
+    public synchronized void setReadCacheTtlSeconds(long seconds)
+    {
+        if (seconds < 0L) {
+            throw new IllegalArgumentException(
+                "The read cache time-to-live cannot be negative: " + seconds);
+        }
+        this.readCacheTtlSeconds = seconds;
+    }
+
+    /**
+     * Gets the {@link SzGrpcReadCache} for caching the results of entity and
+     * record reads.  This returns <code>null</code> if the read cache is
+     * disabled or this instance has not yet been started.
+     *
+     * @return The {@link SzGrpcReadCache}, or <code>null</code> if none.
+     */
+    public SzGrpcReadCache getReadCache()
+    {
+        return this.readCache;
+    }
+
+    /**
+     * Clears the {@linkplain #getReadCache() read cache} if it is enabled
+     * and ensures that reads already in flight are not {@linkplain
+     * #getSingleFlight() shared} with subsequent callers.  This is called
+     * when the repository or configuration changes in a way that is not
+     * described by INFO messages (e.g.: reinitializing or purging the
+     * repository).
+     */
+    public void clearReadCache()
+    {
+        SzGrpcReadCache cache = this.readCache;
+        if (cache != null) {
+            cache.clear();
+        }
+        SzGrpcSingleFlight flight = this.singleFlight;
+        if (flight != null) {
+            flight.invalidate();
+        }
+    }
+
+    /**
+     * Checks whether or not identical concurrent reads (e.g.: getting the
+     * same entity or searching with the same attributes and flags) are
+     * coalesced so that a single engine call produces the result for all of
+     * them.
+     *
+     * @return <code>true</code> if identical concurrent reads are coalesced,
+     *         otherwise <code>false</code>.
+     */
+    public synchronized boolean isReadCoalescing()
+    {
+        return this.readCoalescing;
+    }
+
+    /**
+     * Sets whether or not identical concurrent reads (e.g.: getting the
+     * same entity or searching with the same attributes and flags) are
+     * coalesced so that a single engine call produces the result for all of
+     * them.  This is enabled by default and must be set before {@link
+     * #start()} is called to take effect.
+     *
+     * @param coalescing <code>true</code> if identical concurrent reads
+     *                   should be coalesced, otherwise <code>false</code>.
+     */
+    public synchronized void setReadCoalescing(boolean coalescing)
+    {
+        this.readCoalescing = coalescing;
+    }
+
+    /**
+     * Gets the {@link SzGrpcSingleFlight} for coalescing identical
+     * concurrent reads.  This returns <code>null</code> if read coalescing
+     * is disabled or this instance has not yet been started.
+     *
+     * @return The {@link SzGrpcSingleFlight}, or <code>null</code> if none.
+     */
+    public SzGrpcSingleFlight getSingleFlight()
+    {
+        return this.singleFlight;
+    }
+
+    /**
+     * Gets the {@link Map} of {@link SzGrpcExecutorLanes.Lane} keys to
+     * {@link SzGrpcExecutorLanes.LaneConfig} values describing the executor
+     * lanes.  If <code>null</code> then all calls share the blocking task
+     * executor of the server.
+     *
+     * @return The {@link Map} describing the executor lanes, or
+     *         <code>null</code> if none are configured.
+     */
+    public synchronized
+        Map<SzGrpcExecutorLanes.Lane, SzGrpcExecutorLanes.LaneConfig>
+        getExecutorLaneConfigs()
+    {
+        return this.executorLaneConfigs;
+    }
+
+    /**
+     * Sets the {@link Map} of {@link SzGrpcExecutorLanes.Lane} keys to
+     * {@link SzGrpcExecutorLanes.LaneConfig} values describing the executor
+     * lanes.  Once {@linkplain #start() started}, calls belonging to a
+     * configured lane run on the dedicated threads of that lane rather than
+     * the shared blocking task executor so that bulk work cannot starve
+     * interactive reads.  This must be set before {@link #start()} is called
+     * to take effect.
+     *
+     * @param configs The {@link Map} describing the executor lanes, or
+     *                <code>null</code> if all calls should share the
+     *                blocking task executor.
+     */
+    public synchronized void setExecutorLaneConfigs(
+        Map<SzGrpcExecutorLanes.Lane, SzGrpcExecutorLanes.LaneConfig> configs)
+    {
+        this.executorLaneConfigs = (configs == null || configs.isEmpty())
+            ? null : Collections.unmodifiableMap(new LinkedHashMap<>(configs));
+    }
+
+    /**
+     * Gets the {@link SzGrpcExecutorLanes} on which the calls belonging to
+     * the configured lanes are run.  This returns <code>null</code> if no
+     * executor lanes are configured or this instance has not yet been
+     * started.
+     *
+     * @return The {@link SzGrpcExecutorLanes}, or <code>null</code> if none.
+     */
+    public SzGrpcExecutorLanes getExecutorLanes()
+    {
+        return this.executorLanes;
+    }
+
+    /**
+     * Gets the maximum number of records of a single ingest stream that are
+     * added at once when the {@linkplain SzGrpcExecutorLanes.Lane#WRITES
+     * writes lane} is not configured.  If the writes lane is configured then
+     * the records are added on its threads and are bounded by its thread
+     * count instead.
+     *
+     * @return The maximum number of records of an ingest stream that are
+     *         added at once.
+     */
+    public int getIngestConcurrency()
+    {
+        return this.ingestConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of records of a single ingest stream that are
+     * added at once when the {@linkplain SzGrpcExecutorLanes.Lane#WRITES
+     * writes lane} is not configured.  This is typically the {@linkplain
+     * SzGrpcServerOptions#getCoreConcurrency() core concurrency} so that a
+     * single stream cannot occupy more threads than the native SDK can use.
+     * This takes effect for subsequently started ingest streams.
+     *
+     * @param concurrency The maximum number of records of an ingest stream
+     *                    that are added at once.
+     *
+     * @throws IllegalArgumentException If the specified value is less than
+     *                                  one.
+     */
+    public void setIngestConcurrency(int concurrency)
+    {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(
+                "The ingest concurrency must be at least one: " + concurrency);
+        }
+        this.ingestConcurrency = concurrency;
+    }
+
+    /**
+     * Gets the {@link SzGrpcConcurrencyLimiter} through which unary calls to
+     * the Senzing services are admitted.  This returns <code>null</code> if
+     * concurrency limiting is disabled.
+     *
+     * @return The {@link SzGrpcConcurrencyLimiter}, or <code>null</code> if
+     *         none.
+     */
+    public SzGrpcConcurrencyLimiter getConcurrencyLimiter()
+    {
+        return this.concurrencyLimiter;
+    }
+
+    /**
+     * Sets the {@link SzGrpcConcurrencyLimiter} through which unary calls to
+     * the Senzing services are admitted.  Calls beyond its adaptive limit
+     * are rejected with {@link Status#RESOURCE_EXHAUSTED} rather than being
+     * queued.  This takes effect immediately and the limiter is registered
+     * with the {@linkplain #getMetrics() metrics}.
+     *
+     * @param limiter The {@link SzGrpcConcurrencyLimiter}, or
+     *                <code>null</code> to disable concurrency limiting.
+     */
+    public synchronized void setConcurrencyLimiter(
+        SzGrpcConcurrencyLimiter limiter)
+    {
+        this.concurrencyLimiter = limiter;
+        this.metrics.setConcurrencyLimiter(limiter);
+    }
+
+    /**
+     * Gets the {@link SzGrpcNativeCallLimiter} bounding the number of
+     * concurrent calls into the native SDK.  This returns <code>null</code>
+     * if native calls are bounded only by the number of request threads.
+     *
+     * @return The {@link SzGrpcNativeCallLimiter}, or <code>null</code> if
+     *         none.
+     */
+    public SzGrpcNativeCallLimiter getNativeCallLimiter()
+    {
+        return this.nativeCallLimiter;
+    }
+
+    /**
+     * Sets the {@link SzGrpcNativeCallLimiter} bounding the number of
+     * concurrent calls into the native SDK.  This should be set when the
+     * request threads outnumber the {@linkplain
+     * SzGrpcServerOptions#getCoreConcurrency() core concurrency} (e.g.: when
+     * requests are serviced on virtual threads).  This takes effect
+     * immediately for subsequent calls to {@link #getEnvironment()} and the
+     * limiter is registered with the {@linkplain #getMetrics() metrics}.
+     *
+     * @param limiter The {@link SzGrpcNativeCallLimiter}, or
+     *                <code>null</code> to leave native calls unbounded.
+     */
+    public synchronized void setNativeCallLimiter(
+        SzGrpcNativeCallLimiter limiter)
+    {
+        this.nativeCallLimiter  = limiter;
+        this.limitedEnvironment = (limiter == null)
+            ? null : limiter.wrap(this.restrictedEnvironment);
+        this.metrics.setNativeCallLimiter(limiter);
+    }
+
+    /**
+     * Gets the {@link SzChangeFeedLog} to which INFO messages are recorded.
+     * This returns <code>null</code> if the change feed is not enabled or
+     * this instance has not yet been started.
+     *
+     * @return The {@link SzChangeFeedLog} to which INFO messages are
+     *         recorded, or <code>null</code> if none.
+     */
+    public SzChangeFeedLog getChangeFeedLog()
+    {
+        return this.changeFeedLog;
+    }
+
+    /**
+     * Gets the {@link Consumer} for publishing INFO messages. This returns
+     * {@code null} if no info message consumer has been configured (neither via
+     * data mart replication nor via an externally provided consumer).  Once
+     * {@linkplain #start() started}, this is the {@link
+     * SzInfoMessagePublisher} if INFO messages are published asynchronously.
+     *
+     * @return The {@link Consumer} for publishing INFO messages, or {@code
+     *             null} if none is configured.
+     */
+    public Consumer<String> getInfoMessageConsumer()
+    {
+        return this.infoMsgConsumer;
+    }
+
+    /**
+     * Gets the {@link SzGrpcServerMetrics} that collects the metrics for the
+     * services provided by this instance.  Use {@link
+     * SzGrpcServerMetrics#newHttpService()} to expose them on a {@link
+     * ServerBuilder}.
+     *
+     * @return The {@link SzGrpcServerMetrics} for this instance.
+     */
+    public SzGrpcServerMetrics getMetrics()
+    {
+        return this.metrics;
+    }
+
+    /**
+     * Gets the number of seconds that a streaming export may wait for the
+     * client to read more content before the call is failed with {@link
+     * Status#DEADLINE_EXCEEDED} and the server-side export is closed.  This
+     * prevents a client that abandons an export without cancelling it from
+     * holding an export cursor open indefinitely.  If zero (0) then there is
+     * no limit.
+     *
+     * @return The export idle timeout in seconds, or zero (0) if there is no
+     *         limit.
+     */
+    public long getExportIdleTimeoutSeconds()
+    {
+        return this.exportIdleTimeoutSeconds;
+    }
+
+    /**
+     * Sets the number of seconds that a streaming export may wait for the
+     * client to read more content before the call is failed with {@link
+     * Status#DEADLINE_EXCEEDED} and the server-side export is closed.  If
+     * zero (0) or negative then there is no limit.  By default this is
+     * {@link SzGrpcServerConstants#DEFAULT_EXPORT_IDLE_TIMEOUT_SECONDS}.
+     *
+     * @param seconds The export idle timeout in seconds, or zero (0) if there
+     *                is no limit.
+     */
+    public void setExportIdleTimeoutSeconds(long seconds)
+    {
+        this.exportIdleTimeoutSeconds = (seconds < 0L) ? 0L : seconds;
+    }
+
+    /**
+     * Gets the minimum number of seconds between logging of engine stats.
+     * Stats logging is skipped for any period in which no gRPC calls were
+     * handled so the actual interval may be longer.  If zero (0) then stats
+     * logging is suppressed.
+     *
+     * @return The minimum number of seconds between logging of engine stats,
+     *         or zero (0) if stats logging is suppressed.
+     */
+    public long getLogStatsSeconds()
+    {
+        return this.logStatsSeconds;
+    }
+
+    /**
+     * Sets the minimum number of seconds between logging of engine stats.
+     * Each time stats are logged, the {@linkplain #getMetrics() metrics} are
+     * also updated with the numeric engine stats.  If zero (0) or negative
+     * then stats logging is suppressed.  By default this is {@link
+     * SzGrpcServerConstants#DEFAULT_LOG_STATS_SECONDS}.  This must be set
+     * before {@link #start()} is called to take effect.
+     *
+     * @param seconds The minimum number of seconds between logging of engine
+     *                stats, or zero (0) to suppress stats logging.
+     */
+    public void setLogStatsSeconds(long seconds)
+    {
+        this.logStatsSeconds = (seconds < 0L) ? 0L : seconds;
+    }
+
+    /**
+     * Gets the number of seconds for which to run the repository performance
+     * check.
+     *
+     * @return The number of seconds for which to run the repository
+     *         performance check.
+     */
+    public int getPerformanceCheckSeconds()
+    {
+        return this.perfCheckSeconds;
+    }
+
+    /**
+     * Sets the number of seconds for which to run the repository performance
+     * check.  If not positive then {@link
+     * SzGrpcServerConstants#DEFAULT_PERF_CHECK_SECONDS} is used.
+     *
+     * @param seconds The number of seconds for which to run the repository
+     *                performance check.
+     */
+    public void setPerformanceCheckSeconds(int seconds)
+    {
+        this.perfCheckSeconds = (seconds <= 0)
+            ? SzGrpcServerConstants.DEFAULT_PERF_CHECK_SECONDS : seconds;
+    }
+
+    /**
+     * Gets the minimum number of records per second inserted by the
+     * repository performance check below which a warning is logged.
+     *
+     * @return The minimum number of records per second below which a
+     *         warning is logged, or zero (0) if no warning is logged.
+     */
+    public double getPerformanceWarningRate()
+    {
+        return this.perfWarningRate;
+    }
+
+    /**
+     * Sets the minimum number of records per second inserted by the
+     * repository performance check below which a warning is logged.  If zero
+     * (0) or negative then no warning is logged.
+     *
+     * @param recordsPerSecond The minimum number of records per second below
+     *                         which a warning is logged.
+     */
+    public void setPerformanceWarningRate(double recordsPerSecond)
+    {
+        this.perfWarningRate = (recordsPerSecond < 0.0)
+            ? 0.0 : recordsPerSecond;
+    }
+
+    /**
+     * Gets the number of seconds between periodic repository performance
+     * checks.  If zero (0) then no periodic checks are performed.
+     *
+     * @return The number of seconds between periodic repository performance
+     *         checks, or zero (0) if no periodic checks are performed.
+     */
+    public long getPerformanceRecheckSeconds()
+    {
+        return this.perfRecheckSeconds;
+    }
+
+    /**
+     * Sets the number of seconds between periodic repository performance
+     * checks.  If zero (0) or negative then no periodic checks are
+     * performed.  This must be set before {@link #start()} is called to take
+     * effect.
+     *
+     * @param seconds The number of seconds between periodic repository
+     *                performance checks, or zero (0) to disable them.
+     */
+    public void setPerformanceRecheckSeconds(long seconds)
+    {
+        this.perfRecheckSeconds = (seconds < 0L) ? 0L : seconds;
+    }
+
+    /**
+     * Runs {@link SzDiagnostic#checkRepositoryPerformance(int)} for the
+     * {@linkplain #getPerformanceCheckSeconds() configured duration}, logs
+     * the number of records inserted per second and records it in the
+     * {@linkplain #getMetrics() metrics}.  A warning is logged if the rate
+     * is below the {@linkplain #getPerformanceWarningRate() configured
+     * warning rate}.  Failures are logged rather than thrown.
+     *
+     * @return The number of records inserted per second, or {@link
+     *         Double#NaN} if the check failed.
+     *
+     * @throws IllegalStateException If this instance has already been
+     *                               destroyed.
+     */
+    public double checkRepositoryPerformance()
+    {
+        if (this.isDestroyed()) {
+            throw new IllegalStateException(
+                "This instance has already been destroyed");
+        }
+        int seconds = this.perfCheckSeconds;
+        try {
+            SzDiagnostic diagnostic = this.getEnvironment().getDiagnostic();
+            String result = diagnostic.checkRepositoryPerformance(seconds);
+            double rate = parseInsertRate(result);
+            this.metrics.recordRepositoryPerformance(rate);
+
+            String rateText = String.format("%.1f", rate);
+            logInfo("Repository performance: " + rateText
+                    + " records/sec over " + seconds + " seconds",
+                    result);
+
+            double warningRate = this.perfWarningRate;
+            if (warningRate > 0.0 && rate < warningRate) {
+                logWarning("WARNING: Repository performance of " + rateText
+                           + " records/sec is below the expected minimum of "
+                           + String.format("%.1f", warningRate)
+                           + " records/sec.  Database performance may "
+                           + "be degraded.");
+            }
+            return rate;
+
+        } catch (Exception e) {
+            logWarning(e, "WARNING: Failed to check repository performance");
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Extracts the number of records inserted per second from the JSON
+     * result of {@link SzDiagnostic#checkRepositoryPerformance(int)}, which
+     * reports the number of records inserted (<code>numRecordsInserted</code>)
+     * and the elapsed insert time in milliseconds (<code>insertTime</code>).
+     *
+     * @param resultJson The JSON text returned from the performance check.
+     *
+     * @return The number of records inserted per second.
+     *
+     * @throws IllegalArgumentException If the specified JSON does not
+     *                                  contain the expected fields.
+     */
+    static double parseInsertRate(String resultJson)
+    {
+        JsonObject jsonObject = JsonUtilities.parseJsonObject(resultJson);
+        Long count = JsonUtilities.getLong(jsonObject, "numRecordsInserted");
+        Long millis = JsonUtilities.getLong(jsonObject, "insertTime");
+        if (count == null || millis == null) {
+            throw new IllegalArgumentException(
+                "Unrecognized repository performance result: " + resultJson);
+        }
+        if (millis <= 0L) {
+            return 0.0;
+        }
+        return (count * 1000.0) / millis;
+    }
+
+    /**
+     * Primes the engine via {@link com.senzing.sdk.SzEngine#primeEngine()}
+     * and logs the time taken.  This should be called before the server
+     * starts accepting traffic so that the first requests do not pay the
+     * priming cost.  If priming fails then a warning is logged and this
+     * instance is not reported as {@linkplain #isReady() ready} (nor as
+     * serving via the gRPC health service) until a subsequent call succeeds.
+     *
+     * @return {@code true} if the engine was primed, otherwise {@code false}.
+     *
+     * @throws IllegalStateException If this instance has already been
+     *                               destroyed.
+     */
+    public boolean primeEngine()
+    {
+        if (this.isDestroyed()) {
+            throw new IllegalStateException(
+                "This instance has already been destroyed");
+        }
+        long start = System.nanoTime();
+        try {
+            this.getEnvironment().getEngine().primeEngine();
+            this.enginePrimed           = true;
+            this.enginePrimingFailed    = false;
+            this.updateHealthStatus();
+
+            long millis = (System.nanoTime() - start) / 1_000_000L;
+            logInfo("Primed engine in " + millis + "ms");
+            return true;
+
+        } catch (Exception e) {
+            this.enginePrimingFailed = true;
+            this.updateHealthStatus();
+
+            long millis = (System.nanoTime() - start) / 1_000_000L;
+            logWarning(e, "WARNING: Failed to prime engine after "
+                       + millis + "ms; not reporting ready until the "
+                       + "engine is primed");
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the engine has been primed via {@link #primeEngine()}.
+     *
+     * @return {@code true} if the engine has been primed, otherwise
+     *         {@code false}.
+     */
+    public boolean isEnginePrimed()
+    {
+        return this.enginePrimed;
+    }
+
+    /**
+     * Checks if the most recent attempt to prime the engine via {@link
+     * #primeEngine()} failed.
+     *
+     * @return {@code true} if the most recent attempt to prime the engine
+     *         failed, otherwise {@code false}.
+     */
+    public boolean isEnginePrimingFailed()
+    {
+        return this.enginePrimingFailed;
+    }
+
+    /**
+     * Checks if this instance is ready to service requests.  This is the
+     * case once it has been {@linkplain #start() started} and until it is
+     * {@linkplain #destroy() destroyed}, unless the most recent attempt to
+     * {@linkplain #primeEngine() prime the engine} failed.  The readiness is
+     * also reported by the standard gRPC health service
+     * (<code>grpc.health.v1.Health</code>) registered with the gRPC service,
+     * which reports {@code NOT_SERVING} while this instance is not ready.
+     * Callers should {@linkplain #primeEngine() prime the engine} prior to
+     * starting if the engine should be primed before reporting ready.
+     *
+     * @return {@code true} if this instance is ready, otherwise {@code
+     *         false}.
+     */
+    public synchronized boolean isReady()
+    {
+        return this.started && !this.destroyed && !this.enginePrimingFailed;
+    }
+
+    /**
+     * Reports the current {@linkplain #isReady() readiness} of this instance
+     * via the standard gRPC health service.  This has no effect once this
+     * instance has been destroyed.
+     */
+    private synchronized void updateHealthStatus()
+    {
+        if (this.destroyed) {
+            return;
+        }
+        this.healthStatus.setStatus(
+            HealthStatusManager.SERVICE_NAME_ALL_SERVICES,
+            this.isReady() ? ServingStatus.SERVING : ServingStatus.NOT_SERVING);
+    }
+
+    /**
+     * Checks if this instance has been destroyed.
+     *
+     * @return {@code true} if this instance has been destroyed, otherwise
+     *                {@code false}.
+     */
+    public synchronized boolean isDestroyed()
+    {
+        return this.destroyed;
+    }
+
+    /**
+     * Starts the data mart replicator (if configured) and the license
+     * expiration monitoring thread.  This should be called after
+     * {@link #configureServer(ServerBuilder, String)} and after the
+     * Armeria server has been started.
+     *
+     * <p><b>NOTE:</b> This method may be called without
+     * {@link #configureServer(ServerBuilder, String)} having been called
+     * if the caller only needs the replicator and license monitoring without
+     * gRPC services registered on a server.</p>
+     *
+     * @throws IllegalStateException If this instance has already been
+     *                               destroyed.
+     */
+    public synchronized void start()
+    {
+        if (this.destroyed) {
+            throw new IllegalStateException(
+                    "This instance has already been destroyed");
+        }
+        if (this.started) {
+            return;
+        }
+        this.started = true;
+        if (this.replicator != null) {
+            this.replicator.start();
+        }
+
+        // open the change feed log and record INFO messages to it
+        if (this.changeFeedDirectory != null) {
+            try {
+                this.changeFeedLog = new SzChangeFeedLog(
+                    this.changeFeedDirectory,
+                    SzGrpcServerConstants.DEFAULT_CHANGE_FEED_SEGMENT_BYTES,
+                    this.changeFeedRetentionBytes,
+                    this.changeFeedFlushMillis);
+            } catch (IOException e) {
+                throw new IllegalStateException(
+                    "Failed to open change feed log in directory: "
+                    + this.changeFeedDirectory, e);
+            }
+            SzChangeFeedLog log = this.changeFeedLog;
+            this.infoMsgConsumer = chainConsumers(
+                this.infoMsgConsumer, (msg) -> log.append(msg));
+            logInfo("Change feed enabled at offset " + log.getNextOffset()
+                    + " in " + this.changeFeedDirectory);
+        }
+
+        // create the read cache which is invalidated by the INFO messages
+        if (this.readCacheMaxBytes > 0L) {
+            this.readCache = new SzGrpcReadCache(
+                this.readCacheMaxBytes, this.readCacheTtlSeconds * 1000L);
+            this.metrics.setReadCache(this.readCache);
+        }
+
+        // coalesce identical concurrent reads
+        if (this.readCoalescing) {
+            this.singleFlight = new SzGrpcSingleFlight();
+            this.metrics.setSingleFlight(this.singleFlight);
+        }
+
+        // isolate the configured classes of calls on their own executors
+        if (this.executorLaneConfigs != null) {
+            this.executorLanes
+                = new SzGrpcExecutorLanes(this.executorLaneConfigs);
+            this.metrics.setExecutorLanes(this.executorLanes);
+            logInfo("Executor lanes enabled: " + this.executorLaneConfigs);
+        }
+
+        // decouple INFO message publishing from the request threads
+        if (this.infoMsgConsumer != null && this.infoQueueCapacity > 0) {
+            this.infoPublisher = new SzInfoMessagePublisher(
+                this.infoMsgConsumer,
+                this.infoQueueCapacity,
+                SzGrpcServerConstants.DEFAULT_INFO_BATCH_SIZE,
+                this.infoQueueOverflow);
+            this.metrics.setInfoMessagePublisher(this.infoPublisher);
+            this.infoMsgConsumer = this.infoPublisher;
+        }
+
+        // report ready via the gRPC health service unless priming failed
+        this.updateHealthStatus();
+
+        // start license expiration monitoring thread
+        Thread monitorThread = new Thread(() -> {
+            DateTimeFormatter formatter = DateTimeFormatter
+                .ofLocalizedDate(FormatStyle.LONG)
+                .withZone(ZoneId.systemDefault());
+
+            while (!this.isDestroyed()) {
+                try {
+                    SzProduct product = this.getEnvironment().getProduct();
+                    String license = product.getLicense();
+                    JsonObject jsonObject
+                        = JsonUtilities.parseJsonObject(license);
+                    String dateText = JsonUtilities.getString(
+                        jsonObject, "expireDate");
+                    LocalDateTime expireDateTime = (dateText == null)
+                        ? null : LocalDateTime.parse(dateText, DATE_FORMAT);
+
+                    if (expireDateTime != null) {
+                        Instant expiration
+                            = expireDateTime.toInstant(ZoneOffset.UTC);
+                        long diff = expiration.toEpochMilli()
+                            - System.currentTimeMillis();
+
+                        if (diff < 0L) {
+                            logWarning(
+                                "WARNING: License expired -- was valid "
+                                + "through "
+                                + formatter.format(expiration) + ".");
+
+                        } else if (diff < EXPIRATION_WARNING_MILLIS) {
+                            logWarning(
+                                "WARNING: License expiring soon -- valid "
+                                + "through "
+                                + formatter.format(expiration) + ".");
+                        }
+                    }
+                    synchronized (this) {
+                        if (!this.isDestroyed()) {
+                            this.wait(Duration.ofHours(6).toMillis());
+                        }
+                    }
+                } catch (InterruptedException ignore) {
+                    // do nothing
+                } catch (Exception failure) {
+                    logWarning(failure,
+                        "License monitoring encountered an error; "
+                        + "will retry");
+                    try {
+                        synchronized (this) {
+                            if (!this.isDestroyed()) {
+                                this.wait(
+                                    Duration.ofMinutes(30).toMillis());
+                            }
+                        }
+                    } catch (InterruptedException ignore) {
+                        // do nothing
+                    }
+                }
+            }
+        });
+        monitorThread.setName("sz-license-monitor");
+        monitorThread.setDaemon(true);
+        monitorThread.start();
+
+        // start the stats reporting thread if stats logging is enabled
+        if (this.logStatsSeconds > 0L) {
+            Thread statsThread = new Thread(this::reportStats);
+            statsThread.setName("sz-stats-reporter");
+            statsThread.setDaemon(true);
+            statsThread.start();
+        }
+
+        // start the periodic performance check thread if enabled
+        if (this.perfRecheckSeconds > 0L) {
+            Thread perfThread = new Thread(this::recheckPerformance);
+            perfThread.setName("sz-perf-recheck");
+            perfThread.setDaemon(true);
+            perfThread.start();
+        }
+    }
+
+    /**
+     * Periodically {@linkplain #checkRepositoryPerformance() checks the
+     * repository performance} until this instance is destroyed so that
+     * database degradation can be observed over time.
+     */
+    private void recheckPerformance()
+    {
+        while (!this.isDestroyed()) {
+            try {
+                synchronized (this) {
+                    if (!this.destroyed) {
+                        this.wait(this.perfRecheckSeconds * 1000L);
+                    }
+                }
+                if (this.isDestroyed()) {
+                    break;
+                }
+                this.checkRepositoryPerformance();
+
+            } catch (InterruptedException ignore) {
+                // do nothing
+            } catch (Exception failure) {
+                logWarning(failure,
+                    "Performance re-check encountered an error; will retry");
+            }
+        }
+    }
+
+    /**
+     * Periodically logs the engine stats along with the server throughput
+     * and updates the {@linkplain #getMetrics() metrics} with the numeric
+     * engine stats until this instance is destroyed.  Reporting is skipped
+     * for any period in which no gRPC calls were handled.
+     */
+    private void reportStats()
+    {
+        long lastHandled = this.metrics.getHandledTotal();
+        long lastNanos = System.nanoTime();
+
+        while (!this.isDestroyed()) {
+            try {
+                synchronized (this) {
+                    if (!this.destroyed) {
+                        this.wait(this.logStatsSeconds * 1000L);
+                    }
+                }
+                if (this.isDestroyed()) {
+                    break;
+                }
+
+                // skip reporting if idle
+                long handled = this.metrics.getHandledTotal();
+                if (handled == lastHandled) {
+                    continue;
+                }
+                long now = System.nanoTime();
+                double seconds = (now - lastNanos) / 1_000_000_000.0;
+                long calls = handled - lastHandled;
+                lastHandled = handled;
+                lastNanos = now;
+
+                String stats = this.getEnvironment().getEngine().getStats();
+                this.metrics.updateEngineStats(stats);
+
+                logInfo("Engine stats: " + stats,
+                        "Server throughput: " + calls + " calls in "
+                        + String.format("%.1f", seconds) + " seconds ("
+                        + String.format("%.1f", calls / seconds)
+                        + " calls/sec)");
+
+            } catch (InterruptedException ignore) {
+                // do nothing
+            } catch (Exception failure) {
+                logWarning(failure,
+                    "Stats reporting encountered an error; will retry");
+            }
+        }
+    }
+
+    /**
+     * Destroys this instance, delivering any buffered INFO messages and
+     * shutting down the data mart replicator (if configured) and the license
+     * expiration monitoring thread.  The buffered INFO messages are
+     * delivered without holding the monitor of this instance so that their
+     * delivery cannot be blocked by threads waiting on it.
+     */
+    public void destroy()
+    {
+        SzInfoMessagePublisher  publisher;
+        SzChangeFeedLog         feedLog;
+        SzGrpcExecutorLanes     lanes;
+        SzReplicator            replicator;
+        synchronized (this) {
+            if (this.destroyed) {
+                return;
+            }
+            this.destroyed = true;
+            this.healthStatus.enterTerminalState();
+            publisher   = this.infoPublisher;
+            feedLog     = this.changeFeedLog;
+            lanes       = this.executorLanes;
+            replicator  = this.replicator;
+            this.notifyAll();
+        }
+
+        // release the resources outside the monitor
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (feedLog != null) {
+            feedLog.close();
+        }
+        if (lanes != null) {
+            lanes.shutdown();
+        }
+        if (replicator != null) {
+            replicator.shutdown();
+        }
+    }
+
+    /**
+     * Chains two {@link Consumer} instances into a single composite consumer
+     * that calls both. If either is {@code null}, the other is returned (or
+     * {@code null} if both are {@code null}). When both are non-null, both are
+     * always attempted even if the first throws; if both throw, the second
+     * exception is added as
+     * {@linkplain Throwable#addSuppressed(Throwable) suppressed} on
+     * the first.
+     *
+     * @param first  The first consumer, or {@code null}.
+     * @param second The second consumer, or {@code null}.
+     * @return A composite consumer, one of the inputs, or {@code null}.
+     */
+    static Consumer<String> chainConsumers(Consumer<String> first,
+                                           Consumer<String> second)
+    {
+        if (first != null && second != null) {
+            return (msg) -> {
+                RuntimeException firstFailure = null;
+                try {
+                    first.accept(msg);
+                } catch (RuntimeException e) {
+                    firstFailure = e;
+                }
+                try {
+                    second.accept(msg);
+                } catch (RuntimeException e) {
+                    if (firstFailure != null) {
+                        firstFailure.addSuppressed(e);
+                    } else {
+                        firstFailure = e;
+                    }
+                }
+                if (firstFailure != null) {
+                    throw firstFailure;
+                }
+            };
+        } else if (first != null) {
+            return first;
+        } else {
+            return second;
+        }
+    }
+
+    /**
+     * Attempt to infer the {@link Status} from the {@link Throwable}. If it
+     * cannot be inferred then {@link Status#UNKNOWN} is returned.
+     *
+     * @param t The {@link Throwable} from which to infer the {@link Status}.
+     * @return The inferred {@link Status}.
+     */
+    protected static io.grpc.Status inferStatus(Throwable t)
+    {
+        if (t == null) {
+            return Status.UNKNOWN;
+        }
+        return STATUS_CACHE.get(t.getClass());
+    }
+
+    /**
+     * Checks whether or not the errors for {@link SzException} failures
+     * include the text, function and stack trace of the exception.  If not
+     * (the default) then such errors are encoded compactly.  Other failures
+     * are unexpected and always include their stack trace.
+     *
+     * @return <code>true</code> if the errors for {@link SzException}
+     *         failures include the stack trace, otherwise <code>false</code>.
+     */
+    public boolean isErrorStackTraces()
+    {
+        return this.errorStackTraces;
+    }
+
+    /**
+     * Sets whether or not the errors for {@link SzException} failures
+     * include the text, function and stack trace of the exception.  If not
+     * (the default) then such errors are encoded compactly with only the
+     * reason in the JSON status description and the error code and message
+     * in the {@link
+     * com.senzing.sdk.grpc.SzGrpcEnvironment#ERROR_CODE_TRAILER_KEY} and
+     * {@link com.senzing.sdk.grpc.SzGrpcEnvironment#ERROR_MESSAGE_TRAILER_KEY}
+     * trailers.  This applies to the errors of the services provided by
+     * this instance.
+     *
+     * @param enabled <code>true</code> if the errors for {@link SzException}
+     *                failures should include the stack trace, otherwise
+     *                <code>false</code>.
+     */
+    public void setErrorStackTraces(boolean enabled)
+    {
+        this.errorStackTraces = enabled;
+    }
+
+    /**
+     * Creates a {@link StatusRuntimeException} from the optionally-specified
+     * {@link Status} and the specified {@link Throwable}.
+     *
+     * If the specified {@link Throwable} is already a {@link
+     * StatusRuntimeException} (e.g.: because the call was {@linkplain
+     * DeadlineInterceptor#checkActive() cancelled or expired}) then it is
+     * returned as-is.  Errors for {@link SzException} failures are encoded
+     * compactly without the stack trace.
      *
      * @param t The {@link Throwable} instance to use as a basis.
      *
@@ -654,12 +1859,40 @@ public class SzGrpcServices
     protected static StatusRuntimeException
         toStatusRuntimeException(Throwable t)
     {
-        return toStatusRuntimeException(inferStatus(t), t);
+        return toStatusRuntimeException(t, false);
+    }
+
+    /**
+     * Creates a {@link StatusRuntimeException} from the specified {@link
+     * Throwable}, inferring the {@link Status} from the {@link Throwable}.
+     *
+     * If the specified {@link Throwable} is already a {@link
+     * StatusRuntimeException} (e.g.: because the call was {@linkplain
+     * DeadlineInterceptor#checkActive() cancelled or expired}) then it is
+     * returned as-is.
+     *
+     * @param t           The {@link Throwable} instance to use as a basis.
+     *
+     * @param stackTraces <code>true</code> if the error for an {@link
+     *                    SzException} failure should include the stack
+     *                    trace (see {@link #isErrorStackTraces()}),
+     *                    otherwise <code>false</code>.
+     *
+     * @return The {@link StatusRuntimeException} that was created.
+     */
+    protected static StatusRuntimeException
+        toStatusRuntimeException(Throwable t, boolean stackTraces)
+    {
+        if (t instanceof StatusRuntimeException) {
+            return (StatusRuntimeException) t;
+        }
+        return toStatusRuntimeException(inferStatus(t), t, stackTraces);
     }
 
     /**
      * Creates a {@link StatusRuntimeException} from the optionally-specified
-     * {@link Status} and the specified {@link Throwable}.
+     * {@link Status} and the specified {@link Throwable}.  Errors for {@link
+     * SzException} failures are encoded compactly without the stack trace.
      *
      * @param status The explicit {@link Status} or <code>null</code> if the
      *               {@link Status} should be inferred from the {@link
@@ -672,6 +1905,31 @@ public class SzGrpcServices
     protected static StatusRuntimeException
         toStatusRuntimeException(Status    status,
                                  Throwable t)
+    {
+        return toStatusRuntimeException(status, t, false);
+    }
+
+    /**
+     * Creates a {@link StatusRuntimeException} from the optionally-specified
+     * {@link Status} and the specified {@link Throwable}.
+     *
+     * @param status      The explicit {@link Status} or <code>null</code> if
+     *                    the {@link Status} should be inferred from the
+     *                    {@link Throwable}.
+     *
+     * @param t           The {@link Throwable} instance to use as a basis.
+     *
+     * @param stackTraces <code>true</code> if the error for an {@link
+     *                    SzException} failure should include the stack
+     *                    trace (see {@link #isErrorStackTraces()}),
+     *                    otherwise <code>false</code>.
+     *
+     * @return The {@link StatusRuntimeException} that was created.
+     */
+    protected static StatusRuntimeException
+        toStatusRuntimeException(Status    status,
+                                 Throwable t,
+                                 boolean   stackTraces)
     {
         // check if the throwable is null
         if (t == null) {
@@ -700,6 +1958,12 @@ public class SzGrpcServices
             } else {
                 reason = prefix + message;
             }
+
+            // encode expected errors compactly unless stack traces enabled
+            if (!stackTraces) {
+                return toCompactStatusRuntimeException(
+                    status, sze, reason, reason.substring(prefix.length()));
+            }
         }
 
         // get the other fields
@@ -771,6 +2035,41 @@ public class SzGrpcServices
                 .asRuntimeException();
     }
 
+    /**
+     * Creates a {@link StatusRuntimeException} for the specified {@link
+     * SzException} whose JSON status description holds only the reason and
+     * whose trailers hold the error code and message so that clients need
+     * not parse the description.
+     *
+     * @param status  The {@link Status} for the failure.
+     * @param sze     The {@link SzException} describing the failure.
+     * @param reason  The reason for the JSON status description.
+     * @param message The error message without the reason prefix.
+     *
+     * @return The {@link StatusRuntimeException} that was created.
+     */
+    private static StatusRuntimeException toCompactStatusRuntimeException(
+        Status      status,
+        SzException sze,
+        String      reason,
+        String      message)
+    {
+        JsonObjectBuilder job = Json.createObjectBuilder();
+        job.add(REASON_FIELD_KEY, reason);
+        JsonObjectBuilder wrapper = Json.createObjectBuilder();
+        wrapper.add(ERROR_FIELD_KEY, job);
+
+        Metadata trailers = new Metadata();
+        trailers.put(ERROR_CODE_TRAILER_KEY,
+                     String.valueOf(sze.getErrorCode()));
+        trailers.put(ERROR_MESSAGE_TRAILER_KEY,
+                     message.getBytes(StandardCharsets.UTF_8));
+
+        return status.withDescription(toJsonText(wrapper))
+                .withCause(sze)
+                .asRuntimeException(trailers);
+    }
+
     /**
      * Gets a {@link String} field value from a message that may be absent. If
      * the field value is absent then <code>null</code> is returned, otherwise
@@ -0,0 +1,194 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces identical concurrent read operations so that a single execution
+ * produces the result for every caller that requests it while it is in
+ * flight.  Operations are identified by a key that encodes the operation,
+ * its arguments and its flags, as created by {@link #key(String,
+ * Object...)}.
+ *
+ * <p>
+ * The first caller for a key (the "leader") executes the operation on its
+ * own thread.  Callers for the same key that arrive while the leader is
+ * executing (the "followers") do not execute the operation and do not
+ * block, but instead receive the leader's pending {@link CompletableFuture}
+ * so their threads are immediately released.
+ * </p>
+ *
+ * <p>
+ * To preserve read-your-writes semantics, callers must {@linkplain
+ * #invalidate() invalidate} this instance after each write operation.  A
+ * caller only joins an operation that started after the most recent
+ * invalidation, so a read that began before a write is never shared with a
+ * caller that arrives after the write completes.
+ * </p>
+ */
+public class SzGrpcSingleFlight
+{
+    /**
+     * The {@link ConcurrentMap} of keys (prefixed with the generation) to
+     * the {@link CompletableFuture} of the operation in flight.
+     */
+    private final ConcurrentMap<String, CompletableFuture<String>> flights
+        = new ConcurrentHashMap<>();
+
+    /**
+     * The generation which is incremented on each invalidation.
+     */
+    private final AtomicLong generation = new AtomicLong(0L);
+
+    /**
+     * The number of operations executed.
+     */
+    private final LongAdder executedCount = new LongAdder();
+
+    /**
+     * The number of callers that joined an operation in flight.
+     */
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * Default constructor.
+     */
+    public SzGrpcSingleFlight()
+    {
+        // do nothing
+    }
+
+    /**
+     * Executes the specified operation for the specified key unless an
+     * operation for the same key is already in flight, in which case the
+     * {@link CompletableFuture} for that operation is returned without
+     * executing the specified operation.  When this caller executes the
+     * operation, it does so on the calling thread and the returned {@link
+     * CompletableFuture} is already complete.  If the operation fails then
+     * the returned {@link CompletableFuture} is completed exceptionally
+     * with the failure.
+     *
+     * @param key The key identifying the operation, its arguments and its
+     *            flags.
+     * @param operation The {@link Callable} to execute.
+     *
+     * @return The {@link CompletableFuture} for the result.
+     */
+    public CompletableFuture<String> execute(String           key,
+                                             Callable<String> operation)
+    {
+        String flightKey = this.generation.get() + ":" + key;
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing
+            = this.flights.putIfAbsent(flightKey, future);
+        if (existing != null) {
+            this.coalescedCount.increment();
+            return existing;
+        }
+
+        this.executedCount.increment();
+        String      result  = null;
+        Throwable   failure = null;
+        try {
+            result = operation.call();
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            // remove before completing so later callers start a new flight
+            this.flights.remove(flightKey, future);
+        }
+        if (failure == null) {
+            future.complete(result);
+        } else {
+            future.completeExceptionally(failure);
+        }
+        return future;
+    }
+
+    /**
+     * Invalidates the operations currently in flight so that subsequent
+     * callers do not join them.  This should be called after every write
+     * operation.
+     */
+    public void invalidate()
+    {
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Creates the key identifying the specified operation and its arguments
+     * (including its flags).  Each argument is prefixed with the length of
+     * its text so that arguments containing the separator (e.g.: a data
+     * source code or record ID containing a colon) cannot cause different
+     * arguments to produce the same key.
+     *
+     * @param operation The name of the operation.
+     * @param arguments The arguments to the operation.
+     *
+     * @return The key identifying the operation and its arguments.
+     */
+    public static String key(String operation, Object... arguments)
+    {
+        StringBuilder sb = new StringBuilder(operation);
+        for (Object argument : arguments) {
+            String text = String.valueOf(argument);
+            sb.append(':').append(text.length()).append(':').append(text);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Unwraps the failure from a {@link CompletableFuture} returned by
+     * {@link #execute(String, Callable)}.
+     *
+     * @param failure The failure to unwrap.
+     *
+     * @return The unwrapped failure.
+     */
+    public static Throwable unwrap(Throwable failure)
+    {
+        if (failure instanceof CompletionException
+            && failure.getCause() != null)
+        {
+            return failure.getCause();
+        }
+        return failure;
+    }
+
+    /**
+     * Gets the number of operations currently in flight.
+     *
+     * @return The number of operations currently in flight.
+     */
+    public int getInFlightCount()
+    {
+        return this.flights.size();
+    }
+
+    /**
+     * Gets the number of operations that have been executed.
+     *
+     * @return The number of operations that have been executed.
+     */
+    public long getExecutedCount()
+    {
+        return this.executedCount.sum();
+    }
+
+    /**
+     * Gets the number of callers that joined an operation in flight rather
+     * than executing it themselves.
+     *
+     * @return The number of callers that joined an operation in flight.
+     */
+    public long getCoalescedCount()
+    {
+        return this.coalescedCount.sum();
+    }
+}
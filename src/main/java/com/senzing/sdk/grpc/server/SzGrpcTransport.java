@@ -0,0 +1,130 @@
+package com.senzing.sdk.grpc.server;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Enumerates the network transports on which the {@link SzGrpcServer} may
+ * run its event loops.  The native transports are only available on Linux
+ * and only when the corresponding Netty native library can be loaded, so
+ * availability is checked reflectively and without loading any Armeria
+ * classes.
+ */
+public enum SzGrpcTransport
+{
+    /**
+     * The portable Java NIO transport, which is always available.
+     */
+    NIO(null),
+
+    /**
+     * The Linux native <code>epoll</code> transport.
+     */
+    EPOLL("io.netty.channel.epoll.Epoll"),
+
+    /**
+     * The Linux native <code>io_uring</code> transport, which requires a
+     * kernel with <code>io_uring</code> support.
+     */
+    IO_URING("io.netty.channel.uring.IoUring");
+
+    /**
+     * The name of the Netty class whose static <code>isAvailable()</code> and
+     * <code>unavailabilityCause()</code> methods report availability, or
+     * <code>null</code> if always available.
+     */
+    private final String checkClassName;
+
+    /**
+     * Constructs with the name of the Netty class used to check availability.
+     *
+     * @param checkClassName The name of the Netty class used to check
+     *                       availability, or <code>null</code> if always
+     *                       available.
+     */
+    SzGrpcTransport(String checkClassName)
+    {
+        this.checkClassName = checkClassName;
+    }
+
+    /**
+     * Gets the name by which Armeria identifies this transport via its
+     * <code>com.linecorp.armeria.transportType</code> system property.
+     *
+     * @return The name by which Armeria identifies this transport.
+     */
+    public String getArmeriaName()
+    {
+        return this.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks if this transport is available in the current process.
+     *
+     * @return <code>true</code> if this transport is available, otherwise
+     *         <code>false</code>.
+     */
+    public boolean isAvailable()
+    {
+        return this.getUnavailabilityCause() == null;
+    }
+
+    /**
+     * Gets the reason this transport is not available, or <code>null</code>
+     * if it is available.
+     *
+     * @return The {@link Throwable} describing why this transport is not
+     *         available, or <code>null</code> if it is available.
+     */
+    public Throwable getUnavailabilityCause()
+    {
+        if (this.checkClassName == null) {
+            return null;
+        }
+        try {
+            Class<?> checkClass = Class.forName(this.checkClassName);
+            Object available = checkClass.getMethod("isAvailable").invoke(null);
+            if (Boolean.TRUE.equals(available)) {
+                return null;
+            }
+            Object cause = checkClass.getMethod("unavailabilityCause")
+                .invoke(null);
+            return (cause instanceof Throwable)
+                ? (Throwable) cause
+                : new UnsupportedOperationException(
+                    "The " + this.getArmeriaName() + " transport is not "
+                    + "available");
+
+        } catch (InvocationTargetException e) {
+            return e.getCause();
+
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return e;
+        }
+    }
+
+    /**
+     * Parses the specified text as an {@link SzGrpcTransport}.  The text is
+     * matched case-insensitively with dashes treated as underscores.
+     *
+     * @param text The text to parse.
+     *
+     * @return The parsed {@link SzGrpcTransport}.
+     *
+     * @throws IllegalArgumentException If the text does not match any
+     *                                  {@link SzGrpcTransport}.
+     */
+    public static SzGrpcTransport parse(String text)
+    {
+        Objects.requireNonNull(text, "The text cannot be null");
+        String name = text.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (SzGrpcTransport transport : values()) {
+            if (transport.name().equals(name)) {
+                return transport;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Unrecognized transport: " + text);
+    }
+}
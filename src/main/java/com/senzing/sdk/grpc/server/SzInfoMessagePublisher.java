@@ -0,0 +1,465 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static com.senzing.util.LoggingUtilities.*;
+
+/**
+ * Decouples the publishing of INFO messages from the request threads.
+ * Messages {@linkplain #accept(String) accepted} by this instance are placed
+ * on a bounded ring buffer and delivered to the target {@link Consumer} in
+ * batches by a dedicated drainer thread.  When the buffer is full the
+ * configured {@link OverflowPolicy} determines whether the caller blocks
+ * (backpressure), the message is dropped, the oldest message is dropped, or
+ * the message is published synchronously on the calling thread.
+ *
+ * <p>
+ * <b>NOTE:</b> The {@link OverflowPolicy#DROP_NEWEST} and {@link
+ * OverflowPolicy#DROP_OLDEST} policies lose data: a dropped message is
+ * never delivered, so the consumers of the INFO messages miss the changes
+ * it describes.  Dropped messages are counted (see {@link
+ * #getDroppedCount()}) and logged at the <code>WARN</code> level at most
+ * once every {@link #DROP_WARNING_INTERVAL_SECONDS} seconds.  The default
+ * {@link OverflowPolicy#BLOCK} policy never drops messages.
+ * </p>
+ *
+ * <p>
+ * Once {@linkplain #close() closed}, any messages remaining on the buffer
+ * are delivered before the drainer thread exits and any further messages
+ * are published synchronously on the calling thread.
+ * </p>
+ */
+public class SzInfoMessagePublisher implements Consumer<String>, AutoCloseable
+{
+    /**
+     * Enumerates the policies for handling an INFO message when the buffer
+     * is full.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * Blocks the calling thread until space is available on the buffer,
+         * applying backpressure to the writers.  This is the default and
+         * never drops messages.
+         */
+        BLOCK,
+
+        /**
+         * Publishes the message synchronously on the calling thread,
+         * bypassing the buffer.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Drops the message being published.  <b>NOTE:</b> The dropped
+         * message is lost and is never delivered.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Drops the oldest message on the buffer to make room for the
+         * message being published.  <b>NOTE:</b> The dropped message is lost
+         * and is never delivered.
+         */
+        DROP_OLDEST;
+
+        /**
+         * Parses the specified text as an {@link OverflowPolicy}.  The text
+         * is matched case-insensitively with dashes treated as underscores.
+         *
+         * @param text The text to parse.
+         *
+         * @return The parsed {@link OverflowPolicy}.
+         *
+         * @throws IllegalArgumentException If the text does not match any
+         *                                  {@link OverflowPolicy}.
+         */
+        public static OverflowPolicy parse(String text)
+        {
+            Objects.requireNonNull(text, "The text cannot be null");
+            String name = text.trim().toUpperCase().replace('-', '_');
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equals(name)) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException(
+                "Unrecognized overflow policy: " + text);
+        }
+    }
+
+    /**
+     * The maximum number of milliseconds the drainer thread waits for a
+     * message before re-checking if this instance has been closed.
+     */
+    private static final long POLL_MILLIS = 250L;
+
+    /**
+     * The minimum number of seconds between the warnings logged for dropped
+     * messages.
+     */
+    public static final long DROP_WARNING_INTERVAL_SECONDS = 10L;
+
+    /**
+     * The target {@link Consumer} to which the messages are delivered.
+     */
+    private final Consumer<String> target;
+
+    /**
+     * The bounded ring buffer of pending messages.
+     */
+    private final ArrayBlockingQueue<String> buffer;
+
+    /**
+     * The maximum number of messages that may be buffered.
+     */
+    private final int capacity;
+
+    /**
+     * The maximum number of messages delivered per batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The {@link OverflowPolicy} for when the buffer is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The dedicated drainer {@link Thread}.
+     */
+    private final Thread drainer;
+
+    /**
+     * The number of messages delivered to the target.
+     */
+    private final LongAdder delivered = new LongAdder();
+
+    /**
+     * The number of messages that failed delivery to the target.
+     */
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * The number of messages dropped due to the buffer being full.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The {@link System#nanoTime()} at which a warning was last logged for
+     * dropped messages.
+     */
+    private final AtomicLong lastDropWarning = new AtomicLong(
+        System.nanoTime()
+        - TimeUnit.SECONDS.toNanos(DROP_WARNING_INTERVAL_SECONDS));
+
+    /**
+     * The number of messages published on the calling thread because the
+     * buffer was full or this instance was closed.
+     */
+    private final LongAdder callerRuns = new LongAdder();
+
+    /**
+     * Tracks if this instance has been closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs with the target {@link Consumer}, the capacity of the
+     * buffer, the maximum batch size and the {@link OverflowPolicy}.  The
+     * drainer thread is started upon construction.
+     *
+     * @param target The target {@link Consumer} to deliver messages to.
+     * @param capacity The maximum number of messages that may be buffered.
+     * @param batchSize The maximum number of messages to deliver per batch.
+     * @param overflowPolicy The {@link OverflowPolicy} for when the buffer
+     *                       is full, or <code>null</code> for {@link
+     *                       OverflowPolicy#BLOCK}.
+     *
+     * @throws NullPointerException If the target is <code>null</code>.
+     *
+     * @throws IllegalArgumentException If the capacity or batch size is not
+     *                                  positive.
+     */
+    public SzInfoMessagePublisher(Consumer<String> target,
+                                  int              capacity,
+                                  int              batchSize,
+                                  OverflowPolicy   overflowPolicy)
+    {
+        Objects.requireNonNull(target, "The target consumer cannot be null");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "The capacity must be positive: " + capacity);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(
+                "The batch size must be positive: " + batchSize);
+        }
+        this.target         = target;
+        this.buffer         = new ArrayBlockingQueue<>(capacity);
+        this.capacity       = capacity;
+        this.batchSize      = batchSize;
+        this.overflowPolicy = (overflowPolicy == null)
+            ? OverflowPolicy.BLOCK : overflowPolicy;
+
+        this.drainer = new Thread(this::drain);
+        this.drainer.setName("sz-info-publisher");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Gets the {@link OverflowPolicy} for when the buffer is full.
+     *
+     * @return The {@link OverflowPolicy} for when the buffer is full.
+     */
+    public OverflowPolicy getOverflowPolicy()
+    {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * Gets the maximum number of messages that may be buffered.
+     *
+     * @return The maximum number of messages that may be buffered.
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of messages currently buffered awaiting delivery.
+     *
+     * @return The number of messages currently buffered.
+     */
+    public int getQueueDepth()
+    {
+        return this.buffer.size();
+    }
+
+    /**
+     * Gets the number of messages delivered to the target by the drainer.
+     *
+     * @return The number of messages delivered by the drainer.
+     */
+    public long getDeliveredCount()
+    {
+        return this.delivered.sum();
+    }
+
+    /**
+     * Gets the number of messages that failed delivery to the target.
+     *
+     * @return The number of messages that failed delivery.
+     */
+    public long getFailedCount()
+    {
+        return this.failed.sum();
+    }
+
+    /**
+     * Gets the number of messages dropped because the buffer was full.
+     *
+     * @return The number of messages dropped.
+     */
+    public long getDroppedCount()
+    {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Gets the number of messages published on the calling thread because
+     * the buffer was full or this instance was closed.
+     *
+     * @return The number of messages published on the calling thread.
+     */
+    public long getCallerRunsCount()
+    {
+        return this.callerRuns.sum();
+    }
+
+    /**
+     * Checks if this instance has been closed.
+     *
+     * @return <code>true</code> if this instance has been closed, otherwise
+     *         <code>false</code>.
+     */
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Implemented to place the specified message on the buffer for delivery
+     * by the drainer thread, applying the {@link OverflowPolicy} if the
+     * buffer is full.  If this instance has been closed then the message is
+     * published synchronously on the calling thread.
+     *
+     * @param message The message to publish.
+     *
+     * @throws NullPointerException If the specified message is
+     *                              <code>null</code>.
+     */
+    @Override
+    public void accept(String message)
+    {
+        Objects.requireNonNull(message, "The message cannot be null");
+        if (this.closed) {
+            this.callerRuns.increment();
+            this.target.accept(message);
+            return;
+        }
+        if (this.buffer.offer(message)) {
+            return;
+        }
+        switch (this.overflowPolicy) {
+            case BLOCK:
+                try {
+                    while (!this.buffer.offer(
+                        message, POLL_MILLIS, TimeUnit.MILLISECONDS))
+                    {
+                        if (this.closed) {
+                            this.callerRuns.increment();
+                            this.target.accept(message);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(
+                        "Interrupted while waiting to publish message", e);
+                }
+                break;
+
+            case CALLER_RUNS:
+                this.callerRuns.increment();
+                this.target.accept(message);
+                break;
+
+            case DROP_NEWEST:
+                this.recordDrop();
+                break;
+
+            case DROP_OLDEST:
+                while (!this.buffer.offer(message)) {
+                    if (this.buffer.poll() != null) {
+                        this.recordDrop();
+                    }
+                }
+                break;
+
+            default:
+                throw new IllegalStateException(
+                    "Unhandled overflow policy: " + this.overflowPolicy);
+        }
+    }
+
+    /**
+     * Counts a dropped message and logs a warning unless one was logged
+     * within the last {@link #DROP_WARNING_INTERVAL_SECONDS} seconds.
+     */
+    private void recordDrop()
+    {
+        this.dropped.increment();
+
+        long now  = System.nanoTime();
+        long last = this.lastDropWarning.get();
+        if (now - last
+                < TimeUnit.SECONDS.toNanos(DROP_WARNING_INTERVAL_SECONDS)
+            || !this.lastDropWarning.compareAndSet(last, now))
+        {
+            return;
+        }
+        logWarning("WARNING: INFO message buffer is full (capacity "
+                   + this.capacity + ") and the " + this.overflowPolicy
+                   + " overflow policy has dropped " + this.getDroppedCount()
+                   + " INFO message(s) in total.  Dropped INFO messages are "
+                   + "lost and will not be delivered.");
+    }
+
+    /**
+     * Delivers the buffered messages in batches until this instance is
+     * closed and the buffer has been emptied.
+     */
+    private void drain()
+    {
+        List<String> batch = new ArrayList<>(this.batchSize);
+        while (!this.closed || !this.buffer.isEmpty()) {
+            try {
+                String first = this.buffer.poll(
+                    POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.buffer.drainTo(batch, this.batchSize - 1);
+                this.deliver(batch);
+
+            } catch (InterruptedException ignore) {
+                // do nothing
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Delivers the specified batch of messages to the target, logging and
+     * counting any failures.
+     *
+     * @param batch The {@link List} of messages to deliver.
+     */
+    private void deliver(List<String> batch)
+    {
+        for (String message : batch) {
+            try {
+                this.target.accept(message);
+                this.delivered.increment();
+
+            } catch (Exception e) {
+                this.failed.increment();
+                logWarning(e, "", "- - - - - - - - - - - - - - - - - - - ",
+                           "WARNING: Failed to deliver info message: ",
+                           message,
+                           "- - - - - - - - - - - - - - - - - - - ",
+                           "");
+            }
+        }
+    }
+
+    /**
+     * Closes this instance, waiting for the drainer thread to deliver any
+     * messages remaining on the buffer.  Messages published after this
+     * method is called are published synchronously on the calling thread.
+     */
+    @Override
+    public void close()
+    {
+        this.closed = true;
+        boolean interrupted = false;
+        while (this.drainer.isAlive()) {
+            try {
+                this.drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // deliver any messages that raced with the drainer exiting
+        List<String> remaining = new ArrayList<>();
+        this.buffer.drainTo(remaining);
+        this.deliver(remaining);
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
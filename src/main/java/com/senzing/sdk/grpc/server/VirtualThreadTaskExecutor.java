@@ -0,0 +1,256 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Provides a blocking task executor that runs each task on its own newly
+ * created (virtual) thread rather than on a pool of threads.  Virtual
+ * threads are cheap to create and must not be pooled, so no bound is placed
+ * on the number of threads; the work they may do at once is instead bounded
+ * by the {@link SzGrpcNativeCallLimiter} that gates every call into the
+ * native SDK.
+ *
+ * <p>
+ * This extends {@link ScheduledThreadPoolExecutor} since that is what the
+ * server requires of its blocking task executor, and so that its metrics
+ * can be observed as for the platform thread pool.  A single scheduler
+ * thread waits for the delayed and periodic tasks to become due and then
+ * hands each of them to a new thread, while tasks submitted via {@link
+ * #execute(Runnable)} are started immediately.  The {@linkplain
+ * #getActiveCount() active count} and {@linkplain #getPoolSize() pool size}
+ * report the number of task threads currently running.
+ * </p>
+ */
+final class VirtualThreadTaskExecutor extends ScheduledThreadPoolExecutor
+{
+    /**
+     * The {@link ThreadFactory} for the thread that runs each task.
+     */
+    private final ThreadFactory taskThreadFactory;
+
+    /**
+     * The number of task threads currently running.
+     */
+    private final AtomicInteger running = new AtomicInteger(0);
+
+    /**
+     * The number of tasks that have completed.
+     */
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * Constructs with the {@link ThreadFactory} for the task threads and the
+     * {@link ThreadFactory} for the scheduler thread.
+     *
+     * @param taskThreadFactory The {@link ThreadFactory} for the thread that
+     *                          runs each task (typically virtual threads).
+     * @param schedulerThreadFactory The {@link ThreadFactory} for the thread
+     *                               that waits for delayed tasks.
+     */
+    VirtualThreadTaskExecutor(ThreadFactory taskThreadFactory,
+                              ThreadFactory schedulerThreadFactory)
+    {
+        super(1, schedulerThreadFactory);
+        Objects.requireNonNull(
+            taskThreadFactory, "The task thread factory cannot be null");
+        this.taskThreadFactory = taskThreadFactory;
+    }
+
+    /**
+     * Overridden to start the specified task on a new thread immediately.
+     *
+     * @param command The task to run.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException If this
+     *         instance has been shut down.
+     */
+    @Override
+    public void execute(Runnable command)
+    {
+        Objects.requireNonNull(command, "The task cannot be null");
+        if (this.isShutdown()) {
+            this.getRejectedExecutionHandler().rejectedExecution(
+                command, this);
+            return;
+        }
+        this.start(command);
+    }
+
+    /**
+     * Starts the specified task on a new thread.
+     *
+     * @param task The task to run.
+     */
+    private void start(Runnable task)
+    {
+        this.running.incrementAndGet();
+        try {
+            this.taskThreadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    this.running.decrementAndGet();
+                    this.completed.increment();
+                }
+            }).start();
+
+        } catch (RuntimeException | Error e) {
+            this.running.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Overridden to hand the delayed task to a new thread once it is due
+     * rather than running it on the scheduler thread.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(
+        Runnable                    runnable,
+        RunnableScheduledFuture<V>  task)
+    {
+        return new HandOff<>(task);
+    }
+
+    /**
+     * Overridden to hand the delayed task to a new thread once it is due
+     * rather than running it on the scheduler thread.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(
+        Callable<V>                 callable,
+        RunnableScheduledFuture<V>  task)
+    {
+        return new HandOff<>(task);
+    }
+
+    /**
+     * Overridden to return the number of task threads currently running.
+     *
+     * @return The number of task threads currently running.
+     */
+    @Override
+    public int getActiveCount()
+    {
+        return this.running.get();
+    }
+
+    /**
+     * Overridden to return the number of task threads currently running,
+     * since task threads are not pooled.
+     *
+     * @return The number of task threads currently running.
+     */
+    @Override
+    public int getPoolSize()
+    {
+        return this.running.get();
+    }
+
+    /**
+     * Overridden to return the number of tasks that have completed on their
+     * task threads.
+     *
+     * @return The number of tasks that have completed.
+     */
+    @Override
+    public long getCompletedTaskCount()
+    {
+        return this.completed.sum();
+    }
+
+    /**
+     * Wraps a scheduled task so that when it becomes due the scheduler
+     * thread starts it on a new thread rather than running it directly.
+     *
+     * @param <V> The result type of the task.
+     */
+    private final class HandOff<V> implements RunnableScheduledFuture<V>
+    {
+        /**
+         * The wrapped task.
+         */
+        private final RunnableScheduledFuture<V> task;
+
+        /**
+         * Constructs with the task to wrap.
+         *
+         * @param task The task to wrap.
+         */
+        private HandOff(RunnableScheduledFuture<V> task)
+        {
+            this.task = task;
+        }
+
+        @Override
+        public void run()
+        {
+            VirtualThreadTaskExecutor.this.start(this.task);
+        }
+
+        @Override
+        public boolean isPeriodic()
+        {
+            return this.task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit)
+        {
+            return this.task.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other)
+        {
+            Delayed delayed = (other instanceof HandOff)
+                ? ((HandOff<?>) other).task : other;
+            return this.task.compareTo(delayed);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            return this.task.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            return this.task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone()
+        {
+            return this.task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException
+        {
+            return this.task.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException
+        {
+            return this.task.get(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.senzing.sdk.grpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InFlightCounter}.
+ *
+ * <p>These tests exercise admission, closing and quiescence without
+ * requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class InFlightCounterTest {
+
+    @Test
+    @Order(10)
+    public void testEnterExit() {
+        InFlightCounter counter = new InFlightCounter(4);
+        assertEquals(0L, counter.getCount(), "Initial count not zero");
+
+        int token1 = counter.enter();
+        int token2 = counter.enter();
+        assertTrue(token1 >= 0, "First enter was rejected");
+        assertTrue(token2 >= 0, "Second enter was rejected");
+        assertEquals(2L, counter.getCount(), "Count after enter is wrong");
+
+        counter.exit(token1);
+        counter.exit(token2);
+        assertEquals(0L, counter.getCount(), "Count after exit is wrong");
+    }
+
+    @Test
+    @Order(20)
+    public void testCloseRejects() {
+        InFlightCounter counter = new InFlightCounter(4);
+        assertFalse(counter.isClosed(), "Counter closed before close()");
+        assertTrue(counter.close(), "First close() returned false");
+        assertFalse(counter.close(), "Second close() returned true");
+        assertTrue(counter.isClosed(), "Counter not closed after close()");
+        assertTrue(counter.enter() < 0, "Enter admitted after close()");
+        assertEquals(0L, counter.getCount(), "Rejected enter was counted");
+    }
+
+    @Test
+    @Order(30)
+    public void testAwaitQuiescenceWaitsForInFlight() throws Exception {
+        InFlightCounter counter = new InFlightCounter(4);
+        int token = counter.enter();
+        assertTrue(token >= 0, "Enter was rejected");
+
+        counter.close();
+
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            counter.awaitQuiescence();
+            done.countDown();
+        });
+        waiter.start();
+
+        assertFalse(done.await(100L, TimeUnit.MILLISECONDS),
+                    "Quiescence reached with an operation in-flight");
+
+        counter.exit(token);
+
+        assertTrue(done.await(5L, TimeUnit.SECONDS),
+                   "Quiescence not reached after operation exited");
+        waiter.join();
+    }
+
+    @Test
+    @Order(40)
+    public void testConcurrentCloseAccounting() throws Exception {
+        InFlightCounter counter     = new InFlightCounter(8);
+        AtomicInteger   admitted    = new AtomicInteger();
+        AtomicInteger   active      = new AtomicInteger();
+        AtomicInteger   violations  = new AtomicInteger();
+        CountDownLatch  start       = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < 16; index++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (;;) {
+                    int token = counter.enter();
+                    if (token < 0) {
+                        return;
+                    }
+                    active.incrementAndGet();
+                    admitted.incrementAndGet();
+                    if (counter.isClosed() && counter.getCount() == 0L) {
+                        violations.incrementAndGet();
+                    }
+                    active.decrementAndGet();
+                    counter.exit(token);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        Thread.sleep(50L);
+
+        counter.close();
+        counter.awaitQuiescence();
+
+        assertEquals(0, active.get(),
+                     "Operations still active after quiescence");
+        assertEquals(0L, counter.getCount(),
+                     "Count not zero after quiescence");
+        assertEquals(0, violations.get(),
+                     "An admitted operation was not counted");
+        assertTrue(admitted.get() > 0, "No operations were admitted");
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.senzing.sdk.grpc;
+
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.BindableService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.grpc.GrpcService;
+import com.linecorp.armeria.server.grpc.GrpcServiceBuilder;
+
+/**
+ * Serves stub gRPC service implementations on a random local port so that
+ * client behavior can be tested against a real transport without requiring
+ * a running Senzing installation.  The services are served with a blocking
+ * task executor as the Senzing gRPC server does.
+ */
+final class StubGrpcServer implements AutoCloseable {
+    // Must be in static initializer before ANY Armeria usage
+    static {
+        System.setProperty("com.linecorp.armeria.transportType", "nio");
+    }
+
+    /**
+     * The Armeria {@link Server} serving the stub services.
+     */
+    private final Server server;
+
+    /**
+     * The {@link ManagedChannel} connected to the server.
+     */
+    private final ManagedChannel channel;
+
+    /**
+     * Constructs and starts the server with the specified services and
+     * connects a channel to it.
+     *
+     * @param services The {@link BindableService} instances to serve.
+     */
+    StubGrpcServer(BindableService... services) {
+        GrpcServiceBuilder builder
+            = GrpcService.builder().useBlockingTaskExecutor(true);
+        for (BindableService service : services) {
+            builder.addService(service);
+        }
+        this.server = Server.builder().http(0).service(builder.build())
+            .build();
+        this.server.start().join();
+
+        this.channel = ManagedChannelBuilder
+            .forAddress("localhost", this.server.activeLocalPort())
+            .usePlaintext().build();
+    }
+
+    /**
+     * Gets the {@link ManagedChannel} connected to the server.
+     *
+     * @return The {@link ManagedChannel} connected to the server.
+     */
+    ManagedChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Creates a new {@link SzGrpcEnvironment.Builder} that uses the channel
+     * connected to this server.
+     *
+     * @return The new {@link SzGrpcEnvironment.Builder}.
+     */
+    SzGrpcEnvironment.Builder newEnvironmentBuilder() {
+        return SzGrpcEnvironment.newBuilder().channel(this.channel);
+    }
+
+    /**
+     * Shuts down the channel and stops the server.
+     */
+    @Override
+    public void close() {
+        this.channel.shutdownNow();
+        try {
+            this.channel.awaitTermination(5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.server.stop().join();
+    }
+}
@@ -0,0 +1,304 @@
+package com.senzing.sdk.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzNotFoundException;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetStatsRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetStatsResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.StreamExportJsonEntityReportRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.StreamExportJsonEntityReportResponse;
+
+import static com.senzing.sdk.SzFlag.SZ_ENTITY_DEFAULT_FLAGS;
+import static com.senzing.sdk.SzFlag.SZ_EXPORT_DEFAULT_FLAGS;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_CODE_TRAILER_KEY;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_MESSAGE_TRAILER_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcAsyncEngine}.
+ *
+ * <p>These tests exercise the completion of the returned futures, the
+ * mapping of failures to {@link SzException}, the dedicated export threads
+ * and the destruction of the environment while operations are pending
+ * without requiring a running Senzing installation.  A stub engine service
+ * answers the calls and can hold a call open until released.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcAsyncEngineTest {
+    /**
+     * The entity ID for which the stub returns an entity.
+     */
+    private static final long KNOWN_ENTITY_ID = 1L;
+
+    /**
+     * The Senzing error code returned by the stub for unknown entities.
+     */
+    private static final int NOT_FOUND_CODE = 33;
+
+    /**
+     * The stats returned by the stub.
+     */
+    private static final String STATS = "{\"workload\":{}}";
+
+    /**
+     * The number of seconds to wait for an asynchronous result.
+     */
+    private static final long WAIT_SECONDS = 10L;
+
+    /**
+     * The {@link StubGrpcServer} serving the stub engine service.
+     */
+    private StubGrpcServer server = null;
+
+    /**
+     * The latch the stub awaits before answering a stats request, or
+     * <code>null</code> if stats requests are answered immediately.
+     */
+    private volatile CountDownLatch statsGate = null;
+
+    /**
+     * The latch counted down when the stub receives a stats request.
+     */
+    private volatile CountDownLatch statsReceived = new CountDownLatch(1);
+
+    /**
+     * Stub engine service.
+     */
+    private final class StubEngineService extends SzEngineGrpc.SzEngineImplBase
+    {
+        @Override
+        public void getStats(GetStatsRequest                   request,
+                             StreamObserver<GetStatsResponse>  observer)
+        {
+            statsReceived.countDown();
+            CountDownLatch gate = statsGate;
+            if (gate != null) {
+                try {
+                    gate.await(WAIT_SECONDS * 2L, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            observer.onNext(
+                GetStatsResponse.newBuilder().setResult(STATS).build());
+            observer.onCompleted();
+        }
+
+        @Override
+        public void getEntityByEntityId(
+            GetEntityByEntityIdRequest                  request,
+            StreamObserver<GetEntityByEntityIdResponse> observer)
+        {
+            long entityId = request.getEntityId();
+            if (entityId != KNOWN_ENTITY_ID) {
+                Metadata trailers = new Metadata();
+                trailers.put(ERROR_CODE_TRAILER_KEY,
+                             String.valueOf(NOT_FOUND_CODE));
+                trailers.put(ERROR_MESSAGE_TRAILER_KEY,
+                             ("Unknown entity: " + entityId)
+                                .getBytes(StandardCharsets.UTF_8));
+                observer.onError(Status.NOT_FOUND.asRuntimeException(trailers));
+                return;
+            }
+            observer.onNext(GetEntityByEntityIdResponse.newBuilder()
+                .setResult(toEntityJson(entityId)).build());
+            observer.onCompleted();
+        }
+
+        @Override
+        public void streamExportJsonEntityReport(
+            StreamExportJsonEntityReportRequest                 request,
+            StreamObserver<StreamExportJsonEntityReportResponse> observer)
+        {
+            observer.onNext(StreamExportJsonEntityReportResponse.newBuilder()
+                .setResult(toEntityJson(KNOWN_ENTITY_ID)).build());
+            observer.onCompleted();
+        }
+    }
+
+    /**
+     * Formats the JSON returned by the stub for the specified entity ID.
+     *
+     * @param entityId The entity ID.
+     *
+     * @return The JSON text for the entity.
+     */
+    private static String toEntityJson(long entityId) {
+        return "{\"RESOLVED_ENTITY\":{\"ENTITY_ID\":" + entityId + "}}";
+    }
+
+    /**
+     * Gets the live threads whose names have the export thread prefix.
+     *
+     * @return The {@link List} of export threads.
+     */
+    private static List<Thread> getExportThreads() {
+        List<Thread> result = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("sz-grpc-export-")) {
+                result.add(thread);
+            }
+        }
+        return result;
+    }
+
+    @BeforeAll
+    public void setup() {
+        this.server = new StubGrpcServer(new StubEngineService());
+    }
+
+    @AfterAll
+    public void teardown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testSuccess() throws Exception {
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            SzGrpcAsyncEngine engine = ((SzGrpcEngine) env.getEngine()).async();
+
+            assertSame(engine, ((SzGrpcEngine) env.getEngine()).async(),
+                       "Default async engine should be reused");
+            assertEquals(STATS,
+                         engine.getStats().get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected stats");
+            assertEquals(toEntityJson(KNOWN_ENTITY_ID),
+                         engine.getEntity(KNOWN_ENTITY_ID,
+                                          SZ_ENTITY_DEFAULT_FLAGS)
+                            .get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected entity");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(20)
+    public void testSzExceptionMapping() throws Exception {
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            SzGrpcEngine engine = (SzGrpcEngine) env.getEngine();
+            CompletableFuture<String> future = engine.async()
+                .getEntity(KNOWN_ENTITY_ID + 1L, SZ_ENTITY_DEFAULT_FLAGS);
+
+            ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> future.get(WAIT_SECONDS, TimeUnit.SECONDS));
+            assertInstanceOf(SzNotFoundException.class, e.getCause(),
+                             "Failure not mapped to SzNotFoundException");
+            assertEquals(NOT_FOUND_CODE,
+                         ((SzException) e.getCause()).getErrorCode(),
+                         "Unexpected Senzing error code");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testExportUsesDedicatedThreads() throws Exception {
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        List<Thread> exportThreads = null;
+        try {
+            SzGrpcAsyncEngine engine = ((SzGrpcEngine) env.getEngine()).async();
+            long handle = engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS)
+                .get(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(toEntityJson(KNOWN_ENTITY_ID),
+                         engine.fetchNext(handle)
+                            .get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected export line");
+            assertNull(engine.fetchNext(handle)
+                            .get(WAIT_SECONDS, TimeUnit.SECONDS),
+                       "Export should be exhausted");
+            engine.closeExportReport(handle)
+                .get(WAIT_SECONDS, TimeUnit.SECONDS);
+
+            exportThreads = getExportThreads();
+            assertFalse(exportThreads.isEmpty(),
+                        "Export operations did not use the export threads");
+            for (Thread thread : exportThreads) {
+                assertTrue(thread.isDaemon(),
+                           "Export thread is not a daemon: " + thread);
+            }
+        } finally {
+            env.destroy();
+        }
+
+        for (Thread thread : exportThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+            assertFalse(thread.isAlive(),
+                        "Export thread survived destroy: " + thread);
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testDestroyWhilePending() throws Exception {
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        SzGrpcAsyncEngine engine = ((SzGrpcEngine) env.getEngine()).async();
+
+        this.statsGate = new CountDownLatch(1);
+        this.statsReceived = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> pending = engine.getStats();
+            assertTrue(this.statsReceived.await(WAIT_SECONDS, TimeUnit.SECONDS),
+                       "Stats request not received");
+
+            Thread destroyer = new Thread(env::destroy);
+            destroyer.start();
+            destroyer.join(200L);
+
+            assertTrue(destroyer.isAlive(),
+                       "Destroy returned while an operation was pending");
+            assertFalse(pending.isDone(), "Operation completed prematurely");
+            assertThrows(IllegalStateException.class, engine::getStats,
+                         "New operations should be refused while destroying");
+
+            this.statsGate.countDown();
+            assertEquals(STATS, pending.get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Pending operation did not complete");
+
+            destroyer.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+            assertFalse(destroyer.isAlive(), "Destroy did not return");
+            assertTrue(env.isDestroyed(), "Environment not destroyed");
+            assertThrows(IllegalStateException.class, engine::getStats,
+                         "Operations should be refused once destroyed");
+
+        } finally {
+            this.statsGate.countDown();
+            this.statsGate = null;
+            env.destroy();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.senzing.sdk.grpc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+import com.senzing.sdk.grpc.proto.SzEngineProto.StreamExportJsonEntityReportRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.StreamExportJsonEntityReportResponse;
+
+import static com.senzing.sdk.SzFlag.SZ_EXPORT_DEFAULT_FLAGS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the streaming export lifecycle of {@link SzGrpcEngine}.
+ *
+ * <p>These tests exercise the cancellation of the streaming call when an
+ * export is closed, evicted for being idle or left open when the
+ * environment is destroyed, without requiring a running Senzing
+ * installation.  A stub engine service streams a few lines for each export
+ * and then holds the call open until it is cancelled.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcEngineExportTest {
+    /**
+     * The number of lines streamed for each export before the stub holds
+     * the call open.
+     */
+    private static final int LINE_COUNT = 3;
+
+    /**
+     * The number of seconds to wait for the server to observe cancellation.
+     */
+    private static final long CANCEL_WAIT_SECONDS = 10L;
+
+    /**
+     * The latches counted down by the stub when each export call (in the
+     * order started) is cancelled.
+     */
+    private final List<CountDownLatch> cancellations
+        = new CopyOnWriteArrayList<>();
+
+    /**
+     * The {@link StubGrpcServer} serving the stub engine service.
+     */
+    private StubGrpcServer server = null;
+
+    /**
+     * Stub engine service whose exports never complete on their own.
+     */
+    private final class StubEngineService extends SzEngineGrpc.SzEngineImplBase
+    {
+        @Override
+        public void streamExportJsonEntityReport(
+            StreamExportJsonEntityReportRequest request,
+            StreamObserver<StreamExportJsonEntityReportResponse> observer)
+        {
+            ServerCallStreamObserver<StreamExportJsonEntityReportResponse> call
+                = (ServerCallStreamObserver
+                    <StreamExportJsonEntityReportResponse>) observer;
+            CountDownLatch cancelled = new CountDownLatch(1);
+            cancellations.add(cancelled);
+
+            for (int index = 1; index <= LINE_COUNT; index++) {
+                call.onNext(StreamExportJsonEntityReportResponse.newBuilder()
+                    .setResult("line-" + index).build());
+            }
+            long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos(CANCEL_WAIT_SECONDS * 2L);
+            while (!call.isCancelled() && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(5L);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            if (call.isCancelled()) {
+                cancelled.countDown();
+            } else {
+                call.onCompleted();
+            }
+        }
+    }
+
+    @BeforeAll
+    public void setup() {
+        this.server = new StubGrpcServer(new StubEngineService());
+    }
+
+    @AfterAll
+    public void teardown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+    }
+
+    /**
+     * Waits for the server to have started the specified number of export
+     * calls.
+     *
+     * @param count The number of export calls expected to have started.
+     */
+    private void awaitStarted(int count) throws InterruptedException {
+        long deadline = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(CANCEL_WAIT_SECONDS);
+        while (this.cancellations.size() < count
+               && System.nanoTime() < deadline)
+        {
+            Thread.sleep(5L);
+        }
+        assertEquals(count, this.cancellations.size(),
+                     "Unexpected number of export calls started");
+    }
+
+    /**
+     * Waits for the export call at the specified index to be cancelled.
+     *
+     * @param index The index of the export call in the order started.
+     *
+     * @return <code>true</code> if cancelled, otherwise <code>false</code>.
+     */
+    private boolean awaitCancelled(int index) throws InterruptedException {
+        return this.cancellations.get(index).await(CANCEL_WAIT_SECONDS,
+                                                   TimeUnit.SECONDS);
+    }
+
+    @Test
+    @Order(10)
+    public void testCloseCancelsCall() throws Exception {
+        this.cancellations.clear();
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            SzEngine engine = env.getEngine();
+            long handle
+                = engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS);
+            for (int index = 1; index <= LINE_COUNT; index++) {
+                assertEquals("line-" + index, engine.fetchNext(handle),
+                             "Unexpected export line");
+            }
+            engine.closeExportReport(handle);
+
+            assertTrue(this.awaitCancelled(0),
+                       "Closing the export did not cancel the call");
+            assertThrows(SzException.class, () -> engine.fetchNext(handle),
+                         "Closed export handle should be invalid");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(20)
+    public void testIdleExportEvicted() throws Exception {
+        this.cancellations.clear();
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder()
+            .exportIdleTimeout(Duration.ofSeconds(1L)).build();
+        try {
+            SzEngine engine = env.getEngine();
+            long idleHandle
+                = engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS);
+            this.awaitStarted(1);
+            Thread.sleep(1500L);
+
+            // starting another export evicts the idle one
+            long activeHandle
+                = engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS);
+            this.awaitStarted(2);
+
+            assertTrue(this.awaitCancelled(0),
+                       "Evicting the idle export did not cancel the call");
+            assertThrows(SzException.class,
+                         () -> engine.fetchNext(idleHandle),
+                         "Evicted export handle should be invalid");
+            assertEquals("line-1", engine.fetchNext(activeHandle),
+                         "Active export should remain readable");
+            assertEquals(1L, this.cancellations.get(1).getCount(),
+                         "Active export should not be cancelled");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testDestroyClosesAllExports() throws Exception {
+        this.cancellations.clear();
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        SzEngine engine = env.getEngine();
+        engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS);
+        engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS);
+        this.awaitStarted(2);
+
+        env.destroy();
+
+        assertTrue(this.awaitCancelled(0),
+                   "Destroying the environment did not cancel export 1");
+        assertTrue(this.awaitCancelled(1),
+                   "Destroying the environment did not cancel export 2");
+    }
+
+    @Test
+    @Order(40)
+    public void testDestroyWithBlockedFetch() throws Exception {
+        this.cancellations.clear();
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        SzEngine engine = env.getEngine();
+        long handle = engine.exportJsonEntityReport(SZ_EXPORT_DEFAULT_FLAGS);
+        for (int index = 1; index <= LINE_COUNT; index++) {
+            assertEquals("line-" + index, engine.fetchNext(handle),
+                         "Unexpected export line");
+        }
+
+        // the next fetch blocks since the stub holds the call open
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        Thread reader = new Thread(() -> {
+            try {
+                engine.fetchNext(handle);
+            } catch (Exception e) {
+                failures.add(e);
+            }
+        });
+        reader.start();
+        long deadline = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(CANCEL_WAIT_SECONDS);
+        while (env.getExecutingCount() == 0
+               && System.nanoTime() < deadline)
+        {
+            Thread.sleep(5L);
+        }
+        assertEquals(1, env.getExecutingCount(),
+                     "The fetch should be in flight");
+
+        long start = System.nanoTime();
+        env.destroy();
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(CANCEL_WAIT_SECONDS),
+                   "Destroying the environment waited on the blocked fetch");
+        reader.join(TimeUnit.SECONDS.toMillis(CANCEL_WAIT_SECONDS));
+        assertFalse(reader.isAlive(), "The blocked fetch did not return");
+        assertEquals(1, failures.size(),
+                     "The blocked fetch should have failed");
+        assertTrue(this.awaitCancelled(0),
+                   "Destroying the environment did not cancel the export");
+    }
+}
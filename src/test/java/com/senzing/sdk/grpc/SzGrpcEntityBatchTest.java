@@ -0,0 +1,503 @@
+package com.senzing.sdk.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzEntityIds;
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzNotFoundException;
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.SzRecordKeys;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByEntityIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByRecordIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.GetEntityByRecordIdResponse;
+import com.senzing.sdk.grpc.server.SzGrpcEntityBatchImpl;
+import com.senzing.sdk.grpc.server.SzGrpcSingleFlight;
+
+import static com.senzing.sdk.SzFlag.SZ_ENTITY_DEFAULT_FLAGS;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_CODE_TRAILER_KEY;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_MESSAGE_TRAILER_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the batch entity lookups of {@link SzGrpcEngine} and
+ * {@link SzGrpcAsyncEngine} served by {@link SzGrpcEntityBatchImpl}.
+ *
+ * <p>These tests exercise result ordering, partial failure, lookups that
+ * join an identical read already in progress and the fallback to
+ * single-entity lookups for a server that does not provide the batch
+ * service without requiring a running Senzing installation.  A stub engine
+ * service answers each lookup after a random delay, failing the lookups
+ * for negative entity IDs and for record IDs beginning with {@link
+ * #BAD_PREFIX}.  A second stub coalesces identical entity lookups as the
+ * Senzing gRPC server does and holds the lookup of {@link #HELD_ID} until
+ * released.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcEntityBatchTest {
+    /**
+     * The data source code for the test records.
+     */
+    private static final String DATA_SOURCE = "TEST";
+
+    /**
+     * The record ID prefix for the records the stub fails to find.
+     */
+    private static final String BAD_PREFIX = "BAD-";
+
+    /**
+     * The Senzing error code for the lookups the stub fails.
+     */
+    private static final int NOT_FOUND_CODE = 33;
+
+    /**
+     * The number of seconds to wait for an asynchronous result.
+     */
+    private static final long WAIT_SECONDS = 10L;
+
+    /**
+     * The flags for the lookups.
+     */
+    private static final Set<SzFlag> FLAGS = SZ_ENTITY_DEFAULT_FLAGS;
+
+    /**
+     * The entity ID whose lookup the coalescing stub holds until released.
+     */
+    private static final long HELD_ID = 7L;
+
+    /**
+     * The {@link StubGrpcServer} serving only the batch service.
+     */
+    private StubGrpcServer server = null;
+
+    /**
+     * The {@link StubGrpcServer} serving only the unary engine service.
+     */
+    private StubGrpcServer unaryServer = null;
+
+    /**
+     * The {@link StubGrpcServer} serving the batch service backed by the
+     * coalescing stub.
+     */
+    private StubGrpcServer coalescingServer = null;
+
+    /**
+     * The number of single-entity lookups the stub has performed.
+     */
+    private final AtomicInteger lookups = new AtomicInteger(0);
+
+    /**
+     * The {@link SzGrpcSingleFlight} used by the coalescing stub.
+     */
+    private final SzGrpcSingleFlight singleFlight = new SzGrpcSingleFlight();
+
+    /**
+     * The latch counted down by the coalescing stub when it starts looking
+     * up {@link #HELD_ID}.
+     */
+    private volatile CountDownLatch heldStarted = new CountDownLatch(1);
+
+    /**
+     * The latch the coalescing stub awaits before answering the lookup of
+     * {@link #HELD_ID}.
+     */
+    private volatile CountDownLatch heldRelease = new CountDownLatch(1);
+
+    /**
+     * Stub engine service that answers entity lookups.
+     */
+    private final class StubEngineService extends SzEngineGrpc.SzEngineImplBase
+    {
+        @Override
+        public void getEntityByEntityId(
+            GetEntityByEntityIdRequest                  request,
+            StreamObserver<GetEntityByEntityIdResponse> observer)
+        {
+            long entityId = request.getEntityId();
+            if (!delay()) {
+                observer.onError(Status.CANCELLED.asRuntimeException());
+                return;
+            }
+            if (entityId < 0L) {
+                observer.onError(notFound("Unknown entity: " + entityId));
+                return;
+            }
+            observer.onNext(GetEntityByEntityIdResponse.newBuilder()
+                .setResult(toEntity(String.valueOf(entityId))).build());
+            observer.onCompleted();
+        }
+
+        @Override
+        public void getEntityByRecordId(
+            GetEntityByRecordIdRequest                  request,
+            StreamObserver<GetEntityByRecordIdResponse> observer)
+        {
+            String recordId = request.getRecordId();
+            if (!delay()) {
+                observer.onError(Status.CANCELLED.asRuntimeException());
+                return;
+            }
+            if (recordId.startsWith(BAD_PREFIX)) {
+                observer.onError(notFound("Unknown record: " + recordId));
+                return;
+            }
+            observer.onNext(GetEntityByRecordIdResponse.newBuilder()
+                .setResult(toEntity(recordId)).build());
+            observer.onCompleted();
+        }
+    }
+
+    /**
+     * Stub engine service that coalesces identical entity lookups via an
+     * {@link SzGrpcSingleFlight}, answering each from the completion of the
+     * shared lookup as the Senzing gRPC server does.
+     */
+    private final class CoalescingEngineService
+        extends SzEngineGrpc.SzEngineImplBase
+    {
+        @Override
+        public void getEntityByEntityId(
+            GetEntityByEntityIdRequest                  request,
+            StreamObserver<GetEntityByEntityIdResponse> observer)
+        {
+            long entityId = request.getEntityId();
+            String key = SzGrpcSingleFlight.key(
+                "getEntity", entityId, request.getFlags());
+
+            singleFlight.execute(key, () -> {
+                if (entityId == HELD_ID) {
+                    heldStarted.countDown();
+                    heldRelease.await(WAIT_SECONDS * 2L, TimeUnit.SECONDS);
+                }
+                return toEntity(String.valueOf(entityId));
+
+            }).whenComplete((json, failure) -> {
+                if (failure != null) {
+                    observer.onError(Status.fromThrowable(
+                        SzGrpcSingleFlight.unwrap(failure))
+                        .asRuntimeException());
+                    return;
+                }
+                observer.onNext(GetEntityByEntityIdResponse.newBuilder()
+                    .setResult(json).build());
+                observer.onCompleted();
+            });
+        }
+    }
+
+    /**
+     * Counts a lookup and sleeps for a random delay so that the lookups of
+     * a batch complete out of order.
+     *
+     * @return <code>true</code> if the delay completed, or
+     *         <code>false</code> if interrupted.
+     */
+    private boolean delay() {
+        this.lookups.incrementAndGet();
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(20));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Creates the failure the stub produces for an unknown entity or record.
+     *
+     * @param message The error message.
+     *
+     * @return The {@link RuntimeException} describing the failure.
+     */
+    private static RuntimeException notFound(String message) {
+        Metadata trailers = new Metadata();
+        trailers.put(ERROR_CODE_TRAILER_KEY, String.valueOf(NOT_FOUND_CODE));
+        trailers.put(ERROR_MESSAGE_TRAILER_KEY,
+                     message.getBytes(StandardCharsets.UTF_8));
+        return Status.NOT_FOUND.asRuntimeException(trailers);
+    }
+
+    /**
+     * Formats the entity JSON returned by the stub for the specified
+     * identifier.
+     *
+     * @param id The entity ID or record ID.
+     *
+     * @return The entity JSON.
+     */
+    private static String toEntity(String id) {
+        return "{\"ID\":\"" + id + "\"}";
+    }
+
+    /**
+     * Creates the entity IDs from 1 through the specified count in shuffled
+     * order.
+     *
+     * @param count The number of entity IDs.
+     *
+     * @return The {@link List} of entity IDs.
+     */
+    private static List<Long> shuffledIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (long id = 1L; id <= count; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids);
+        return ids;
+    }
+
+    @BeforeAll
+    public void setup() {
+        this.server = new StubGrpcServer(
+            new SzGrpcEntityBatchImpl(new StubEngineService()));
+        this.unaryServer = new StubGrpcServer(new StubEngineService());
+        CoalescingEngineService coalescing = new CoalescingEngineService();
+        this.coalescingServer = new StubGrpcServer(
+            coalescing, new SzGrpcEntityBatchImpl(coalescing));
+    }
+
+    @AfterAll
+    public void teardown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        if (this.unaryServer != null) {
+            this.unaryServer.close();
+        }
+        if (this.coalescingServer != null) {
+            this.coalescingServer.close();
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testResultOrderByEntityId() throws Exception {
+        List<Long> ids = shuffledIds(50);
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            SzGrpcEngine engine = (SzGrpcEngine) env.getEngine();
+            Map<Long, String> results = engine.getEntities(
+                SzEntityIds.of(ids), FLAGS);
+
+            assertEquals(ids, new ArrayList<>(results.keySet()),
+                         "Results not in request order");
+            for (Long id : ids) {
+                assertEquals(toEntity(String.valueOf(id)), results.get(id),
+                             "Wrong result for entity " + id);
+            }
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(20)
+    public void testResultOrderByRecordKey() throws Exception {
+        List<SzRecordKey> keys = new ArrayList<>();
+        for (Long id : shuffledIds(50)) {
+            keys.add(SzRecordKey.of(DATA_SOURCE, "REC-" + id));
+        }
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            SzGrpcEngine engine = (SzGrpcEngine) env.getEngine();
+            Map<SzRecordKey, String> results = engine.getEntities(
+                SzRecordKeys.of(keys), FLAGS);
+
+            assertEquals(keys, new ArrayList<>(results.keySet()),
+                         "Results not in request order");
+            for (SzRecordKey key : keys) {
+                assertEquals(toEntity(key.recordId()), results.get(key),
+                             "Wrong result for record " + key);
+            }
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testPartialFailureByEntityId() throws Exception {
+        List<Long> ids = List.of(1L, -2L, 3L);
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            Map<Long, CompletableFuture<String>> futures
+                = ((SzGrpcEngine) env.getEngine()).async().getEntities(
+                    SzEntityIds.of(ids), FLAGS);
+
+            assertEquals(toEntity("1"),
+                         futures.get(1L).get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Preceding lookup affected by the failure");
+            assertEquals(toEntity("3"),
+                         futures.get(3L).get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Following lookup affected by the failure");
+
+            ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> futures.get(-2L).get(WAIT_SECONDS, TimeUnit.SECONDS));
+            assertInstanceOf(SzNotFoundException.class, e.getCause(),
+                             "Failure not mapped to SzNotFoundException");
+            assertEquals(NOT_FOUND_CODE,
+                         ((SzException) e.getCause()).getErrorCode(),
+                         "Unexpected Senzing error code");
+
+            SzNotFoundException thrown = assertThrows(
+                SzNotFoundException.class,
+                () -> ((SzGrpcEngine) env.getEngine()).getEntities(
+                    SzEntityIds.of(ids), FLAGS),
+                "Synchronous batch should throw the lookup failure");
+            assertEquals(NOT_FOUND_CODE, thrown.getErrorCode(),
+                         "Unexpected Senzing error code");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testPartialFailureByRecordKey() throws Exception {
+        SzRecordKey good = SzRecordKey.of(DATA_SOURCE, "REC-1");
+        SzRecordKey bad  = SzRecordKey.of(DATA_SOURCE, BAD_PREFIX + "1");
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            Map<SzRecordKey, CompletableFuture<String>> futures
+                = ((SzGrpcEngine) env.getEngine()).async().getEntities(
+                    SzRecordKeys.of(List.of(bad, good)), FLAGS);
+
+            assertEquals(toEntity("REC-1"),
+                         futures.get(good).get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Lookup affected by the failure of another");
+
+            ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> futures.get(bad).get(WAIT_SECONDS, TimeUnit.SECONDS));
+            assertInstanceOf(SzNotFoundException.class, e.getCause(),
+                             "Failure not mapped to SzNotFoundException");
+            assertEquals(NOT_FOUND_CODE,
+                         ((SzException) e.getCause()).getErrorCode(),
+                         "Unexpected Senzing error code");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(50)
+    public void testFallbackWithoutBatchService() throws Exception {
+        List<Long> ids = new ArrayList<>(shuffledIds(10));
+        ids.add(4, -1L);
+        this.lookups.set(0);
+        SzGrpcEnvironment env
+            = this.unaryServer.newEnvironmentBuilder().build();
+        try {
+            Map<Long, CompletableFuture<String>> futures
+                = ((SzGrpcEngine) env.getEngine()).async().getEntities(
+                    SzEntityIds.of(ids), FLAGS);
+
+            assertEquals(ids, new ArrayList<>(futures.keySet()),
+                         "Results not in request order");
+            for (Long id : ids) {
+                CompletableFuture<String> future = futures.get(id);
+                if (id < 0L) {
+                    ExecutionException e = assertThrows(
+                        ExecutionException.class,
+                        () -> future.get(WAIT_SECONDS, TimeUnit.SECONDS));
+                    assertInstanceOf(SzNotFoundException.class, e.getCause(),
+                                     "Failure not mapped");
+                    continue;
+                }
+                assertEquals(toEntity(String.valueOf(id)),
+                             future.get(WAIT_SECONDS, TimeUnit.SECONDS),
+                             "Wrong result for entity " + id);
+            }
+            assertEquals(ids.size(), this.lookups.get(),
+                         "Fallback did not look up each entity once");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(60)
+    public void testBatchJoinsCoalescedRead() throws Exception {
+        this.heldStarted = new CountDownLatch(1);
+        this.heldRelease = new CountDownLatch(1);
+        List<Long> ids = List.of(1L, HELD_ID, 3L);
+        SzGrpcEnvironment env
+            = this.coalescingServer.newEnvironmentBuilder().build();
+        try {
+            SzGrpcAsyncEngine engine = ((SzGrpcEngine) env.getEngine()).async();
+            CompletableFuture<String> single
+                = engine.getEntity(HELD_ID, FLAGS);
+            assertTrue(this.heldStarted.await(WAIT_SECONDS, TimeUnit.SECONDS),
+                       "The single-entity lookup did not start");
+
+            long coalesced = this.singleFlight.getCoalescedCount();
+            Map<Long, CompletableFuture<String>> futures
+                = engine.getEntities(SzEntityIds.of(ids), FLAGS);
+
+            // the other lookups are streamed back without waiting
+            assertEquals(toEntity("1"),
+                         futures.get(1L).get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected result for entity 1");
+            assertEquals(toEntity("3"),
+                         futures.get(3L).get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected result for entity 3");
+
+            long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+            while (this.singleFlight.getCoalescedCount() == coalesced
+                   && System.nanoTime() < deadline)
+            {
+                Thread.sleep(5L);
+            }
+            assertEquals(coalesced + 1L, this.singleFlight.getCoalescedCount(),
+                         "The batch lookup did not join the running read");
+            assertFalse(futures.get(HELD_ID).isDone(),
+                        "The joined lookup completed before the read");
+
+            this.heldRelease.countDown();
+            String expected = toEntity(String.valueOf(HELD_ID));
+            assertEquals(expected,
+                         futures.get(HELD_ID).get(WAIT_SECONDS,
+                                                  TimeUnit.SECONDS),
+                         "Unexpected result for the joined lookup");
+            assertEquals(expected,
+                         single.get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected result for the single-entity lookup");
+        } finally {
+            this.heldRelease.countDown();
+            env.destroy();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.senzing.sdk.grpc;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcEntityCache}.
+ *
+ * <p>These tests exercise caching, invalidation via INFO messages, eviction
+ * and expiration without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcEntityCacheTest {
+    private static String entity(long entityId) {
+        return "{\"RESOLVED_ENTITY\":{\"ENTITY_ID\":" + entityId + "}}";
+    }
+
+    private static String info(long... entityIds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"DATA_SOURCE\":\"TEST\",\"RECORD_ID\":\"ABC\",")
+          .append("\"AFFECTED_ENTITIES\":[");
+        String prefix = "";
+        for (long entityId : entityIds) {
+            sb.append(prefix).append("{\"ENTITY_ID\":")
+              .append(entityId).append("}");
+            prefix = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    @Test
+    @Order(10)
+    public void testPutAndGet() {
+        SzGrpcEntityCache cache = new SzGrpcEntityCache(10, null);
+        assertNull(cache.get(1L, 0L), "Unexpected cached result");
+        assertTrue(cache.put(cache.getStamp(), 1L, 0L, entity(1L)),
+                   "Expected result to be cached");
+        assertEquals(entity(1L), cache.get(1L, 0L), "Unexpected result");
+        assertNull(cache.get(1L, 8L),
+                   "Expected miss for the same entity with other flags");
+        assertEquals(1L, cache.getHitCount(), "Unexpected hit count");
+        assertEquals(2L, cache.getMissCount(), "Unexpected miss count");
+    }
+
+    @Test
+    @Order(20)
+    public void testInvalidate() {
+        SzGrpcEntityCache cache = new SzGrpcEntityCache(10, null);
+        long stamp = cache.getStamp();
+        cache.put(stamp, 1L, 0L, entity(1L));
+        cache.put(stamp, 1L, 8L, entity(1L));
+        cache.put(stamp, 2L, 0L, entity(2L));
+
+        cache.invalidate(info(1L, 3L));
+        assertNull(cache.get(1L, 0L), "Expected entity 1 to be invalidated");
+        assertNull(cache.get(1L, 8L), "Expected entity 1 to be invalidated");
+        assertEquals(entity(2L), cache.get(2L, 0L),
+                     "Expected entity 2 to remain cached");
+        assertFalse(cache.put(stamp, 1L, 0L, entity(1L)),
+                    "Expected result read before a write to be rejected");
+
+        cache.invalidate("not json");
+        assertEquals(0, cache.getSize(),
+                     "Expected unparseable INFO to clear the cache");
+    }
+
+    @Test
+    @Order(25)
+    public void testUnrelatedInvalidationAccepted() {
+        SzGrpcEntityCache cache = new SzGrpcEntityCache(10, null);
+        long stamp = cache.getStamp();
+        cache.invalidate(info(5L));
+        assertTrue(cache.put(stamp, 1L, 0L, entity(1L)),
+                   "Expected result unaffected by the write to be cached");
+        assertFalse(cache.put(stamp, 5L, 0L, entity(5L)),
+                    "Expected result read before a write to be rejected");
+
+        stamp = cache.getStamp();
+        cache.clear();
+        assertFalse(cache.put(stamp, 2L, 0L, entity(2L)),
+                    "Expected result read before clearing to be rejected");
+    }
+
+    @Test
+    @Order(30)
+    public void testEviction() {
+        SzGrpcEntityCache cache = new SzGrpcEntityCache(3, null);
+        for (long entityId = 1L; entityId <= 5L; entityId++) {
+            cache.put(cache.getStamp(), entityId, 0L, entity(entityId));
+            // touch the first entity so it is not the least-recently used
+            cache.get(1L, 0L);
+        }
+        assertEquals(3, cache.getSize(), "Unexpected cache size");
+        assertNotNull(cache.get(1L, 0L),
+                      "Expected recently used entity to be retained");
+        assertNull(cache.get(2L, 0L), "Expected eldest entity to be evicted");
+    }
+
+    @Test
+    @Order(40)
+    public void testExpiration() throws Exception {
+        SzGrpcEntityCache cache
+            = new SzGrpcEntityCache(10, Duration.ofMillis(20));
+        cache.put(cache.getStamp(), 1L, 0L, entity(1L));
+        Thread.sleep(50L);
+        assertNull(cache.get(1L, 0L), "Expected result to have expired");
+        assertEquals(0, cache.getSize(), "Expected expired result removed");
+    }
+
+    @Test
+    @Order(50)
+    public void testDisable() {
+        SzGrpcEntityCache cache = new SzGrpcEntityCache(10, null);
+        cache.put(cache.getStamp(), 1L, 0L, entity(1L));
+        cache.disable();
+        assertTrue(cache.isDisabled(), "Expected cache to be disabled");
+        assertNull(cache.get(1L, 0L), "Expected cache to be cleared");
+        assertFalse(cache.put(cache.getStamp(), 1L, 0L, entity(1L)),
+                    "Expected disabled cache to reject results");
+    }
+}
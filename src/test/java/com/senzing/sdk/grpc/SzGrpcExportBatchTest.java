@@ -0,0 +1,87 @@
+package com.senzing.sdk.grpc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcExportBatch}.
+ *
+ * <p>These tests exercise the batch encoding and decoding of export
+ * content without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcExportBatchTest {
+
+    @Test
+    @Order(10)
+    public void testRoundTrip() {
+        List<String> expected = List.of(
+            "{\"RESOLVED_ENTITY\":{\"ENTITY_ID\":1}}\n",
+            "",
+            "1,\"multi\nline\",3:4",
+            "12:34",
+            "éèê");
+
+        StringBuilder batch = new StringBuilder();
+        for (String line : expected) {
+            SzGrpcExportBatch.appendLine(batch, line);
+        }
+
+        List<String> actual = new ArrayList<>();
+        int count = SzGrpcExportBatch.decodeLines(batch.toString(), actual);
+
+        assertEquals(expected.size(), count,
+                     "Unexpected number of decoded lines");
+        assertEquals(expected, actual, "Decoded lines do not match");
+    }
+
+    @Test
+    @Order(20)
+    public void testDecodeEmpty() {
+        List<String> lines = new ArrayList<>();
+        assertEquals(0, SzGrpcExportBatch.decodeLines("", lines),
+                     "Empty batch should decode to zero lines");
+        assertTrue(lines.isEmpty(), "No lines should have been decoded");
+    }
+
+    @Test
+    @Order(30)
+    public void testDecodeMalformed() {
+        String[] malformed = { "abc", "3abc", ":abc", "5:abc", "3:abc4" };
+        for (String batch : malformed) {
+            assertThrows(IllegalArgumentException.class,
+                () -> SzGrpcExportBatch.decodeLines(batch, new ArrayList<>()),
+                "Expected failure decoding malformed batch: " + batch);
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testParseLimit() {
+        assertEquals(100, SzGrpcExportBatch.parseLimit("100"),
+                     "Valid limit not parsed");
+        assertEquals(7, SzGrpcExportBatch.parseLimit(" 7 "),
+                     "Padded limit not parsed");
+        assertNull(SzGrpcExportBatch.parseLimit(null),
+                   "Null limit should parse as null");
+        assertNull(SzGrpcExportBatch.parseLimit("0"),
+                   "Zero limit should parse as null");
+        assertNull(SzGrpcExportBatch.parseLimit("-5"),
+                   "Negative limit should parse as null");
+        assertNull(SzGrpcExportBatch.parseLimit("ten"),
+                   "Non-numeric limit should parse as null");
+    }
+}
@@ -0,0 +1,369 @@
+package com.senzing.sdk.grpc;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzEntityIds;
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.SzRecordKeys;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindNetworkByEntityIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindNetworkByEntityIdResponse;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindPathByRecordIdRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.FindPathByRecordIdResponse;
+import com.senzing.sdk.grpc.server.SzGrpcIdListsImpl;
+
+import static com.senzing.sdk.SzFlag.SZ_FIND_NETWORK_DEFAULT_FLAGS;
+import static com.senzing.sdk.SzFlag.SZ_FIND_PATH_DEFAULT_FLAGS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcIdLists}.
+ *
+ * <p>These tests exercise the JSON and typed encoding and decoding of entity
+ * ID, record key and data source lists, and the fallback of {@link
+ * SzGrpcEngine} to the JSON lists when the server does not provide {@link
+ * SzGrpcIdListsImpl}, without requiring a running Senzing installation.
+ * A stub engine service reports whether the lists of each request arrived
+ * typed or as JSON.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcIdListsTest {
+    /**
+     * The {@link StubGrpcServer} serving the stub engine service along with
+     * {@link SzGrpcIdListsImpl}.
+     */
+    private StubGrpcServer typedServer = null;
+
+    /**
+     * The {@link StubGrpcServer} serving only the stub engine service, as
+     * an older server would.
+     */
+    private StubGrpcServer jsonServer = null;
+
+    /**
+     * Stub engine service that describes how the lists of each request
+     * arrived as its result.
+     */
+    private static final class StubEngineService
+        extends SzEngineGrpc.SzEngineImplBase
+    {
+        @Override
+        public void findNetworkByEntityId(
+            FindNetworkByEntityIdRequest                    request,
+            StreamObserver<FindNetworkByEntityIdResponse>   observer)
+        {
+            long[] typed = SzGrpcIdLists.decodeTypedEntityIds(
+                request.getUnknownFields());
+            String result = (typed != null)
+                ? "typed:" + Arrays.toString(typed)
+                : "json:" + Arrays.toString(
+                    SzGrpcIdLists.decodeEntityIds(request.getEntityIds()));
+            observer.onNext(FindNetworkByEntityIdResponse.newBuilder()
+                .setResult(result).build());
+            observer.onCompleted();
+        }
+
+        @Override
+        public void findPathByRecordId(
+            FindPathByRecordIdRequest                   request,
+            StreamObserver<FindPathByRecordIdResponse>  observer)
+        {
+            UnknownFieldSet fields = request.getUnknownFields();
+            List<SzRecordKey> typedKeys
+                = SzGrpcIdLists.decodeTypedRecordKeys(fields);
+            List<String> typedSources
+                = SzGrpcIdLists.decodeTypedDataSources(fields);
+            String result = (typedKeys != null && typedSources != null)
+                ? "typed:" + typedKeys + typedSources
+                : "json:" + SzGrpcIdLists.decodeRecordKeys(
+                    request.getAvoidRecordKeys())
+                    + SzGrpcIdLists.decodeDataSources(
+                        request.getRequiredDataSources());
+            observer.onNext(FindPathByRecordIdResponse.newBuilder()
+                .setResult(result).build());
+            observer.onCompleted();
+        }
+    }
+
+    @BeforeAll
+    public void setup() {
+        StubEngineService engineService = new StubEngineService();
+        this.typedServer = new StubGrpcServer(
+            engineService, new SzGrpcIdListsImpl(engineService));
+        this.jsonServer = new StubGrpcServer(engineService);
+    }
+
+    @AfterAll
+    public void teardown() {
+        if (this.typedServer != null) {
+            this.typedServer.close();
+        }
+        if (this.jsonServer != null) {
+            this.jsonServer.close();
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testEntityIdsRoundTrip() {
+        Set<Long> entityIds = new LinkedHashSet<>(
+            List.of(1L, -5L, 100200300400L, Long.MAX_VALUE, Long.MIN_VALUE));
+
+        String json = SzGrpcIdLists.encodeEntityIds(entityIds);
+        JsonObject jsonObj = Json.createReader(new StringReader(json))
+            .readObject();
+        assertEquals(entityIds.size(),
+                     jsonObj.getJsonArray("ENTITIES").size(),
+                     "Encoding is not valid JSON: " + json);
+
+        long[] decoded = SzGrpcIdLists.decodeEntityIds(json);
+        assertArrayEquals(
+            entityIds.stream().mapToLong(Long::longValue).toArray(),
+            decoded, "Decoded entity ID's do not match: " + json);
+    }
+
+    @Test
+    @Order(20)
+    public void testEntityIdsFormatted() {
+        String json = "{\n  \"ENTITIES\": [\n    { \"ENTITY_ID\": 10 },\n"
+            + "    {\"ENTITY_ID\":20}\n  ]\n}\n";
+        assertArrayEquals(new long[] { 10L, 20L },
+                          SzGrpcIdLists.decodeEntityIds(json),
+                          "Formatted entity ID's not decoded");
+    }
+
+    @Test
+    @Order(30)
+    public void testEntityIdsFallback() {
+        String json = "{\"ENTITIES\":[{\"ENTITY_ID\":7,\"EXTRA\":true}],"
+            + "\"OTHER\":1}";
+        assertArrayEquals(new long[] { 7L },
+                          SzGrpcIdLists.decodeEntityIds(json),
+                          "Entity ID's with extra properties not decoded");
+    }
+
+    @Test
+    @Order(40)
+    public void testDecodeEmpty() {
+        assertNull(SzGrpcIdLists.decodeEntityIds(null));
+        assertNull(SzGrpcIdLists.decodeEntityIds("  "));
+        assertNull(SzGrpcIdLists.decodeRecordKeys(""));
+        assertNull(SzGrpcIdLists.decodeDataSources(null));
+        assertArrayEquals(new long[0],
+                          SzGrpcIdLists.decodeEntityIds("{\"ENTITIES\":[]}"),
+                          "Empty entity ID's not decoded");
+    }
+
+    @Test
+    @Order(50)
+    public void testRecordKeysRoundTrip() {
+        Set<SzRecordKey> recordKeys = new LinkedHashSet<>(List.of(
+            SzRecordKey.of("CUSTOMERS", "1001"),
+            SzRecordKey.of("WATCH\"LIST", "a\\b\n\tc\u0001"),
+            SzRecordKey.of("EMPLOYEES", "éèê")));
+
+        String json = SzGrpcIdLists.encodeRecordKeys(recordKeys);
+        JsonObject jsonObj = Json.createReader(new StringReader(json))
+            .readObject();
+        assertEquals("a\\b\n\tc\u0001",
+                     jsonObj.getJsonArray("RECORDS").getJsonObject(1)
+                         .getString("RECORD_ID"),
+                     "Encoding is not escaped correctly: " + json);
+
+        assertEquals(List.copyOf(recordKeys),
+                     SzGrpcIdLists.decodeRecordKeys(json),
+                     "Decoded record keys do not match: " + json);
+    }
+
+    @Test
+    @Order(60)
+    public void testRecordKeysReordered() {
+        String json = "{ \"RECORDS\": [ { \"RECORD_ID\": \"\\u0041\\/1\", "
+            + "\"DATA_SOURCE\": \"TEST\" } ] }";
+        assertEquals(List.of(SzRecordKey.of("TEST", "A/1")),
+                     SzGrpcIdLists.decodeRecordKeys(json),
+                     "Reordered record keys not decoded");
+    }
+
+    @Test
+    @Order(70)
+    public void testDataSourcesRoundTrip() {
+        Set<String> dataSources = new LinkedHashSet<>(
+            List.of("CUSTOMERS", "WATCH\"LIST", "EMPLOYEES"));
+
+        String json = SzGrpcIdLists.encodeDataSources(dataSources);
+        assertEquals(List.copyOf(dataSources),
+                     SzGrpcIdLists.decodeDataSources(json),
+                     "Decoded data sources do not match: " + json);
+    }
+
+    @Test
+    @Order(80)
+    public void testTypedRoundTrip() throws Exception {
+        Set<Long> entityIds = new LinkedHashSet<>(
+            List.of(1L, -5L, 100200300400L, Long.MAX_VALUE, Long.MIN_VALUE));
+        Set<SzRecordKey> recordKeys = new LinkedHashSet<>(List.of(
+            SzRecordKey.of("CUSTOMERS", "1001"),
+            SzRecordKey.of("EMPLOYEES", "éèê")));
+        Set<String> dataSources = new LinkedHashSet<>(
+            List.of("CUSTOMERS", "WATCH\"LIST"));
+
+        // round trip through the wire format of a request message
+        FindPathByRecordIdRequest request = FindPathByRecordIdRequest
+            .newBuilder().setMaxDegrees(3).setUnknownFields(
+                SzGrpcIdLists.encodeTyped(
+                    entityIds, recordKeys, dataSources)).build();
+        UnknownFieldSet fields = FindPathByRecordIdRequest.parseFrom(
+            request.toByteArray()).getUnknownFields();
+
+        assertArrayEquals(
+            entityIds.stream().mapToLong(Long::longValue).toArray(),
+            SzGrpcIdLists.decodeTypedEntityIds(fields),
+            "Decoded typed entity ID's do not match");
+        assertEquals(List.copyOf(recordKeys),
+                     SzGrpcIdLists.decodeTypedRecordKeys(fields),
+                     "Decoded typed record keys do not match");
+        assertEquals(List.copyOf(dataSources),
+                     SzGrpcIdLists.decodeTypedDataSources(fields),
+                     "Decoded typed data sources do not match");
+    }
+
+    @Test
+    @Order(90)
+    public void testTypedAbsentAndEmpty() {
+        UnknownFieldSet absent = SzGrpcIdLists.encodeTyped(null, null, null);
+        assertNull(SzGrpcIdLists.decodeTypedEntityIds(absent));
+        assertNull(SzGrpcIdLists.decodeTypedRecordKeys(absent));
+        assertNull(SzGrpcIdLists.decodeTypedDataSources(absent));
+        assertNull(SzGrpcIdLists.decodeTypedEntityIds(null));
+
+        UnknownFieldSet empty
+            = SzGrpcIdLists.encodeTyped(Set.of(), Set.of(), Set.of());
+        assertArrayEquals(new long[0],
+                          SzGrpcIdLists.decodeTypedEntityIds(empty),
+                          "Empty typed entity ID's not decoded");
+        assertEquals(List.of(), SzGrpcIdLists.decodeTypedRecordKeys(empty),
+                     "Empty typed record keys not decoded");
+        assertEquals(List.of(), SzGrpcIdLists.decodeTypedDataSources(empty),
+                     "Empty typed data sources not decoded");
+    }
+
+    @Test
+    @Order(100)
+    public void testTypedInvalid() {
+        UnknownFieldSet truncated = UnknownFieldSet.newBuilder()
+            .addField(SzGrpcIdLists.ENTITY_IDS_FIELD,
+                      UnknownFieldSet.Field.newBuilder().addLengthDelimited(
+                          ByteString.copyFrom(
+                              new byte[] { (byte) 0x96 })).build())
+            .build();
+        assertThrows(IllegalArgumentException.class,
+                     () -> SzGrpcIdLists.decodeTypedEntityIds(truncated),
+                     "Truncated typed entity ID's should be rejected");
+    }
+
+    @Test
+    @Order(110)
+    public void testEngineSendsTyped() throws Exception {
+        SzGrpcEnvironment env
+            = this.typedServer.newEnvironmentBuilder().build();
+        try {
+            SzGrpcEngine engine = (SzGrpcEngine) env.getEngine();
+            SzEntityIds entityIds
+                = SzEntityIds.of(new LinkedHashSet<>(List.of(3L, 1L, 2L)));
+            assertEquals("typed:[3, 1, 2]",
+                         engine.findNetwork(entityIds, 2, 1, 10,
+                                            SZ_FIND_NETWORK_DEFAULT_FLAGS),
+                         "Entity ID's not sent typed");
+            assertEquals("typed:[3, 1, 2]",
+                         engine.async().findNetwork(
+                             entityIds, 2, 1, 10,
+                             SZ_FIND_NETWORK_DEFAULT_FLAGS).get(),
+                         "Entity ID's not sent typed asynchronously");
+
+            SzRecordKey avoid = SzRecordKey.of("TEST", "3");
+            String expected = "typed:" + List.of(avoid) + List.of("TEST");
+            assertEquals(expected,
+                         engine.findPath(SzRecordKey.of("TEST", "1"),
+                                         SzRecordKey.of("TEST", "2"), 3,
+                                         SzRecordKeys.of(Set.of(avoid)),
+                                         Set.of("TEST"),
+                                         SZ_FIND_PATH_DEFAULT_FLAGS),
+                         "Record keys and data sources not sent typed");
+            assertTrue(engine.isTypedIdLists(),
+                       "Typed lists should remain enabled");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(120)
+    public void testEngineFallsBackToJson() throws Exception {
+        SzGrpcEnvironment env
+            = this.jsonServer.newEnvironmentBuilder().build();
+        try {
+            SzGrpcEngine engine = (SzGrpcEngine) env.getEngine();
+            SzEntityIds entityIds
+                = SzEntityIds.of(new LinkedHashSet<>(List.of(3L, 1L, 2L)));
+            assertEquals("json:[3, 1, 2]",
+                         engine.findNetwork(entityIds, 2, 1, 10,
+                                            SZ_FIND_NETWORK_DEFAULT_FLAGS),
+                         "Entity ID's not sent as JSON to an older server");
+            assertFalse(engine.isTypedIdLists(),
+                        "Typed lists should be disabled after fallback");
+
+            SzRecordKey avoid = SzRecordKey.of("TEST", "3");
+            String expected = "json:" + List.of(avoid) + List.of("TEST");
+            assertEquals(expected,
+                         engine.findPath(SzRecordKey.of("TEST", "1"),
+                                         SzRecordKey.of("TEST", "2"), 3,
+                                         SzRecordKeys.of(Set.of(avoid)),
+                                         Set.of("TEST"),
+                                         SZ_FIND_PATH_DEFAULT_FLAGS),
+                         "Record keys not sent as JSON to an older server");
+        } finally {
+            env.destroy();
+        }
+
+        // the asynchronous engine falls back on its own first call
+        env = this.jsonServer.newEnvironmentBuilder().build();
+        try {
+            SzGrpcEngine engine = (SzGrpcEngine) env.getEngine();
+            assertEquals("json:[5]",
+                         engine.async().findNetwork(
+                             SzEntityIds.of(Set.of(5L)), 1, 0, 0,
+                             SZ_FIND_NETWORK_DEFAULT_FLAGS).get(),
+                         "Entity ID's not sent as JSON asynchronously");
+            assertFalse(engine.isTypedIdLists(),
+                        "Typed lists should be disabled after fallback");
+        } finally {
+            env.destroy();
+        }
+    }
+}
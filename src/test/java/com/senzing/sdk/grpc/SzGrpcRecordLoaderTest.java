@@ -0,0 +1,471 @@
+package com.senzing.sdk.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+import com.senzing.sdk.SzException;
+import com.senzing.sdk.SzFlag;
+import com.senzing.sdk.SzNotFoundException;
+import com.senzing.sdk.SzRecordKey;
+import com.senzing.sdk.grpc.proto.SzEngineGrpc;
+import com.senzing.sdk.grpc.proto.SzEngineProto.AddRecordRequest;
+import com.senzing.sdk.grpc.proto.SzEngineProto.AddRecordResponse;
+import com.senzing.sdk.grpc.server.SzGrpcIngestImpl;
+
+import static com.senzing.sdk.SzFlag.SZ_WITH_INFO;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_CODE_TRAILER_KEY;
+import static com.senzing.sdk.grpc.SzGrpcEnvironment.ERROR_MESSAGE_TRAILER_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcRecordLoader}.
+ *
+ * <p>These tests exercise the ingest stream against {@link
+ * SzGrpcIngestImpl} (and the fallback to unary calls for a server that does
+ * not provide it) without requiring a running Senzing installation.  A stub
+ * engine service adds the records, answering with an INFO message naming
+ * the record, failing the records whose IDs begin with {@link #BAD_PREFIX}
+ * and optionally holding each record until released.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcRecordLoaderTest {
+    /**
+     * The data source code for the test records.
+     */
+    private static final String DATA_SOURCE = "TEST";
+
+    /**
+     * The record ID prefix for the records the stub fails.
+     */
+    private static final String BAD_PREFIX = "BAD-";
+
+    /**
+     * The Senzing error code for the records the stub fails.
+     */
+    private static final int NOT_FOUND_CODE = 33;
+
+    /**
+     * The number of seconds to wait for an asynchronous result.
+     */
+    private static final long WAIT_SECONDS = 10L;
+
+    /**
+     * The maximum number of records of a stream the server adds at once.
+     */
+    private static final int INGEST_CONCURRENCY = 3;
+
+    /**
+     * The flags for the submitted records.
+     */
+    private static final Set<SzFlag> WITH_INFO = EnumSet.of(SZ_WITH_INFO);
+
+    /**
+     * The {@link StubGrpcServer} serving the ingest stream.
+     */
+    private StubGrpcServer server = null;
+
+    /**
+     * The {@link StubGrpcServer} serving only the unary engine service.
+     */
+    private StubGrpcServer unaryServer = null;
+
+    /**
+     * The latch the stub awaits before adding each record, or
+     * <code>null</code> if records are added immediately.
+     */
+    private volatile CountDownLatch gate = null;
+
+    /**
+     * The number of records the stub is currently adding.
+     */
+    private final AtomicInteger active = new AtomicInteger(0);
+
+    /**
+     * The greatest number of records the stub was adding at once.
+     */
+    private final AtomicInteger maxActive = new AtomicInteger(0);
+
+    /**
+     * The number of records the stub has been asked to add.
+     */
+    private final AtomicInteger received = new AtomicInteger(0);
+
+    /**
+     * Stub engine service that adds records.
+     */
+    private final class StubEngineService extends SzEngineGrpc.SzEngineImplBase
+    {
+        @Override
+        public void addRecord(AddRecordRequest                  request,
+                              StreamObserver<AddRecordResponse> observer)
+        {
+            received.incrementAndGet();
+            int count = active.incrementAndGet();
+            maxActive.accumulateAndGet(count, Math::max);
+            try {
+                CountDownLatch latch = gate;
+                if (latch != null) {
+                    latch.await(WAIT_SECONDS * 2L, TimeUnit.SECONDS);
+                } else {
+                    // vary the latency so acknowledgements arrive out of order
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+
+            String recordId = request.getRecordId();
+            if (recordId.startsWith(BAD_PREFIX)) {
+                Metadata trailers = new Metadata();
+                trailers.put(ERROR_CODE_TRAILER_KEY,
+                             String.valueOf(NOT_FOUND_CODE));
+                trailers.put(ERROR_MESSAGE_TRAILER_KEY,
+                             ("Bad record: " + recordId)
+                                .getBytes(StandardCharsets.UTF_8));
+                observer.onError(Status.NOT_FOUND.asRuntimeException(trailers));
+                return;
+            }
+            observer.onNext(AddRecordResponse.newBuilder()
+                .setResult(toInfo(recordId)).build());
+            observer.onCompleted();
+        }
+    }
+
+    /**
+     * Formats the INFO message returned by the stub for the specified
+     * record ID.
+     *
+     * @param recordId The record ID.
+     *
+     * @return The INFO message for the record.
+     */
+    private static String toInfo(String recordId) {
+        return "{\"DATA_SOURCE\":\"" + DATA_SOURCE + "\",\"RECORD_ID\":\""
+            + recordId + "\"}";
+    }
+
+    /**
+     * Resets the stub state.
+     */
+    private void reset() {
+        this.gate = null;
+        this.active.set(0);
+        this.maxActive.set(0);
+        this.received.set(0);
+    }
+
+    /**
+     * Waits for the stub to have been asked to add the specified number of
+     * records.
+     *
+     * @param count The number of records.
+     */
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (this.received.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertEquals(count, this.received.get(),
+                     "Unexpected number of records received");
+    }
+
+    @BeforeAll
+    public void setup() {
+        StubEngineService engineService = new StubEngineService();
+        this.server = new StubGrpcServer(
+            engineService, new SzGrpcIngestImpl(
+                engineService, () -> null, () -> INGEST_CONCURRENCY));
+        this.unaryServer = new StubGrpcServer(new StubEngineService());
+    }
+
+    @AfterAll
+    public void teardown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        if (this.unaryServer != null) {
+            this.unaryServer.close();
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testStreamAcknowledgesEachRecord() throws Exception {
+        this.reset();
+        final int recordCount = 200;
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try (SzGrpcRecordLoader loader = env.getEngine().newRecordLoader(16)) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int index = 0; index < recordCount; index++) {
+                futures.add(loader.submit(
+                    SzRecordKey.of(DATA_SOURCE, "REC-" + index),
+                    "{}", WITH_INFO));
+            }
+            for (int index = 0; index < recordCount; index++) {
+                assertEquals(toInfo("REC-" + index),
+                             futures.get(index).get(WAIT_SECONDS,
+                                                    TimeUnit.SECONDS),
+                             "Record acknowledged with the wrong result");
+            }
+            assertTrue(loader.isStreaming(), "Loader should be streaming");
+            assertEquals(recordCount, loader.getSubmittedCount(),
+                         "Unexpected submitted count");
+            assertEquals(recordCount, loader.getSucceededCount(),
+                         "Unexpected succeeded count");
+            assertEquals(0L, loader.getFailedCount(),
+                         "Unexpected failed count");
+            assertTrue(this.maxActive.get() > 1,
+                       "Records of the stream were not added concurrently");
+            assertTrue(this.maxActive.get() <= INGEST_CONCURRENCY,
+                       "More records added at once than the ingest "
+                       + "concurrency: " + this.maxActive.get());
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(20)
+    public void testWindowBoundsInFlight() throws Exception {
+        this.reset();
+        final int window = 4;
+        this.gate = new CountDownLatch(1);
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try (SzGrpcRecordLoader loader
+                = env.getEngine().newRecordLoader(window))
+        {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int index = 0; index < window; index++) {
+                futures.add(loader.submit(
+                    SzRecordKey.of(DATA_SOURCE, "REC-" + index),
+                    "{}", WITH_INFO));
+            }
+            this.awaitReceived(window);
+            assertEquals(window, loader.getInFlightCount(),
+                         "Unexpected in-flight count");
+
+            AtomicReference<CompletableFuture<String>> extra
+                = new AtomicReference<>();
+            Thread submitter = new Thread(() -> {
+                try {
+                    extra.set(loader.submit(
+                        SzRecordKey.of(DATA_SOURCE, "REC-EXTRA"),
+                        "{}", WITH_INFO));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            submitter.start();
+            submitter.join(200L);
+
+            assertTrue(submitter.isAlive(),
+                       "Submit did not block with the window full");
+            assertEquals(window, this.received.get(),
+                         "Records were sent beyond the window");
+
+            this.gate.countDown();
+            submitter.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+            assertFalse(submitter.isAlive(), "Submit remained blocked");
+            assertEquals(toInfo("REC-EXTRA"),
+                         extra.get().get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Unexpected result for the blocked record");
+            for (CompletableFuture<String> future : futures) {
+                future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+            }
+            assertTrue(this.maxActive.get() <= window,
+                       "More records in flight than the window: "
+                       + this.maxActive.get());
+        } finally {
+            this.gate.countDown();
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testErrorPropagation() throws Exception {
+        this.reset();
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try (SzGrpcRecordLoader loader = env.getEngine().newRecordLoader()) {
+            CompletableFuture<String> good1 = loader.submit(
+                SzRecordKey.of(DATA_SOURCE, "REC-1"), "{}", WITH_INFO);
+            CompletableFuture<String> bad = loader.submit(
+                SzRecordKey.of(DATA_SOURCE, BAD_PREFIX + "1"), "{}", WITH_INFO);
+            CompletableFuture<String> good2 = loader.submit(
+                SzRecordKey.of(DATA_SOURCE, "REC-2"), "{}", WITH_INFO);
+
+            ExecutionException e = assertThrows(
+                ExecutionException.class,
+                () -> bad.get(WAIT_SECONDS, TimeUnit.SECONDS));
+            assertInstanceOf(SzNotFoundException.class, e.getCause(),
+                             "Failure not mapped to SzNotFoundException");
+            assertEquals(NOT_FOUND_CODE,
+                         ((SzException) e.getCause()).getErrorCode(),
+                         "Unexpected Senzing error code");
+
+            assertEquals(toInfo("REC-1"),
+                         good1.get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Preceding record affected by the failure");
+            assertEquals(toInfo("REC-2"),
+                         good2.get(WAIT_SECONDS, TimeUnit.SECONDS),
+                         "Following record affected by the failure");
+            assertEquals(1L, loader.getFailedCount(),
+                         "Unexpected failed count");
+            assertEquals(2L, loader.getSucceededCount(),
+                         "Unexpected succeeded count");
+            assertTrue(loader.isStreaming(),
+                       "A record failure should not end the stream");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testCloseAwaitsAcknowledgements() throws Exception {
+        this.reset();
+        this.gate = new CountDownLatch(1);
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try {
+            SzGrpcRecordLoader loader = env.getEngine().newRecordLoader();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int index = 0; index < 3; index++) {
+                futures.add(loader.submit(
+                    SzRecordKey.of(DATA_SOURCE, "REC-" + index),
+                    "{}", WITH_INFO));
+            }
+            this.awaitReceived(3);
+
+            Thread closer = new Thread(loader::close);
+            closer.start();
+            closer.join(200L);
+
+            assertTrue(closer.isAlive(),
+                       "Close returned with records unacknowledged");
+            assertTrue(loader.isClosed(), "Loader should be closed");
+            assertThrows(IllegalStateException.class,
+                         () -> loader.submit(
+                            SzRecordKey.of(DATA_SOURCE, "REC-LATE"),
+                            "{}", WITH_INFO),
+                         "Submit should be refused once closed");
+
+            this.gate.countDown();
+            closer.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+            assertFalse(closer.isAlive(), "Close did not return");
+            for (CompletableFuture<String> future : futures) {
+                assertTrue(future.isDone(),
+                           "Close returned before a record was acknowledged");
+                assertNotNull(future.get(), "Unexpected result");
+            }
+            assertEquals(3, this.received.get(),
+                         "The refused record reached the server");
+
+            // closing again has no effect
+            loader.close();
+
+        } finally {
+            this.gate.countDown();
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(50)
+    public void testUnaryFallback() throws Exception {
+        this.reset();
+        SzGrpcEnvironment env
+            = this.unaryServer.newEnvironmentBuilder().build();
+        try (SzGrpcRecordLoader loader = env.getEngine().newRecordLoader(8)) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int index = 0; index < 20; index++) {
+                futures.add(loader.submit(
+                    SzRecordKey.of(DATA_SOURCE, "REC-" + index),
+                    "{}", WITH_INFO));
+            }
+            for (int index = 0; index < 20; index++) {
+                assertEquals(toInfo("REC-" + index),
+                             futures.get(index).get(WAIT_SECONDS,
+                                                    TimeUnit.SECONDS),
+                             "Record acknowledged with the wrong result");
+            }
+            assertFalse(loader.isStreaming(),
+                        "Loader should fall back to unary calls");
+            assertEquals(20L, loader.getSucceededCount(),
+                         "Unexpected succeeded count");
+        } finally {
+            env.destroy();
+        }
+    }
+
+    @Test
+    @Order(60)
+    public void testIngestConcurrencyBoundsAdds() throws Exception {
+        this.reset();
+        final int window = INGEST_CONCURRENCY * 4;
+        this.gate = new CountDownLatch(1);
+        SzGrpcEnvironment env = this.server.newEnvironmentBuilder().build();
+        try (SzGrpcRecordLoader loader
+                = env.getEngine().newRecordLoader(window))
+        {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int index = 0; index < window; index++) {
+                futures.add(loader.submit(
+                    SzRecordKey.of(DATA_SOURCE, "REC-" + index),
+                    "{}", WITH_INFO));
+            }
+            this.awaitReceived(INGEST_CONCURRENCY);
+            Thread.sleep(200L);
+
+            assertEquals(INGEST_CONCURRENCY, this.received.get(),
+                         "Records were added beyond the ingest concurrency");
+            assertEquals(window, loader.getInFlightCount(),
+                         "Unexpected in-flight count");
+
+            this.gate.countDown();
+            for (int index = 0; index < window; index++) {
+                assertEquals(toInfo("REC-" + index),
+                             futures.get(index).get(WAIT_SECONDS,
+                                                    TimeUnit.SECONDS),
+                             "Record acknowledged with the wrong result");
+            }
+            assertEquals(window, this.received.get(),
+                         "Waiting records were not added");
+            assertTrue(this.maxActive.get() <= INGEST_CONCURRENCY,
+                       "More records added at once than the ingest "
+                       + "concurrency: " + this.maxActive.get());
+        } finally {
+            this.gate.countDown();
+            env.destroy();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DeadlineInterceptor}.
+ *
+ * <p>These tests exercise timeout parsing and the deadline and cancellation
+ * checks without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class DeadlineInterceptorTest {
+    @Test
+    @Order(10)
+    public void testParseTimeout() {
+        Deadline deadline = DeadlineInterceptor.parseTimeout("5S");
+        assertNotNull(deadline, "Expected a deadline");
+        long remaining = deadline.timeRemaining(TimeUnit.MILLISECONDS);
+        assertTrue(remaining > 4000L && remaining <= 5000L,
+                   "Unexpected time remaining: " + remaining);
+
+        assertNotNull(DeadlineInterceptor.parseTimeout("250m"),
+                      "Expected a millisecond deadline");
+        assertNotNull(DeadlineInterceptor.parseTimeout("1H"),
+                      "Expected an hour deadline");
+        assertNull(DeadlineInterceptor.parseTimeout(null),
+                   "Expected no deadline for a missing header");
+        assertNull(DeadlineInterceptor.parseTimeout("S"),
+                   "Expected no deadline without an amount");
+        assertNull(DeadlineInterceptor.parseTimeout("10X"),
+                   "Expected no deadline for an unknown unit");
+        assertNull(DeadlineInterceptor.parseTimeout("1a0S"),
+                   "Expected no deadline for a non-numeric amount");
+        assertNull(DeadlineInterceptor.parseTimeout("123456789S"),
+                   "Expected no deadline for more than eight digits");
+    }
+
+    @Test
+    @Order(20)
+    public void testTerminalStatus() {
+        assertNull(DeadlineInterceptor.getTerminalStatus(null, null),
+                   "Expected no status without a deadline");
+        assertNull(DeadlineInterceptor.getTerminalStatus(
+                       null, Deadline.after(1, TimeUnit.MINUTES)),
+                   "Expected no status before the deadline");
+        Status status = DeadlineInterceptor.getTerminalStatus(
+            null, Deadline.after(-1, TimeUnit.MILLISECONDS));
+        assertNotNull(status, "Expected a status after the deadline");
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, status.getCode(),
+                     "Unexpected status code");
+    }
+
+    @Test
+    @Order(30)
+    public void testCheckActive() throws Exception {
+        // no deadline and not cancelled
+        DeadlineInterceptor.checkActive();
+
+        Context expired = Context.current().withValue(
+            DeadlineInterceptor.DEADLINE_CONTEXT_KEY,
+            Deadline.after(-1, TimeUnit.MILLISECONDS));
+        StatusRuntimeException e = assertThrows(
+            StatusRuntimeException.class,
+            () -> expired.run(DeadlineInterceptor::checkActive),
+            "Expected an expired call to be rejected");
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, e.getStatus().getCode(),
+                     "Unexpected status code");
+
+        Context.CancellableContext cancellable
+            = Context.current().withCancellation();
+        try {
+            cancellable.cancel(null);
+            e = assertThrows(
+                StatusRuntimeException.class,
+                () -> cancellable.run(DeadlineInterceptor::checkActive),
+                "Expected a cancelled call to be rejected");
+            assertEquals(Status.Code.CANCELLED, e.getStatus().getCode(),
+                         "Unexpected status code");
+        } finally {
+            cancellable.close();
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testSkippedMetrics() {
+        SzGrpcServerMetrics metrics = new SzGrpcServerMetrics();
+        metrics.recordSkipped(Status.Code.DEADLINE_EXCEEDED);
+        metrics.recordSkipped(Status.Code.DEADLINE_EXCEEDED);
+        metrics.recordSkipped(Status.Code.CANCELLED);
+        assertEquals(3L, metrics.getSkippedCount(),
+                     "Unexpected skipped count");
+        String text = metrics.scrape();
+        assertTrue(text.contains(
+            "sz_grpc_calls_skipped_total{grpc_code=\"DEADLINE_EXCEEDED\"} 2\n"),
+            "Missing expired count: " + text);
+        assertTrue(text.contains(
+            "sz_grpc_calls_skipped_total{grpc_code=\"CANCELLED\"} 1\n"),
+            "Missing cancelled count: " + text);
+    }
+}
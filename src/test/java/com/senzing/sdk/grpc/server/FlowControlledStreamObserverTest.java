@@ -0,0 +1,236 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FlowControlledStreamObserver}.
+ *
+ * <p>These tests exercise the readiness wait against a slow consumer
+ * without requiring a running Senzing installation or gRPC server.  The
+ * stub call observer never invokes its on-ready or on-cancel handlers, as
+ * is the case when those callbacks are queued behind the blocked producer
+ * on the call's serialized executor.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class FlowControlledStreamObserverTest {
+    /**
+     * A stub {@link ServerCallStreamObserver} that is ready only while fewer
+     * than a window of messages are outstanding and that never invokes its
+     * handlers.
+     */
+    private static final class StubCallObserver
+        extends ServerCallStreamObserver<Integer>
+    {
+        /**
+         * The number of outstanding messages at which the call is not ready.
+         */
+        private final int window;
+
+        /**
+         * The number of messages sent but not yet consumed.
+         */
+        private final AtomicInteger outstanding = new AtomicInteger(0);
+
+        /**
+         * The total number of messages sent.
+         */
+        private final AtomicInteger received = new AtomicInteger(0);
+
+        /**
+         * Flag indicating if the call has been cancelled.
+         */
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        /**
+         * The failure the call was closed with, if any.
+         */
+        private final AtomicReference<Throwable> error
+            = new AtomicReference<>();
+
+        private StubCallObserver(int window) {
+            this.window = window;
+        }
+
+        /**
+         * Consumes one outstanding message, if any, as the transport would.
+         */
+        private void consume() {
+            this.outstanding.updateAndGet(n -> (n > 0) ? n - 1 : 0);
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.outstanding.get() < this.window;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled.get();
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable handler) {
+            // never invoked, as on a blocked serialized executor
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable handler) {
+            // never invoked, as on a blocked serialized executor
+        }
+
+        @Override
+        public void setCompression(String compression) {
+            // do nothing
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+            // do nothing
+        }
+
+        @Override
+        public void request(int count) {
+            // do nothing
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+            // do nothing
+        }
+
+        @Override
+        public void onNext(Integer value) {
+            this.outstanding.incrementAndGet();
+            this.received.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error.set(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            // do nothing
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testSlowConsumerThroughput() throws Exception {
+        final int messageCount = 200;
+        StubCallObserver stub = new StubCallObserver(1);
+        FlowControlledStreamObserver<Integer> observer
+            = new FlowControlledStreamObserver<>(stub);
+
+        // the consumer takes one message every millisecond
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread consumer = new Thread(() -> {
+            while (!done.get()) {
+                stub.consume();
+                try {
+                    Thread.sleep(1L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        consumer.start();
+
+        long start = System.nanoTime();
+        try {
+            for (int index = 0; index < messageCount; index++) {
+                assertTrue(observer.send(index),
+                           "Message unexpectedly dropped: " + index);
+            }
+        } finally {
+            done.set(true);
+            consumer.join(5000L);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+
+        assertEquals(messageCount, stub.received.get(),
+                     "Unexpected number of messages received");
+        // waiting on a missed on-ready notification would take seconds per
+        // message, so allow generous slack for slow build machines
+        assertTrue(elapsedMillis < 10000L,
+                   "Throughput collapsed: " + messageCount + " messages took "
+                   + elapsedMillis + "ms");
+    }
+
+    @Test
+    @Order(20)
+    public void testCancelNoticedPromptly() throws Exception {
+        StubCallObserver stub = new StubCallObserver(0);
+        FlowControlledStreamObserver<Integer> observer
+            = new FlowControlledStreamObserver<>(stub);
+
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException ignore) {
+                // ignore
+            }
+            stub.cancelled.set(true);
+        });
+        canceller.start();
+
+        long start = System.nanoTime();
+        boolean sent = observer.send(1);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        canceller.join(5000L);
+
+        assertFalse(sent, "Message should not be sent on a cancelled call");
+        assertEquals(0, stub.received.get(), "Unexpected message received");
+        assertTrue(observer.isCancelled(), "Call should be cancelled");
+        assertTrue(elapsedMillis < 500L,
+                   "Cancel noticed too slowly: " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @Order(30)
+    public void testIdleTimeout() throws Exception {
+        StubCallObserver stub = new StubCallObserver(0);
+        FlowControlledStreamObserver<Integer> observer
+            = new FlowControlledStreamObserver<>(stub, 100L);
+
+        assertFalse(observer.send(1), "Message should not be sent");
+        assertTrue(observer.isCancelled(), "Call should be terminated");
+        assertEquals(Status.Code.DEADLINE_EXCEEDED,
+                     Status.fromThrowable(stub.error.get()).getCode(),
+                     "Unexpected failure status");
+    }
+
+    @Test
+    @Order(40)
+    public void testInterrupted() {
+        StubCallObserver stub = new StubCallObserver(0);
+        FlowControlledStreamObserver<Integer> observer
+            = new FlowControlledStreamObserver<>(stub);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedException.class, () -> observer.send(1));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.senzing.sdk.grpc.server;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RestrictedEnvironment}.
+ *
+ * <p>These tests exercise the delegation to the backing environment and
+ * the refusal of {@link SzEnvironment#destroy()} without requiring a
+ * running Senzing installation.  A minimal {@link SzEnvironment} proxy
+ * records the calls that reach the backing environment.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class RestrictedEnvironmentTest {
+    /**
+     * The names of the methods invoked on the backing environment.
+     */
+    private final List<String> calls = new ArrayList<>();
+
+    /**
+     * The stub {@link SzEngine} provided by the backing environment.
+     */
+    private final SzEngine engine = (SzEngine) Proxy.newProxyInstance(
+        SzEngine.class.getClassLoader(), new Class<?>[] { SzEngine.class },
+        (proxy, method, args) -> null);
+
+    /**
+     * Creates a stub {@link SzEnvironment} that records its calls.
+     *
+     * @return The stub {@link SzEnvironment}.
+     */
+    private SzEnvironment createStubEnvironment() {
+        return (SzEnvironment) Proxy.newProxyInstance(
+            SzEnvironment.class.getClassLoader(),
+            new Class<?>[] { SzEnvironment.class },
+            (proxy, method, args) -> {
+                this.calls.add(method.getName());
+                switch (method.getName()) {
+                    case "getEngine":           return this.engine;
+                    case "getActiveConfigId":   return 42L;
+                    case "isDestroyed":         return false;
+                    default:                    return null;
+                }
+            });
+    }
+
+    @Test
+    @Order(10)
+    public void testNullEnvironment() {
+        assertThrows(NullPointerException.class,
+                     () -> new RestrictedEnvironment(null));
+    }
+
+    @Test
+    @Order(20)
+    public void testDelegation() throws Exception {
+        this.calls.clear();
+        SzEnvironment env = new RestrictedEnvironment(
+            this.createStubEnvironment());
+
+        assertNull(env.getProduct(), "Unexpected product");
+        assertSame(this.engine, env.getEngine(), "Unexpected engine");
+        assertNull(env.getConfigManager(), "Unexpected config manager");
+        assertNull(env.getDiagnostic(), "Unexpected diagnostic");
+        assertEquals(42L, env.getActiveConfigId(),
+                     "Unexpected active config ID");
+        env.reinitialize(42L);
+        assertFalse(env.isDestroyed(), "Unexpected destroyed state");
+
+        assertEquals(List.of("getProduct", "getEngine", "getConfigManager",
+                             "getDiagnostic", "getActiveConfigId",
+                             "reinitialize", "isDestroyed"),
+                     this.calls, "Unexpected delegated calls");
+    }
+
+    @Test
+    @Order(30)
+    public void testDestroyRefused() {
+        this.calls.clear();
+        SzEnvironment env = new RestrictedEnvironment(
+            this.createStubEnvironment());
+
+        assertThrows(UnsupportedOperationException.class, env::destroy);
+        assertEquals(List.of(), this.calls,
+                     "The destroy() call reached the backing environment");
+    }
+}
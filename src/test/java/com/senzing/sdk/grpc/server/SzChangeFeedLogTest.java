@@ -0,0 +1,271 @@
+package com.senzing.sdk.grpc.server;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.grpc.SzGrpcChangeFeed;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzChangeFeedLog}.
+ *
+ * <p>These tests exercise appending, reading, reopening, retention (including
+ * retention while readers are copying entries) and flushing of the
+ * memory-mapped change feed log without requiring a running Senzing
+ * installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzChangeFeedLogTest {
+    @TempDir
+    File tempDir;
+
+    private static String message(int index) {
+        return "{\"AFFECTED_ENTITIES\":[{\"ENTITY_ID\":" + index + "}]}";
+    }
+
+    @Test
+    @Order(10)
+    public void testAppendAndRead() throws Exception {
+        File directory = new File(this.tempDir, "append");
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 4096, 1024 * 1024))
+        {
+            assertEquals(0L, log.getNextOffset(), "Unexpected initial offset");
+            for (int index = 0; index < 10; index++) {
+                assertEquals((long) index, log.append(message(index)),
+                             "Unexpected offset for appended entry");
+            }
+            List<SzChangeFeedLog.Entry> entries = log.read(3L, 4);
+            assertEquals(4, entries.size(), "Unexpected entry count");
+            assertEquals(3L, entries.get(0).getOffset(),
+                         "Unexpected first offset");
+            assertEquals(message(6), entries.get(3).getMessage(),
+                         "Unexpected message");
+            assertTrue(log.read(10L, 5).isEmpty(),
+                       "Expected no entries beyond the end of the log");
+            assertTrue(log.awaitAppend(9L, 10L),
+                       "Expected entry to already be available");
+            assertFalse(log.awaitAppend(10L, 10L),
+                        "Expected timeout awaiting a future entry");
+        }
+    }
+
+    @Test
+    @Order(20)
+    public void testReopen() throws Exception {
+        File directory = new File(this.tempDir, "reopen");
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 256, 1024 * 1024))
+        {
+            for (int index = 0; index < 25; index++) {
+                log.append(message(index));
+            }
+        }
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 256, 1024 * 1024))
+        {
+            assertEquals(0L, log.getFirstOffset(),
+                         "Unexpected first offset after reopen");
+            assertEquals(25L, log.getNextOffset(),
+                         "Unexpected next offset after reopen");
+            assertEquals(message(24), log.read(24L, 1).get(0).getMessage(),
+                         "Unexpected message after reopen");
+            assertEquals(25L, log.append(message(25)),
+                         "Unexpected offset appended after reopen");
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testRetention() throws Exception {
+        File directory = new File(this.tempDir, "retention");
+        try (SzChangeFeedLog log = new SzChangeFeedLog(directory, 256, 1024))
+        {
+            for (int index = 0; index < 100; index++) {
+                log.append(message(index));
+            }
+            long firstOffset = log.getFirstOffset();
+            assertTrue(firstOffset > 0L,
+                       "Expected the oldest entries to be deleted");
+            List<SzChangeFeedLog.Entry> entries = log.read(0L, 1);
+            assertEquals(firstOffset, entries.get(0).getOffset(),
+                         "Expected read to start at the first offset");
+            assertTrue(directory.list().length <= 4,
+                       "Too many segments retained");
+
+            // an entry larger than a segment gets its own segment
+            String large = "x".repeat(1000);
+            long offset = log.append(large);
+            assertEquals(large, log.read(offset, 1).get(0).getMessage(),
+                         "Unexpected large message");
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testWireFormat() {
+        String request = SzGrpcChangeFeed.encodeRequest(42L);
+        assertEquals(42L, SzGrpcChangeFeed.decodeRequest(request),
+                     "Unexpected decoded request offset");
+        assertEquals(0L, SzGrpcChangeFeed.decodeRequest("{}"),
+                     "Missing offset should default to zero");
+        assertEquals(SzGrpcChangeFeed.LATEST_OFFSET,
+                     SzGrpcChangeFeed.decodeRequest(
+                         SzGrpcChangeFeed.encodeRequest(-5L)),
+                     "Negative offset should decode as the latest offset");
+        assertThrows(IllegalArgumentException.class,
+                     () -> SzGrpcChangeFeed.decodeRequest("{\"offset\":1.5}"),
+                     "Expected failure for fractional offset");
+
+        SzGrpcChangeFeed.Entry entry = SzGrpcChangeFeed.decodeResponse(
+            SzGrpcChangeFeed.encodeResponse(7L, message(7)));
+        assertEquals(7L, entry.getOffset(), "Unexpected response offset");
+        assertEquals(message(7), entry.getMessage(),
+                     "Unexpected response message");
+    }
+
+    @Test
+    @Order(50)
+    public void testRetentionWithReaderAttached() throws Exception {
+        File directory = new File(this.tempDir, "reader");
+        final int entryCount = 20000;
+        try (SzChangeFeedLog log = new SzChangeFeedLog(directory, 512, 2048))
+        {
+            AtomicBoolean               done        = new AtomicBoolean();
+            AtomicReference<Throwable>  failure     = new AtomicReference<>();
+            AtomicLong                  readCount   = new AtomicLong();
+
+            Thread[] readers = new Thread[3];
+            for (int index = 0; index < readers.length; index++) {
+                readers[index] = new Thread(() -> {
+                    long offset = 0L;
+                    try {
+                        while (!done.get() || offset < log.getNextOffset()) {
+                            List<SzChangeFeedLog.Entry> entries
+                                = log.read(offset, 50);
+                            for (SzChangeFeedLog.Entry entry : entries) {
+                                int expected = (int) entry.getOffset();
+                                assertEquals(message(expected),
+                                             entry.getMessage(),
+                                             "Corrupt entry read at offset "
+                                             + expected);
+                                assertTrue(entry.getOffset() >= offset,
+                                           "Offsets went backwards");
+                                offset = entry.getOffset() + 1L;
+                                readCount.incrementAndGet();
+                            }
+                            if (entries.isEmpty()) {
+                                log.awaitAppend(offset, 10L);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                });
+                readers[index].start();
+            }
+
+            for (int index = 0; index < entryCount; index++) {
+                log.append(message(index));
+            }
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join(TimeUnit.SECONDS.toMillis(30));
+                assertFalse(reader.isAlive(), "Reader did not finish");
+            }
+            if (failure.get() != null) {
+                fail("Reader failed: " + failure.get(), failure.get());
+            }
+            assertTrue(readCount.get() > 0L, "Readers read no entries");
+            assertTrue(log.getFirstOffset() > 0L,
+                       "Expected the oldest entries to be deleted");
+
+            // retired segments are deleted once the readers release them
+            assertTrue(directory.list().length <= 6,
+                       "Retired segments were not deleted: "
+                       + directory.list().length);
+        }
+    }
+
+    @Test
+    @Order(60)
+    public void testFlushInterval() throws Exception {
+        File directory = new File(this.tempDir, "flush");
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SzChangeFeedLog(directory, 4096, 8192, -1L),
+                     "Expected failure for a negative flush interval");
+
+        // flushing every append
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 4096, 1024 * 1024, 0L))
+        {
+            for (int index = 0; index < 10; index++) {
+                log.append(message(index));
+            }
+            log.flush();
+        }
+
+        // flushing periodically, the flusher stops on close
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 4096, 1024 * 1024, 10L))
+        {
+            assertEquals(10L, log.getNextOffset(),
+                         "Unexpected next offset after reopen");
+            for (int index = 10; index < 20; index++) {
+                log.append(message(index));
+            }
+            Thread.sleep(50L);
+        }
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 4096, 1024 * 1024))
+        {
+            assertEquals(20L, log.getNextOffset(),
+                         "Unexpected next offset after reopen");
+            assertEquals(message(19), log.read(19L, 1).get(0).getMessage(),
+                         "Unexpected message after reopen");
+        }
+    }
+
+    @Test
+    @Order(70)
+    public void testAwaitAppendWakesOnAppend() throws Exception {
+        File directory = new File(this.tempDir, "await");
+        try (SzChangeFeedLog log
+                = new SzChangeFeedLog(directory, 4096, 1024 * 1024))
+        {
+            Thread appender = new Thread(() -> {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                log.append(message(0));
+            });
+            long start = System.nanoTime();
+            appender.start();
+            assertTrue(log.awaitAppend(0L, 10000L),
+                       "Expected the appended entry");
+            long millis = (System.nanoTime() - start) / 1000000L;
+            assertTrue(millis < 5000L,
+                       "Await was not woken by the append: " + millis + "ms");
+            appender.join();
+        }
+    }
+}
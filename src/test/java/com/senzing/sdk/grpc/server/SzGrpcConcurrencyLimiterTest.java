@@ -0,0 +1,122 @@
+package com.senzing.sdk.grpc.server;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcConcurrencyLimiter}.
+ *
+ * <p>These tests exercise admission, rejection and adaptation of the limit
+ * without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcConcurrencyLimiterTest {
+    private static final long MILLIS = 1_000_000L;
+
+    /**
+     * Saturates the limiter, then completes every admitted call with the
+     * specified latency, repeating for the specified number of rounds.
+     */
+    private static void run(SzGrpcConcurrencyLimiter  limiter,
+                            long                      latencyNanos,
+                            int                       rounds)
+    {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int index = 0; index < admitted; index++) {
+                limiter.release(latencyNanos, true);
+            }
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testAdmission() {
+        SzGrpcConcurrencyLimiter limiter
+            = new SzGrpcConcurrencyLimiter(2, 1, 4);
+        assertTrue(limiter.tryAcquire(), "Expected admission");
+        assertTrue(limiter.tryAcquire(), "Expected admission");
+        assertFalse(limiter.tryAcquire(), "Expected rejection at the limit");
+        assertEquals(2, limiter.getInFlightCount(), "Unexpected in-flight");
+        assertEquals(1L, limiter.getRejectedCount(), "Unexpected rejections");
+
+        limiter.release(0L, false);
+        assertEquals(1, limiter.getInFlightCount(), "Unexpected in-flight");
+        assertTrue(limiter.tryAcquire(), "Expected admission after release");
+        assertEquals(2, limiter.getLimit(),
+                     "Unsampled releases should not change the limit");
+    }
+
+    @Test
+    @Order(20)
+    public void testInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SzGrpcConcurrencyLimiter(1, 0, 4));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SzGrpcConcurrencyLimiter(5, 1, 4));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SzGrpcConcurrencyLimiter(2, 3, 2));
+    }
+
+    @Test
+    @Order(30)
+    public void testGrowsWhileLatencyStable() {
+        SzGrpcConcurrencyLimiter limiter
+            = new SzGrpcConcurrencyLimiter(4, 1, 32);
+        run(limiter, 10 * MILLIS, 50);
+        assertTrue(limiter.getLimit() > 4,
+                   "Expected the limit to grow: " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 32, "Maximum limit exceeded");
+    }
+
+    @Test
+    @Order(40)
+    public void testShrinksAsLatencyRises() {
+        SzGrpcConcurrencyLimiter limiter
+            = new SzGrpcConcurrencyLimiter(16, 2, 32);
+        run(limiter, 10 * MILLIS, 20);
+        int before = limiter.getLimit();
+        run(limiter, 200 * MILLIS, 50);
+        assertTrue(limiter.getLimit() < before,
+                   "Expected the limit to shrink from " + before + ": "
+                   + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 2, "Minimum limit exceeded");
+        assertTrue(limiter.getRetryAfterMillis() >= 10L,
+                   "Expected a retry-after hint of at least 10ms");
+        assertTrue(limiter.getShortLatencyNanos()
+                   > limiter.getLongLatencyNanos(),
+                   "Expected short-term latency above the baseline");
+    }
+
+    @Test
+    @Order(50)
+    public void testSampledStatus() {
+        assertTrue(ConcurrencyLimitInterceptor.isSampled(Status.Code.OK),
+                   "Expected successful calls to be sampled");
+        assertTrue(ConcurrencyLimitInterceptor.isSampled(Status.Code.NOT_FOUND),
+                   "Expected failed calls to be sampled");
+        Status.Code[] unsampled = {
+            Status.Code.CANCELLED, Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED
+        };
+        for (Status.Code code : unsampled) {
+            assertFalse(ConcurrencyLimitInterceptor.isSampled(code),
+                        "Expected no sample for: " + code);
+        }
+    }
+}
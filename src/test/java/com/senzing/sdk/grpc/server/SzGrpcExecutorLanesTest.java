@@ -0,0 +1,233 @@
+package com.senzing.sdk.grpc.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.ServerCall;
+import io.grpc.Status;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.grpc.SzGrpcChangeFeed;
+import com.senzing.sdk.grpc.SzGrpcIdLists;
+import com.senzing.sdk.grpc.server.SzGrpcExecutorLanes.Lane;
+import com.senzing.sdk.grpc.server.SzGrpcExecutorLanes.LaneConfig;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcExecutorLanes}.
+ *
+ * <p>These tests exercise lane specification parsing, method classification
+ * and admission control without requiring a running Senzing
+ * installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcExecutorLanesTest {
+    private static final String ENGINE = "szengine.SzEngine/";
+
+    private static final MethodDescriptor.Marshaller<String> STRING_MARSHALLER
+        = new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(String value) {
+                return new ByteArrayInputStream(
+                    value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public String parse(InputStream stream) {
+                try {
+                    return new String(stream.readAllBytes(),
+                                      StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+    private static final class RecordingCall
+        extends ServerCall<String, String> {
+        private final MethodDescriptor<String, String> method;
+        private volatile Status closedStatus = null;
+
+        private RecordingCall(String fullMethodName) {
+            this.method = MethodDescriptor.<String, String>newBuilder()
+                .setType(MethodType.UNARY)
+                .setFullMethodName(fullMethodName)
+                .setRequestMarshaller(STRING_MARSHALLER)
+                .setResponseMarshaller(STRING_MARSHALLER)
+                .build();
+        }
+
+        @Override
+        public void request(int count) {
+            // do nothing
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+            // do nothing
+        }
+
+        @Override
+        public void sendMessage(String message) {
+            // do nothing
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            this.closedStatus = status;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public MethodDescriptor<String, String> getMethodDescriptor() {
+            return this.method;
+        }
+    }
+
+    @Test
+    @Order(10)
+    public void testParse() {
+        Map<Lane, LaneConfig> configs
+            = SzGrpcExecutorLanes.parse(" Reads=8:64, writes=4 ,exports=2:0");
+        assertEquals(3, configs.size(), "Unexpected lane count");
+        assertEquals(new LaneConfig(8, 64), configs.get(Lane.READS),
+                     "Unexpected reads lane");
+        int queueSize = SzGrpcServerConstants.DEFAULT_EXECUTOR_LANE_QUEUE_SIZE;
+        assertEquals(new LaneConfig(4, queueSize), configs.get(Lane.WRITES),
+                     "Unexpected writes lane");
+        assertEquals(new LaneConfig(2, 0), configs.get(Lane.EXPORTS),
+                     "Unexpected exports lane");
+        assertNull(configs.get(Lane.ADMIN), "Unexpected admin lane");
+    }
+
+    @Test
+    @Order(20)
+    public void testParseInvalid() {
+        String[] specs = {
+            "", "reads", "bulk=2", "reads=0", "reads=2:-1", "reads=x",
+            "reads=2,reads=3"
+        };
+        for (String spec : specs) {
+            assertThrows(IllegalArgumentException.class,
+                         () -> SzGrpcExecutorLanes.parse(spec),
+                         "Expected failure for: " + spec);
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testLaneOf() {
+        assertEquals(Lane.READS, Lane.of(ENGINE + "GetEntityByEntityId"),
+                     "Unexpected lane for getEntity");
+        assertEquals(Lane.READS, Lane.of(ENGINE + "SearchByAttributes"),
+                     "Unexpected lane for searchByAttributes");
+        assertEquals(Lane.WRITES, Lane.of(ENGINE + "AddRecord"),
+                     "Unexpected lane for addRecord");
+        assertEquals(Lane.WRITES, Lane.of(ENGINE + "ProcessRedoRecord"),
+                     "Unexpected lane for processRedoRecord");
+        assertEquals(Lane.EXPORTS,
+                     Lane.of(ENGINE + "StreamExportJsonEntityReport"),
+                     "Unexpected lane for streaming export");
+        assertEquals(Lane.EXPORTS,
+                     Lane.of(SzGrpcChangeFeed.SERVICE_NAME + "/Subscribe"),
+                     "Unexpected lane for change feed");
+        assertEquals(Lane.READS,
+                     Lane.of(SzGrpcIdLists.FIND_PATH_BY_ENTITY_ID_METHOD
+                                 .getFullMethodName()),
+                     "Unexpected lane for typed find path");
+        assertEquals(Lane.ADMIN, Lane.of(ENGINE + "GetStats"),
+                     "Unexpected lane for getStats");
+        assertNull(Lane.of("grpc.health.v1.Health/Check"),
+                   "Expected no lane for the health service");
+        assertNull(Lane.of("malformed"),
+                   "Expected no lane for a malformed method name");
+    }
+
+    @Test
+    @Order(40)
+    public void testAdmission() throws Exception {
+        SzGrpcExecutorLanes lanes
+            = new SzGrpcExecutorLanes(SzGrpcExecutorLanes.parse("writes=1:1"));
+        try {
+            assertNull(lanes.getExecutor(Lane.READS),
+                       "Expected no executor for an unconfigured lane");
+            Executor executor = lanes.getExecutor(Lane.WRITES);
+            assertNotNull(executor, "Expected an executor for writes");
+
+            assertTrue(lanes.tryAcquire(Lane.WRITES), "Expected admission");
+            assertTrue(lanes.tryAcquire(Lane.WRITES), "Expected admission");
+            assertFalse(lanes.tryAcquire(Lane.WRITES),
+                        "Expected rejection when at capacity");
+            assertEquals(1L, lanes.getRejectedCount(Lane.WRITES),
+                         "Unexpected rejected count");
+
+            lanes.release(Lane.WRITES);
+            assertTrue(lanes.tryAcquire(Lane.WRITES),
+                       "Expected admission after release");
+
+            CountDownLatch ran = new CountDownLatch(1);
+            executor.execute(ran::countDown);
+            assertTrue(ran.await(10, TimeUnit.SECONDS),
+                       "Task did not run on the lane executor");
+        } finally {
+            lanes.shutdown();
+        }
+    }
+
+    @Test
+    @Order(50)
+    public void testInterceptorRejectsAfterShutdown() {
+        SzGrpcExecutorLanes lanes
+            = new SzGrpcExecutorLanes(SzGrpcExecutorLanes.parse("writes=1:1"));
+        lanes.shutdown();
+
+        ExecutorLaneInterceptor interceptor
+            = new ExecutorLaneInterceptor(() -> lanes);
+        RecordingCall call = new RecordingCall(ENGINE + "AddRecord");
+        AtomicBoolean halfClosed = new AtomicBoolean(false);
+        ServerCall.Listener<String> listener = interceptor.interceptCall(
+            call, new Metadata(), (c, h) -> new ServerCall.Listener<String>() {
+                @Override
+                public void onHalfClose() {
+                    halfClosed.set(true);
+                }
+            });
+
+        listener.onHalfClose();
+        assertFalse(halfClosed.get(),
+                    "Expected the callback not to run on the caller thread");
+        assertNotNull(call.closedStatus, "Expected the call to be closed");
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED,
+                     call.closedStatus.getCode(), "Unexpected status code");
+
+        // the call is released so the lane is back to full capacity
+        assertTrue(lanes.tryAcquire(Lane.WRITES), "Expected admission");
+        assertTrue(lanes.tryAcquire(Lane.WRITES), "Expected admission");
+    }
+}
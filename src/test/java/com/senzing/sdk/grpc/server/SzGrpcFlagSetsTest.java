@@ -0,0 +1,125 @@
+package com.senzing.sdk.grpc.server;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.SzFlag;
+
+import static com.senzing.sdk.SzFlag.*;
+import static com.senzing.sdk.SzFlagUsageGroup.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Unit tests for {@link SzGrpcFlagSets}.
+ *
+ * <p>These tests exercise the caching of decoded flag sets, including the
+ * allocation budget for a cached lookup, without requiring a running
+ * Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcFlagSetsTest {
+    /**
+     * The number of lookups to measure for the allocation budget.
+     */
+    private static final int LOOKUP_COUNT = 200000;
+
+    /**
+     * The maximum number of bytes that may be allocated across all of the
+     * measured lookups.  This allows for incidental allocation by the
+     * measurement itself while failing if each lookup allocates.
+     */
+    private static final long ALLOCATION_BUDGET = 64L * 1024L;
+
+    @Test
+    @Order(10)
+    public void testToFlagSet() {
+        long flags = SzFlag.toLong(SZ_ENTITY_DEFAULT_FLAGS);
+        Set<SzFlag> flagSet = SzGrpcFlagSets.toFlagSet(SZ_ENTITY_FLAGS, flags);
+
+        assertEquals(SZ_ENTITY_FLAGS.toFlagSet(flags), flagSet,
+                     "Unexpected flag set");
+        assertSame(flagSet, SzGrpcFlagSets.toFlagSet(SZ_ENTITY_FLAGS, flags),
+                   "Expected the cached flag set");
+        assertThrows(UnsupportedOperationException.class,
+                     () -> flagSet.add(SZ_WITH_INFO));
+    }
+
+    @Test
+    @Order(20)
+    public void testWithInfo() {
+        long flags = 0L;
+        Set<SzFlag> plain = SzGrpcFlagSets.toFlagSet(SZ_ADD_RECORD_FLAGS,
+                                                     flags);
+        Set<SzFlag> withInfo = SzGrpcFlagSets.withInfo(SZ_ADD_RECORD_FLAGS,
+                                                       flags);
+
+        assertFalse(plain.contains(SZ_WITH_INFO),
+                    "Unexpected INFO flag: " + plain);
+        assertTrue(withInfo.contains(SZ_WITH_INFO),
+                   "Missing INFO flag: " + withInfo);
+        assertSame(withInfo,
+                   SzGrpcFlagSets.withInfo(SZ_ADD_RECORD_FLAGS, flags),
+                   "Expected the cached flag set");
+    }
+
+    @Test
+    @Order(30)
+    public void testCollisions() {
+        // more distinct values than cache slots must still be correct
+        for (long bits = 0L; bits < 1024L; bits++) {
+            assertEquals(SZ_ENTITY_FLAGS.toFlagSet(bits),
+                         SzGrpcFlagSets.toFlagSet(SZ_ENTITY_FLAGS, bits),
+                         "Unexpected flag set for bits: " + bits);
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testAllocationBudget() {
+        java.lang.management.ThreadMXBean bean
+            = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                   "Thread allocation measurement is not supported");
+        com.sun.management.ThreadMXBean threadBean
+            = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(),
+                   "Thread allocation measurement is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        long[] flags = { SzFlag.toLong(SZ_ENTITY_DEFAULT_FLAGS),
+                         SzFlag.toLong(SZ_ENTITY_BRIEF_DEFAULT_FLAGS),
+                         0L };
+
+        // warm up so the lookups are compiled and the entries are cached
+        int hash = 0;
+        for (int index = 0; index < LOOKUP_COUNT; index++) {
+            hash += SzGrpcFlagSets.toFlagSet(
+                SZ_ENTITY_FLAGS, flags[index % flags.length]).size();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int index = 0; index < LOOKUP_COUNT; index++) {
+            hash += SzGrpcFlagSets.toFlagSet(
+                SZ_ENTITY_FLAGS, flags[index % flags.length]).size();
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(hash > 0, "Unexpected empty flag sets");
+        assertTrue(allocated < ALLOCATION_BUDGET,
+                   "Cached lookups allocated " + allocated + " bytes for "
+                   + LOOKUP_COUNT + " lookups");
+    }
+}
@@ -0,0 +1,136 @@
+package com.senzing.sdk.grpc.server;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.SzEngine;
+import com.senzing.sdk.SzEnvironment;
+import com.senzing.sdk.SzException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcNativeCallLimiter}.
+ *
+ * <p>These tests exercise the bounding of concurrent calls through a
+ * wrapped {@link SzEnvironment} without requiring a running Senzing
+ * installation.  Minimal {@link SzEnvironment} and {@link SzEngine} proxies
+ * stand in for the native SDK.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcNativeCallLimiterTest {
+    /**
+     * The number of engine calls currently running.
+     */
+    private final AtomicInteger running = new AtomicInteger(0);
+
+    /**
+     * The maximum number of engine calls observed running at once.
+     */
+    private final AtomicInteger maxRunning = new AtomicInteger(0);
+
+    /**
+     * Creates a stub {@link SzEnvironment} whose engine records how many
+     * calls to {@link SzEngine#getStats()} run at once.
+     *
+     * @return The stub {@link SzEnvironment}.
+     */
+    private SzEnvironment createStubEnvironment() {
+        ClassLoader cl = SzGrpcNativeCallLimiterTest.class.getClassLoader();
+        SzEngine engine = (SzEngine) Proxy.newProxyInstance(
+            cl, new Class<?>[]{ SzEngine.class },
+            (proxy, method, args) -> {
+                if (!"getStats".equals(method.getName())) {
+                    return null;
+                }
+                int count = this.running.incrementAndGet();
+                this.maxRunning.accumulateAndGet(count, Math::max);
+                try {
+                    Thread.sleep(20L);
+                } finally {
+                    this.running.decrementAndGet();
+                }
+                return "{}";
+            });
+
+        return (SzEnvironment) Proxy.newProxyInstance(
+            cl, new Class<?>[]{ SzEnvironment.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getEngine":   return engine;
+                    case "isDestroyed": return false;
+                    default:            return null;
+                }
+            });
+    }
+
+    @Test
+    @Order(10)
+    public void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SzGrpcNativeCallLimiter(0));
+    }
+
+    @Test
+    @Order(20)
+    public void testWrap() throws Exception {
+        SzGrpcNativeCallLimiter limiter = new SzGrpcNativeCallLimiter(2);
+        SzEnvironment env = limiter.wrap(this.createStubEnvironment());
+
+        assertFalse(env.isDestroyed(), "Unexpected destroyed state");
+        SzEngine engine = env.getEngine();
+        assertSame(engine, env.getEngine(),
+                   "Expected the same limited engine on each call");
+        assertEquals("{}", engine.getStats(), "Unexpected stats");
+        assertEquals(1L, limiter.getCallCount(), "Unexpected call count");
+        assertEquals(0, limiter.getActiveCount(), "Unexpected active count");
+        assertEquals(2, limiter.getLimit(), "Unexpected limit");
+    }
+
+    @Test
+    @Order(30)
+    public void testBounded() throws Exception {
+        this.maxRunning.set(0);
+        SzGrpcNativeCallLimiter limiter = new SzGrpcNativeCallLimiter(2);
+        SzEngine engine = limiter.wrap(this.createStubEnvironment())
+            .getEngine();
+
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int index = 0; index < 8; index++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    engine.getStats();
+                } catch (SzException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(10000L);
+        }
+
+        assertEquals(List.of(), failures, "Unexpected failures");
+        assertEquals(8L, limiter.getCallCount(), "Unexpected call count");
+        assertTrue(this.maxRunning.get() <= 2,
+                   "Too many concurrent calls: " + this.maxRunning.get());
+        assertEquals(0, limiter.getActiveCount(), "Unexpected active count");
+    }
+}
@@ -0,0 +1,203 @@
+package com.senzing.sdk.grpc.server;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.SzRecordKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcReadCache}.
+ *
+ * <p>These tests exercise caching, invalidation via INFO messages and
+ * eviction without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcReadCacheTest {
+    private static String entity(long entityId) {
+        return "{\"RESOLVED_ENTITY\":{\"ENTITY_ID\":" + entityId + "}}";
+    }
+
+    private static String info(String dataSource,
+                               String recordId,
+                               long... entityIds)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"DATA_SOURCE\":\"").append(dataSource)
+          .append("\",\"RECORD_ID\":\"").append(recordId)
+          .append("\",\"AFFECTED_ENTITIES\":[");
+        String prefix = "";
+        for (long entityId : entityIds) {
+            sb.append(prefix).append("{\"ENTITY_ID\":")
+              .append(entityId).append("}");
+            prefix = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    @Test
+    @Order(10)
+    public void testPutAndGet() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        assertNull(cache.get("a"), "Unexpected cached result");
+        assertTrue(cache.put(cache.getStamp(), "a", entity(1L),
+                             new long[] { 1L }, null),
+                   "Expected result to be cached");
+        assertEquals(entity(1L), cache.get("a"), "Unexpected cached result");
+        assertEquals(1, cache.getSize(), "Unexpected cache size");
+        assertEquals(1L, cache.getHitCount(), "Unexpected hit count");
+        assertEquals(1L, cache.getMissCount(), "Unexpected miss count");
+        assertTrue(cache.getWeight() > 0L, "Expected a positive weight");
+    }
+
+    @Test
+    @Order(20)
+    public void testStaleStampRejected() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        long stamp = cache.getStamp();
+        cache.invalidate(info("TEST", "ABC", 1L));
+        assertFalse(cache.put(stamp, "a", entity(1L), new long[] { 1L }, null),
+                    "Expected result read before a write to be rejected");
+        assertNull(cache.get("a"), "Unexpected cached result");
+
+        stamp = cache.getStamp();
+        cache.invalidate(info("TEST", "DEF"));
+        assertFalse(cache.put(stamp, "r", "{}", null,
+                              SzRecordKey.of("test", "DEF")),
+                    "Expected record read before a write to be rejected");
+    }
+
+    @Test
+    @Order(25)
+    public void testUnrelatedInvalidationAccepted() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        long stamp = cache.getStamp();
+        cache.invalidate(info("TEST", "ABC", 5L));
+        assertTrue(cache.put(stamp, "a", entity(1L), new long[] { 1L },
+                             SzRecordKey.of("TEST", "DEF")),
+                   "Expected result unaffected by the write to be cached");
+        assertEquals(entity(1L), cache.get("a"), "Unexpected cached result");
+    }
+
+    @Test
+    @Order(30)
+    public void testInvalidateAffectedEntities() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        long stamp = cache.getStamp();
+        cache.put(stamp, "a", entity(1L), new long[] { 1L }, null);
+        cache.put(stamp, "b", entity(2L), new long[] { 2L }, null);
+        cache.put(stamp, "why", "{}", new long[] { 1L, 3L }, null);
+
+        cache.invalidate(info("TEST", "ABC", 1L));
+        assertNull(cache.get("a"), "Expected entity 1 to be invalidated");
+        assertNull(cache.get("why"), "Expected why result to be invalidated");
+        assertEquals(entity(2L), cache.get("b"),
+                     "Expected entity 2 to remain cached");
+        assertEquals(2L, cache.getInvalidationCount(),
+                     "Unexpected invalidation count");
+    }
+
+    @Test
+    @Order(40)
+    public void testInvalidateRecord() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        cache.put(cache.getStamp(), "record", "{}", null,
+                  SzRecordKey.of("test", "ABC"));
+        cache.put(cache.getStamp(), "other", "{}", null,
+                  SzRecordKey.of("TEST", "DEF"));
+
+        // the data source code is matched case-insensitively
+        cache.invalidate(info("TEST", "ABC"));
+        assertNull(cache.get("record"), "Expected record to be invalidated");
+        assertEquals("{}", cache.get("other"),
+                     "Expected other record to remain cached");
+    }
+
+    @Test
+    @Order(50)
+    public void testUnparseableInfoClears() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        cache.put(cache.getStamp(), "a", entity(1L), new long[] { 1L }, null);
+        cache.invalidate("not json");
+        assertEquals(0, cache.getSize(), "Expected cache to be cleared");
+        assertEquals(0L, cache.getWeight(), "Expected zero weight");
+    }
+
+    @Test
+    @Order(55)
+    public void testInfoFallbackParse() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        long stamp = cache.getStamp();
+        cache.put(stamp, "a", entity(1L), new long[] { 1L }, null);
+        cache.put(stamp, "b", entity(2L), new long[] { 2L }, null);
+        cache.put(stamp, "record", "{}", null,
+                  SzRecordKey.of("TEST", "A\"B"));
+
+        // reordered properties are scanned directly
+        cache.invalidate("{ \"AFFECTED_ENTITIES\" : [ {\"ENTITY_ID\": 1} ],"
+                         + " \"RECORD_ID\": \"X\", \"DATA_SOURCE\": \"T\" }");
+        assertNull(cache.get("a"), "Expected entity 1 to be invalidated");
+
+        // unexpected properties and escapes fall back to a full parse
+        cache.invalidate("{\"DATA_SOURCE\":\"TEST\",\"RECORD_ID\":\"A\\\"B\","
+                         + "\"AFFECTED_ENTITIES\":[{\"ENTITY_ID\":2,"
+                         + "\"LENS_CODE\":\"DEFAULT\"}],\"EXTRA\":{}}");
+        assertNull(cache.get("b"), "Expected entity 2 to be invalidated");
+        assertNull(cache.get("record"), "Expected record to be invalidated");
+        assertEquals(0, cache.getSize(), "Expected an empty cache");
+    }
+
+    @Test
+    @Order(60)
+    public void testWeightEviction() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(2048, 0L);
+        String value = "x".repeat(300);
+        for (int index = 0; index < 10; index++) {
+            cache.put(cache.getStamp(), "k" + index, value,
+                      new long[] { index }, null);
+            // touch the first key so it is not the least-recently used
+            cache.get("k0");
+        }
+        assertTrue(cache.getWeight() <= 2048L, "Maximum weight exceeded");
+        assertTrue(cache.getEvictionCount() > 0L, "Expected evictions");
+        assertEquals(value, cache.get("k0"),
+                     "Expected recently used key to be retained");
+        assertNull(cache.get("k1"), "Expected eldest key to be evicted");
+        assertFalse(cache.put(cache.getStamp(), "huge", "x".repeat(4096),
+                              null, null),
+                    "Expected oversized result to be rejected");
+    }
+
+    @Test
+    @Order(70)
+    public void testClear() {
+        SzGrpcReadCache cache = new SzGrpcReadCache(1024 * 1024, 0L);
+        long stamp = cache.getStamp();
+        cache.put(stamp, "a", entity(1L), new long[] { 1L }, null);
+        cache.clear();
+        assertNull(cache.get("a"), "Expected cache to be cleared");
+        assertFalse(cache.put(stamp, "a", entity(1L), new long[] { 1L }, null),
+                    "Expected result read before clearing to be rejected");
+    }
+
+    @Test
+    @Order(80)
+    public void testExtractEntityId() {
+        assertEquals(42L, SzGrpcReadCache.extractEntityId(entity(42L)),
+                     "Unexpected entity ID");
+        assertEquals(7L, SzGrpcReadCache.extractEntityId(
+                         "{\"ENTITY_ID\": 7, \"RECORDS\":[]}"),
+                     "Unexpected entity ID with whitespace");
+        assertEquals(-1L, SzGrpcReadCache.extractEntityId("{}"),
+                     "Expected no entity ID");
+    }
+}
@@ -0,0 +1,167 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import io.grpc.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcServerMetrics}.
+ *
+ * <p>These tests exercise the recording and rendering of metrics in the
+ * Prometheus text exposition format without requiring a running Senzing
+ * installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcServerMetricsTest {
+    // must be set before ANY Armeria class is loaded
+    static {
+        System.setProperty("com.linecorp.armeria.transportType", "nio");
+    }
+
+    private static final String METHOD
+        = "szengine.SzEngine/GetEntityByEntityId";
+
+    @Test
+    @Order(10)
+    public void testCallCounts() {
+        SzGrpcServerMetrics metrics = new SzGrpcServerMetrics();
+        metrics.recordStarted(METHOD);
+        metrics.recordStarted(METHOD);
+        metrics.recordHandled(METHOD, Status.Code.OK, 2_000_000L);
+        metrics.recordHandled(METHOD, Status.Code.NOT_FOUND, 3_000_000L);
+
+        assertEquals(2L, metrics.getStartedCount(METHOD),
+                     "Unexpected started count");
+        assertEquals(1L, metrics.getHandledCount(METHOD, Status.Code.OK),
+                     "Unexpected OK count");
+        assertEquals(1L,
+                     metrics.getHandledCount(METHOD, Status.Code.NOT_FOUND),
+                     "Unexpected NOT_FOUND count");
+        assertEquals(0L, metrics.getStartedCount("other/Method"),
+                     "Unexpected started count for unknown method");
+
+        String text = metrics.scrape();
+        String labels = "grpc_service=\"szengine.SzEngine\","
+            + "grpc_method=\"GetEntityByEntityId\"";
+        assertTrue(text.contains(
+            "grpc_server_started_total{" + labels + "} 2\n"),
+            "Missing started count: " + text);
+        assertTrue(text.contains(
+            "grpc_server_handled_total{" + labels
+                + ",grpc_code=\"NOT_FOUND\"} 1\n"),
+            "Missing handled count: " + text);
+        assertFalse(text.contains("grpc_code=\"INTERNAL\""),
+            "Unexpected zero-valued handled count: " + text);
+    }
+
+    @Test
+    @Order(20)
+    public void testHistogramBuckets() {
+        SzGrpcServerMetrics metrics = new SzGrpcServerMetrics();
+        metrics.recordHandled(METHOD, Status.Code.OK, 500_000L);
+        metrics.recordHandled(METHOD, Status.Code.OK, 20_000_000L);
+        metrics.recordHandled(METHOD, Status.Code.OK, 120_000_000_000L);
+
+        String text = metrics.scrape();
+        assertTrue(text.contains("le=\"0.001\"} 1\n"),
+                   "Unexpected 1ms bucket: " + text);
+        assertTrue(text.contains("le=\"0.025\"} 2\n"),
+                   "Unexpected 25ms bucket: " + text);
+        assertTrue(text.contains("le=\"60.0\"} 2\n"),
+                   "Unexpected 60s bucket: " + text);
+        assertTrue(text.contains("le=\"+Inf\"} 3\n"),
+                   "Unexpected +Inf bucket: " + text);
+        assertTrue(text.contains("grpc_server_handling_seconds_count{"),
+                   "Missing histogram count: " + text);
+    }
+
+    @Test
+    @Order(30)
+    public void testInfoPublishAndExecutor() {
+        SzGrpcServerMetrics metrics = new SzGrpcServerMetrics();
+        assertFalse(metrics.scrape().contains("sz_grpc_info_publish"),
+                    "Info publish metrics present before any publish");
+
+        metrics.recordInfoPublish(1_000_000L, true);
+        metrics.recordInfoPublish(1_000_000L, false);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        try {
+            metrics.setBlockingExecutor(executor);
+            String text = metrics.scrape();
+            assertTrue(text.contains("sz_grpc_info_publish_failures_total 1\n"),
+                       "Unexpected publish failure count: " + text);
+            assertTrue(text.contains("sz_grpc_info_publish_seconds_count 2\n"),
+                       "Unexpected publish count: " + text);
+            assertTrue(text.contains(
+                "sz_grpc_blocking_executor_queue_depth 0\n"),
+                "Missing executor queue depth: " + text);
+            assertTrue(text.contains(
+                "# TYPE sz_grpc_blocking_executor_active_threads gauge\n"),
+                "Missing executor active threads: " + text);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(35)
+    public void testEngineStats() {
+        SzGrpcServerMetrics metrics = new SzGrpcServerMetrics();
+        assertFalse(metrics.scrape().contains("sz_engine_stat"),
+                    "Engine stats present before any update");
+
+        Map<String, Double> stats = metrics.updateEngineStats(
+            "{\"workload\":{\"apiVersion\":\"4.0.0\",\"loadedRecords\":12,"
+            + "\"lockWaits\":{\"refreshLocks\":{\"count\":3,"
+            + "\"maxMS\":1.5}},\"threadState\":[{\"active\":4}]}}");
+
+        assertEquals(12.0, stats.get("workload.loadedRecords"),
+                     "Unexpected loaded records stat");
+        assertEquals(3.0, stats.get("workload.lockWaits.refreshLocks.count"),
+                     "Unexpected lock wait count stat");
+        assertEquals(4.0, stats.get("workload.threadState.0.active"),
+                     "Unexpected array element stat");
+        assertFalse(stats.containsKey("workload.apiVersion"),
+                    "Non-numeric value should not be a stat");
+
+        String text = metrics.scrape();
+        assertTrue(text.contains(
+            "sz_engine_stat{stat=\"workload.lockWaits.refreshLocks.maxMS\"} "
+                + "1.5\n"),
+            "Missing engine stat gauge: " + text);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> metrics.updateEngineStats("not json"),
+                     "Expected failure for invalid stats JSON");
+    }
+
+    @Test
+    @Order(40)
+    public void testEscape() {
+        assertEquals("plain", SzGrpcServerMetrics.escape("plain"),
+                     "Plain value should not change");
+        assertEquals("a\\\"b\\\\c\\nd",
+                     SzGrpcServerMetrics.escape("a\"b\\c\nd"),
+                     "Special characters not escaped");
+        assertEquals("", SzGrpcServerMetrics.escape(null),
+                     "Null should escape to empty string");
+    }
+}
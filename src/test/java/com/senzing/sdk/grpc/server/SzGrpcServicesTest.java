@@ -2,6 +2,7 @@ package com.senzing.sdk.grpc.server;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -34,6 +35,7 @@ import com.senzing.sdk.SzRetryTimeoutExceededException;
 import com.senzing.sdk.SzRetryableException;
 import com.senzing.sdk.SzUnknownDataSourceException;
 
+import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 
@@ -66,6 +68,19 @@ public class SzGrpcServicesTest {
      * @return A proxy {@link SzEnvironment}.
      */
     private static SzEnvironment createStubEnvironment() {
+        return createStubEnvironment(false);
+    }
+
+    /**
+     * Creates a minimal {@link SzEnvironment} proxy that returns
+     * stub implementations for all SDK interfaces, optionally with an
+     * engine whose {@link SzEngine#primeEngine()} fails.
+     *
+     * @param failPriming <code>true</code> if priming the engine should
+     *                    fail, otherwise <code>false</code>.
+     * @return A proxy {@link SzEnvironment}.
+     */
+    private static SzEnvironment createStubEnvironment(boolean failPriming) {
         InvocationHandler noOpHandler = (proxy, method, args) -> {
             Class<?> returnType = method.getReturnType();
             if (returnType == boolean.class) return false;
@@ -73,6 +88,12 @@ public class SzGrpcServicesTest {
             if (returnType == int.class)     return 0;
             return null;
         };
+        InvocationHandler engineHandler = (proxy, method, args) -> {
+            if (failPriming && method.getName().equals("primeEngine")) {
+                throw new SzException("Priming failed");
+            }
+            return noOpHandler.invoke(proxy, method, args);
+        };
 
         ClassLoader cl = SzGrpcServicesTest.class.getClassLoader();
 
@@ -80,7 +101,7 @@ public class SzGrpcServicesTest {
             cl, new Class<?>[]{ SzProduct.class }, noOpHandler);
 
         SzEngine engine = (SzEngine) Proxy.newProxyInstance(
-            cl, new Class<?>[]{ SzEngine.class }, noOpHandler);
+            cl, new Class<?>[]{ SzEngine.class }, engineHandler);
 
         SzConfig config = (SzConfig) Proxy.newProxyInstance(
             cl, new Class<?>[]{ SzConfig.class }, noOpHandler);
@@ -382,6 +403,86 @@ public class SzGrpcServicesTest {
                      + "INTERNAL");
     }
 
+    @Test
+    @Order(35)
+    public void testInferStatusSubclass() {
+        SzNotFoundException subclass = new SzNotFoundException(0, "test") {
+            private static final long serialVersionUID = 1L;
+        };
+        assertEquals(Status.NOT_FOUND.getCode(),
+                     SzGrpcServices.inferStatus(subclass).getCode(),
+                     "Subclass of SzNotFoundException should map to "
+                     + "NOT_FOUND");
+        assertEquals(Status.NOT_FOUND.getCode(),
+                     SzGrpcServices.inferStatus(subclass).getCode(),
+                     "Cached mapping should be consistent");
+    }
+
+    @Test
+    @Order(36)
+    public void testToStatusRuntimeExceptionCompact() {
+        SzNotFoundException cause
+            = new SzNotFoundException(33, "entity not found");
+        StatusRuntimeException sre
+            = SzGrpcServices.toStatusRuntimeException(cause);
+
+        Metadata trailers = sre.getTrailers();
+        assertNotNull(trailers, "Trailers should be present");
+        assertEquals("33", trailers.get(ERROR_CODE_TRAILER_KEY),
+                     "Unexpected error code trailer");
+        assertEquals("entity not found",
+                     new String(trailers.get(ERROR_MESSAGE_TRAILER_KEY),
+                                StandardCharsets.UTF_8),
+                     "Unexpected error message trailer");
+
+        JsonObject error = parseJsonDescription(
+            sre.getStatus().getDescription()).getJsonObject(ERROR_FIELD_KEY);
+        assertFalse(error.containsKey(STACK_TRACE_FIELD_KEY),
+                    "Compact errors should have no stackTrace field");
+
+        SzException sze = createSzException(sre.getStatus(), sre);
+        assertEquals(33, sze.getErrorCode(), "Unexpected error code");
+        assertEquals("entity not found", sze.getMessage(),
+                     "Unexpected error message");
+    }
+
+    @Test
+    @Order(37)
+    public void testToStatusRuntimeExceptionStackTraces() {
+        StatusRuntimeException sre
+            = SzGrpcServices.toStatusRuntimeException(
+                new SzNotFoundException(33, "entity not found"), true);
+
+        Metadata trailers = sre.getTrailers();
+        assertTrue(trailers == null
+                   || trailers.get(ERROR_CODE_TRAILER_KEY) == null,
+                   "Error code trailer should be absent");
+        JsonObject error = parseJsonDescription(
+            sre.getStatus().getDescription())
+                .getJsonObject(ERROR_FIELD_KEY);
+        assertTrue(error.containsKey(STACK_TRACE_FIELD_KEY),
+                   "stackTrace field should be present");
+    }
+
+    @Test
+    @Order(38)
+    public void testErrorStackTracesPerInstance() {
+        SzGrpcServices services1 = new SzGrpcServices(createStubEnvironment());
+        SzGrpcServices services2 = new SzGrpcServices(createStubEnvironment());
+        try {
+            assertFalse(services1.isErrorStackTraces(),
+                        "Error stack traces should be disabled by default");
+            services1.setErrorStackTraces(true);
+            assertTrue(services1.isErrorStackTraces(),
+                       "Error stack traces should be enabled");
+            assertFalse(services2.isErrorStackTraces(),
+                        "Setting should not affect other instances");
+        } finally {
+            services1.destroy();
+            services2.destroy();
+        }
+    }
+
     // ---------------------------------------------------------------
     // Lifecycle tests
     // ---------------------------------------------------------------
@@ -443,27 +544,29 @@ public class SzGrpcServicesTest {
 
     @Test
     @Order(45)
-    public void testGetEnvironmentReturnsProxy() {
+    public void testGetEnvironmentReturnsRestricted() {
         SzEnvironment env = createStubEnvironment();
         SzGrpcServices services = new SzGrpcServices(env);
-        SzEnvironment proxy = services.getEnvironment();
-        assertNotNull(proxy,
+        SzEnvironment restricted = services.getEnvironment();
+        assertNotNull(restricted,
                       "getEnvironment() should return non-null");
-        assertNotSame(env, proxy,
-                      "Returned environment should be a proxy, "
+        assertNotSame(env, restricted,
+                      "Returned environment should be restricted, "
                       + "not the original");
+        assertTrue(restricted instanceof RestrictedEnvironment,
+                   "Returned environment should be a RestrictedEnvironment");
         services.destroy();
     }
 
     @Test
     @Order(46)
-    public void testProxyEnvironmentPreventsDestroy() {
+    public void testRestrictedEnvironmentPreventsDestroy() {
         SzEnvironment env = createStubEnvironment();
         SzGrpcServices services = new SzGrpcServices(env);
-        SzEnvironment proxy = services.getEnvironment();
+        SzEnvironment restricted = services.getEnvironment();
         assertThrows(UnsupportedOperationException.class,
-                     () -> proxy.destroy(),
-                     "Calling destroy() on proxy environment "
+                     () -> restricted.destroy(),
+                     "Calling destroy() on restricted environment "
                      + "should throw");
         services.destroy();
     }
@@ -717,6 +820,83 @@ public class SzGrpcServicesTest {
                      + "correctly");
     }
 
+    @Test
+    @Order(70)
+    public void testParseInsertRate() {
+        assertEquals(2500.0,
+                     SzGrpcServices.parseInsertRate(
+                         "{\"numRecordsInserted\":7500,"
+                         + "\"insertTime\":3000}"),
+                     0.0001,
+                     "Unexpected insert rate");
+        assertEquals(0.0,
+                     SzGrpcServices.parseInsertRate(
+                         "{\"numRecordsInserted\":0,\"insertTime\":0}"),
+                     "Zero insert time should yield a zero rate");
+        assertThrows(IllegalArgumentException.class,
+                     () -> SzGrpcServices.parseInsertRate(
+                         "{\"insertTime\":3000}"),
+                     "Expected failure for missing record count");
+    }
+
+    // ---------------------------------------------------------------
+    // engine priming tests
+    // ---------------------------------------------------------------
+
+    @Test
+    @Order(80)
+    public void testReadyAfterPrimingSucceeds() {
+        SzGrpcServices services
+            = new SzGrpcServices(createStubEnvironment(false));
+        try {
+            assertTrue(services.primeEngine(), "Priming should succeed");
+            assertTrue(services.isEnginePrimed(), "Engine should be primed");
+            assertFalse(services.isEnginePrimingFailed(),
+                        "Priming should not be marked failed");
+            assertFalse(services.isReady(),
+                        "Should not be ready before start()");
+            services.start();
+            assertTrue(services.isReady(),
+                       "Should be ready once started with a primed engine");
+        } finally {
+            services.destroy();
+        }
+        assertFalse(services.isReady(), "Should not be ready once destroyed");
+    }
+
+    @Test
+    @Order(81)
+    public void testNotReadyAfterPrimingFails() {
+        SzGrpcServices services
+            = new SzGrpcServices(createStubEnvironment(true));
+        try {
+            assertFalse(services.primeEngine(), "Priming should fail");
+            assertFalse(services.isEnginePrimed(),
+                        "Engine should not be primed");
+            assertTrue(services.isEnginePrimingFailed(),
+                       "Priming should be marked failed");
+            services.start();
+            assertFalse(services.isReady(),
+                        "Should not be ready when priming failed");
+        } finally {
+            services.destroy();
+        }
+    }
+
+    @Test
+    @Order(82)
+    public void testReadyWithoutPriming() {
+        SzGrpcServices services
+            = new SzGrpcServices(createStubEnvironment(true));
+        try {
+            services.start();
+            assertTrue(services.isReady(),
+                       "Skipping priming should not prevent readiness");
+        } finally {
+            services.destroy();
+        }
+    }
+
     // ---------------------------------------------------------------
     // Helper methods
     // ---------------------------------------------------------------
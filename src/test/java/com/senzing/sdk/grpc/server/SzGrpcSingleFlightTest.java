@@ -0,0 +1,148 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcSingleFlight}.
+ *
+ * <p>These tests exercise coalescing, invalidation and failure propagation
+ * without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcSingleFlightTest {
+    /**
+     * Starts a leader for the specified key on another thread whose
+     * operation blocks until the returned release latch is counted down.
+     */
+    private CountDownLatch startLeader(SzGrpcSingleFlight   singleFlight,
+                                       String               key,
+                                       String               result,
+                                       AtomicInteger        executions)
+        throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread thread = new Thread(() -> singleFlight.execute(key, () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            release.await();
+            return result;
+        }));
+        thread.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS),
+                   "Leader did not start");
+        return release;
+    }
+
+    @Test
+    @Order(10)
+    public void testCoalesce() throws Exception {
+        SzGrpcSingleFlight singleFlight = new SzGrpcSingleFlight();
+        AtomicInteger executions = new AtomicInteger(0);
+        CountDownLatch release
+            = this.startLeader(singleFlight, "a", "result", executions);
+
+        CompletableFuture<String> follower = singleFlight.execute("a", () -> {
+            executions.incrementAndGet();
+            return "other";
+        });
+        assertFalse(follower.isDone(), "Follower should await the leader");
+        assertEquals(1, singleFlight.getInFlightCount(),
+                     "Unexpected in-flight count");
+
+        release.countDown();
+        assertEquals("result", follower.get(10, TimeUnit.SECONDS),
+                     "Follower should receive the leader's result");
+        assertEquals(1, executions.get(), "Operation executed more than once");
+        assertEquals(1L, singleFlight.getCoalescedCount(),
+                     "Unexpected coalesced count");
+        assertEquals(0, singleFlight.getInFlightCount(),
+                     "Flight was not removed");
+
+        // a subsequent call executes anew
+        assertEquals("again", singleFlight.execute("a", () -> "again").get(),
+                     "Expected a new execution once complete");
+    }
+
+    @Test
+    @Order(20)
+    public void testDistinctKeys() throws Exception {
+        SzGrpcSingleFlight singleFlight = new SzGrpcSingleFlight();
+        AtomicInteger executions = new AtomicInteger(0);
+        CountDownLatch release
+            = this.startLeader(singleFlight, "a", "result", executions);
+        try {
+            assertEquals("b", singleFlight.execute("b", () -> "b").get(),
+                         "Different keys should not be coalesced");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testInvalidate() throws Exception {
+        SzGrpcSingleFlight singleFlight = new SzGrpcSingleFlight();
+        AtomicInteger executions = new AtomicInteger(0);
+        CountDownLatch release
+            = this.startLeader(singleFlight, "a", "stale", executions);
+        try {
+            singleFlight.invalidate();
+            assertEquals("fresh",
+                         singleFlight.execute("a", () -> "fresh").get(),
+                         "Reads after a write should not join earlier reads");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @Order(40)
+    public void testFailure() {
+        SzGrpcSingleFlight singleFlight = new SzGrpcSingleFlight();
+        IllegalStateException failure = new IllegalStateException("boom");
+        CompletableFuture<String> future = singleFlight.execute("a", () -> {
+            throw failure;
+        });
+        ExecutionException e = assertThrows(
+            ExecutionException.class, () -> future.get(),
+            "Expected the failure to propagate");
+        assertSame(failure, e.getCause(), "Unexpected failure");
+        assertSame(failure, SzGrpcSingleFlight.unwrap(failure),
+                   "Unwrapping an unwrapped failure should be a no-op");
+    }
+
+    @Test
+    @Order(50)
+    public void testKeyUnambiguous() {
+        assertNotEquals(
+            SzGrpcSingleFlight.key("getRecord", "A:B", "C", 0L),
+            SzGrpcSingleFlight.key("getRecord", "A", "B:C", 0L),
+            "Arguments containing the separator should not collide");
+        assertNotEquals(
+            SzGrpcSingleFlight.key("getRecord", "A", "B", 0L),
+            SzGrpcSingleFlight.key("getEntityByRecord", "A", "B", 0L),
+            "Different operations should not collide");
+        assertEquals(
+            SzGrpcSingleFlight.key("getEntity", 1L, 2L),
+            SzGrpcSingleFlight.key("getEntity", 1L, 2L),
+            "Identical operations should produce the same key");
+    }
+}
@@ -0,0 +1,63 @@
+package com.senzing.sdk.grpc.server;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzGrpcTransport}.
+ *
+ * <p>These tests exercise transport parsing and availability checks
+ * without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzGrpcTransportTest {
+    @Test
+    @Order(10)
+    public void testParse() {
+        assertEquals(SzGrpcTransport.NIO, SzGrpcTransport.parse(" nio "),
+                     "Unexpected transport for nio");
+        assertEquals(SzGrpcTransport.EPOLL, SzGrpcTransport.parse("EPOLL"),
+                     "Unexpected transport for epoll");
+        assertEquals(SzGrpcTransport.IO_URING,
+                     SzGrpcTransport.parse("io-uring"),
+                     "Unexpected transport for io-uring");
+        assertThrows(IllegalArgumentException.class,
+                     () -> SzGrpcTransport.parse("kqueue"));
+    }
+
+    @Test
+    @Order(20)
+    public void testArmeriaName() {
+        for (SzGrpcTransport transport : SzGrpcTransport.values()) {
+            assertEquals(transport,
+                         SzGrpcTransport.parse(transport.getArmeriaName()),
+                         "Armeria name does not round-trip: " + transport);
+        }
+        assertEquals("io_uring", SzGrpcTransport.IO_URING.getArmeriaName(),
+                     "Unexpected Armeria name for io_uring");
+    }
+
+    @Test
+    @Order(30)
+    public void testAvailability() {
+        assertTrue(SzGrpcTransport.NIO.isAvailable(),
+                   "Expected NIO to always be available");
+        assertNull(SzGrpcTransport.NIO.getUnavailabilityCause(),
+                   "Unexpected unavailability cause for NIO");
+        for (SzGrpcTransport transport : SzGrpcTransport.values()) {
+            assertEquals(transport.isAvailable(),
+                         transport.getUnavailabilityCause() == null,
+                         "Inconsistent availability: " + transport);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.senzing.sdk.grpc.server.SzInfoMessagePublisher.OverflowPolicy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SzInfoMessagePublisher}.
+ *
+ * <p>These tests exercise the buffered delivery and overflow policies
+ * without requiring a running Senzing installation.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class SzInfoMessagePublisherTest {
+    @Test
+    @Order(10)
+    public void testDeliveryInOrder() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        SzInfoMessagePublisher publisher = new SzInfoMessagePublisher(
+            received::add, 16, 4, OverflowPolicy.BLOCK);
+        for (int index = 0; index < 100; index++) {
+            publisher.accept("message-" + index);
+        }
+        publisher.close();
+
+        assertEquals(100, received.size(), "Unexpected delivered count");
+        for (int index = 0; index < 100; index++) {
+            assertEquals("message-" + index, received.get(index),
+                         "Message delivered out of order");
+        }
+        assertEquals(100L, publisher.getDeliveredCount(),
+                     "Unexpected delivered counter");
+        assertEquals(0, publisher.getQueueDepth(),
+                     "Buffer not empty after close");
+    }
+
+    @Test
+    @Order(20)
+    public void testOverflowPolicies() throws Exception {
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            if (policy == OverflowPolicy.BLOCK) {
+                continue;
+            }
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch delivering = new CountDownLatch(1);
+            List<String> received = new CopyOnWriteArrayList<>();
+            Consumer<String> target = (message) -> {
+                if (Thread.currentThread().getName().equals(
+                        "sz-info-publisher"))
+                {
+                    delivering.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignore) {
+                        // do nothing
+                    }
+                }
+                received.add(message);
+            };
+            SzInfoMessagePublisher publisher
+                = new SzInfoMessagePublisher(target, 2, 1, policy);
+
+            // park the drainer on the first message, then fill the buffer
+            publisher.accept("first");
+            assertTrue(delivering.await(10, TimeUnit.SECONDS),
+                       "Drainer did not start delivering");
+            publisher.accept("second");
+            publisher.accept("third");
+            publisher.accept("overflow");
+
+            switch (policy) {
+                case CALLER_RUNS:
+                    assertEquals(List.of("overflow"), received,
+                                 "Overflow not published by caller");
+                    assertEquals(1L, publisher.getCallerRunsCount(),
+                                 "Unexpected caller-runs count");
+                    break;
+                case DROP_NEWEST:
+                case DROP_OLDEST:
+                    assertEquals(1L, publisher.getDroppedCount(),
+                                 "Unexpected dropped count for " + policy);
+                    break;
+                default:
+                    fail("Unexpected policy: " + policy);
+            }
+
+            release.countDown();
+            publisher.close();
+
+            if (policy == OverflowPolicy.DROP_NEWEST) {
+                assertFalse(received.contains("overflow"),
+                            "Newest message was not dropped");
+            } else if (policy == OverflowPolicy.DROP_OLDEST) {
+                assertFalse(received.contains("second"),
+                            "Oldest message was not dropped");
+                assertTrue(received.contains("overflow"),
+                           "Newest message was dropped");
+            }
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testDeliveryFailureAndClosed() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        SzInfoMessagePublisher publisher = new SzInfoMessagePublisher(
+            (message) -> {
+                if (message.equals("bad")) {
+                    throw new IllegalStateException("Simulated failure");
+                }
+                received.add(message);
+            }, 8, 8, null);
+        assertEquals(OverflowPolicy.BLOCK, publisher.getOverflowPolicy(),
+                     "Unexpected default overflow policy");
+
+        publisher.accept("bad");
+        publisher.accept("good");
+        publisher.close();
+        assertEquals(1L, publisher.getFailedCount(),
+                     "Unexpected failed count");
+        assertEquals(List.of("good"), received,
+                     "Failure prevented delivery of later messages");
+
+        publisher.accept("late");
+        assertEquals(List.of("good", "late"), received,
+                     "Message after close not published by caller");
+    }
+
+    @Test
+    @Order(40)
+    public void testParseOverflowPolicy() {
+        assertEquals(OverflowPolicy.DROP_OLDEST,
+                     OverflowPolicy.parse("drop-oldest"),
+                     "Dashed lower-case policy not parsed");
+        assertEquals(OverflowPolicy.CALLER_RUNS,
+                     OverflowPolicy.parse(" CALLER_RUNS "),
+                     "Policy with whitespace not parsed");
+        assertThrows(IllegalArgumentException.class,
+                     () -> OverflowPolicy.parse("sometimes"),
+                     "Expected failure for unrecognized policy");
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SzInfoMessagePublisher(
+                         (message) -> { }, 0, 1, null),
+                     "Expected failure for zero capacity");
+    }
+}
@@ -0,0 +1,134 @@
+package com.senzing.sdk.grpc.server;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link VirtualThreadTaskExecutor}.
+ *
+ * <p>These tests exercise the running of each task on its own thread
+ * without requiring a running Senzing installation.  Platform threads named
+ * by the test stand in for virtual threads so the tests run on any JVM.</p>
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.SAME_THREAD)
+@TestMethodOrder(OrderAnnotation.class)
+public class VirtualThreadTaskExecutorTest {
+    /**
+     * The name given to each task thread.
+     */
+    private static final String TASK_THREAD_NAME = "test-task";
+
+    /**
+     * Creates a {@link VirtualThreadTaskExecutor} whose task threads are
+     * daemon platform threads named {@link #TASK_THREAD_NAME}.
+     *
+     * @return The {@link VirtualThreadTaskExecutor}.
+     */
+    private VirtualThreadTaskExecutor createExecutor() {
+        ThreadFactory taskFactory = runnable -> {
+            Thread thread = new Thread(runnable, TASK_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadFactory schedulerFactory = runnable -> {
+            Thread thread = new Thread(runnable, "test-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new VirtualThreadTaskExecutor(taskFactory, schedulerFactory);
+    }
+
+    @Test
+    @Order(10)
+    public void testThreadPerTask() throws Exception {
+        VirtualThreadTaskExecutor executor = this.createExecutor();
+        try {
+            int taskCount = 20;
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            CountDownLatch started = new CountDownLatch(taskCount);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int index = 0; index < taskCount; index++) {
+                executor.execute(() -> {
+                    threads.add(Thread.currentThread());
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            // every task runs at once since none waits for a pooled thread
+            assertTrue(started.await(10L, TimeUnit.SECONDS),
+                       "Not every task was started");
+            assertEquals(taskCount, threads.size(),
+                         "Expected a distinct thread per task");
+            assertEquals(taskCount, executor.getActiveCount(),
+                         "Unexpected active count");
+            release.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+            while (executor.getCompletedTaskCount() < taskCount
+                   && System.nanoTime() < deadline)
+            {
+                Thread.sleep(10L);
+            }
+            assertEquals(taskCount, executor.getCompletedTaskCount(),
+                         "Unexpected completed task count");
+            assertEquals(0, executor.getActiveCount(),
+                         "Unexpected active count");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(20)
+    public void testSubmitAndSchedule() throws Exception {
+        VirtualThreadTaskExecutor executor = this.createExecutor();
+        try {
+            Future<String> submitted = executor.submit(
+                () -> Thread.currentThread().getName());
+            assertEquals(TASK_THREAD_NAME,
+                         submitted.get(10L, TimeUnit.SECONDS),
+                         "Submitted task did not run on a task thread");
+
+            ScheduledFuture<String> scheduled = executor.schedule(
+                () -> Thread.currentThread().getName(),
+                10L, TimeUnit.MILLISECONDS);
+            assertEquals(TASK_THREAD_NAME,
+                         scheduled.get(10L, TimeUnit.SECONDS),
+                         "Scheduled task did not run on a task thread");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(30)
+    public void testRejectedAfterShutdown() {
+        VirtualThreadTaskExecutor executor = this.createExecutor();
+        executor.shutdown();
+        assertThrows(RejectedExecutionException.class,
+                     () -> executor.execute(() -> { }));
+    }
+}